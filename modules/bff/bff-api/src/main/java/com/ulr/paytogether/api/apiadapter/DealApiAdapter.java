@@ -7,7 +7,9 @@ import com.ulr.paytogether.core.domaine.service.DealService;
 import com.ulr.paytogether.core.domaine.service.PaiementService;
 import com.ulr.paytogether.core.enumeration.StatutDeal;
 import com.ulr.paytogether.core.enumeration.StatutImage;
+import com.ulr.paytogether.core.modele.DealCarteModele;
 import com.ulr.paytogether.core.modele.DealModele;
+import com.ulr.paytogether.core.modele.FiltreDealModele;
 import com.ulr.paytogether.core.modele.PageModele;
 import com.ulr.paytogether.core.modele.PaiementModele;
 import lombok.RequiredArgsConstructor;
@@ -66,6 +68,52 @@ public class DealApiAdapter {
                 .build();
     }
 
+    /**
+     * Page de deals par curseur (défilement infini) : curseurSuivant à renvoyer pour la page suivante
+     */
+    public PageResponse<DealResponseDto> lireParCurseur(FiltreDealModele filtre, String curseur, int size, boolean avecTotal) {
+        PageModele<DealModele> pageModele = dealService.lireParCurseur(filtre, curseur, size, avecTotal);
+
+        List<DealResponseDto> content = pageModele.getContent().stream()
+                .map(dealMapper::versDTO)
+                .toList();
+
+        return PageResponse.<DealResponseDto>builder()
+                .content(content)
+                .size(pageModele.getSize())
+                .totalElements(pageModele.getTotalElements())
+                .totalPages(pageModele.getTotalPages())
+                .first(pageModele.isFirst())
+                .last(pageModele.isLast())
+                .hasNext(pageModele.getCurseurSuivant() != null)
+                .hasPrevious(!pageModele.isFirst())
+                .curseurSuivant(pageModele.getCurseurSuivant())
+                .build();
+    }
+
+    /**
+     * Page de cartes de deals par curseur (vue liste allégée)
+     */
+    public PageResponse<DealCarteResponseDto> lireCartesParCurseur(FiltreDealModele filtre, String curseur, int size, boolean avecTotal) {
+        PageModele<DealCarteModele> pageModele = dealService.lireCartesParCurseur(filtre, curseur, size, avecTotal);
+
+        List<DealCarteResponseDto> content = pageModele.getContent().stream()
+                .map(dealMapper::versCarteDTO)
+                .toList();
+
+        return PageResponse.<DealCarteResponseDto>builder()
+                .content(content)
+                .size(pageModele.getSize())
+                .totalElements(pageModele.getTotalElements())
+                .totalPages(pageModele.getTotalPages())
+                .first(pageModele.isFirst())
+                .last(pageModele.isLast())
+                .hasNext(pageModele.getCurseurSuivant() != null)
+                .hasPrevious(!pageModele.isFirst())
+                .curseurSuivant(pageModele.getCurseurSuivant())
+                .build();
+    }
+
     public List<DealResponseDto> lireTousByStatut(StatutDeal statut) {
         var deals = dealService.lireParStatut(statut);
         return deals.stream()
@@ -0,0 +1,38 @@
+package com.ulr.paytogether.api.dto;
+
+import com.ulr.paytogether.core.enumeration.StatutDeal;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Carte d'un deal pour les listes (défilement infini) : version allégée de DealResponseDto,
+ * sans description, points forts ni images secondaires.
+ * imagePrincipaleCle : clé de l'objet dans le stockage, pas une URL ;
+ * URL de lecture de l'image principale : GET /api/deals/{uuid}/images/{imagePrincipaleUuid}/url
+ */
+@Builder
+public record DealCarteResponseDto(
+        UUID uuid,
+        String titre,
+        BigDecimal prixPart,
+        BigDecimal prixPartNonReel,
+        Integer nbParticipants,
+        LocalDateTime dateFin,
+        StatutDeal statut,
+        String ville,
+        String pays,
+        Boolean favoris,
+        LocalDateTime dateCreation,
+        UUID createurUuid,
+        UUID categorieUuid,
+        String categorieNom,
+        UUID imagePrincipaleUuid,
+        String imagePrincipaleCle,
+        Double moyenneCommentaires,
+        Long nombreParticipantsReel,
+        Long nombrePartsAchetees
+) {
+}
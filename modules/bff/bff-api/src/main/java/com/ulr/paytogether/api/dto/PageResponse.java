@@ -33,12 +33,12 @@ public class PageResponse<T> {
     private int size;
 
     /**
-     * Nombre total d'éléments
+     * Nombre total d'éléments (-1 en pagination par curseur sans avecTotal)
      */
     private long totalElements;
 
     /**
-     * Nombre total de pages
+     * Nombre total de pages (-1 en pagination par curseur sans avecTotal)
      */
     private int totalPages;
 
@@ -61,5 +61,10 @@ public class PageResponse<T> {
      * Y a-t-il une page précédente ?
      */
     private boolean hasPrevious;
+
+    /**
+     * Jeton opaque à renvoyer (paramètre curseur) pour obtenir la page suivante, null en fin de liste
+     */
+    private String curseurSuivant;
 }
 
@@ -1,9 +1,11 @@
 package com.ulr.paytogether.api.mapper;
 
+import com.ulr.paytogether.api.dto.DealCarteResponseDto;
 import com.ulr.paytogether.api.dto.DealDTO;
 import com.ulr.paytogether.api.dto.DealResponseDto;
 import com.ulr.paytogether.api.dto.MiseAJourDealDTO;
 import com.ulr.paytogether.core.modele.CategorieModele;
+import com.ulr.paytogether.core.modele.DealCarteModele;
 import com.ulr.paytogether.core.modele.DealModele;
 import com.ulr.paytogether.core.modele.UtilisateurModele;
 import org.springframework.stereotype.Component;
@@ -59,6 +61,37 @@ public class DealMapper {
                 .build();
     }
 
+    /**
+     * Convertit une carte de deal (vue liste) en DTO
+     */
+    public DealCarteResponseDto versCarteDTO(DealCarteModele carte) {
+        if (carte == null) {
+            return null;
+        }
+
+        return DealCarteResponseDto.builder()
+                .uuid(carte.uuid())
+                .titre(carte.titre())
+                .prixPart(carte.prixPart())
+                .prixPartNonReel(carte.prixPartNonReel())
+                .nbParticipants(carte.nbParticipants())
+                .dateFin(carte.dateFin())
+                .statut(carte.statut())
+                .ville(carte.ville())
+                .pays(carte.pays())
+                .favoris(carte.favoris())
+                .dateCreation(carte.dateCreation())
+                .createurUuid(carte.createurUuid())
+                .categorieUuid(carte.categorieUuid())
+                .categorieNom(carte.categorieNom())
+                .imagePrincipaleUuid(carte.imagePrincipaleUuid())
+                .imagePrincipaleCle(carte.imagePrincipaleCle())
+                .moyenneCommentaires(carte.moyenneCommentaires())
+                .nombreParticipantsReel(carte.nombreParticipantsReel())
+                .nombrePartsAchetees(carte.nombrePartsAchetees())
+                .build();
+    }
+
     /**
      * Convertit un DTO en entité Deal (sans les relations)
      */
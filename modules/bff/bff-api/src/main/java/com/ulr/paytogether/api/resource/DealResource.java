@@ -5,6 +5,7 @@ import com.ulr.paytogether.api.apiadapter.DealApiAdapter;
 import com.ulr.paytogether.api.dto.*;
 import com.ulr.paytogether.core.enumeration.StatutDeal;
 import com.ulr.paytogether.core.enumeration.StatutImage;
+import com.ulr.paytogether.core.modele.FiltreDealModele;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -29,6 +30,9 @@ import java.util.UUID;
 @Slf4j
 public class DealResource {
 
+    private static final int TAILLE_PAGE_CURSEUR_DEFAUT = 20;
+    private static final int TAILLE_PAGE_CURSEUR_MAX = 100;
+
     private final DealApiAdapter dealApiAdapter;
     private final CommentaireApiAdapter commentaireApiAdapter;
 
@@ -61,15 +65,29 @@ public class DealResource {
      * Récupérer tous les deals
      * @param page Numéro de la page (commence à 0, par défaut 0)
      * @param size Taille de la page (par défaut 10)
+     * @param curseur Jeton de pagination par curseur (vide = première page, puis curseurSuivant de la réponse)
+     * @param avecTotal Mode curseur : calculer le nombre total de deals sur la première page
+     * @param carte Mode curseur : renvoyer les cartes allégées (DealCarteResponseDto) au lieu des deals complets
      * @return Liste paginée des deals ou liste complète si pas de pagination
      */
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping
     public ResponseEntity<?> lireTous(
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer size) {
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(defaultValue = "false") boolean avecTotal,
+            @RequestParam(defaultValue = "false") boolean carte) {
         log.debug("Récupération de tous les deals (page: {}, size: {})", page, size);
 
+        if (curseur != null) {
+            // Mode curseur (défilement infini) : curseur vide pour la première page
+            if (carte) {
+                return ResponseEntity.ok(dealApiAdapter.lireCartesParCurseur(FiltreDealModele.tous(), curseur, tailleCurseur(size), avecTotal));
+            }
+            return ResponseEntity.ok(dealApiAdapter.lireParCurseur(FiltreDealModele.tous(), curseur, tailleCurseur(size), avecTotal));
+        }
+
         if (page != null && size != null) {
             // Mode paginé
             return ResponseEntity.ok(dealApiAdapter.lireTous(page, size));
@@ -84,15 +102,29 @@ public class DealResource {
      * @param statut Statut du deal
      * @param page Numéro de la page (commence à 0, par défaut 0)
      * @param size Taille de la page (par défaut 10)
+     * @param curseur Jeton de pagination par curseur (vide = première page, puis curseurSuivant de la réponse)
+     * @param avecTotal Mode curseur : calculer le nombre total de deals sur la première page
+     * @param carte Mode curseur : renvoyer les cartes allégées (DealCarteResponseDto) au lieu des deals complets
      * @return Liste paginée des deals ou liste complète si pas de pagination
      */
     @GetMapping("/statut/{statut}")
     public ResponseEntity<?> lireParStatut(
             @PathVariable StatutDeal statut,
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer size) {
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(defaultValue = "false") boolean avecTotal,
+            @RequestParam(defaultValue = "false") boolean carte) {
         log.debug("Récupération des deals avec le statut: {} (page: {}, size: {})", statut, page, size);
 
+        if (curseur != null) {
+            // Mode curseur (défilement infini) : curseur vide pour la première page
+            if (carte) {
+                return ResponseEntity.ok(dealApiAdapter.lireCartesParCurseur(FiltreDealModele.parStatut(statut), curseur, tailleCurseur(size), avecTotal));
+            }
+            return ResponseEntity.ok(dealApiAdapter.lireParCurseur(FiltreDealModele.parStatut(statut), curseur, tailleCurseur(size), avecTotal));
+        }
+
         if (page != null && size != null) {
             // Mode paginé
             return ResponseEntity.ok(dealApiAdapter.lireTousByStatut(statut, page, size));
@@ -107,6 +139,9 @@ public class DealResource {
      * @param createurUuid UUID du créateur
      * @param page Numéro de la page (commence à 0, par défaut 0)
      * @param size Taille de la page (par défaut 10)
+     * @param curseur Jeton de pagination par curseur (vide = première page, puis curseurSuivant de la réponse)
+     * @param avecTotal Mode curseur : calculer le nombre total de deals sur la première page
+     * @param carte Mode curseur : renvoyer les cartes allégées (DealCarteResponseDto) au lieu des deals complets
      * @return Liste paginée des deals ou liste complète si pas de pagination
      */
     @PreAuthorize("hasAnyRole('ADMIN', 'VENDEUR')")
@@ -114,9 +149,20 @@ public class DealResource {
     public ResponseEntity<?> lireParCreateur(
             @PathVariable UUID createurUuid,
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer size) {
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(defaultValue = "false") boolean avecTotal,
+            @RequestParam(defaultValue = "false") boolean carte) {
         log.debug("Récupération des deals du créateur: {} (page: {}, size: {})", createurUuid, page, size);
 
+        if (curseur != null) {
+            // Mode curseur (défilement infini) : curseur vide pour la première page
+            if (carte) {
+                return ResponseEntity.ok(dealApiAdapter.lireCartesParCurseur(FiltreDealModele.parCreateur(createurUuid), curseur, tailleCurseur(size), avecTotal));
+            }
+            return ResponseEntity.ok(dealApiAdapter.lireParCurseur(FiltreDealModele.parCreateur(createurUuid), curseur, tailleCurseur(size), avecTotal));
+        }
+
         if (page != null && size != null) {
             // Mode paginé
             return ResponseEntity.ok(dealApiAdapter.lireTousByCreateurUuid(createurUuid, page, size));
@@ -131,15 +177,29 @@ public class DealResource {
      * @param categorieUuid UUID de la catégorie
      * @param page Numéro de la page (commence à 0, par défaut 0)
      * @param size Taille de la page (par défaut 10)
+     * @param curseur Jeton de pagination par curseur (vide = première page, puis curseurSuivant de la réponse)
+     * @param avecTotal Mode curseur : calculer le nombre total de deals sur la première page
+     * @param carte Mode curseur : renvoyer les cartes allégées (DealCarteResponseDto) au lieu des deals complets
      * @return Liste paginée des deals ou liste complète si pas de pagination
      */
     @GetMapping("/categorie/{categorieUuid}")
     public ResponseEntity<?> lireParCategorie(
             @PathVariable UUID categorieUuid,
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer size) {
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(defaultValue = "false") boolean avecTotal,
+            @RequestParam(defaultValue = "false") boolean carte) {
         log.debug("Récupération des deals de la catégorie: {} (page: {}, size: {})", categorieUuid, page, size);
 
+        if (curseur != null) {
+            // Mode curseur (défilement infini) : curseur vide pour la première page
+            if (carte) {
+                return ResponseEntity.ok(dealApiAdapter.lireCartesParCurseur(FiltreDealModele.parCategorie(categorieUuid), curseur, tailleCurseur(size), avecTotal));
+            }
+            return ResponseEntity.ok(dealApiAdapter.lireParCurseur(FiltreDealModele.parCategorie(categorieUuid), curseur, tailleCurseur(size), avecTotal));
+        }
+
         if (page != null && size != null) {
             // Mode paginé
             return ResponseEntity.ok(dealApiAdapter.lireTousByCategorieUuid(categorieUuid, page, size));
@@ -309,4 +369,11 @@ public class DealResource {
             return ResponseEntity.notFound().build();
         }
     }
+
+    private static int tailleCurseur(Integer size) {
+        if (size == null || size <= 0) {
+            return TAILLE_PAGE_CURSEUR_DEFAUT;
+        }
+        return Math.min(size, TAILLE_PAGE_CURSEUR_MAX);
+    }
 }
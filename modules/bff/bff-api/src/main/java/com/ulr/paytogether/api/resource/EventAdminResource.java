@@ -1,8 +1,13 @@
 package com.ulr.paytogether.api.resource;
 
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventHandlerExecutionJpa;
 import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa;
+import com.ulr.paytogether.bff.eventdispatcher.repository.EventHandlerExecutionRepository;
 import com.ulr.paytogether.bff.eventdispatcher.repository.EventRecordRepository;
 import com.ulr.paytogether.bff.eventdispatcher.consumer.EventConsumerService;
+import com.ulr.paytogether.bff.eventdispatcher.retention.EventRetentionService;
+import com.ulr.paytogether.bff.eventdispatcher.stats.EventStatsDto;
+import com.ulr.paytogether.bff.eventdispatcher.stats.EventStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -13,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -28,8 +34,13 @@ import java.util.UUID;
 @Slf4j
 public class EventAdminResource {
 
+    private static final int TAILLE_MAX_PAGE_AGREGAT = 500;
+
     private final EventRecordRepository eventRecordRepository;
     private final EventConsumerService eventConsumerService;
+    private final EventHandlerExecutionRepository eventHandlerExecutionRepository;
+    private final EventStatsService eventStatsService;
+    private final EventRetentionService eventRetentionService;
 
     /**
      * Lister tous les événements en échec (FAILED)
@@ -66,19 +77,70 @@ public class EventAdminResource {
     }
 
     /**
-     * Statistiques des événements
+     * Événements d'un agrégat (deal, paiement, commande, utilisateur), du plus récent au plus ancien
+     * GET /api/admin/events/by-aggregate?key=paiementUuid:{uuid}&status=FAILED&size=50&cursor=...
+     *
+     * ✅ Colonne aggregate_id indexée : réponse en millisecondes quelle que soit la taille de l'outbox
+     * ✅ Pagination par clé : passer nextCursor de la réponse précédente (absent = dernière page)
+     */
+    @GetMapping("/by-aggregate")
+    public ResponseEntity<Map<String, Object>> listEventsByAggregate(
+            @RequestParam String key,
+            @RequestParam(required = false) EventRecordJpa.EventStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+
+        if (key.indexOf(':') <= 0) {
+            throw new IllegalArgumentException("Clé d'agrégat attendue au format champ:valeur: " + key);
+        }
+        int taille = Math.min(Math.max(size, 1), TAILLE_MAX_PAGE_AGREGAT);
+
+        // Première page : avant la borne la plus haute possible
+        LocalDateTime avantOccurredOn = LocalDateTime.of(9999, 12, 31, 23, 59);
+        UUID avantEventId = new UUID(-1L, -1L);
+        if (cursor != null && !cursor.isBlank()) {
+            int separateur = cursor.lastIndexOf('_');
+            try {
+                avantOccurredOn = LocalDateTime.parse(cursor.substring(0, separateur));
+                avantEventId = UUID.fromString(cursor.substring(separateur + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Curseur invalide: " + cursor);
+            }
+        }
+
+        PageRequest pageRequest = PageRequest.of(0, taille);
+        List<EventRecordJpa> events = status != null
+                ? eventRecordRepository.findByAggregateAndStatusBefore(key, status, avantOccurredOn, avantEventId, pageRequest)
+                : eventRecordRepository.findByAggregateBefore(key, avantOccurredOn, avantEventId, pageRequest);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("aggregateKey", key);
+        response.put("events", events);
+        if (events.size() == taille) {
+            EventRecordJpa dernier = events.get(events.size() - 1);
+            response.put("nextCursor", dernier.getOccurredOn() + "_" + dernier.getEventId());
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Statistiques des événements : totaux par statut, ventilation par type, taux d'échec (1h / 24h / 7j)
      * GET /api/admin/events/stats
+     *
+     * ✅ 2 requêtes agrégées, résultat mis en cache quelques secondes (cache.ttl.event-stats)
      */
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getEventStats() {
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("pending",          eventRecordRepository.countByStatus(EventRecordJpa.EventStatus.PENDING));
-        stats.put("processing",       eventRecordRepository.countByStatus(EventRecordJpa.EventStatus.PROCESSING));
-        stats.put("consumed",         eventRecordRepository.countByStatus(EventRecordJpa.EventStatus.CONSUMED));
-        stats.put("failed",           eventRecordRepository.countByStatus(EventRecordJpa.EventStatus.FAILED));
-        stats.put("permanentlyFailed",eventRecordRepository.countByStatus(EventRecordJpa.EventStatus.PERMANENTLY_FAILED));
-        stats.put("total",            eventRecordRepository.count());
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<EventStatsDto> getEventStats() {
+        return ResponseEntity.ok(eventStatsService.calculerStatistiques());
+    }
+
+    /**
+     * Exécutions par handler d'un événement (statut, tentatives, durée)
+     * GET /api/admin/events/{eventId}/handlers
+     */
+    @GetMapping("/{eventId}/handlers")
+    public ResponseEntity<List<EventHandlerExecutionJpa>> getHandlerExecutions(@PathVariable UUID eventId) {
+        return ResponseEntity.ok(eventHandlerExecutionRepository.findByEventIdOrderByHandlerName(eventId));
     }
 
     /**
@@ -219,17 +281,27 @@ public class EventAdminResource {
     }
 
     /**
-     * Nettoyer les vieux événements CONSUMED
+     * Nettoyer les vieux événements : archive puis supprime les partitions mensuelles expirées
      * DELETE /api/admin/events/cleanup?daysOld=30
+     *
+     * - CONSUMED plus anciens que daysOld jours : archivés (gzip JSON Lines) puis supprimés
+     * - FAILED / PERMANENTLY_FAILED : conservés events.retention.failed-days jours
+     * - PENDING / PROCESSING : jamais supprimés
      */
     @DeleteMapping("/cleanup")
     public ResponseEntity<Map<String, Object>> cleanupOldEvents(
             @RequestParam(defaultValue = "30") int daysOld) {
-        // TODO: Implémenter la logique de nettoyage
-        return ResponseEntity.ok(Map.of(
-                "message", "Fonctionnalité en développement",
-                "daysOld", daysOld
-        ));
+        EventRetentionService.RapportRetention rapport = eventRetentionService.executer(daysOld);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Nettoyage terminé");
+        response.put("daysOld", daysOld);
+        response.put("partitionsCreated", rapport.partitionsCreees());
+        response.put("archivedRows", rapport.lignesArchivees());
+        response.put("partitions", rapport.partitions());
+
+        log.info("✅ Nettoyage des événements de plus de {} jours : {} événements archivés",
+                daysOld, rapport.lignesArchivees());
+        return ResponseEntity.ok(response);
     }
 }
-
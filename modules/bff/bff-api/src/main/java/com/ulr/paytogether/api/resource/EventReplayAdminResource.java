@@ -0,0 +1,84 @@
+package com.ulr.paytogether.api.resource;
+
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventReplayJobJpa;
+import com.ulr.paytogether.bff.eventdispatcher.replay.DemandeRejeu;
+import com.ulr.paytogether.bff.eventdispatcher.replay.EventReplayService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resource pour rejouer des événements de l'outbox sur un handler (backfill, index reconstruit, bug corrigé).
+ * Les statuts des événements ne sont pas modifiés ; le rejeu est suivi dans event_replay_job.
+ *
+ * ⚠️ ENDPOINTS ADMIN UNIQUEMENT
+ */
+@RestController
+@RequestMapping("/api/admin/events/replays")
+@RequiredArgsConstructor
+@Slf4j
+public class EventReplayAdminResource {
+
+    private final EventReplayService eventReplayService;
+
+    /**
+     * Lancer un rejeu
+     * POST /api/admin/events/replays
+     * {"handler": "DealSearchIndexHandler.handleDealUpdated", "from": "2026-01-01T00:00:00", "ratePerSecond": 20}
+     */
+    @PostMapping
+    public ResponseEntity<EventReplayJobJpa> startReplay(@RequestBody DemandeRejeu demande) {
+        log.info("Demande de rejeu sur le handler {}", demande.handler());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(eventReplayService.demarrer(demande));
+    }
+
+    /**
+     * Lister les 50 derniers rejeux
+     * GET /api/admin/events/replays
+     */
+    @GetMapping
+    public ResponseEntity<List<EventReplayJobJpa>> listReplays() {
+        return ResponseEntity.ok(eventReplayService.lister());
+    }
+
+    /**
+     * Avancement d'un rejeu (checkpoint, compteurs, dernière erreur)
+     * GET /api/admin/events/replays/{jobId}
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<EventReplayJobJpa> getReplay(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(eventReplayService.trouver(jobId));
+    }
+
+    /**
+     * Suspendre un rejeu (reprise depuis le checkpoint)
+     * POST /api/admin/events/replays/{jobId}/pause
+     */
+    @PostMapping("/{jobId}/pause")
+    public ResponseEntity<EventReplayJobJpa> pauseReplay(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(eventReplayService.suspendre(jobId));
+    }
+
+    /**
+     * Reprendre un rejeu suspendu, en échec ou interrompu
+     * POST /api/admin/events/replays/{jobId}/resume
+     */
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<EventReplayJobJpa> resumeReplay(@PathVariable UUID jobId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(eventReplayService.reprendre(jobId));
+    }
+
+    /**
+     * Annuler un rejeu
+     * POST /api/admin/events/replays/{jobId}/cancel
+     */
+    @PostMapping("/{jobId}/cancel")
+    public ResponseEntity<EventReplayJobJpa> cancelReplay(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(eventReplayService.annuler(jobId));
+    }
+}
@@ -71,6 +71,10 @@ public class RedisCacheConfig {
     @Value("${cache.ttl.commentaires:180}")
     private long ttlCommentaires;
 
+    // Statistiques admin des événements : quelques secondes (dashboards qui pollent)
+    @Value("${cache.ttl.event-stats:5}")
+    private long ttlEventStats;
+
     // Token admin Keycloak : 23h (token expire en 24h, on garde une marge)
     @Value("${cache.ttl.admin-token:82800}")
     private long ttlAdminToken;
@@ -134,6 +138,7 @@ public class RedisCacheConfig {
         cacheConfigs.put("publicites",   defaultConfig.entryTtl(Duration.ofSeconds(ttlPublicites)));
         cacheConfigs.put("utilisateur",  defaultConfig.entryTtl(Duration.ofSeconds(ttlUtilisateur)));
         cacheConfigs.put("commentaires", defaultConfig.entryTtl(Duration.ofSeconds(ttlCommentaires)));
+        cacheConfigs.put("event-stats",  defaultConfig.entryTtl(Duration.ofSeconds(ttlEventStats)));
         // Token admin Keycloak — 23h pour éviter le re-login à chaque opération admin
         cacheConfigs.put("admin-token",  defaultConfig.entryTtl(Duration.ofSeconds(ttlAdminToken)));
 
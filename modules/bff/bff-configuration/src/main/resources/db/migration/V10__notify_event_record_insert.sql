@@ -0,0 +1,28 @@
+-- =========================================================================
+-- Migration: V10__notify_event_record_insert
+-- Date: 2026-10-17
+-- Description: Trigger NOTIFY sur event_record pour réveiller les consommateurs
+--              d'événements (LISTEN event_record_inserted) sans attendre le poll
+-- =========================================================================
+
+-- Fonction de notification : payload vide → PostgreSQL fusionne les notifications
+-- identiques d'une même transaction (un seul réveil pour un INSERT multi-lignes)
+CREATE OR REPLACE FUNCTION notifier_event_record_insere()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('event_record_inserted', '');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON FUNCTION notifier_event_record_insere() IS 'Émet NOTIFY event_record_inserted après insertion d''événements';
+
+-- Trigger niveau instruction (FOR EACH STATEMENT) : une notification par INSERT, pas par ligne
+DROP TRIGGER IF EXISTS trg_event_record_notify ON event_record;
+
+CREATE TRIGGER trg_event_record_notify
+    AFTER INSERT ON event_record
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION notifier_event_record_insere();
+
+SELECT 'Migration V10 appliquée avec succès' AS message;
@@ -0,0 +1,16 @@
+-- =========================================================================
+-- Migration: V11__index_claim_event_record_pending
+-- Date: 2026-10-17
+-- Description: Index partiel pour le claim par lot des événements PENDING
+--              (UPDATE ... WHERE event_id IN (SELECT ... FOR UPDATE SKIP LOCKED LIMIT n))
+-- =========================================================================
+
+-- Index partiel : ne contient que les lignes PENDING → reste petit même si
+-- event_record grossit, et fournit directement l'ordre occurred_on ASC du claim
+CREATE INDEX IF NOT EXISTS idx_event_record_pending_occurred_on
+ON event_record(occurred_on)
+WHERE status = 'PENDING';
+
+COMMENT ON INDEX idx_event_record_pending_occurred_on IS 'Index partiel pour le claim par lot des événements PENDING (SKIP LOCKED)';
+
+SELECT 'Migration V11 appliquée avec succès' AS message;
@@ -0,0 +1,14 @@
+-- =========================================================================
+-- Migration: V12__ajout_schema_version_event_record
+-- Date: 2026-10-17
+-- Description: Version du schéma du payload de chaque événement persisté
+--              (upcasting des anciens payloads via EventTypeRegistry)
+-- =========================================================================
+
+-- Les événements existants sont tous au format v1
+ALTER TABLE event_record
+ADD COLUMN IF NOT EXISTS schema_version INTEGER NOT NULL DEFAULT 1;
+
+COMMENT ON COLUMN event_record.schema_version IS 'Version du schéma du payload au moment de la publication (@EventTypeInfo.version)';
+
+SELECT 'Migration V12 appliquée avec succès' AS message;
@@ -0,0 +1,27 @@
+-- =========================================================================
+-- Migration: V13__creation_event_handler_execution
+-- Date: 2026-10-17
+-- Description: Suivi d'exécution par handler (statut, tentatives, durée)
+--              → un retraitement ne relance que les handlers pas encore réussis
+-- =========================================================================
+
+-- Pas de clé étrangère vers event_record : les lignes sont purgées avec
+-- les événements (rétention) et ne doivent pas ralentir l'insert de l'outbox
+CREATE TABLE IF NOT EXISTS event_handler_execution (
+    event_id UUID NOT NULL,
+    handler_name VARCHAR(255) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_duration_ms BIGINT,
+    error_message TEXT,
+    last_attempt_at TIMESTAMP,
+    succeeded_at TIMESTAMP,
+    version BIGINT,
+    CONSTRAINT pk_event_handler_execution PRIMARY KEY (event_id, handler_name)
+);
+
+COMMENT ON TABLE event_handler_execution IS 'Exécution de chaque handler @FunctionalHandler par événement (SUCCEEDED = non rejoué au retraitement)';
+COMMENT ON COLUMN event_handler_execution.attempts IS 'Nombre d''exécutions du handler pour cet événement';
+COMMENT ON COLUMN event_handler_execution.last_duration_ms IS 'Durée de la dernière exécution en millisecondes';
+
+SELECT 'Migration V13 appliquée avec succès' AS message;
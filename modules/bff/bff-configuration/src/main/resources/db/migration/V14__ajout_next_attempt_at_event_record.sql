@@ -0,0 +1,27 @@
+-- =========================================================================
+-- Migration: V14__ajout_next_attempt_at_event_record
+-- Date: 2026-10-17
+-- Description: Nouvelles tentatives automatiques avec backoff exponentiel
+--              (next_attempt_at = date à partir de laquelle l'événement est réclamable)
+-- =========================================================================
+
+ALTER TABLE event_record
+ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP;
+
+-- Événements existants : réclamables immédiatement, dans l'ordre d'occurrence
+UPDATE event_record SET next_attempt_at = occurred_on WHERE next_attempt_at IS NULL;
+
+ALTER TABLE event_record ALTER COLUMN next_attempt_at SET DEFAULT LOCALTIMESTAMP;
+ALTER TABLE event_record ALTER COLUMN next_attempt_at SET NOT NULL;
+
+-- Le claim filtre et trie désormais sur next_attempt_at : l'index V11 (occurred_on) n'est plus utilisé
+DROP INDEX IF EXISTS idx_event_record_pending_occurred_on;
+
+CREATE INDEX IF NOT EXISTS idx_event_record_pending_next_attempt
+ON event_record(next_attempt_at)
+WHERE status = 'PENDING';
+
+COMMENT ON COLUMN event_record.next_attempt_at IS 'Date à partir de laquelle l''événement PENDING peut être réclamé (occurred_on, puis backoff après échec)';
+COMMENT ON INDEX idx_event_record_pending_next_attempt IS 'Index partiel pour le claim par lot des événements PENDING arrivés à échéance';
+
+SELECT 'Migration V14 appliquée avec succès' AS message;
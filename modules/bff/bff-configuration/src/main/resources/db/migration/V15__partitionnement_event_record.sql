@@ -0,0 +1,84 @@
+-- =========================================================================
+-- Migration: V15__partitionnement_event_record
+-- Date: 2026-10-17
+-- Description: Partitionnement mensuel de event_record par occurred_on
+--              → la rétention supprime des partitions entières (DROP TABLE)
+--                au lieu de DELETE ligne à ligne (EventRetentionService)
+-- =========================================================================
+
+-- ⚠️ À exécuter dans une transaction, consommateurs arrêtés de préférence :
+--    la table est verrouillée pendant la copie des données
+
+LOCK TABLE event_record IN ACCESS EXCLUSIVE MODE;
+
+ALTER TABLE event_record RENAME TO event_record_legacy;
+
+-- Mêmes colonnes, valeurs par défaut et contraintes CHECK que la table d'origine
+CREATE TABLE event_record (
+    LIKE event_record_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS
+) PARTITION BY RANGE (occurred_on);
+
+-- Création idempotente de la partition mensuelle contenant la date donnée
+-- (appelée aussi par EventPartitionManager pour créer les partitions à venir)
+CREATE OR REPLACE FUNCTION creer_partition_event_record(mois DATE)
+RETURNS TEXT AS $$
+DECLARE
+    debut DATE := date_trunc('month', mois)::date;
+    fin   DATE := (date_trunc('month', mois) + INTERVAL '1 month')::date;
+    nom   TEXT := 'event_record_p' || to_char(debut, 'YYYY_MM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF event_record FOR VALUES FROM (%L) TO (%L)',
+                   nom, debut, fin);
+    RETURN nom;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON FUNCTION creer_partition_event_record(DATE) IS 'Crée (si absente) la partition mensuelle event_record_pYYYY_MM contenant la date donnée';
+
+-- Filet de sécurité : événements hors des partitions mensuelles créées (doit rester vide)
+CREATE TABLE IF NOT EXISTS event_record_default PARTITION OF event_record DEFAULT;
+
+-- Partitions couvrant les données existantes + 3 mois à venir
+DO $$
+DECLARE
+    mois DATE := date_trunc('month', COALESCE((SELECT MIN(occurred_on) FROM event_record_legacy), LOCALTIMESTAMP))::date;
+BEGIN
+    WHILE mois <= (date_trunc('month', LOCALTIMESTAMP) + INTERVAL '3 months')::date LOOP
+        PERFORM creer_partition_event_record(mois);
+        mois := (mois + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO event_record SELECT * FROM event_record_legacy;
+
+-- Supprime aussi les index et le trigger NOTIFY de l'ancienne table (recréés ci-dessous)
+DROP TABLE event_record_legacy;
+
+-- La clé primaire d'une table partitionnée doit contenir la clé de partition
+-- ⚠️ Compromis accepté : event_id seul n'est plus garanti unique par la base (deux lignes de même
+--    event_id et d'occurred_on différents seraient acceptées). event_id est un UUID aléatoire généré
+--    une seule fois par événement (EventDispatcherImpl) et jamais réinséré : le risque est négligeable,
+--    contrairement au coût d'une table d'unicité hors partitionnement
+ALTER TABLE event_record ADD CONSTRAINT event_record_pkey PRIMARY KEY (event_id, occurred_on);
+
+-- Index créés sur la table mère → propagés à chaque partition (existante et future)
+CREATE INDEX IF NOT EXISTS idx_event_record_event_id ON event_record(event_id);
+CREATE INDEX IF NOT EXISTS idx_event_status ON event_record(status);
+CREATE INDEX IF NOT EXISTS idx_event_type ON event_record(event_type);
+CREATE INDEX IF NOT EXISTS idx_source_class ON event_record(source_class);
+CREATE INDEX IF NOT EXISTS idx_occurred_on ON event_record(occurred_on);
+CREATE INDEX IF NOT EXISTS idx_event_retry_count ON event_record(retry_count);
+CREATE INDEX IF NOT EXISTS idx_event_record_pending_next_attempt
+ON event_record(next_attempt_at)
+WHERE status = 'PENDING';
+
+-- Trigger NOTIFY (V10) recréé sur la table partitionnée
+CREATE TRIGGER trg_event_record_notify
+    AFTER INSERT ON event_record
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION notifier_event_record_insere();
+
+COMMENT ON TABLE event_record IS 'Outbox des événements, partitionnée par mois sur occurred_on (event_record_pYYYY_MM)';
+COMMENT ON INDEX idx_event_record_event_id IS 'Recherche par event_id (la clé primaire inclut occurred_on)';
+
+SELECT 'Migration V15 appliquée avec succès' AS message;
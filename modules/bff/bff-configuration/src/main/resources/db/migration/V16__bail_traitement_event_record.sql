@@ -0,0 +1,24 @@
+-- =========================================================================
+-- Migration: V16__bail_traitement_event_record
+-- Date: 2026-10-17
+-- Description: Bail (lease) des événements PROCESSING : propriétaire du claim + échéance
+--              prolongée par heartbeat ; un bail expiré est repris en UN seul UPDATE
+--              (remplace le seuil fixe de 15 minutes sur last_attempt_at)
+-- =========================================================================
+
+ALTER TABLE event_record
+ADD COLUMN IF NOT EXISTS claimed_by VARCHAR(100);
+
+ALTER TABLE event_record
+ADD COLUMN IF NOT EXISTS lease_until TIMESTAMP;
+
+-- Reprise des baux expirés : seuls les événements PROCESSING sont indexés
+CREATE INDEX IF NOT EXISTS idx_event_record_processing_lease
+ON event_record(lease_until)
+WHERE status = 'PROCESSING';
+
+COMMENT ON COLUMN event_record.claimed_by IS 'Consommateur (pod) propriétaire du claim en cours';
+COMMENT ON COLUMN event_record.lease_until IS 'Échéance du bail PROCESSING, prolongée par heartbeat ; expirée = événement repris en PENDING';
+COMMENT ON INDEX idx_event_record_processing_lease IS 'Index partiel pour la reprise groupée des baux expirés';
+
+SELECT 'Migration V16 appliquée avec succès' AS message;
@@ -0,0 +1,37 @@
+-- =========================================================================
+-- Migration: V17__partitionnement_consommateurs_event_record
+-- Date: 2026-10-17
+-- Description: Répartition de l'outbox entre les pods par hachage cohérent
+--              - hash_bucket : bucket (0..127) de la clé d'agrégat, calculé à la publication
+--              - event_consumer_member : pods consommateurs vivants (heartbeat)
+--              Chaque pod ne réclame que les buckets que lui attribue l'anneau de hachage
+-- =========================================================================
+
+ALTER TABLE event_record
+ADD COLUMN IF NOT EXISTS hash_bucket SMALLINT;
+
+-- Événements existants : la clé d'agrégat n'est pas recalculable en SQL → bucket dérivé de l'event_id
+-- (l'ordre par agrégat n'est garanti entre pods que pour les événements publiés après V17)
+UPDATE event_record
+   SET hash_bucket = mod(abs(hashtext(event_id::text)), 128)
+ WHERE hash_bucket IS NULL;
+
+ALTER TABLE event_record ALTER COLUMN hash_bucket SET NOT NULL;
+
+-- Claim par bucket : filtre hash_bucket IN (...) puis tri sur next_attempt_at
+CREATE INDEX IF NOT EXISTS idx_event_record_pending_bucket
+ON event_record(hash_bucket, next_attempt_at)
+WHERE status = 'PENDING';
+
+CREATE TABLE IF NOT EXISTS event_consumer_member (
+    member_id VARCHAR(100) NOT NULL,
+    joined_at TIMESTAMP NOT NULL,
+    heartbeat_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_event_consumer_member PRIMARY KEY (member_id)
+);
+
+COMMENT ON COLUMN event_record.hash_bucket IS 'Bucket de hachage de la clé d''agrégat (0..127), attribué à un pod par hachage cohérent';
+COMMENT ON TABLE event_consumer_member IS 'Pods consommateurs de l''outbox ; heartbeat_at expiré = pod retiré de l''anneau';
+COMMENT ON INDEX idx_event_record_pending_bucket IS 'Index partiel pour le claim des événements PENDING des buckets d''un pod';
+
+SELECT 'Migration V17 appliquée avec succès' AS message;
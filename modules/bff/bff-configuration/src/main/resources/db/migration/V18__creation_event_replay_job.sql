@@ -0,0 +1,37 @@
+-- =========================================================================
+-- Migration: V18__creation_event_replay_job
+-- Date: 2026-10-17
+-- Description: Rejeu (replay / backfill) d'événements sur un handler, déclenché par un admin
+--              - filtre : type du handler, statuts, plage occurred_on, agrégat
+--              - checkpoint (occurred_on, event_id) : reprise là où le rejeu s'est arrêté
+--              Le statut des événements rejoués (event_record) n'est jamais modifié
+-- =========================================================================
+
+CREATE TABLE IF NOT EXISTS event_replay_job (
+    job_id UUID NOT NULL,
+    handler_name VARCHAR(255) NOT NULL,
+    event_statuses VARCHAR(255) NOT NULL,
+    occurred_from TIMESTAMP NOT NULL,
+    occurred_to TIMESTAMP NOT NULL,
+    aggregate_key VARCHAR(255),
+    rate_per_second DOUBLE PRECISION NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    checkpoint_occurred_on TIMESTAMP,
+    checkpoint_event_id UUID,
+    replayed_count BIGINT NOT NULL DEFAULT 0,
+    failed_count BIGINT NOT NULL DEFAULT 0,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+    version BIGINT,
+    CONSTRAINT pk_event_replay_job PRIMARY KEY (job_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_event_replay_job_created_at ON event_replay_job(created_at DESC);
+
+COMMENT ON TABLE event_replay_job IS 'Rejeux d''événements sur un handler (re-projection de l''index, renvoi de notifications, ...)';
+COMMENT ON COLUMN event_replay_job.checkpoint_occurred_on IS 'Dernier événement rejoué (avec checkpoint_event_id) : point de reprise du rejeu';
+COMMENT ON COLUMN event_replay_job.rate_per_second IS 'Débit maximum du rejeu (événements par seconde)';
+
+SELECT 'Migration V18 appliquée avec succès' AS message;
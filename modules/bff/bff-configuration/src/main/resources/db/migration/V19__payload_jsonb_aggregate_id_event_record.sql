@@ -0,0 +1,39 @@
+-- =========================================================================
+-- Migration: V19__payload_jsonb_aggregate_id_event_record
+-- Date: 2026-10-17
+-- Description: Recherche des événements par agrégat (deal, paiement, commande, utilisateur)
+--              - payload : TEXT → JSONB (validé à l'écriture, interrogeable avec ->>)
+--              - aggregate_id : clé d'agrégat "champ:valeur" extraite à la publication
+--                (EventAggregateKeyExtractor), indexée avec (occurred_on, event_id)
+--                → pagination par clé des endpoints admin et des rejeux sans LIKE ni scan complet
+-- =========================================================================
+
+-- ⚠️ Le changement de type réécrit toutes les partitions (verrou ACCESS EXCLUSIVE) :
+--    à exécuter consommateurs arrêtés, de préférence après une rétention
+
+ALTER TABLE event_record
+ALTER COLUMN payload TYPE JSONB USING payload::jsonb;
+
+ALTER TABLE event_record
+ADD COLUMN IF NOT EXISTS aggregate_id VARCHAR(255);
+
+-- Événements existants : même ordre de priorité des champs que EventAggregateKeyExtractor.CHAMPS_AGREGAT
+UPDATE event_record
+   SET aggregate_id = CASE
+           WHEN payload ->> 'paiementUuid' IS NOT NULL THEN 'paiementUuid:' || (payload ->> 'paiementUuid')
+           WHEN payload ->> 'dealUuid' IS NOT NULL THEN 'dealUuid:' || (payload ->> 'dealUuid')
+           WHEN payload ->> 'commandeUuid' IS NOT NULL THEN 'commandeUuid:' || (payload ->> 'commandeUuid')
+           WHEN payload ->> 'utilisateurUuid' IS NOT NULL THEN 'utilisateurUuid:' || (payload ->> 'utilisateurUuid')
+       END
+ WHERE aggregate_id IS NULL;
+
+-- Index créé sur la table mère → propagé à chaque partition (existante et future)
+CREATE INDEX IF NOT EXISTS idx_event_record_aggregate
+ON event_record(aggregate_id, occurred_on, event_id)
+WHERE aggregate_id IS NOT NULL;
+
+COMMENT ON COLUMN event_record.payload IS 'Événement sérialisé (JSON), lu par EventTypeRegistry avec upcasting de version';
+COMMENT ON COLUMN event_record.aggregate_id IS 'Clé d''agrégat champ:valeur (ex : paiementUuid:...), NULL si l''événement n''a pas d''agrégat connu';
+COMMENT ON INDEX idx_event_record_aggregate IS 'Événements d''un agrégat triés par (occurred_on, event_id) : admin et rejeux par agrégat';
+
+SELECT 'Migration V19 appliquée avec succès' AS message;
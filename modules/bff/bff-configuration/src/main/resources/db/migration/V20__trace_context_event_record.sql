@@ -0,0 +1,23 @@
+-- =========================================================================
+-- Migration: V20__trace_context_event_record
+-- Date: 2026-10-17
+-- Description: Propagation du contexte de trace à travers l'outbox
+--              - trace_parent : en-tête W3C traceparent de la requête qui a publié l'événement
+--              - trace_state  : en-tête W3C tracestate (optionnel)
+--              → le span CONSUMER du traitement porte un lien vers la trace de publication
+-- =========================================================================
+
+ALTER TABLE event_record
+ADD COLUMN IF NOT EXISTS trace_parent VARCHAR(55);
+
+ALTER TABLE event_record
+ADD COLUMN IF NOT EXISTS trace_state VARCHAR(512);
+
+COMMENT ON COLUMN event_record.trace_parent IS 'W3C traceparent de la publication (null hors trace)';
+COMMENT ON COLUMN event_record.trace_state IS 'W3C tracestate de la publication';
+
+-- Log de la migration
+DO $$
+BEGIN
+    RAISE NOTICE '✅ Colonnes trace_parent / trace_state ajoutées à la table event_record';
+END $$;
@@ -0,0 +1,21 @@
+-- =========================================================================
+-- Migration: V21__index_statistiques_deal
+-- Date: 2026-10-17
+-- Description: Statistiques des pages de deals en une requête groupée
+--              (DealRepository.calculerStatistiques : moyenne des notes, participants, parts)
+--              Aucun index à créer :
+--              - depuis V22, les statistiques sont lues sur les compteurs dénormalisés du deal
+--                (nb_avis, somme_notes, nb_participants_reels, parts_achetees) → clé primaire de deal
+--              - un index commentaire(deal_uuid) INCLUDE (note) ne serait plus lu par aucune requête
+--                et ne coûterait qu'en écriture (il n'est donc pas créé)
+--              Migration conservée pour ne pas laisser de trou dans la numérotation
+-- =========================================================================
+
+-- Base où l'index a déjà été créé par une version précédente de cette migration
+DROP INDEX IF EXISTS idx_commentaire_deal_note;
+
+-- Log de la migration
+DO $$
+BEGIN
+    RAISE NOTICE '✅ Migration V21 : statistiques des deals servies par les compteurs du deal (aucun index)';
+END $$;
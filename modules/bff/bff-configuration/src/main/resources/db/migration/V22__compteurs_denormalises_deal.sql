@@ -0,0 +1,52 @@
+-- =========================================================================
+-- Migration: V22__compteurs_denormalises_deal
+-- Date: 2026-10-17
+-- Description: Compteurs dénormalisés sur la ligne deal (lecture en O(1))
+--              - parts_achetees        : somme des nombre_de_part de deal_participants
+--              - nb_participants_reels : nombre de lignes deal_participants
+--                (nb_participants existe déjà : capacité maximale du deal)
+--              - nb_avis / somme_notes : nombre de commentaires et somme de leurs notes
+--                (moyenne = somme_notes / nb_avis)
+--              Maintenus par UPDATE relatifs (x = x + :delta) dans la transaction qui modifie
+--              les participations / commentaires ; DealCompteursReconciliationBatch corrige les dérives.
+-- =========================================================================
+
+ALTER TABLE deal
+ADD COLUMN IF NOT EXISTS parts_achetees INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE deal
+ADD COLUMN IF NOT EXISTS nb_participants_reels INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE deal
+ADD COLUMN IF NOT EXISTS nb_avis INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE deal
+ADD COLUMN IF NOT EXISTS somme_notes BIGINT NOT NULL DEFAULT 0;
+
+-- Initialisation à partir des données existantes
+UPDATE deal d
+   SET parts_achetees = p.parts,
+       nb_participants_reels = p.nombre
+  FROM (SELECT deal_uuid, COUNT(*) AS nombre, SUM(nombre_de_part) AS parts
+          FROM deal_participants
+         GROUP BY deal_uuid) p
+ WHERE p.deal_uuid = d.uuid;
+
+UPDATE deal d
+   SET nb_avis = c.nombre,
+       somme_notes = c.somme
+  FROM (SELECT deal_uuid, COUNT(*) AS nombre, SUM(note) AS somme
+          FROM commentaire
+         GROUP BY deal_uuid) c
+ WHERE c.deal_uuid = d.uuid;
+
+COMMENT ON COLUMN deal.parts_achetees IS 'Compteur : total des parts achetées (deal_participants.nombre_de_part)';
+COMMENT ON COLUMN deal.nb_participants_reels IS 'Compteur : nombre de participants (lignes deal_participants)';
+COMMENT ON COLUMN deal.nb_avis IS 'Compteur : nombre de commentaires notés';
+COMMENT ON COLUMN deal.somme_notes IS 'Compteur : somme des notes des commentaires';
+
+-- Log de la migration
+DO $$
+BEGIN
+    RAISE NOTICE '✅ Compteurs dénormalisés ajoutés et initialisés sur la table deal';
+END $$;
@@ -0,0 +1,42 @@
+-- =========================================================================
+-- Migration: V23__index_pagination_curseur_deal
+-- Date: 2026-10-17
+-- Description: Pagination par curseur (keyset) des listes de deals
+--              Tri (favoris DESC, date_creation DESC, uuid DESC) ; uuid départage les dates identiques
+--              → la condition (favoris, date_creation, uuid) < (curseur) devient une borne d'index :
+--                même coût en page 1 et en page 500, sans OFFSET ni COUNT(*)
+--              Les index V8 idx_deal_statut_favoris_date_creation / idx_deal_favoris_date_creation
+--              sont remplacés par leur version suffixée par uuid (qui sert aussi le tri sans curseur)
+-- =========================================================================
+
+-- Tous les deals
+CREATE INDEX IF NOT EXISTS idx_deal_favoris_date_creation_uuid
+ON deal(favoris DESC, date_creation DESC, uuid DESC);
+
+-- Deals par statut
+CREATE INDEX IF NOT EXISTS idx_deal_statut_favoris_date_creation_uuid
+ON deal(statut, favoris DESC, date_creation DESC, uuid DESC);
+
+-- Deals par catégorie
+CREATE INDEX IF NOT EXISTS idx_deal_categorie_favoris_date_creation_uuid
+ON deal(categorie_uuid, favoris DESC, date_creation DESC, uuid DESC);
+
+-- Deals par créateur
+CREATE INDEX IF NOT EXISTS idx_deal_createur_favoris_date_creation_uuid
+ON deal(utilisateur_uuid, favoris DESC, date_creation DESC, uuid DESC);
+
+DROP INDEX IF EXISTS idx_deal_favoris_date_creation;
+DROP INDEX IF EXISTS idx_deal_statut_favoris_date_creation;
+
+COMMENT ON INDEX idx_deal_favoris_date_creation_uuid IS 'Pagination par curseur de tous les deals';
+COMMENT ON INDEX idx_deal_statut_favoris_date_creation_uuid IS 'Pagination par curseur des deals par statut';
+COMMENT ON INDEX idx_deal_categorie_favoris_date_creation_uuid IS 'Pagination par curseur des deals par catégorie';
+COMMENT ON INDEX idx_deal_createur_favoris_date_creation_uuid IS 'Pagination par curseur des deals par créateur';
+
+ANALYZE deal;
+
+-- Log de la migration
+DO $$
+BEGIN
+    RAISE NOTICE '✅ Index de pagination par curseur créés sur la table deal';
+END $$;
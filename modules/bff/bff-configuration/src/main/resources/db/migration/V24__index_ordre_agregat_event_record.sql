@@ -0,0 +1,18 @@
+-- =========================================================================
+-- Migration: V24__index_ordre_agregat_event_record
+-- Date: 2026-10-17
+-- Description: Ordre de traitement par agrégat au claim (EventRecordRepository.claim*)
+--              Seul l'événement le plus ancien non terminé (PENDING / PROCESSING) d'un
+--              aggregate_id est réclamable : NOT EXISTS sur les événements plus anciens
+--              du même agrégat encore en cours
+-- =========================================================================
+
+-- Index partiel : ne contient que les événements en cours → le NOT EXISTS du claim
+-- ne parcourt pas l'historique CONSUMED des agrégats très actifs (un deal populaire)
+CREATE INDEX IF NOT EXISTS idx_event_record_aggregate_en_cours
+ON event_record(aggregate_id, occurred_on, event_id)
+WHERE aggregate_id IS NOT NULL AND status IN ('PENDING', 'PROCESSING');
+
+COMMENT ON INDEX idx_event_record_aggregate_en_cours IS 'Événements en cours d''un agrégat : un événement n''est réclamé qu''après la fin des précédents du même agrégat';
+
+SELECT 'Migration V24 appliquée avec succès' AS message;
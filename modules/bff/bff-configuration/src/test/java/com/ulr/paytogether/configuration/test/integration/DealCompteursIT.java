@@ -0,0 +1,180 @@
+package com.ulr.paytogether.configuration.test.integration;
+
+import com.ulr.paytogether.configuration.test.AbstractIT;
+import com.ulr.paytogether.core.modele.DealParticipantModele;
+import com.ulr.paytogether.core.provider.DealParticipantProvider;
+import com.ulr.paytogether.provider.adapter.entity.DealJpa;
+import com.ulr.paytogether.provider.adapter.entity.UtilisateurJpa;
+import com.ulr.paytogether.provider.batch.DealCompteursReconciliationBatch;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration des compteurs dénormalisés du deal
+ * (parts_achetees, nb_participants_reels, nb_avis, somme_notes)
+ * et de leur réconciliation
+ */
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Tests d'intégration : compteurs dénormalisés du deal")
+class DealCompteursIT extends AbstractIT {
+
+    @Autowired
+    private DealParticipantProvider dealParticipantProvider;
+
+    @Autowired
+    private DealCompteursReconciliationBatch reconciliationBatch;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private DealJpa dealTest;
+
+    @BeforeEach
+    void setUpDeal() {
+        dealTest = creerDealAvecImages(vendeur, categorieElectronique, 5, BigDecimal.valueOf(100.00));
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Participations - Ajout, modification et suppression ajustent participants et parts")
+    void participations_DevraientAjusterLesCompteurs() {
+        // Given
+        verifierCompteurs(dealTest.getUuid(), 0, 0, 0, 0L);
+
+        // When - ajout de deux participants
+        ajouterParticipant(acheteur1, 2);
+        ajouterParticipant(acheteur2, 1);
+
+        // Then
+        verifierCompteurs(dealTest.getUuid(), 2, 3, 0, 0L);
+
+        // When - modification du nombre de parts (2 -> 3)
+        dealParticipantProvider.mettreAJourNombreDePart(dealTest.getUuid(), acheteur1.getUuid(), 3);
+
+        // Then - participants inchangés, parts +1
+        verifierCompteurs(dealTest.getUuid(), 2, 4, 0, 0L);
+
+        // When - suppression d'un participant
+        dealParticipantProvider.supprimerParticipant(dealTest.getUuid(), acheteur2.getUuid());
+
+        // Then
+        verifierCompteurs(dealTest.getUuid(), 1, 3, 0, 0L);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Commentaires - Création, modification et suppression ajustent avis et somme des notes")
+    void commentaires_DevraientAjusterLesCompteurs() {
+        // When - deux avis
+        String premierAvis = publierCommentaire(acheteur1, 4);
+        publierCommentaire(acheteur2, 5);
+
+        // Then
+        verifierCompteurs(dealTest.getUuid(), 0, 0, 2, 9L);
+
+        // When - modification de la note (4 -> 2)
+        Map<String, Object> updatePayload = new HashMap<>();
+        updatePayload.put("contenu", "Avis revu à la baisse");
+        updatePayload.put("note", 2);
+        updatePayload.put("dealUuid", dealTest.getUuid().toString());
+        updatePayload.put("utilisateurUuid", acheteur1.getUuid().toString());
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(updatePayload)
+            .when()
+            .put("/commentaires/" + premierAvis)
+            .then()
+            .statusCode(200);
+
+        // Then - nombre d'avis inchangé, somme -2
+        verifierCompteurs(dealTest.getUuid(), 0, 0, 2, 7L);
+
+        // When - suppression de l'avis
+        given()
+            .when()
+            .delete("/commentaires/" + premierAvis)
+            .then()
+            .statusCode(anyOf(is(200), is(204)));
+
+        // Then
+        verifierCompteurs(dealTest.getUuid(), 0, 0, 1, 5L);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Réconciliation - Devrait corriger uniquement les compteurs modifiés hors adaptateur")
+    void reconcilierCompteurs_DevraitCorrigerLesCompteursDerives() {
+        // Given - un deal cohérent et un deal dont les compteurs ont été modifiés à la main
+        DealJpa dealCoherent = creerDealAvecImages(vendeur, categorieMaison, 5, BigDecimal.valueOf(50.00));
+        ajouterParticipant(acheteur1, 2);
+        publierCommentaire(acheteur1, 4);
+        dealParticipantProvider.ajouterParticipant(DealParticipantModele.builder()
+                .dealUuid(dealCoherent.getUuid()).utilisateurUuid(acheteur3.getUuid()).nombreDePart(1).build());
+
+        jdbcTemplate.update("UPDATE deal SET parts_achetees = 42, nb_avis = 7 WHERE uuid = ?", dealTest.getUuid());
+        verifierCompteurs(dealTest.getUuid(), 1, 42, 7, 4L);
+
+        // When
+        int corriges = reconciliationBatch.reconcilierCompteurs();
+
+        // Then - seul le deal dérivé est réécrit, avec les valeurs recalculées
+        assertEquals(1, corriges);
+        verifierCompteurs(dealTest.getUuid(), 1, 2, 1, 4L);
+        verifierCompteurs(dealCoherent.getUuid(), 1, 1, 0, 0L);
+
+        // When - seconde passe : plus rien à corriger
+        assertEquals(0, reconciliationBatch.reconcilierCompteurs());
+    }
+
+    private void ajouterParticipant(UtilisateurJpa utilisateur, int nombreDePart) {
+        dealParticipantProvider.ajouterParticipant(DealParticipantModele.builder()
+                .dealUuid(dealTest.getUuid())
+                .utilisateurUuid(utilisateur.getUuid())
+                .nombreDePart(nombreDePart)
+                .build());
+    }
+
+    /**
+     * Publie un commentaire noté sur le deal de test via l'API REST
+     * @return UUID du commentaire créé
+     */
+    private String publierCommentaire(UtilisateurJpa auteur, int note) {
+        Map<String, Object> commentairePayload = new HashMap<>();
+        commentairePayload.put("contenu", "Avis de test");
+        commentairePayload.put("note", note);
+        commentairePayload.put("dealUuid", dealTest.getUuid().toString());
+        commentairePayload.put("utilisateurUuid", auteur.getUuid().toString());
+
+        return given()
+            .contentType(ContentType.JSON)
+            .body(commentairePayload)
+            .when()
+            .post("/commentaires")
+            .then()
+            .statusCode(anyOf(is(200), is(201)))
+            .extract()
+            .path("uuid");
+    }
+
+    private void verifierCompteurs(UUID dealUuid, int participants, int parts, int avis, long sommeNotes) {
+        DealJpa deal = dealRepository.findById(dealUuid).orElseThrow();
+        assertEquals(participants, deal.getNbParticipantsReels(), "nb_participants_reels");
+        assertEquals(parts, deal.getPartsAchetees(), "parts_achetees");
+        assertEquals(avis, deal.getNbAvis(), "nb_avis");
+        assertEquals(sommeNotes, deal.getSommeNotes(), "somme_notes");
+    }
+}
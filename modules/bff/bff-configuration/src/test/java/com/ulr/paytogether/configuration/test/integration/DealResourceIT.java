@@ -1,17 +1,30 @@
 package com.ulr.paytogether.configuration.test.integration;
 
 import com.ulr.paytogether.configuration.test.AbstractIT;
+import com.ulr.paytogether.core.domaine.service.DealService;
 import com.ulr.paytogether.core.enumeration.StatutCommandeUtilisateur;
+import com.ulr.paytogether.core.modele.CurseurDealModele;
+import com.ulr.paytogether.core.modele.DealModele;
+import com.ulr.paytogether.core.modele.DealParticipantModele;
+import com.ulr.paytogether.core.modele.FiltreDealModele;
+import com.ulr.paytogether.core.modele.PageModele;
+import com.ulr.paytogether.core.provider.DealParticipantProvider;
+import com.ulr.paytogether.core.provider.DealProvider;
 import com.ulr.paytogether.provider.adapter.entity.*;
 import io.restassured.http.ContentType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +49,18 @@ class DealResourceIT extends AbstractIT {
     private static final BigDecimal PRIX_PART = BigDecimal.valueOf(100.00);
     private static final int NB_PARTICIPANTS = 3;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DealProvider dealProvider;
+
+    @Autowired
+    private DealParticipantProvider dealParticipantProvider;
+
+    @Autowired
+    private DealService dealService;
+
     @Test
     @Order(1)
     @DisplayName("POST /api/deals - Devrait créer un deal avec images")
@@ -395,5 +420,187 @@ class DealResourceIT extends AbstractIT {
 
         log.info("✅ Suppression en cascade validée : Deal + Commande + Paiements + Adresses + CommandeUtilisateurs");
     }
-}
 
+    @Test
+    @Order(14)
+    @DisplayName("GET /api/deals/categorie/{uuid}?curseur= - Devrait paginer par curseur sans doublon")
+    void lireParCategorie_ParCurseur_DevraitEnchainerLesPages() {
+        // Given
+        creerDealAvecImages(vendeur, categorieElectronique, NB_PARTICIPANTS, PRIX_PART);
+        creerDealAvecImages(vendeur, categorieElectronique, 2, BigDecimal.valueOf(75.00));
+        creerDealAvecImages(vendeur, categorieElectronique, 4, BigDecimal.valueOf(25.00));
+
+        // When - première page (curseur vide) avec le total
+        var premierePage = given()
+            .queryParam("curseur", "")
+            .queryParam("size", 2)
+            .queryParam("avecTotal", true)
+            .when()
+            .get("/deals/categorie/" + categorieElectronique.getUuid())
+            .then()
+            .statusCode(200)
+            .body("content", hasSize(2))
+            .body("totalElements", equalTo(3))
+            .body("hasNext", equalTo(true))
+            .body("curseurSuivant", notNullValue())
+            .extract();
+
+        // When - page suivante avec le jeton reçu
+        var secondePage = given()
+            .queryParam("curseur", premierePage.path("curseurSuivant").toString())
+            .queryParam("size", 2)
+            .when()
+            .get("/deals/categorie/" + categorieElectronique.getUuid())
+            .then()
+            .statusCode(200)
+            .body("content", hasSize(1))
+            .body("hasNext", equalTo(false))
+            .body("curseurSuivant", nullValue())
+            .extract();
+
+        // Then - aucun deal vu deux fois
+        List<String> uuidsPage1 = premierePage.path("content.uuid");
+        List<String> uuidsPage2 = secondePage.path("content.uuid");
+        assertTrue(uuidsPage2.stream().noneMatch(uuidsPage1::contains));
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("Chargement d'une page de deals - Nombre de requêtes SQL indépendant de la taille de la page")
+    void trouverParCurseur_DevraitChargerLaPageEnNombreConstantDeRequetes() {
+        // Given
+        Statistics statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int i = 0; i < 10; i++) {
+            creerDealAvecImages(vendeur, categorieElectronique, NB_PARTICIPANTS, PRIX_PART);
+        }
+
+        // When - page de 10 deals
+        statistiques.clear();
+        PageModele<DealModele> pageDe10 = dealProvider.trouverParCurseur(
+                FiltreDealModele.parCategorie(categorieElectronique.getUuid()), CurseurDealModele.DEBUT, 50);
+        long requetesPourDix = statistiques.getPrepareStatementCount();
+
+        for (int i = 0; i < 40; i++) {
+            creerDealAvecImages(vendeur, categorieElectronique, NB_PARTICIPANTS, PRIX_PART);
+        }
+
+        // When - page de 50 deals
+        statistiques.clear();
+        PageModele<DealModele> pageDe50 = dealProvider.trouverParCurseur(
+                FiltreDealModele.parCategorie(categorieElectronique.getUuid()), CurseurDealModele.DEBUT, 50);
+        long requetesPourCinquante = statistiques.getPrepareStatementCount();
+
+        // Then - deals, images et points forts chargés, sans requête par deal
+        assertEquals(10, pageDe10.getContent().size());
+        assertEquals(50, pageDe50.getContent().size());
+        assertTrue(pageDe50.getContent().stream().allMatch(deal ->
+                deal.getListeImages().size() == 2 && deal.getListePointsForts().size() == 2
+                        && deal.getCreateur() != null && deal.getCategorie() != null));
+        log.info("Requêtes SQL : {} pour 10 deals, {} pour 50 deals", requetesPourDix, requetesPourCinquante);
+        assertEquals(requetesPourDix, requetesPourCinquante, "le nombre de requêtes ne doit pas dépendre de la taille de la page");
+        assertTrue(requetesPourCinquante <= 5, "N+1 détecté : " + requetesPourCinquante + " requêtes pour 50 deals");
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("GET /api/deals/categorie/{uuid}?curseur=&carte=true - Devrait renvoyer les cartes allégées")
+    void lireParCategorie_EnCartes_DevraitRenvoyerLesChampsDeLaCarte() {
+        // Given - deux images marquées principales : une seule carte, image de plus petit uuid
+        DealJpa deal = creerDealAvecImages(vendeur, categorieElectronique, NB_PARTICIPANTS, PRIX_PART);
+        deal.getImageDealJpas().forEach(image -> image.setIsPrincipal(true));
+        deal = dealRepository.save(deal);
+        ImageDealJpa imagePrincipale = deal.getImageDealJpas().stream()
+            .min(Comparator.comparing(image -> image.getUuid().toString()))
+            .orElseThrow();
+
+        // When & Then
+        given()
+            .queryParam("curseur", "")
+            .queryParam("carte", true)
+            .when()
+            .get("/deals/categorie/" + categorieElectronique.getUuid())
+            .then()
+            .statusCode(200)
+            .body("content", hasSize(1))
+            .body("content[0].uuid", equalTo(deal.getUuid().toString()))
+            .body("content[0].categorieNom", equalTo(categorieElectronique.getNom()))
+            .body("content[0].createurUuid", equalTo(vendeur.getUuid().toString()))
+            .body("content[0].imagePrincipaleUuid", equalTo(imagePrincipale.getUuid().toString()))
+            .body("content[0].imagePrincipaleCle", equalTo(imagePrincipale.getUrlImage()))
+            .body("content[0].nombreParticipantsReel", equalTo(0))
+            .body("content[0].nombrePartsAchetees", equalTo(0))
+            .body("content[0]", not(hasKey("description")))
+            .body("content[0]", not(hasKey("listePointsForts")))
+            .body("curseurSuivant", nullValue());
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("Lecture d'une page de deals - Statistiques de toute la page en une seule requête")
+    void lireTous_DevraitEnrichirLaPageEnUneSeuleRequeteDeStatistiques() {
+        // Given - un deal avec participants et avis, un deal sans activité
+        Statistics statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        DealJpa dealActif = creerDealAvecImages(vendeur, categorieElectronique, NB_PARTICIPANTS, PRIX_PART);
+        DealJpa dealSansActivite = creerDealAvecImages(vendeur, categorieElectronique, NB_PARTICIPANTS, PRIX_PART);
+        for (int i = 0; i < 10; i++) {
+            creerDealAvecImages(vendeur, categorieMaison, NB_PARTICIPANTS, PRIX_PART);
+        }
+        dealParticipantProvider.ajouterParticipant(DealParticipantModele.builder()
+                .dealUuid(dealActif.getUuid()).utilisateurUuid(acheteur1.getUuid()).nombreDePart(2).build());
+        dealParticipantProvider.ajouterParticipant(DealParticipantModele.builder()
+                .dealUuid(dealActif.getUuid()).utilisateurUuid(acheteur2.getUuid()).nombreDePart(1).build());
+        publierCommentaire(dealActif, acheteur1, 4);
+        publierCommentaire(dealActif, acheteur2, 5);
+
+        // When - même page lue sans puis avec les statistiques
+        statistiques.clear();
+        dealProvider.trouverTous(0, 50);
+        long requetesSansStatistiques = statistiques.getPrepareStatementCount();
+
+        statistiques.clear();
+        PageModele<DealModele> page = dealService.lireTous(0, 50);
+        long requetesAvecStatistiques = statistiques.getPrepareStatementCount();
+
+        // Then - une seule requête supplémentaire pour les 12 deals de la page
+        assertEquals(12, page.getContent().size());
+        log.info("Requêtes SQL : {} sans statistiques, {} avec statistiques", requetesSansStatistiques, requetesAvecStatistiques);
+        assertEquals(requetesSansStatistiques + 1, requetesAvecStatistiques,
+                "les statistiques de la page doivent être chargées en une seule requête");
+
+        DealModele actif = trouverDansPage(page, dealActif.getUuid());
+        assertEquals(4.5, actif.getMoyenneCommentaires());
+        assertEquals(2L, actif.getNombreParticipantsReel());
+        assertEquals(3L, actif.getNombrePartsAchetees());
+
+        DealModele sansActivite = trouverDansPage(page, dealSansActivite.getUuid());
+        assertNull(sansActivite.getMoyenneCommentaires());
+        assertEquals(0L, sansActivite.getNombreParticipantsReel());
+        assertEquals(0L, sansActivite.getNombrePartsAchetees());
+    }
+
+    /**
+     * Publie un commentaire noté via l'API REST
+     */
+    private void publierCommentaire(DealJpa deal, UtilisateurJpa auteur, int note) {
+        Map<String, Object> commentairePayload = new HashMap<>();
+        commentairePayload.put("contenu", "Avis de test");
+        commentairePayload.put("note", note);
+        commentairePayload.put("dealUuid", deal.getUuid().toString());
+        commentairePayload.put("utilisateurUuid", auteur.getUuid().toString());
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(commentairePayload)
+            .when()
+            .post("/commentaires")
+            .then()
+            .statusCode(anyOf(is(200), is(201)));
+    }
+
+    private DealModele trouverDansPage(PageModele<DealModele> page, UUID dealUuid) {
+        return page.getContent().stream()
+                .filter(deal -> dealUuid.equals(deal.getUuid()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -41,7 +41,8 @@ public class CommentaireServiceImpl implements CommentaireService {
         // Validation métier avant mise à jour
         commentaireValidator.validerPourMiseAJour(commentaire);
 
-        return commentaireProvider.sauvegarder(commentaire);
+        // mettreAJour (et non sauvegarder) : seul le delta de note est reporté sur les compteurs du deal
+        return commentaireProvider.mettreAJour(uuid, commentaire);
     }
 
     @Override
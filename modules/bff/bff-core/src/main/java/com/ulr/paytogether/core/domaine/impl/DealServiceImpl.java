@@ -9,10 +9,14 @@ import com.ulr.paytogether.core.event.DealCreatedEvent;
 import com.ulr.paytogether.core.event.DealUpdatedEvent;
 import com.ulr.paytogether.core.event.EventPublisher;
 import com.ulr.paytogether.core.exception.ResourceNotFoundException;
+import com.ulr.paytogether.core.modele.CurseurDealModele;
+import com.ulr.paytogether.core.modele.DealCarteModele;
 import com.ulr.paytogether.core.modele.DealModele;
 import com.ulr.paytogether.core.enumeration.StatutDeal;
+import com.ulr.paytogether.core.modele.FiltreDealModele;
 import com.ulr.paytogether.core.modele.ImageDealModele;
 import com.ulr.paytogether.core.modele.PageModele;
+import com.ulr.paytogether.core.modele.StatistiquesDealModele;
 import com.ulr.paytogether.core.provider.DealProvider;
 import io.micrometer.common.util.StringUtils;
 import lombok.extern.slf4j.Slf4j;
@@ -31,6 +35,8 @@ import java.util.stream.Collectors;
 @Service
 public class DealServiceImpl implements DealService {
 
+    private static final int TAILLE_LOT_STATISTIQUES = 500;
+
     private final DealProvider dealProvider;
     private final DealValidator dealValidator;
     private final EventPublisher eventPublisher;
@@ -67,7 +73,7 @@ public class DealServiceImpl implements DealService {
                 .dateCreation(deal.getDateCreation())
                 .build();
 
-        eventPublisher.publishAsync(dealEvent);
+        eventPublisher.publishInTransaction(dealEvent);
 
         DealModele dealCree = dealProvider.sauvegarder(deal);
 
@@ -97,9 +103,7 @@ public class DealServiceImpl implements DealService {
     @Cacheable(value = "deals")
     @Override
     public List<DealModele> lireTous() {
-        return dealProvider.trouverTous().stream()
-                .map(this::enrichirAvecStatistiques)
-                .collect(Collectors.toList());
+        return enrichirAvecStatistiques(dealProvider.trouverTous());
     }
 
     @Transactional(readOnly = true)
@@ -107,55 +111,96 @@ public class DealServiceImpl implements DealService {
     public PageModele<DealModele> lireTous(int page, int size) {
         PageModele<DealModele> pageModele = dealProvider.trouverTous(page, size);
 
-        // Enrichir chaque deal avec les statistiques
-        List<DealModele> dealsEnrichis = pageModele.getContent().stream()
-                .map(this::enrichirAvecStatistiques)
-                .collect(Collectors.toList());
+        // Enrichir toute la page avec les statistiques (une seule requête)
+        pageModele.setContent(enrichirAvecStatistiques(pageModele.getContent()));
+        return pageModele;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public PageModele<DealModele> lireParCurseur(FiltreDealModele filtre, String curseur, int size, boolean avecTotal) {
+        CurseurDealModele position = CurseurDealModele.decoder(curseur);
+        PageModele<DealModele> pageModele = dealProvider.trouverParCurseur(filtre, position, size);
+
+        // Total optionnel, calculé une seule fois (première page) : le défilement suivant n'exécute aucun COUNT
+        if (avecTotal && pageModele.isFirst()) {
+            long total = dealProvider.compter(filtre);
+            pageModele.setTotalElements(total);
+            pageModele.setTotalPages((int) ((total + size - 1) / size));
+        }
+
+        // Enrichir toute la page avec les statistiques (une seule requête)
+        pageModele.setContent(enrichirAvecStatistiques(pageModele.getContent()));
+        return pageModele;
+    }
 
-        pageModele.setContent(dealsEnrichis);
+    @Transactional(readOnly = true)
+    @Override
+    public PageModele<DealCarteModele> lireCartesParCurseur(FiltreDealModele filtre, String curseur, int size, boolean avecTotal) {
+        CurseurDealModele position = CurseurDealModele.decoder(curseur);
+        // Compteurs déjà lus par la projection : pas d'enrichissement avec les statistiques
+        PageModele<DealCarteModele> pageModele = dealProvider.trouverCartesParCurseur(filtre, position, size);
+
+        if (avecTotal && pageModele.isFirst()) {
+            long total = dealProvider.compter(filtre);
+            pageModele.setTotalElements(total);
+            pageModele.setTotalPages((int) ((total + size - 1) / size));
+        }
         return pageModele;
     }
 
     /**
-     * Enrichit un deal avec les statistiques calculées en parallèle
-     * Utilise CompletableFuture pour paralléliser les 3 calculs
+     * Enrichit un deal avec ses statistiques (moyenne commentaires, participants et parts réels)
      *
      * @param deal Deal à enrichir
-     * @return Deal enrichi avec moyenne commentaires et nombre participants réels
+     * @return Deal enrichi
      */
     private DealModele enrichirAvecStatistiques(DealModele deal) {
-        if (deal == null || deal.getUuid() == null) {
-            return deal;
+        if (deal != null) {
+            enrichirAvecStatistiques(List.of(deal));
         }
+        return deal;
+    }
 
-        long start = System.currentTimeMillis();
-
-        // Parallélisation des 3 calculs avec CompletableFuture
-        var futureMoyenne = java.util.concurrent.CompletableFuture.supplyAsync(() ->
-            dealProvider.calculerMoyenneCommentaires(deal.getUuid())
-        );
-
-        var futureParticipants = java.util.concurrent.CompletableFuture.supplyAsync(() ->
-            dealProvider.compterParticipantsReels(deal.getUuid())
-        );
-
-        var futureParts = java.util.concurrent.CompletableFuture.supplyAsync(() ->
-            dealProvider.calculerNombrePartsAchetees(deal.getUuid())
-        );
-
-        // Attendre que tous les calculs soient terminés
-        java.util.concurrent.CompletableFuture.allOf(futureMoyenne, futureParticipants, futureParts)
-                .join();
+    /**
+     * Enrichit une page de deals avec leurs statistiques en UNE requête groupée
+     * (au lieu de 3 requêtes par deal)
+     *
+     * @param deals Deals à enrichir (modifiés en place)
+     * @return les mêmes deals, enrichis
+     */
+    private List<DealModele> enrichirAvecStatistiques(List<DealModele> deals) {
+        List<UUID> uuids = deals.stream()
+                .filter(Objects::nonNull)
+                .map(DealModele::getUuid)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (uuids.isEmpty()) {
+            return deals;
+        }
 
-        // Assigner les résultats
-        deal.setMoyenneCommentaires(futureMoyenne.join());
-        deal.setNombreParticipantsReel(futureParticipants.join());
-        deal.setNombrePartsAchetees(futureParts.join());
+        long start = System.currentTimeMillis();
+        Map<UUID, StatistiquesDealModele> statistiques = new HashMap<>();
+        // Listes non paginées : découpage en lots (limite de paramètres liés par requête PostgreSQL)
+        for (int debut = 0; debut < uuids.size(); debut += TAILLE_LOT_STATISTIQUES) {
+            statistiques.putAll(dealProvider.calculerStatistiques(
+                    uuids.subList(debut, Math.min(debut + TAILLE_LOT_STATISTIQUES, uuids.size()))));
+        }
 
-        long duration = System.currentTimeMillis() - start;
-        log.debug("⚡ Statistiques enrichies en {}ms (parallèle)", duration);
+        for (DealModele deal : deals) {
+            if (deal == null || deal.getUuid() == null) {
+                continue;
+            }
+            StatistiquesDealModele stats = statistiques.getOrDefault(deal.getUuid(), StatistiquesDealModele.VIDES);
+            deal.setMoyenneCommentaires(stats.moyenneCommentaires());
+            deal.setNombreParticipantsReel(stats.nombreParticipantsReel());
+            deal.setNombrePartsAchetees(stats.nombrePartsAchetees());
+        }
 
-        return deal;
+        log.debug("⚡ Statistiques de {} deal(s) enrichies en {}ms (requête groupée)",
+                uuids.size(), System.currentTimeMillis() - start);
+        return deals;
     }
 
     @Transactional(readOnly = true)
@@ -175,9 +220,7 @@ public class DealServiceImpl implements DealService {
     @Cacheable(value = "deal-createur", key = "#createurUuid")
     @Override
     public List<DealModele> lireParCreateur(UUID createurUuid) {
-        return dealProvider.trouverParCreateur(createurUuid).stream()
-                .map(this::enrichirAvecStatistiques)
-                .collect(Collectors.toList());
+        return enrichirAvecStatistiques(dealProvider.trouverParCreateur(createurUuid));
     }
 
     @Transactional(readOnly = true)
@@ -185,12 +228,8 @@ public class DealServiceImpl implements DealService {
     public PageModele<DealModele> lireParCreateur(UUID createurUuid, int page, int size) {
         PageModele<DealModele> pageModele = dealProvider.trouverParCreateur(createurUuid, page, size);
 
-        // Enrichir chaque deal avec les statistiques
-        List<DealModele> dealsEnrichis = pageModele.getContent().stream()
-                .map(this::enrichirAvecStatistiques)
-                .collect(Collectors.toList());
-
-        pageModele.setContent(dealsEnrichis);
+        // Enrichir toute la page avec les statistiques (une seule requête)
+        pageModele.setContent(enrichirAvecStatistiques(pageModele.getContent()));
         return pageModele;
     }
 
@@ -266,7 +305,7 @@ public class DealServiceImpl implements DealService {
                 .titreDeal(dealMisAJour.getTitre())
                 .dateModification(LocalDateTime.now())
                 .build();
-        eventPublisher.publishAsync(dealUpdatedEvent);
+        eventPublisher.publishInTransaction(dealUpdatedEvent);
 
         return dealMisAJour;
     }
@@ -367,7 +406,7 @@ public class DealServiceImpl implements DealService {
                 .raisonAnnulation("Suppression du deal par le marchand")
                 .build();
 
-        eventPublisher.publishAsync(dealAnnuleEvent);
+        eventPublisher.publishInTransaction(dealAnnuleEvent);
     }
 
     @Transactional(readOnly = true)
@@ -402,6 +441,7 @@ public class DealServiceImpl implements DealService {
 
         LocalDateTime maintenant = LocalDateTime.now();
         int nombreDealsExpires = 0;
+        List<DealCancelledEvent> evenements = new ArrayList<>();
 
         for (DealModele deal : dealsPublies) {
             // Vérifier si la date d'expiration est dépassée
@@ -435,10 +475,13 @@ public class DealServiceImpl implements DealService {
                         .raisonAnnulation("Expiration du deal")
                         .build();
 
-                eventPublisher.publishAsync(dealAnnuleEvent);
+                evenements.add(dealAnnuleEvent);
             }
         }
 
+        // Publier les événements d'annulation en un seul batch
+        eventPublisher.publishAll(evenements);
+
         if (nombreDealsExpires > 0) {
             log.info("{} deal(s) mis à jour vers le statut EXPIRE et supprimés de l'index Elasticsearch", nombreDealsExpires);
         }
@@ -81,7 +81,7 @@ public class SquarePaymentServiceImpl implements SquarePaymentService {
                 .nombreDePart(paiement.getNombreDePart())
                 .build();
 
-        eventPublisher.publishAsync(paymentInitiatedEvent);
+        eventPublisher.publishInTransaction(paymentInitiatedEvent);
         return paiementCree;
     }
 
@@ -136,7 +136,7 @@ public class SquarePaymentServiceImpl implements SquarePaymentService {
                     .nombreDePart(paiement.getNombreDePart())
                     .build();
 
-            eventPublisher.publishAsync(paymentSuccessfulEvent);
+            eventPublisher.publishInTransaction(paymentSuccessfulEvent);
             return paiementFinal;
 
         } catch (Exception e) {
@@ -319,8 +319,8 @@ public class SquarePaymentServiceImpl implements SquarePaymentService {
             }
         }
 
-        // Publier tous les événements de remboursement
-        evenements.forEach(eventPublisher::publishAsync);
+        // Publier tous les événements de remboursement en un seul batch
+        eventPublisher.publishAll(evenements);
 
         log.info("Remboursement en masse terminé: {}/{} succès", nombreRemboursements, utilisateurUuids.size());
         return nombreRemboursements;
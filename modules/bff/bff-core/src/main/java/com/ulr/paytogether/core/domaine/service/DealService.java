@@ -1,8 +1,10 @@
 package com.ulr.paytogether.core.domaine.service;
 
 import com.ulr.paytogether.core.enumeration.StatutImage;
+import com.ulr.paytogether.core.modele.DealCarteModele;
 import com.ulr.paytogether.core.modele.DealModele;
 import com.ulr.paytogether.core.enumeration.StatutDeal;
+import com.ulr.paytogether.core.modele.FiltreDealModele;
 import com.ulr.paytogether.core.modele.PageModele;
 
 import java.util.List;
@@ -38,6 +40,27 @@ public interface DealService {
      */
     PageModele<DealModele> lireTous(int page, int size);
 
+    /**
+     * Lire une page de deals par curseur (pagination par clé : même coût en page 1 et en page 500)
+     * @param filtre Filtre (statut, catégorie, créateur ou tous)
+     * @param curseur Jeton opaque de la page précédente (null ou vide = première page)
+     * @param size Taille de la page
+     * @param avecTotal Calculer le nombre total de deals (COUNT, uniquement sur la première page)
+     * @return Page de deals avec le jeton de la page suivante
+     */
+    PageModele<DealModele> lireParCurseur(FiltreDealModele filtre, String curseur, int size, boolean avecTotal);
+
+    /**
+     * Lire une page de cartes de deals par curseur (vue liste : champs de la carte, image principale
+     * et compteurs, sans description, points forts ni images secondaires)
+     * @param filtre Filtre (statut, catégorie, créateur ou tous)
+     * @param curseur Jeton opaque de la page précédente (null ou vide = première page)
+     * @param size Taille de la page
+     * @param avecTotal Calculer le nombre total de deals (COUNT, uniquement sur la première page)
+     * @return Page de cartes avec le jeton de la page suivante
+     */
+    PageModele<DealCarteModele> lireCartesParCurseur(FiltreDealModele filtre, String curseur, int size, boolean avecTotal);
+
     /**
      * Lire les deals par statut
      */
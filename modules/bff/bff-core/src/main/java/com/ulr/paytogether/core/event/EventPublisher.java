@@ -1,5 +1,7 @@
 package com.ulr.paytogether.core.event;
 
+import java.util.Collection;
+
 /**
  * Interface pour publier des événements du domaine (PORT)
  *
@@ -19,6 +21,9 @@ public interface EventPublisher {
      * Publie un événement de manière asynchrone
      * L'événement sera persisté en base de données puis traité par les handlers.
      *
+     * ⚠️ Persisté sur un autre thread, dans une transaction séparée : dans un service
+     * transactionnel, utiliser publishInTransaction.
+     *
      * @param event L'événement à publier (peut être n'importe quel objet)
      */
     void publishAsync(Object event);
@@ -30,5 +35,24 @@ public interface EventPublisher {
      * @param event L'événement à publier (peut être n'importe quel objet)
      */
     void publishSync(Object event);
-}
 
+    /**
+     * Publie un événement dans la transaction de l'appelant (outbox transactionnel)
+     * L'événement est persisté avec les données métier : il n'existe que si la transaction est validée.
+     * Après le commit, il est dispatché immédiatement vers les handlers ; le poller ne sert plus que de reprise.
+     *
+     * ⚠️ Doit être appelé depuis une méthode @Transactional
+     *
+     * @param event L'événement à publier (peut être n'importe quel objet)
+     */
+    void publishInTransaction(Object event);
+
+    /**
+     * Publie un lot d'événements en une seule écriture (batch JDBC)
+     * Rejoint la transaction de l'appelant si elle existe, sinon utilise sa propre transaction.
+     * Le consommateur est réveillé une seule fois pour tout le lot, après le commit.
+     *
+     * @param events Les événements à publier (lot vide accepté)
+     */
+    void publishAll(Collection<?> events);
+}
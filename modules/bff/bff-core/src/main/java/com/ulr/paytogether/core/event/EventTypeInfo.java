@@ -0,0 +1,35 @@
+package com.ulr.paytogether.core.event;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Métadonnées de persistance d'un événement (optionnelle).
+ *
+ * Exemple : renommage de PaymentMadeEvent en PaymentCompletedEvent avec un nouveau format de payload
+ * <pre>
+ * {@code
+ * @EventTypeInfo(aliases = "PaymentMadeEvent", version = 2)
+ * public class PaymentCompletedEvent extends DomainEvent { ... }
+ * }
+ * </pre>
+ *
+ * Sans cette annotation : aucun alias, version 1.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EventTypeInfo {
+
+    /**
+     * Anciens noms de l'événement (colonne event_type des événements déjà persistés)
+     */
+    String[] aliases() default {};
+
+    /**
+     * Version courante du schéma du payload
+     * Par défaut : 1
+     */
+    int version() default 1;
+}
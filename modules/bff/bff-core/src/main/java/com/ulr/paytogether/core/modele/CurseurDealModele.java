@@ -0,0 +1,69 @@
+package com.ulr.paytogether.core.modele;
+
+import com.ulr.paytogether.core.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position dans la liste des deals triée par (favoris DESC, dateCreation DESC, uuid DESC) :
+ * dernier deal de la page précédente. Pagination par clé (keyset) : la page suivante commence
+ * juste après ce deal, sans OFFSET.
+ *
+ * Le jeton exposé au front est opaque (Base64 URL) : il ne doit être ni construit ni interprété côté client.
+ *
+ * @param favoris      favoris du dernier deal
+ * @param dateCreation date de création du dernier deal
+ * @param uuid         UUID du dernier deal (départage les dates identiques)
+ */
+public record CurseurDealModele(boolean favoris, LocalDateTime dateCreation, UUID uuid) {
+
+    /**
+     * Avant le premier deal : tous les deals sont "après" cette position
+     */
+    public static final CurseurDealModele DEBUT = new CurseurDealModele(
+            true, LocalDateTime.of(9999, 12, 31, 23, 59, 59), new UUID(-1L, -1L));
+
+    private static final String SEPARATEUR = "|";
+
+    public static CurseurDealModele apres(DealModele deal) {
+        return new CurseurDealModele(Boolean.TRUE.equals(deal.getFavoris()), deal.getDateCreation(), deal.getUuid());
+    }
+
+    public static CurseurDealModele apres(DealCarteModele carte) {
+        return new CurseurDealModele(Boolean.TRUE.equals(carte.favoris()), carte.dateCreation(), carte.uuid());
+    }
+
+    /**
+     * @return jeton opaque de continuation
+     */
+    public String encoder() {
+        String brut = (favoris ? "1" : "0") + SEPARATEUR + dateCreation + SEPARATEUR + uuid;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param jeton jeton reçu du front ; vide ou null = première page
+     * @throws ValidationException si le jeton est mal formé
+     */
+    public static CurseurDealModele decoder(String jeton) {
+        if (jeton == null || jeton.isBlank()) {
+            return DEBUT;
+        }
+        try {
+            String brut = new String(Base64.getUrlDecoder().decode(jeton), StandardCharsets.UTF_8);
+            String[] parties = brut.split("\\|", -1);
+            if (parties.length != 3 || !("0".equals(parties[0]) || "1".equals(parties[0]))) {
+                throw new ValidationException("deal.curseur.invalide");
+            }
+            return new CurseurDealModele("1".equals(parties[0]),
+                    LocalDateTime.parse(parties[1]),
+                    UUID.fromString(parties[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("deal.curseur.invalide", e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.ulr.paytogether.core.modele;
+
+import com.ulr.paytogether.core.enumeration.StatutDeal;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Vue "carte" d'un deal (listes, défilement infini) : uniquement les champs affichés sur la carte,
+ * l'image principale et les compteurs dénormalisés. Lecture seule, sans description, points forts,
+ * commentaires ni participants.
+ *
+ * @param imagePrincipaleUuid    UUID de l'image principale (null si le deal n'a pas encore d'image)
+ * @param imagePrincipaleCle     clé de l'image principale dans le stockage (URL de lecture via /deals/{uuid}/images/{imageUuid}/url)
+ * @param moyenneCommentaires    moyenne des notes arrondie à 1 décimale (null si aucune note)
+ * @param nombreParticipantsReel nombre réel de participants
+ * @param nombrePartsAchetees    nombre total de parts achetées
+ */
+public record DealCarteModele(UUID uuid,
+                              String titre,
+                              BigDecimal prixPart,
+                              BigDecimal prixPartNonReel,
+                              Integer nbParticipants,
+                              LocalDateTime dateFin,
+                              StatutDeal statut,
+                              String ville,
+                              String pays,
+                              Boolean favoris,
+                              LocalDateTime dateCreation,
+                              UUID createurUuid,
+                              UUID categorieUuid,
+                              String categorieNom,
+                              UUID imagePrincipaleUuid,
+                              String imagePrincipaleCle,
+                              Double moyenneCommentaires,
+                              Long nombreParticipantsReel,
+                              Long nombrePartsAchetees) {
+}
@@ -0,0 +1,31 @@
+package com.ulr.paytogether.core.modele;
+
+import com.ulr.paytogether.core.enumeration.StatutDeal;
+
+import java.util.UUID;
+
+/**
+ * Filtre des listes de deals paginées par curseur : au plus un critère renseigné
+ *
+ * @param statut        deals d'un statut
+ * @param categorieUuid deals d'une catégorie
+ * @param createurUuid  deals d'un créateur (marchand)
+ */
+public record FiltreDealModele(StatutDeal statut, UUID categorieUuid, UUID createurUuid) {
+
+    public static FiltreDealModele tous() {
+        return new FiltreDealModele(null, null, null);
+    }
+
+    public static FiltreDealModele parStatut(StatutDeal statut) {
+        return new FiltreDealModele(statut, null, null);
+    }
+
+    public static FiltreDealModele parCategorie(UUID categorieUuid) {
+        return new FiltreDealModele(null, categorieUuid, null);
+    }
+
+    public static FiltreDealModele parCreateur(UUID createurUuid) {
+        return new FiltreDealModele(null, null, createurUuid);
+    }
+}
@@ -51,5 +51,10 @@ public class PageModele<T> {
      * Est-ce la dernière page ?
      */
     private boolean last;
+
+    /**
+     * Jeton opaque de la page suivante (pagination par curseur), null s'il n'y en a pas
+     */
+    private String curseurSuivant;
 }
 
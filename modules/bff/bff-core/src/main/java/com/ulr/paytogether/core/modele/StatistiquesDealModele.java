@@ -0,0 +1,18 @@
+package com.ulr.paytogether.core.modele;
+
+/**
+ * Statistiques calculées d'un deal (non persistées), chargées par lot pour une page de deals
+ *
+ * @param moyenneCommentaires    moyenne des notes arrondie à 1 décimale (null si aucune note)
+ * @param nombreParticipantsReel nombre réel de participants
+ * @param nombrePartsAchetees    nombre total de parts achetées
+ */
+public record StatistiquesDealModele(Double moyenneCommentaires,
+                                     Long nombreParticipantsReel,
+                                     Long nombrePartsAchetees) {
+
+    /**
+     * Deal sans commentaire ni participant
+     */
+    public static final StatistiquesDealModele VIDES = new StatistiquesDealModele(null, 0L, 0L);
+}
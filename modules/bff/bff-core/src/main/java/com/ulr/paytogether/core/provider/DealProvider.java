@@ -1,12 +1,18 @@
 package com.ulr.paytogether.core.provider;
 
 import com.ulr.paytogether.core.enumeration.StatutImage;
+import com.ulr.paytogether.core.modele.CurseurDealModele;
+import com.ulr.paytogether.core.modele.DealCarteModele;
 import com.ulr.paytogether.core.modele.DealModele;
 import com.ulr.paytogether.core.enumeration.StatutDeal;
+import com.ulr.paytogether.core.modele.FiltreDealModele;
 import com.ulr.paytogether.core.modele.ImageDealModele;
 import com.ulr.paytogether.core.modele.PageModele;
+import com.ulr.paytogether.core.modele.StatistiquesDealModele;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -29,6 +35,31 @@ public interface DealProvider {
      */
     PageModele<DealModele> trouverTous(int page, int size);
 
+    /**
+     * Trouver une page de deals par curseur (pagination par clé, sans OFFSET ni COUNT)
+     * Tri : favoris DESC, dateCreation DESC, uuid DESC
+     * @param filtre Filtre (statut, catégorie ou créateur ; aucun = tous les deals)
+     * @param curseur Dernier deal de la page précédente ({@link CurseurDealModele#DEBUT} pour la première page)
+     * @param size Taille de la page
+     * @return Page de deals avec le curseur de la page suivante (null en fin de liste)
+     */
+    PageModele<DealModele> trouverParCurseur(FiltreDealModele filtre, CurseurDealModele curseur, int size);
+
+    /**
+     * Trouver une page de cartes de deals par curseur (même tri et même curseur que {@link #trouverParCurseur}).
+     * Projection en lecture seule : seuls les champs de la carte sont lus, aucune entité n'est chargée
+     * @param filtre Filtre (statut, catégorie ou créateur ; aucun = tous les deals)
+     * @param curseur Dernier deal de la page précédente ({@link CurseurDealModele#DEBUT} pour la première page)
+     * @param size Taille de la page
+     * @return Page de cartes avec le curseur de la page suivante (null en fin de liste)
+     */
+    PageModele<DealCarteModele> trouverCartesParCurseur(FiltreDealModele filtre, CurseurDealModele curseur, int size);
+
+    /**
+     * Compter les deals correspondant à un filtre (total optionnel de la pagination par curseur)
+     */
+    long compter(FiltreDealModele filtre);
+
     List<DealModele> trouverParStatut(StatutDeal statut);
 
     /**
@@ -112,23 +143,10 @@ public interface DealProvider {
     Optional<ImageDealModele> trouverImageParUuid(UUID dealUuid, UUID imageUuid);
 
     /**
-     * Calculer la moyenne des notes des commentaires pour un deal
-     * @param dealUuid UUID du deal
-     * @return Moyenne des notes (null si aucun commentaire)
-     */
-    Double calculerMoyenneCommentaires(UUID dealUuid);
-
-    /**
-     * Compter le nombre réel de participants pour un deal
-     * @param dealUuid UUID du deal
-     * @return Nombre de participants
-     */
-    Long compterParticipantsReels(UUID dealUuid);
-
-    /**
-     * Calculer le nombre total de parts achetées pour un deal
-     * @param dealUuid UUID du deal
-     * @return Nombre total de parts achetées
+     * Calculer les statistiques d'un lot de deals en une seule requête groupée
+     * (moyenne des notes des commentaires, nombre réel de participants, total des parts achetées)
+     * @param dealUuids UUIDs des deals (une page)
+     * @return statistiques par UUID de deal (deals inexistants absents)
      */
-    Long calculerNombrePartsAchetees(UUID dealUuid);
+    Map<UUID, StatistiquesDealModele> calculerStatistiques(Collection<UUID> dealUuids);
 }
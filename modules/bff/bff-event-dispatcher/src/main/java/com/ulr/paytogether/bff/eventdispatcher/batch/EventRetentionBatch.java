@@ -0,0 +1,42 @@
+package com.ulr.paytogether.bff.eventdispatcher.batch;
+
+import com.ulr.paytogether.bff.eventdispatcher.retention.EventRetentionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Batch planifié de rétention de l'outbox event_record.
+ *
+ * - Crée les partitions mensuelles à venir (events.retention.partitions-ahead)
+ * - Archive puis supprime les partitions expirées (voir EventRetentionService)
+ *
+ * Pour désactiver : events.retention.enabled=false
+ */
+@Component
+@ConditionalOnProperty(
+    name = "events.retention.enabled",
+    havingValue = "true",
+    matchIfMissing = false
+)
+@RequiredArgsConstructor
+@Slf4j
+public class EventRetentionBatch {
+
+    private final EventRetentionService eventRetentionService;
+
+    /**
+     * Exécution : tous les jours à 2h30 (avant FailedEventsRetryBatch à 3h)
+     */
+    @Scheduled(cron = "${events.retention.cron:0 30 2 * * ?}")
+    public void appliquerRetention() {
+        log.info("🧹 Démarrage du batch de rétention event_record");
+        try {
+            eventRetentionService.executer();
+        } catch (Exception e) {
+            log.error("❌ Erreur lors du batch de rétention event_record: {}", e.getMessage(), e);
+        }
+    }
+}
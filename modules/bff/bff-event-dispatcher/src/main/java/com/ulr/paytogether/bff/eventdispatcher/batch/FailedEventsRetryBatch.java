@@ -1,8 +1,6 @@
 package com.ulr.paytogether.bff.eventdispatcher.batch;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.ulr.paytogether.bff.eventdispatcher.consumer.EventTransactionProcessor;
+import com.ulr.paytogether.bff.eventdispatcher.consumer.EventConsumerService;
 import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa;
 import com.ulr.paytogether.bff.eventdispatcher.repository.EventRecordRepository;
 import lombok.extern.slf4j.Slf4j;
@@ -40,15 +38,12 @@ import java.util.List;
 public class FailedEventsRetryBatch {
 
     private final EventRecordRepository eventRecordRepository;
-    private final EventTransactionProcessor eventTransactionProcessor;
-    private final ObjectMapper objectMapper;
+    private final EventConsumerService eventConsumerService;
 
     public FailedEventsRetryBatch(EventRecordRepository eventRecordRepository,
-                                   EventTransactionProcessor eventTransactionProcessor) {
+                                   EventConsumerService eventConsumerService) {
         this.eventRecordRepository = eventRecordRepository;
-        this.eventTransactionProcessor = eventTransactionProcessor;
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
+        this.eventConsumerService = eventConsumerService;
     }
 
     /**
@@ -131,10 +126,11 @@ public class FailedEventsRetryBatch {
                             EventRecordJpa.EventStatus.PENDING,
                             LocalDateTime.now());
 
-                    // Traiter immédiatement dans sa propre transaction REQUIRES_NEW
+                    // Traiter immédiatement : claim, handlers dans leur transaction REQUIRES_NEW,
+                    // puis statut écrit par appliquerResultats (échec au commit inclus)
                     // ✅ Pas de conflit @Version : chaque événement est isolé
-                    eventTransactionProcessor.processerEvenement(
-                            event.getEventId(), List.of(), objectMapper);
+                    // ✅ Handlers résolus via la table de dispatch (alias de type inclus)
+                    eventConsumerService.retraiterEvenement(event.getEventId());
 
                     successCount++;
                     log.info("✅ Événement {} retraité avec succès", event.getEventId());
@@ -0,0 +1,201 @@
+package com.ulr.paytogether.bff.eventdispatcher.coalescing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa;
+import com.ulr.paytogether.bff.eventdispatcher.registry.EventTypeRegistry;
+import com.ulr.paytogether.bff.eventdispatcher.repository.EventRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Coalescence des événements redondants au moment du claim (opt-in, par type d'événement).
+ *
+ * ✅ Un événement d'un type configuré (events.coalescing.rules.*) est ignoré si un événement PLUS RÉCENT
+ *    d'un type listé dans supersededBy existe sur le même agrégat, dans le lot réclamé OU encore PENDING
+ *    → une rafale de DealUpdatedEvent ne coûte qu'une seule écriture dans l'index Elasticsearch
+ * ✅ Les événements ignorés sont marqués CONSUMED (consumer_handler = COALESCED), aucun handler n'est appelé
+ * ✅ Aucune règle configurée → aucun coût (pas de lecture de payload, pas de requête)
+ * ✅ Remplaçants PENDING cherchés sur les seuls aggregate_id des candidats réclamés (index V24) :
+ *    un remplaçant rattaché à un autre agrégat (clé plus spécifique, ex : paiementUuid) n'est pas vu,
+ *    le candidat est alors simplement exécuté
+ *
+ * ⚠️ Réservé aux événements dont seul le DERNIER état compte (mise à jour d'index, de cache...) :
+ * jamais aux paiements ni aux notifications unitaires.
+ */
+@Component
+@Slf4j
+public class EventCoalescer {
+
+    public static final String HANDLER_COALESCE = "COALESCED";
+
+    private final EventRecordRepository eventRecordRepository;
+    private final EventTypeRegistry eventTypeRegistry;
+    private final Map<String, RegleCoalescence> regles;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Résultat de la coalescence d'un lot réclamé
+     *
+     * @param aTraiter  événements à exécuter (ordre d'origine conservé)
+     * @param fusionnes événements rendus inutiles par un événement plus récent
+     */
+    public record Resultat(List<EventRecordJpa> aTraiter, List<EventRecordJpa> fusionnes) {
+    }
+
+    public EventCoalescer(EventRecordRepository eventRecordRepository,
+                          EventTypeRegistry eventTypeRegistry,
+                          ObjectMapper objectMapper,
+                          Environment environment) {
+        this.eventRecordRepository = eventRecordRepository;
+        this.eventTypeRegistry = eventTypeRegistry;
+        this.objectMapper = objectMapper;
+        this.regles = Binder.get(environment)
+                .bind("events.coalescing.rules", Bindable.mapOf(String.class, RegleCoalescence.class))
+                .orElse(Map.of());
+        regles.forEach((type, regle) -> log.info("🔀 Coalescence {} : clé {}, remplacé par {}, regroupement {}",
+                type, regle.key(), regle.supersededBy(), regle.delaiRegroupement()));
+    }
+
+    /**
+     * @return délai de regroupement à appliquer à la publication d'un événement de ce type
+     */
+    public Duration delaiRegroupement(String eventType) {
+        RegleCoalescence regle = regles.get(eventType);
+        return regle != null ? regle.delaiRegroupement() : Duration.ZERO;
+    }
+
+    /**
+     * Sépare les événements réclamés en événements à exécuter et événements fusionnés.
+     *
+     * @param evenements événements réclamés, triés par date d'occurrence
+     */
+    public Resultat coalescer(List<EventRecordJpa> evenements) {
+        if (regles.isEmpty()) {
+            return new Resultat(evenements, List.of());
+        }
+
+        Map<UUID, String> clesCandidats = new HashMap<>();
+        Set<String> typesRemplacants = new HashSet<>();
+        Set<String> agregatsCandidats = new HashSet<>();
+        LocalDateTime plusAncien = null;
+        for (EventRecordJpa evenement : evenements) {
+            RegleCoalescence regle = regles.get(eventTypeRegistry.nomCanonique(evenement.getEventType()));
+            if (regle == null || regle.key() == null || regle.supersededBy().isEmpty()) {
+                continue;
+            }
+            String cle = valeur(lireRacine(evenement), regle.key());
+            if (cle != null) {
+                clesCandidats.put(evenement.getEventId(), cle);
+                typesRemplacants.addAll(regle.supersededBy());
+                if (evenement.getAggregateId() != null) {
+                    agregatsCandidats.add(evenement.getAggregateId());
+                }
+                if (plusAncien == null || evenement.getOccurredOn().isBefore(plusAncien)) {
+                    plusAncien = evenement.getOccurredOn();
+                }
+            }
+        }
+        if (clesCandidats.isEmpty()) {
+            return new Resultat(evenements, List.of());
+        }
+
+        // Remplaçants potentiels : le lot lui-même + les événements encore PENDING plus récents des mêmes agrégats
+        List<EventRecordJpa> remplacants = new ArrayList<>(evenements);
+        if (!agregatsCandidats.isEmpty()) {
+            remplacants.addAll(eventRecordRepository.findPendingByAggregateIdInAndEventTypeInAndOccurredOnAfter(
+                    agregatsCandidats, typesRemplacants, plusAncien));
+        }
+        Map<String, LocalDateTime> dernierParTypeEtCle = indexerRemplacants(remplacants, typesRemplacants);
+
+        List<EventRecordJpa> aTraiter = new ArrayList<>(evenements.size());
+        List<EventRecordJpa> fusionnes = new ArrayList<>();
+        for (EventRecordJpa evenement : evenements) {
+            String cle = clesCandidats.get(evenement.getEventId());
+            if (cle != null && estRemplace(evenement, cle, dernierParTypeEtCle)) {
+                fusionnes.add(evenement);
+            } else {
+                aTraiter.add(evenement);
+            }
+        }
+
+        if (!fusionnes.isEmpty()) {
+            log.info("🔀 {} événement(s) redondant(s) fusionné(s) sur {} réclamés", fusionnes.size(), evenements.size());
+        }
+        return new Resultat(aTraiter, fusionnes);
+    }
+
+    // ────────────────────────────────────────────────────────────────────────────
+    // Méthodes privées
+    // ────────────────────────────────────────────────────────────────────────────
+
+    /**
+     * Date d'occurrence la plus récente par (type, champ, valeur) pour les types remplaçants.
+     * Toutes les clés configurées pour un type sont indexées (un même type peut remplacer plusieurs règles).
+     */
+    private Map<String, LocalDateTime> indexerRemplacants(Collection<EventRecordJpa> remplacants,
+                                                          Set<String> typesRemplacants) {
+        Set<String> champs = new HashSet<>();
+        regles.values().forEach(regle -> champs.add(regle.key()));
+
+        Map<String, LocalDateTime> dernier = new HashMap<>();
+        for (EventRecordJpa remplacant : remplacants) {
+            String type = eventTypeRegistry.nomCanonique(remplacant.getEventType());
+            if (!typesRemplacants.contains(type)) {
+                continue;
+            }
+            JsonNode racine = lireRacine(remplacant);
+            for (String champ : champs) {
+                String valeur = valeur(racine, champ);
+                if (valeur != null) {
+                    dernier.merge(type + '|' + champ + '|' + valeur, remplacant.getOccurredOn(),
+                            (a, b) -> a.isAfter(b) ? a : b);
+                }
+            }
+        }
+        return dernier;
+    }
+
+    private boolean estRemplace(EventRecordJpa evenement, String cle, Map<String, LocalDateTime> dernierParTypeEtCle) {
+        RegleCoalescence regle = regles.get(eventTypeRegistry.nomCanonique(evenement.getEventType()));
+        return regle.supersededBy().stream()
+                .map(type -> dernierParTypeEtCle.get(type + '|' + regle.key() + '|' + cle))
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                // Strictement plus récent : deux événements du même instant sont tous deux conservés
+                .map(date -> date.isAfter(evenement.getOccurredOn()))
+                .orElse(false);
+    }
+
+    private JsonNode lireRacine(EventRecordJpa evenement) {
+        try {
+            return objectMapper.readTree(evenement.getPayload());
+        } catch (JsonProcessingException e) {
+            log.debug("Payload illisible pour l'événement {}, pas de coalescence: {}",
+                    evenement.getEventId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static String valeur(JsonNode racine, String champ) {
+        JsonNode valeur = racine != null ? racine.get(champ) : null;
+        return valeur != null && !valeur.isNull() ? valeur.asText() : null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.ulr.paytogether.bff.eventdispatcher.coalescing;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Règle de coalescence d'un type d'événement (events.coalescing.rules.{TypeEvenement}.*).
+ *
+ * Exemple : ne garder que la dernière mise à jour en attente d'un deal, et l'ignorer si le deal est annulé
+ * <pre>
+ * events.coalescing.rules.DealUpdatedEvent.key=dealUuid
+ * events.coalescing.rules.DealUpdatedEvent.superseded-by=DealUpdatedEvent,DealCancelledEvent
+ * events.coalescing.rules.DealUpdatedEvent.debounce=2s
+ * </pre>
+ *
+ * @param key          champ du payload identifiant l'agrégat (ex : dealUuid)
+ * @param supersededBy types dont un événement PLUS RÉCENT sur le même agrégat rend celui-ci inutile
+ * @param debounce     délai avant que l'événement publié soit réclamable (null = immédiat) :
+ *                     les modifications en rafale pendant ce délai sont fusionnées
+ */
+public record RegleCoalescence(String key, List<String> supersededBy, Duration debounce) {
+
+    public RegleCoalescence {
+        supersededBy = supersededBy != null ? List.copyOf(supersededBy) : List.of();
+    }
+
+    /**
+     * @return délai de regroupement, {@link Duration#ZERO} si non configuré
+     */
+    public Duration delaiRegroupement() {
+        return debounce != null && !debounce.isNegative() ? debounce : Duration.ZERO;
+    }
+}
@@ -0,0 +1,74 @@
+package com.ulr.paytogether.bff.eventdispatcher.consumer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Extrait la clé d'agrégat d'un événement à partir de son payload JSON.
+ *
+ * Les événements d'un même agrégat (même paiement, même deal, ...) sont traités
+ * dans l'ordre ; les événements d'agrégats différents peuvent s'exécuter en parallèle.
+ *
+ * Ordre de priorité : du plus spécifique au plus large, pour ne pas sérialiser inutilement
+ * (ex : les remboursements d'un même deal portent chacun leur paiementUuid → exécutés en parallèle).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventAggregateKeyExtractor {
+
+    static final List<String> CHAMPS_AGREGAT = List.of(
+            "paiementUuid",
+            "dealUuid",
+            "commandeUuid",
+            "utilisateurUuid"
+    );
+
+    static final String PREFIXE_SANS_AGREGAT = "event:";
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param cle clé renvoyée par {@link #extraire}
+     * @return valeur de la colonne aggregate_id : la clé, ou null si l'événement n'a pas d'agrégat connu
+     */
+    public static String aggregateId(String cle) {
+        return cle.startsWith(PREFIXE_SANS_AGREGAT) ? null : cle;
+    }
+
+    /**
+     * @param evenement événement persisté
+     * @return clé "champ:valeur" de l'agrégat, ou "event:{eventId}" si aucun champ connu
+     *         (l'événement est alors indépendant de tous les autres)
+     */
+    public String extraire(EventRecordJpa evenement) {
+        return extraire(evenement.getEventId(), evenement.getPayload());
+    }
+
+    /**
+     * Variante pour un événement pas encore persisté (calcul du hash_bucket à la publication).
+     */
+    public String extraire(UUID eventId, String payload) {
+        try {
+            JsonNode racine = objectMapper.readTree(payload);
+            for (String champ : CHAMPS_AGREGAT) {
+                JsonNode valeur = racine.get(champ);
+                if (valeur != null && !valeur.isNull()) {
+                    return champ + ":" + valeur.asText();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            log.debug("Payload illisible pour l'événement {}, pas de clé d'agrégat: {}",
+                    eventId, e.getMessage());
+        }
+        return PREFIXE_SANS_AGREGAT + eventId;
+    }
+}
@@ -0,0 +1,105 @@
+package com.ulr.paytogether.bff.eventdispatcher.consumer;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boucle de consommation événementielle (remplace le @Scheduled fixe de 120 secondes).
+ *
+ * ✅ Réveil immédiat via EventWakeupSignal (publication locale ou NOTIFY PostgreSQL)
+ * ✅ Drainage : tant qu'un cycle trouve des événements, le suivant est lancé sans attendre
+ * ✅ Poll de sécurité adaptatif : si rien n'arrive, l'intervalle double de
+ *    events.consumer.poll.min-interval-ms jusqu'à events.consumer.poll.max-interval-ms
+ *
+ * Un thread par voie de priorité (VoieTraitement) et par pod → pas de cycles concurrents
+ * pour une même voie, et une voie saturée ne retarde pas les autres.
+ */
+@Component
+@ConditionalOnProperty(
+    name = "events.consumer.enabled",
+    havingValue = "true",
+    matchIfMissing = true
+)
+@Slf4j
+public class EventConsumerLoop {
+
+    private final EventConsumerService eventConsumerService;
+    private final EventWakeupSignal eventWakeupSignal;
+
+    @Value("${events.consumer.poll.min-interval-ms:1000}")
+    private long intervalleMinMs;
+
+    @Value("${events.consumer.poll.max-interval-ms:120000}")
+    private long intervalleMaxMs;
+
+    private volatile boolean actif;
+    private final List<Thread> threadsConsommateurs = new ArrayList<>();
+
+    public EventConsumerLoop(EventConsumerService eventConsumerService,
+                             EventWakeupSignal eventWakeupSignal) {
+        this.eventConsumerService = eventConsumerService;
+        this.eventWakeupSignal = eventWakeupSignal;
+    }
+
+    /**
+     * Démarre la boucle une fois l'application prête (remplace l'initialDelay de 30 s).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void demarrer() {
+        actif = true;
+        for (VoieTraitement voie : eventConsumerService.voies()) {
+            EventWakeupSignal.Abonnement abonnement = eventWakeupSignal.abonner();
+            threadsConsommateurs.add(Thread.ofPlatform()
+                    .daemon()
+                    .name("event-consumer-" + voie.nom())
+                    .start(() -> boucle(voie, abonnement)));
+        }
+        log.info("▶️ Consommateur d'événements démarré : {} voie(s) (poll de sécurité {} → {} ms)",
+                threadsConsommateurs.size(), intervalleMinMs, intervalleMaxMs);
+    }
+
+    @PreDestroy
+    public void arreter() {
+        actif = false;
+        threadsConsommateurs.forEach(Thread::interrupt);
+    }
+
+    private void boucle(VoieTraitement voie, EventWakeupSignal.Abonnement abonnement) {
+        long intervalle = intervalleMinMs;
+        // Premier cycle immédiat : reprendre les événements PENDING laissés avant le redémarrage
+        boolean cycleImmediat = true;
+
+        while (actif) {
+            try {
+                boolean reveille = cycleImmediat || abonnement.attendre(Duration.ofMillis(intervalle));
+
+                int traites = eventConsumerService.processePendingEvents(voie);
+
+                cycleImmediat = traites > 0;
+                if (traites > 0 || reveille) {
+                    intervalle = intervalleMinMs;
+                } else {
+                    intervalle = Math.min(intervalle * 2, intervalleMaxMs);
+                }
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Base indisponible : espacer les tentatives comme en période creuse
+                cycleImmediat = false;
+                intervalle = Math.min(intervalle * 2, intervalleMaxMs);
+                log.error("❌ Erreur dans la boucle de consommation (voie {}): {}", voie.nom(), e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -1,22 +1,35 @@
 package com.ulr.paytogether.bff.eventdispatcher.consumer;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.ulr.paytogether.bff.event.annotation.FunctionalHandler;
 import com.ulr.paytogether.bff.event.handler.ConsumerHandler;
+import com.ulr.paytogether.bff.eventdispatcher.coalescing.EventCoalescer;
 import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa;
+import com.ulr.paytogether.bff.eventdispatcher.partitioning.EventConsumerMembership;
+import com.ulr.paytogether.bff.eventdispatcher.registry.EventTypeRegistry;
 import com.ulr.paytogether.bff.eventdispatcher.repository.EventRecordRepository;
+import com.ulr.paytogether.bff.eventdispatcher.tracing.EventTracing;
+import io.micrometer.tracing.Span;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
 import java.lang.reflect.Method;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
 
 /**
  * Service responsable de la consommation des événements.
@@ -25,11 +38,18 @@ import java.util.UUID;
  * - processePendingEvents() : PAS @Transactional → pas de session JPA partagée
  * - EventTransactionProcessor : chaque événement dans sa propre transaction REQUIRES_NEW
  * - Claim atomique BDD : UPDATE ... WHERE status='PENDING' → 0 row = déjà pris → skip
+ * - Claim par lot : FOR UPDATE SKIP LOCKED → chaque pod réclame des lignes disjointes
+ * - Bail (EventLeaseManager) : un événement d'un pod planté est repris dès l'expiration de son bail
+ * - Hachage cohérent (EventConsumerMembership) : chaque pod ne réclame que les buckets d'agrégats qui lui
+ *   sont attribués → pas de concurrence sur les mêmes lignes, débit proportionnel au nombre de pods
  *
  * Cette architecture évite :
  * - ObjectOptimisticLockingFailureException (conflits @Version inter-événements)
  * - Doublons de traitement (multi-thread / multi-pod Kubernetes)
  * - Rollback en cascade (un échec n'annule pas les autres événements du batch)
+ *
+ * ✅ VOIES DE PRIORITÉ (VoiesTraitement) : chaque voie réclame ses propres types avec son quota,
+ *    son parallélisme et son executor → un pic d'indexation ne retarde plus les paiements
  */
 @Service
 @Slf4j
@@ -38,26 +58,69 @@ public class EventConsumerService {
     private final EventRecordRepository eventRecordRepository;
     private final ApplicationContext applicationContext;
     private final EventTransactionProcessor eventTransactionProcessor;
-    private final ObjectMapper objectMapper;
-    private final List<EventTransactionProcessor.HandlerRegistre> handlersRegistres = new ArrayList<>();
+    private final ParallelEventDispatcher parallelEventDispatcher;
+    private final EventTypeRegistry eventTypeRegistry;
+    private final EventCoalescer eventCoalescer;
+    private final EventLeaseManager eventLeaseManager;
+    private final EventConsumerMembership eventConsumerMembership;
+    private final EventTracing eventTracing;
+    private final List<EventTransactionProcessor.HandlerRegistre> handlersDecouverts;
+    private final HandlerDispatchTable tableDispatch;
+    private VoiesTraitement voies;
 
     @Autowired
     public EventConsumerService(EventRecordRepository eventRecordRepository,
                                 ApplicationContext applicationContext,
-                                EventTransactionProcessor eventTransactionProcessor) {
+                                EventTransactionProcessor eventTransactionProcessor,
+                                ParallelEventDispatcher parallelEventDispatcher,
+                                EventTypeRegistry eventTypeRegistry,
+                                EventCoalescer eventCoalescer,
+                                EventLeaseManager eventLeaseManager,
+                                EventConsumerMembership eventConsumerMembership,
+                                EventTracing eventTracing) {
         this.eventRecordRepository = eventRecordRepository;
         this.applicationContext = applicationContext;
         this.eventTransactionProcessor = eventTransactionProcessor;
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-        decouvririrHandlers();
+        this.parallelEventDispatcher = parallelEventDispatcher;
+        this.eventTypeRegistry = eventTypeRegistry;
+        this.eventCoalescer = eventCoalescer;
+        this.eventLeaseManager = eventLeaseManager;
+        this.eventConsumerMembership = eventConsumerMembership;
+        this.eventTracing = eventTracing;
+        this.handlersDecouverts = decouvririrHandlers();
+        this.tableDispatch = HandlerDispatchTable.construire(handlersDecouverts);
+    }
+
+    /**
+     * Construit les voies de priorité une fois les handlers découverts (configuration events.lanes.*).
+     */
+    @PostConstruct
+    void initialiserVoies() {
+        this.voies = VoiesTraitement.construire(
+                handlersDecouverts, applicationContext.getEnvironment(), eventTypeRegistry);
+    }
+
+    @PreDestroy
+    void arreterVoies() {
+        if (voies != null) {
+            voies.arreter();
+        }
+    }
+
+    /**
+     * @return voies de priorité, la plus prioritaire en premier (une boucle de consommation par voie)
+     */
+    public List<VoieTraitement> voies() {
+        return voies.voies();
     }
 
     /**
-     * Découvre tous les handlers annotés avec @FunctionalHandler au démarrage.
+     * Découvre tous les handlers annotés avec @FunctionalHandler au démarrage
+     * et pré-compile leur appel (HandlerInvoker).
      */
-    private void decouvririrHandlers() {
+    private List<EventTransactionProcessor.HandlerRegistre> decouvririrHandlers() {
         log.info("🔍 Découverte des handlers d'événements...");
+        List<EventTransactionProcessor.HandlerRegistre> handlersRegistres = new ArrayList<>();
 
         String[] nomsBeans = applicationContext.getBeanNamesForType(ConsumerHandler.class);
         log.info("Trouvé {} beans implémentant ConsumerHandler", nomsBeans.length);
@@ -71,6 +134,17 @@ public class EventConsumerService {
             for (Method methode : classeReelle.getDeclaredMethods()) {
                 if (methode.isAnnotationPresent(FunctionalHandler.class)) {
                     FunctionalHandler annotation = methode.getAnnotation(FunctionalHandler.class);
+                    String nomHandler = classeReelle.getSimpleName() + "." + methode.getName();
+                    int maxConcurrence = resoudreMaxConcurrence(nomHandler, annotation);
+
+                    HandlerInvoker invocateur;
+                    try {
+                        invocateur = HandlerInvoker.compiler(bean, classeReelle, methode);
+                    } catch (RuntimeException e) {
+                        log.error("❌ Handler {} ignoré : compilation de l'appel impossible: {}",
+                                nomHandler, e.getMessage(), e);
+                        continue;
+                    }
 
                     EventTransactionProcessor.HandlerRegistre handler =
                             new EventTransactionProcessor.HandlerRegistre(
@@ -78,12 +152,15 @@ public class EventConsumerService {
                                     methode,
                                     annotation.eventType(),
                                     annotation.maxAttempts(),
-                                    classeReelle.getSimpleName() + "." + methode.getName()
+                                    nomHandler,
+                                    maxConcurrence > 0 ? new Semaphore(maxConcurrence) : null,
+                                    invocateur
                             );
 
                     handlersRegistres.add(handler);
-                    log.info("✅ Handler enregistré: {} → type événement: {}",
-                            handler.getNomHandler(), handler.getTypeEvent().getSimpleName());
+                    log.info("✅ Handler enregistré: {} → type événement: {} (concurrence max: {})",
+                            handler.getNomHandler(), handler.getTypeEvent().getSimpleName(),
+                            maxConcurrence > 0 ? maxConcurrence : "illimitée");
                 }
             }
         }
@@ -95,122 +172,260 @@ public class EventConsumerService {
         if (handlersRegistres.isEmpty()) {
             log.warn("⚠️ AUCUN HANDLER ENREGISTRÉ ! Vérifier le scan du module bff-event.");
         }
+        return handlersRegistres;
+    }
+
+    /**
+     * Limite de concurrence d'un handler, par ordre de priorité :
+     * 1. events.consumer.handler.max-concurrency.{Classe.methode}
+     * 2. @FunctionalHandler(maxConcurrency = n)
+     * 3. events.consumer.handler.max-concurrency (0 = illimité)
+     */
+    private int resoudreMaxConcurrence(String nomHandler, FunctionalHandler annotation) {
+        Environment environnement = applicationContext.getEnvironment();
+        Integer surcharge = environnement.getProperty(
+                "events.consumer.handler.max-concurrency." + nomHandler, Integer.class);
+        if (surcharge != null) {
+            return surcharge;
+        }
+        if (annotation.maxConcurrency() > 0) {
+            return annotation.maxConcurrency();
+        }
+        return environnement.getProperty("events.consumer.handler.max-concurrency", Integer.class, 0);
     }
 
     /**
-     * Traite les événements PENDING toutes les 120 secondes.
+     * Réclame et traite un lot d'événements PENDING.
+     * Appelé par EventConsumerLoop à chaque réveil (signal local, NOTIFY PostgreSQL ou poll de sécurité).
      *
+     * ✅ CLAIM GROUPÉ : un seul UPDATE ... FOR UPDATE SKIP LOCKED ... RETURNING pour tout le lot
+     *    (remplace lecture + claim + findById par événement) → les pods ne se disputent plus les mêmes lignes
      * ✅ PAS @Transactional ici :
-     * - Évite une session JPA partagée pour tous les événements du batch
-     * - Chaque événement est traité dans sa propre transaction via EventTransactionProcessor
+     * - Chaque événement est exécuté dans sa propre transaction via EventTransactionProcessor
      * - Un échec sur un événement ne rollback pas les autres
+     * ✅ PARALLÈLE PAR AGRÉGAT : ParallelEventDispatcher exécute les agrégats différents en
+     *    concurrence sur les Virtual Threads, dans l'ordre pour un même agrégat
+     * ✅ WRITE-BACK GROUPÉ : les statuts du lot sont écrits en une transaction à la fin
+     *
+     * @return nombre d'événements réclamés (0 = file vide)
      */
-    @Scheduled(fixedDelay = 120000, initialDelay = 30000)
-    public void processePendingEvents() {
-        // Lecture simple hors transaction (pas de session JPA ouverte)
-        List<EventRecordJpa> evenementsPending = eventRecordRepository.findByStatusOrderByOccurredOnAsc(
-                EventRecordJpa.EventStatus.PENDING,
-                PageRequest.of(0, 10)
-        );
-
-        if (evenementsPending.isEmpty()) {
-            // Vérifier les bloqués même si pas de PENDING
-            eventTransactionProcessor.reinitialiserEvenementsBloques();
-            return;
-        }
-
-        log.info("⚙️ Traitement batch de {} événements PENDING (max 10 par batch)", evenementsPending.size());
-
-        int succes = 0;
-        int echecs = 0;
-        int skips = 0;
-
-        for (EventRecordJpa evenement : evenementsPending) {
-            try {
-                // Trouver les handlers compatibles (lecture mémoire, pas de BDD)
-                List<EventTransactionProcessor.HandlerRegistre> handlersCompatibles =
-                        trouverHandlersCompatibles(evenement);
-
-                if (handlersCompatibles.isEmpty()) {
-                    log.warn("⚠️ Aucun handler pour le type d'événement: {}", evenement.getEventType());
-                    // Marquer comme FAILED dans sa propre transaction via le processor
-                    eventTransactionProcessor.processerEvenement(
-                            evenement.getEventId(), List.of(), objectMapper);
-                    echecs++;
-                    continue;
-                }
+    public int processePendingEvents() {
+        return processePendingEvents(voies.voieParDefaut());
+    }
 
-                // ✅ Traitement dans REQUIRES_NEW → transaction isolée
-                boolean traite = eventTransactionProcessor.processerEvenement(
-                        evenement.getEventId(),
-                        handlersCompatibles,
-                        objectMapper
-                );
-
-                if (traite) {
-                    succes++;
-                } else {
-                    skips++;
-                }
+    /**
+     * Réclame et traite un lot d'événements PENDING d'une voie (appelé par la boucle de la voie).
+     *
+     * ✅ Voie dédiée : claim restreint à ses types, avec son propre quota (events.lanes.{voie}.batch-size)
+     * ✅ Voie par défaut : tous les types sauf ceux des voies dédiées
+     *
+     * @return nombre d'événements réclamés (0 = file vide pour cette voie)
+     */
+    public int processePendingEvents(VoieTraitement voie) {
+        // Buckets de ce pod (hachage cohérent) : vide pendant une passation → rien à réclamer
+        List<Integer> buckets = eventConsumerMembership.bucketsActifs();
+        if (buckets.isEmpty()) {
+            return 0;
+        }
 
-            } catch (Exception e) {
-                echecs++;
-                log.error("❌ Erreur lors du traitement de l'événement {}: {}",
-                        evenement.getEventId(), e.getMessage(), e);
+        LocalDateTime maintenant = LocalDateTime.now();
+        String proprietaire = eventLeaseManager.proprietaire();
+        LocalDateTime bailJusquA = eventLeaseManager.echeanceBail(maintenant);
+        List<EventRecordJpa> evenementsReclames = reclamer(voie.nom(), () -> {
+            if (!voie.parDefaut()) {
+                return eventRecordRepository.claimBatchForProcessingInTypes(
+                        voie.tailleLot(), maintenant, voie.types(), proprietaire, bailJusquA, buckets);
+            }
+            if (voies.typesVoiesDediees().isEmpty()) {
+                return eventRecordRepository.claimBatchForProcessing(
+                        voie.tailleLot(), maintenant, proprietaire, bailJusquA, buckets);
             }
+            return eventRecordRepository.claimBatchForProcessingExcludingTypes(
+                    voie.tailleLot(), maintenant, voies.typesVoiesDediees(), proprietaire, bailJusquA, buckets);
+        });
+
+        if (evenementsReclames.isEmpty()) {
+            return 0;
         }
 
-        log.info("✅ Batch terminé: {} succès, {} échecs, {} skippés", succes, echecs, skips);
+        log.info("⚙️ Voie '{}' : traitement batch de {} événements réclamés (max {} par batch)",
+                voie.nom(), evenementsReclames.size(), voie.tailleLot());
+        return traiterLot(evenementsReclames, voie);
+    }
 
-        // Réinitialiser les événements bloqués dans sa propre transaction
-        eventTransactionProcessor.reinitialiserEvenementsBloques();
+    /**
+     * Dispatch rapide des événements publiés via EventPublisher.publishInTransaction,
+     * appelé par AfterCommitEventDispatcher juste après le commit de la transaction métier.
+     *
+     * ✅ Claim par clé primaire : si le poller (ou un autre pod réveillé par NOTIFY) a déjà
+     *    réclamé un événement, il est simplement ignoré ici
+     * ✅ En cas de crash avant ce dispatch, les événements restent PENDING → repris par le poller
+     *
+     * @return nombre d'événements réclamés et traités
+     */
+    public int traiterEvenementsPublies(Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime maintenant = LocalDateTime.now();
+        List<EventRecordJpa> evenementsReclames = reclamer("after-commit", () ->
+                eventRecordRepository.claimByIdsForProcessing(eventIds, maintenant,
+                        eventLeaseManager.proprietaire(), eventLeaseManager.echeanceBail(maintenant)));
+        if (evenementsReclames.isEmpty()) {
+            return 0;
+        }
+
+        log.debug("⚡ Dispatch après commit de {} événements", evenementsReclames.size());
+
+        // Chaque événement reste dans le bulkhead de sa voie (mêmes permis que la boucle de la voie)
+        Map<VoieTraitement, List<EventRecordJpa>> parVoie = new LinkedHashMap<>();
+        for (EventRecordJpa evenement : evenementsReclames) {
+            parVoie.computeIfAbsent(voies.voiePour(evenement.getEventType()), v -> new ArrayList<>()).add(evenement);
+        }
+        parVoie.forEach((voie, lot) -> traiterLot(lot, voie));
+        return evenementsReclames.size();
     }
 
     /**
-     * Retraitement manuel d'un événement spécifique (appelé depuis EventAdminResource).
+     * Claim dans un span event.claim ; span abandonné (non exporté) si la file est vide,
+     * pour ne pas noyer les traces sous les polls à vide.
+     */
+    private List<EventRecordJpa> reclamer(String voie, Supplier<List<EventRecordJpa>> claim) {
+        Span span = eventTracing.demarrerClaim(voie);
+        try {
+            List<EventRecordJpa> evenementsReclames = new ArrayList<>(claim.get());
+            if (evenementsReclames.isEmpty()) {
+                span.abandon();
+            } else {
+                span.tag("event.count", String.valueOf(evenementsReclames.size())).end();
+            }
+            return evenementsReclames;
+        } catch (RuntimeException e) {
+            span.error(e);
+            span.end();
+            throw e;
+        }
+    }
+
+    /**
+     * Exécute un lot d'événements déjà réclamés (PROCESSING) puis écrit leurs statuts en une transaction.
+     */
+    private int traiterLot(List<EventRecordJpa> evenementsReclames, VoieTraitement voie) {
+        // Bail prolongé par heartbeat tant que le lot n'est pas écrit (handlers longs)
+        List<UUID> eventIds = evenementsReclames.stream().map(EventRecordJpa::getEventId).toList();
+        eventLeaseManager.suivre(eventIds);
+        try {
+            return executerLot(evenementsReclames, voie);
+        } finally {
+            eventLeaseManager.liberer(eventIds);
+        }
+    }
+
+    private int executerLot(List<EventRecordJpa> evenementsReclames, VoieTraitement voie) {
+        // RETURNING ne garantit pas l'ordre → rétablir l'ordre d'occurrence
+        evenementsReclames.sort(Comparator.comparing(EventRecordJpa::getOccurredOn));
+
+        // Événements redondants (ex : DealUpdatedEvent remplacé par une mise à jour plus récente) → non exécutés
+        EventCoalescer.Resultat coalescence = eventCoalescer.coalescer(evenementsReclames);
+        if (!coalescence.fusionnes().isEmpty()) {
+            eventTransactionProcessor.marquerFusionnes(coalescence.fusionnes());
+        }
+        List<EventRecordJpa> aTraiter = coalescence.aTraiter();
+        if (aTraiter.isEmpty()) {
+            return evenementsReclames.size();
+        }
+
+        // Handlers déjà réussis lors d'une tentative précédente → non rejoués (une requête pour le lot)
+        Map<UUID, Set<String>> handlersReussis = eventTransactionProcessor.handlersDejaReussis(aTraiter);
+
+        List<EventTransactionProcessor.ResultatTraitement> resultats = parallelEventDispatcher.executerParAgregat(
+                aTraiter,
+                evenement -> traiterEvenementReclame(
+                        evenement, handlersReussis.getOrDefault(evenement.getEventId(), Set.of())),
+                voie);
+
+        eventTransactionProcessor.appliquerResultats(resultats);
+
+        long succes = resultats.stream().filter(EventTransactionProcessor.ResultatTraitement::succes).count();
+        log.info("✅ Batch terminé: {} succès, {} échecs", succes, resultats.size() - succes);
+
+        return evenementsReclames.size();
+    }
+
+    /**
+     * Exécute UN événement réclamé (appelé en parallèle par ParallelEventDispatcher).
+     * Ne lève jamais d'exception : toute erreur devient un résultat d'échec.
+     */
+    private EventTransactionProcessor.ResultatTraitement traiterEvenementReclame(EventRecordJpa evenement,
+                                                                                Set<String> handlersReussis) {
+        // Trouver les handlers compatibles (lecture mémoire, pas de BDD)
+        List<EventTransactionProcessor.HandlerRegistre> handlersCompatibles = trouverHandlersCompatibles(evenement);
+        if (handlersCompatibles.isEmpty()) {
+            log.warn("⚠️ Aucun handler pour le type d'événement: {}", evenement.getEventType());
+        }
+
+        try {
+            // ✅ Exécution dans REQUIRES_NEW → transaction isolée
+            return eventTransactionProcessor.executerEvenementReclame(
+                    evenement, handlersCompatibles, handlersReussis);
+
+        } catch (Exception e) {
+            // Ex : rollback-only levé au commit de la transaction du handler
+            log.error("❌ Erreur lors du traitement de l'événement {}: {}",
+                    evenement.getEventId(), e.getMessage(), e);
+            return eventTransactionProcessor.echecTransaction(evenement, e.getMessage());
+        }
+    }
+
+    /**
+     * Retraitement manuel d'un événement spécifique (appelé depuis EventAdminResource et FailedEventsRetryBatch).
      *
-     * ✅ Trouve les handlers en mémoire + délègue à EventTransactionProcessor (REQUIRES_NEW)
-     * ✅ Le claim atomique dans processerEvenement() protège contre les doublons
+     * ✅ Même chemin qu'un événement réclamé par lot :
+     * - claim atomique validé dans sa propre transaction (reclamerEvenement) → protège contre les doublons
+     * - handlers exécutés dans leur transaction REQUIRES_NEW (executerEvenementReclame)
+     * - statut et exécutions écrits ensuite par appliquerResultats : un échec au commit de la transaction
+     *   du handler (rollback-only) est enregistré comme échec au lieu d'être perdu avec elle
      *
      * @param eventId UUID de l'événement à retraiter
      * @return true si traité, false si skipé (déjà pris ou inconnu)
      */
     public boolean retraiterEvenement(UUID eventId) {
-        // Lecture hors transaction pour obtenir les infos de base
-        var evenementOpt = eventRecordRepository.findById(eventId);
-        if (evenementOpt.isEmpty()) {
-            log.warn("⚠️ Événement {} introuvable pour retraitement", eventId);
+        Optional<EventRecordJpa> reclame = eventTransactionProcessor.reclamerEvenement(eventId);
+        if (reclame.isEmpty()) {
             return false;
         }
 
-        var evenement = evenementOpt.get();
-        List<EventTransactionProcessor.HandlerRegistre> handlers = trouverHandlersCompatibles(evenement);
-
-        if (handlers.isEmpty()) {
-            log.warn("⚠️ Aucun handler compatible pour retraiter l'événement {} (type={})",
-                    eventId, evenement.getEventType());
+        EventRecordJpa evenement = reclame.get();
+        List<UUID> eventIds = List.of(eventId);
+        // Bail prolongé par heartbeat pendant l'exécution, comme pour un lot
+        eventLeaseManager.suivre(eventIds);
+        try {
+            Set<String> handlersReussis = eventTransactionProcessor.handlersDejaReussis(List.of(evenement))
+                    .getOrDefault(eventId, Set.of());
+            EventTransactionProcessor.ResultatTraitement resultat = traiterEvenementReclame(evenement, handlersReussis);
+            eventTransactionProcessor.appliquerResultats(List.of(resultat));
+        } finally {
+            eventLeaseManager.liberer(eventIds);
         }
+        return true;
+    }
 
-        return eventTransactionProcessor.processerEvenement(eventId, handlers, objectMapper);
+    /**
+     * @param nomHandler nom "Classe.methode" d'un handler @FunctionalHandler
+     * @return handler découvert au démarrage, vide si inconnu
+     */
+    public Optional<EventTransactionProcessor.HandlerRegistre> trouverHandler(String nomHandler) {
+        return handlersDecouverts.stream()
+                .filter(handler -> handler.getNomHandler().equals(nomHandler))
+                .findFirst();
     }
 
     /**
-     * Trouve les handlers compatibles pour un événement (recherche en mémoire).
+     * Trouve les handlers compatibles pour un événement (table de dispatch pré-calculée).
+     * Le type persisté peut être un alias (classe renommée) → résolu en nom canonique.
      */
     private List<EventTransactionProcessor.HandlerRegistre> trouverHandlersCompatibles(
             EventRecordJpa evenement) {
-
-        List<EventTransactionProcessor.HandlerRegistre> compatibles = new ArrayList<>();
-
-        for (EventTransactionProcessor.HandlerRegistre handler : handlersRegistres) {
-            if (handler.getTypeEvent().getSimpleName().equals(evenement.getEventType())
-                    || handler.getTypeEvent().equals(Object.class)) {
-                compatibles.add(handler);
-            }
-        }
-
-        log.debug("Trouvé {} handlers compatibles pour le type: {}",
-                compatibles.size(), evenement.getEventType());
-        return compatibles;
+        return tableDispatch.handlersPour(eventTypeRegistry.nomCanonique(evenement.getEventType()));
     }
 }
@@ -0,0 +1,165 @@
+package com.ulr.paytogether.bff.eventdispatcher.consumer;
+
+import com.ulr.paytogether.bff.eventdispatcher.dispatcher.EventDispatcherConfiguration;
+import com.ulr.paytogether.bff.eventdispatcher.repository.EventRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bail (lease) des événements PROCESSING : remplace le seuil fixe de 15 minutes sur last_attempt_at.
+ *
+ * ✅ Claim : claimed_by = ce pod, lease_until = maintenant + events.consumer.lease.duration-ms
+ * ✅ Heartbeat : UN UPDATE périodique prolonge le bail de tous les événements en cours sur ce pod
+ *    → un handler long (ex : génération de facture) garde son événement tant que le pod est vivant
+ * ✅ Reprise : UN seul UPDATE remet en PENDING les baux expirés → un pod planté est relayé
+ *    en quelques dizaines de secondes au lieu d'un quart d'heure
+ *
+ * ⚠️ Un handler bloqué indéfiniment ne garde pas son bail au-delà de events.consumer.lease.max-duration-ms.
+ */
+@Component
+@Slf4j
+public class EventLeaseManager {
+
+    private static final int LONGUEUR_MAX_PROPRIETAIRE = 100;
+    static final String MESSAGE_BAIL_EXPIRE =
+            "Bail expiré sur la dernière tentative (pod arrêté ou planté pendant le traitement)";
+
+    private final EventRecordRepository eventRecordRepository;
+    private final EventWakeupSignal eventWakeupSignal;
+    private final String proprietaire;
+    private final Duration dureeBail;
+    private final Duration dureeMaxTraitement;
+
+    // Événements en cours sur ce pod → début de traitement
+    private final Map<UUID, LocalDateTime> enCours = new ConcurrentHashMap<>();
+
+    public EventLeaseManager(EventRecordRepository eventRecordRepository,
+                             EventWakeupSignal eventWakeupSignal,
+                             @Value("${events.consumer.lease.owner:}") String proprietaire,
+                             @Value("${events.consumer.lease.duration-ms:60000}") long dureeBailMs,
+                             @Value("${events.consumer.lease.max-duration-ms:1800000}") long dureeMaxTraitementMs) {
+        this.eventRecordRepository = eventRecordRepository;
+        this.eventWakeupSignal = eventWakeupSignal;
+        this.proprietaire = proprietaire.isBlank() ? identifiantPod() : tronquer(proprietaire);
+        this.dureeBail = Duration.ofMillis(dureeBailMs);
+        this.dureeMaxTraitement = Duration.ofMillis(dureeMaxTraitementMs);
+        log.info("🔐 Bail des événements : propriétaire '{}', durée {} s",
+                this.proprietaire, dureeBail.toSeconds());
+    }
+
+    /**
+     * @return identifiant de ce consommateur (colonne claimed_by)
+     */
+    public String proprietaire() {
+        return proprietaire;
+    }
+
+    /**
+     * @return échéance d'un bail pris ou prolongé à {@code maintenant}
+     */
+    public LocalDateTime echeanceBail(LocalDateTime maintenant) {
+        return maintenant.plus(dureeBail);
+    }
+
+    /**
+     * Déclare des événements réclamés par ce pod : leur bail sera prolongé jusqu'à {@link #liberer}.
+     */
+    public void suivre(Collection<UUID> eventIds) {
+        LocalDateTime maintenant = LocalDateTime.now();
+        eventIds.forEach(eventId -> enCours.put(eventId, maintenant));
+    }
+
+    /**
+     * Fin de traitement (statut écrit) : plus de heartbeat pour ces événements.
+     */
+    public void liberer(Collection<UUID> eventIds) {
+        eventIds.forEach(enCours::remove);
+    }
+
+    /**
+     * Heartbeat : prolonge en UNE requête le bail des événements en cours sur ce pod.
+     */
+    @Scheduled(fixedDelayString = "${events.consumer.lease.heartbeat-interval-ms:20000}",
+            scheduler = EventDispatcherConfiguration.SCHEDULER_HEARTBEATS)
+    @Transactional
+    public void prolongerBaux() {
+        if (enCours.isEmpty()) {
+            return;
+        }
+        LocalDateTime maintenant = LocalDateTime.now();
+        LocalDateTime limite = maintenant.minus(dureeMaxTraitement);
+
+        List<UUID> aProlonger = enCours.entrySet().stream()
+                .filter(entree -> entree.getValue().isAfter(limite))
+                .map(Map.Entry::getKey)
+                .toList();
+        if (aProlonger.size() < enCours.size()) {
+            log.warn("⚠️ {} événement(s) en cours depuis plus de {} min : bail non prolongé",
+                    enCours.size() - aProlonger.size(), dureeMaxTraitement.toMinutes());
+        }
+        if (aProlonger.isEmpty()) {
+            return;
+        }
+
+        try {
+            int prolonges = eventRecordRepository.extendLeases(aProlonger, proprietaire, echeanceBail(maintenant));
+            log.debug("💓 Bail prolongé pour {}/{} événements en cours", prolonges, aProlonger.size());
+        } catch (Exception e) {
+            log.warn("⚠️ Prolongation des baux impossible: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reprise groupée des baux expirés (pod arrêté ou planté) puis réveil du consommateur local.
+     * La tentative interrompue compte : à max_attempts, l'événement passe en FAILED au lieu d'être repris.
+     *
+     * @return nombre d'événements remis en PENDING
+     */
+    @Scheduled(fixedDelayString = "${events.consumer.lease.reclaim-interval-ms:10000}", initialDelay = 10000)
+    @Transactional
+    public int recupererBauxExpires() {
+        LocalDateTime maintenant = LocalDateTime.now();
+        // Événements réclamés avant l'introduction du bail (lease_until NULL) : ancien seuil de 15 minutes
+        LocalDateTime seuilSansBail = maintenant.minusMinutes(15);
+
+        int echoues = eventRecordRepository.failExhaustedExpiredLeases(maintenant, seuilSansBail, MESSAGE_BAIL_EXPIRE);
+        if (echoues > 0) {
+            log.error("⛔ {} événement(s) au bail expiré sur leur dernière tentative → FAILED", echoues);
+        }
+
+        int repris = eventRecordRepository.reclaimExpiredLeases(maintenant, seuilSansBail);
+        if (repris > 0) {
+            log.warn("⚠️ {} événement(s) au bail expiré repris → PENDING", repris);
+            eventWakeupSignal.signaler();
+        }
+        return repris;
+    }
+
+    private static String identifiantPod() {
+        String hote;
+        try {
+            // Kubernetes : le hostname est le nom du pod
+            hote = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            hote = "inconnu";
+        }
+        return tronquer(hote + "-" + ProcessHandle.current().pid());
+    }
+
+    private static String tronquer(String valeur) {
+        return valeur.length() <= LONGUEUR_MAX_PROPRIETAIRE ? valeur : valeur.substring(0, LONGUEUR_MAX_PROPRIETAIRE);
+    }
+}
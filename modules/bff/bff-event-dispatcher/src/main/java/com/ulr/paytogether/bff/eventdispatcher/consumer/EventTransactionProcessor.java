@@ -1,18 +1,36 @@
 package com.ulr.paytogether.bff.eventdispatcher.consumer;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ulr.paytogether.bff.eventdispatcher.coalescing.EventCoalescer;
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventHandlerExecutionJpa;
 import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa;
+import com.ulr.paytogether.bff.eventdispatcher.idempotency.HandlerIdempotencyStore;
+import com.ulr.paytogether.bff.eventdispatcher.metrics.EventDispatcherMetrics;
+import com.ulr.paytogether.bff.eventdispatcher.registry.EventTypeRegistry;
+import com.ulr.paytogether.bff.eventdispatcher.repository.EventHandlerExecutionRepository;
 import com.ulr.paytogether.bff.eventdispatcher.repository.EventRecordRepository;
+import com.ulr.paytogether.bff.eventdispatcher.tracing.EventTracing;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.concurrent.Semaphore;
 
 /**
  * Service dédié à l'exécution d'UN seul événement dans sa propre transaction isolée.
@@ -25,6 +43,28 @@ import java.util.UUID;
  * - Chaque événement a sa propre transaction indépendante
  * - Un échec sur un événement ne rollback pas les autres
  * - Pas de conflit de version @Version entre événements du même batch
+ *
+ * ✅ SUIVI PAR HANDLER (event_handler_execution) :
+ * - Un retraitement ne relance que les handlers qui n'ont pas encore réussi
+ * - Premier passage réussi : rien n'est écrit (sauf events.consumer.handler-execution.track-all=true)
+ *
+ * ✅ IDEMPOTENCE (HandlerIdempotencyStore) :
+ * - Chaque handler réussi est inscrit au registre (eventId, handler) après le commit
+ * - Une relivraison (bail expiré, dispatch concurrent) saute les handlers déjà inscrits
+ *
+ * ✅ TRACING (EventTracing) : span event.consume lié à la trace de publication,
+ *    spans enfants event.deserialize et event.handler
+ *
+ * ✅ NOUVELLES TENTATIVES AUTOMATIQUES (RetryBackoffPolicy) :
+ * - Échec avant max_attempts (plus grand @FunctionalHandler.maxAttempts du type) → retour en PENDING avec next_attempt_at (backoff + jitter)
+ * - Tentatives épuisées → FAILED (ou PERMANENTLY_FAILED après retraitement manuel)
+ *
+ * ⚠️ FENÊTRE DE RELIVRAISON : les handlers commitent dans leur transaction (executerEvenementReclame),
+ *    le statut CONSUMED est écrit APRÈS, dans celle d'appliquerResultats. Un pod qui s'arrête entre
+ *    les deux laisse l'événement PROCESSING : il est repris en PENDING à l'expiration du bail
+ *    (EventLeaseManager) puis relivré. Le registre d'idempotence ne fait que réduire cette fenêtre
+ *    (inscription après commit, elle-même perdue si le pod s'arrête avant) : les handlers doivent
+ *    rester idempotents.
  */
 @Service
 @RequiredArgsConstructor
@@ -32,165 +72,424 @@ import java.util.UUID;
 public class EventTransactionProcessor {
 
     private final EventRecordRepository eventRecordRepository;
+    private final EventTypeRegistry eventTypeRegistry;
+    private final EventHandlerExecutionRepository eventHandlerExecutionRepository;
+    private final RetryBackoffPolicy retryBackoffPolicy;
+    private final EventWakeupSignal eventWakeupSignal;
+    private final EventDispatcherMetrics eventDispatcherMetrics;
+    private final EventLeaseManager eventLeaseManager;
+    private final HandlerIdempotencyStore handlerIdempotencyStore;
+    private final EventTracing eventTracing;
+
+    /**
+     * true = trace toutes les exécutions (durées incluses), même au premier passage réussi
+     * false = trace uniquement les événements en échec ou déjà retentés (seuls cas utiles au retraitement)
+     */
+    @Value("${events.consumer.handler-execution.track-all:false}")
+    private boolean suivreToutesExecutions;
 
     /**
-     * Traite un événement dans une transaction ISOLATED (REQUIRES_NEW).
+     * Réclame UN événement (retraitement manuel) dans sa propre transaction, validée avant l'exécution.
      *
      * ✅ CLAIM ATOMIQUE : UPDATE ... WHERE status = PENDING
      * - Si 0 lignes → déjà pris par un autre thread/pod → skip
-     * - Si 1 ligne → on est propriétaire → continuer le traitement
+     * - Si 1 ligne → on est propriétaire → exécution via executerEvenementReclame(),
+     *   statut écrit ensuite par appliquerResultats() (comme un événement réclamé par lot)
      *
-     * @param eventId          UUID de l'événement à traiter
-     * @param handlers         liste des handlers compatibles (déjà calculée)
-     * @param objectMapper     ObjectMapper pour désérialiser le payload
-     * @return true si traité, false si skippé (déjà pris)
+     * @param eventId UUID de l'événement à réclamer
+     * @return événement en statut PROCESSING, vide si skippé (déjà pris ou introuvable)
      */
     @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
-    public boolean processerEvenement(UUID eventId,
-                                      List<HandlerRegistre> handlers,
-                                      ObjectMapper objectMapper) {
+    public Optional<EventRecordJpa> reclamerEvenement(UUID eventId) {
 
         // ✅ CLAIM ATOMIQUE : protège contre les accès concurrents (multi-thread / multi-pod)
         // UPDATE event_record SET status='PROCESSING' WHERE id=? AND status='PENDING'
-        int claimed = eventRecordRepository.claimForProcessing(eventId, LocalDateTime.now());
+        LocalDateTime debutClaim = LocalDateTime.now();
+        int claimed = eventRecordRepository.claimForProcessing(eventId, debutClaim,
+                eventLeaseManager.proprietaire(), eventLeaseManager.echeanceBail(debutClaim));
 
         if (claimed == 0) {
+            eventDispatcherMetrics.enregistrerConflitClaim();
             log.warn("⏭️ Événement {} déjà pris par un autre thread/pod, skip", eventId);
-            return false;
+            return Optional.empty();
         }
 
         // Recharger depuis la BDD (état PROCESSING garanti, version fraîche)
-        EventRecordJpa evenement = eventRecordRepository.findById(eventId).orElse(null);
-        if (evenement == null) {
+        Optional<EventRecordJpa> evenement = eventRecordRepository.findById(eventId);
+        if (evenement.isEmpty()) {
             log.warn("⚠️ Événement {} introuvable après claim, skip", eventId);
-            return false;
         }
+        return evenement;
+    }
 
-        try {
-            // Désérialiser le payload
-            Object event = deserialiserPayload(evenement, objectMapper);
-
-            // Exécuter tous les handlers compatibles
-            boolean tousSucces = true;
-            StringBuilder erreurs = new StringBuilder();
-
-            for (HandlerRegistre handler : handlers) {
-                try {
-                    executerHandler(handler, event, evenement);
-                } catch (Exception e) {
-                    tousSucces = false;
-                    erreurs.append(handler.getNomHandler())
-                           .append(": ").append(e.getMessage()).append("; ");
-                    log.error("❌ Erreur handler {} pour événement {}: {}",
-                            handler.getNomHandler(), eventId, e.getMessage(), e);
-                }
-            }
+    /**
+     * Exécute les handlers d'un événement DÉJÀ réclamé (claim par lot via claimBatchForProcessing).
+     *
+     * ✅ Pas de claim ni de findById : l'entité vient du RETURNING du claim groupé
+     * ✅ Pas d'écriture de statut : le résultat est renvoyé et appliqué en lot par appliquerResultats()
+     *
+     * @param evenement       événement en statut PROCESSING
+     * @param handlers        liste des handlers compatibles (déjà calculée)
+     * @param handlersReussis handlers ayant déjà réussi lors d'une tentative précédente (non rejoués)
+     * @return résultat du traitement (succès ou statut d'échec + message, exécutions par handler)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public ResultatTraitement executerEvenementReclame(EventRecordJpa evenement,
+                                                       List<HandlerRegistre> handlers,
+                                                       Set<String> handlersReussis) {
+        return executerHandlers(evenement, handlers, handlersReussis);
+    }
 
-            if (tousSucces) {
-                marquerConsomme(evenement, handlers.get(0).getNomHandler());
-            } else {
-                gererEchec(evenement, erreurs.toString());
+    /**
+     * Rejoue UN événement sur UN handler (EventReplayService), dans sa propre transaction.
+     *
+     * ✅ Statut, tentatives et suivi par handler de l'événement ne sont pas modifiés
+     * ✅ Limite de concurrence du handler respectée, comme en consommation normale
+     *
+     * @throws Exception erreur de désérialisation ou du handler (comptée comme échec du rejeu)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void rejouerEvenement(EventRecordJpa evenement, HandlerRegistre handler) throws Exception {
+        Span consommation = eventTracing.demarrerConsommation(evenement).tag("event.replay", "true");
+        try (Tracer.SpanInScope ignored = eventTracing.activer(consommation)) {
+            Object event = deserialiserPayloadTrace(evenement);
+            long debut = System.nanoTime();
+            Exception erreur = null;
+            try {
+                invoquerTrace(handler, event);
+            } catch (Exception e) {
+                erreur = e;
+                throw e;
+            } finally {
+                eventDispatcherMetrics.enregistrerExecutionHandler(
+                        handler.getNomHandler(), erreur == null, System.nanoTime() - debut);
             }
-
-        } catch (Exception e) {
-            log.error("❌ Erreur traitement événement {}: {}", eventId, e.getMessage(), e);
-            gererEchec(evenement, e.getMessage());
+        } finally {
+            consommation.end();
         }
+    }
 
-        return true;
+    /**
+     * Handlers ayant déjà réussi, pour un lot d'événements (registre d'idempotence, UN aller-retour par lot).
+     * Seuls les événements déjà tentés (échec ou retraitement) sont aussi cherchés dans event_handler_execution.
+     *
+     * @return eventId → noms des handlers déjà réussis
+     */
+    public Map<UUID, Set<String>> handlersDejaReussis(Collection<EventRecordJpa> evenements) {
+        if (evenements.isEmpty()) {
+            return Map.of();
+        }
+        List<UUID> dejaTentes = evenements.stream()
+                .filter(this::dejaTente)
+                .map(EventRecordJpa::getEventId)
+                .toList();
+        return handlerIdempotencyStore.handlersTraites(
+                evenements.stream().map(EventRecordJpa::getEventId).toList(), dejaTentes);
     }
 
     /**
-     * Réinitialise les événements bloqués dans sa propre transaction.
+     * Applique les résultats d'un lot en base dans une seule transaction.
+     *
+     * ✅ Succès : UN UPDATE ... WHERE event_id IN (...) par handler consommateur (consumer_handler),
+     *    soit un ou quelques UPDATE par lot
+     * ✅ Échecs : un UPDATE par événement (message d'erreur + next_attempt_at propres à chacun)
+     * ✅ Exécutions par handler : un SELECT + un saveAll pour tout le lot
+     *
+     * ⚠️ Transaction distincte de celle des handlers : voir la fenêtre de relivraison (javadoc de la classe).
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void reinitialiserEvenementsBloques() {
-        LocalDateTime seuil = LocalDateTime.now().minusMinutes(15);
-        List<EventRecordJpa> evenementsBloques = eventRecordRepository.findStuckEvents(seuil);
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void appliquerResultats(List<ResultatTraitement> resultats) {
+        LocalDateTime maintenant = LocalDateTime.now();
+
+        Map<String, List<UUID>> consommesParHandler = resultats.stream()
+                .filter(ResultatTraitement::succes)
+                .collect(Collectors.groupingBy(ResultatTraitement::consumerHandler,
+                        Collectors.mapping(ResultatTraitement::eventId, Collectors.toList())));
+        consommesParHandler.forEach((consumerHandler, consommes) ->
+                eventRecordRepository.markConsumed(consommes, consumerHandler, maintenant));
+        resultats.stream()
+                .filter(ResultatTraitement::succes)
+                .forEach(resultat -> eventDispatcherMetrics.enregistrerResultat(
+                        resultat.eventType(), EventRecordJpa.EventStatus.CONSUMED.name()));
+
+        for (ResultatTraitement resultat : resultats) {
+            if (!resultat.succes()) {
+                appliquerEchec(resultat, maintenant);
+            }
+        }
 
-        if (!evenementsBloques.isEmpty()) {
-            log.warn("⚠️ {} événements bloqués (PROCESSING > 15 min), réinitialisation → PENDING",
-                    evenementsBloques.size());
+        enregistrerExecutions(resultats, maintenant);
+    }
 
-            for (EventRecordJpa evt : evenementsBloques) {
-                log.warn("⚠️ Réinit événement bloqué: {} type={} tentative={}/{} dernier={} ",
-                        evt.getEventId(), evt.getEventType(),
-                        evt.getAttempts(), evt.getMaxAttempts(),
-                        evt.getLastAttemptAt());
+    /**
+     * Marque CONSUMED (consumer_handler = COALESCED) les événements fusionnés par EventCoalescer,
+     * en UN seul UPDATE, sans appeler leurs handlers.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void marquerFusionnes(List<EventRecordJpa> fusionnes) {
+        eventRecordRepository.markCoalesced(
+                fusionnes.stream().map(EventRecordJpa::getEventId).toList(),
+                EventCoalescer.HANDLER_COALESCE, LocalDateTime.now());
+        fusionnes.forEach(evenement -> eventDispatcherMetrics.enregistrerResultat(
+                eventTypeRegistry.nomCanonique(evenement.getEventType()), EventDispatcherMetrics.STATUT_FUSIONNE));
+    }
 
-                // Utiliser @Modifying query pour éviter conflit @Version
-                eventRecordRepository.updateStatus(
-                        evt.getEventId(),
-                        EventRecordJpa.EventStatus.PENDING,
-                        LocalDateTime.now());
-            }
-        }
+    /**
+     * Résultat d'échec d'un événement dont la transaction n'a pas pu être validée
+     * (ex : rollback-only levé au commit) : même politique de nouvelle tentative.
+     */
+    public ResultatTraitement echecTransaction(EventRecordJpa evenement, String messageErreur) {
+        return echec(evenement, messageErreur, List.of());
     }
 
     // ────────────────────────────────────────────────────────────────────────────
     // Méthodes privées
     // ────────────────────────────────────────────────────────────────────────────
 
-    private Object deserialiserPayload(EventRecordJpa evenement, ObjectMapper objectMapper) throws Exception {
-        String corePackage = "com.ulr.paytogether.core.event";
+    /**
+     * ✅ ObjectReader pré-construit par le registre (pas de Class.forName par événement),
+     *    alias et upcasting de version gérés par EventTypeRegistry
+     */
+    private Object deserialiserPayload(EventRecordJpa evenement) throws Exception {
+        int schemaVersion = evenement.getSchemaVersion() != null ? evenement.getSchemaVersion() : 1;
+        return eventTypeRegistry.deserialiser(evenement.getEventType(), schemaVersion, evenement.getPayload());
+    }
+
+    /**
+     * Exécute les handlers pas encore réussis d'un événement et collecte leur résultat individuel,
+     * dans un span CONSUMER lié à la trace de publication.
+     * Ne lève jamais d'exception : toute erreur devient un résultat d'échec.
+     */
+    private ResultatTraitement executerHandlers(EventRecordJpa evenement,
+                                                List<HandlerRegistre> handlers,
+                                                Set<String> handlersReussis) {
+        Span consommation = eventTracing.demarrerConsommation(evenement);
+        try (Tracer.SpanInScope ignored = eventTracing.activer(consommation)) {
+            ResultatTraitement resultat = executerHandlersNonTraces(evenement, handlers, handlersReussis);
+            if (!resultat.succes()) {
+                consommation.tag("event.outcome", resultat.statutEchec().name());
+            }
+            return resultat;
+        } finally {
+            consommation.end();
+        }
+    }
+
+    private ResultatTraitement executerHandlersNonTraces(EventRecordJpa evenement,
+                                                         List<HandlerRegistre> handlers,
+                                                         Set<String> handlersReussis) {
+        if (handlers.isEmpty()) {
+            return echec(evenement, "Aucun handler pour le type d'événement: " + evenement.getEventType(),
+                    List.of());
+        }
+
+        Object event;
         try {
-            Class<?> classeEvent = Class.forName(corePackage + "." + evenement.getEventType());
-            return objectMapper.readValue(evenement.getPayload(), classeEvent);
-        } catch (ClassNotFoundException e) {
-            throw new ClassNotFoundException(
-                    "Classe événement non trouvée: " + evenement.getEventType() + " dans " + corePackage);
+            event = deserialiserPayloadTrace(evenement);
+        } catch (Exception e) {
+            log.error("❌ Erreur traitement événement {}: {}", evenement.getEventId(), e.getMessage(), e);
+            return echec(evenement, e.getMessage(), List.of());
+        }
+
+        List<ExecutionHandler> executions = new ArrayList<>();
+        List<String> handlersExecutes = new ArrayList<>();
+        StringBuilder erreurs = new StringBuilder();
+        for (HandlerRegistre handler : handlers) {
+            if (handlersReussis.contains(handler.getNomHandler())) {
+                log.info("⏭️ Handler {} déjà réussi pour l'événement {}, non rejoué",
+                        handler.getNomHandler(), evenement.getEventId());
+                continue;
+            }
+
+            long debut = System.nanoTime();
+            try {
+                executerHandler(handler, event, evenement);
+                executions.add(execution(handler, debut, null));
+                handlersExecutes.add(handler.getNomHandler());
+            } catch (Exception e) {
+                executions.add(execution(handler, debut, e));
+                erreurs.append(handler.getNomHandler())
+                       .append(": ").append(e.getMessage()).append("; ");
+                log.error("❌ Erreur handler {} pour événement {}: {}",
+                        handler.getNomHandler(), evenement.getEventId(), e.getMessage(), e);
+            }
         }
+
+        // Registre d'idempotence : une relivraison (bail expiré, retraitement) ne relancera pas ces handlers
+        handlerIdempotencyStore.enregistrerApresCommit(evenement.getEventId(), handlersExecutes);
+
+        // Premier passage entièrement réussi : l'événement sera CONSUMED, l'historique n'est pas nécessaire
+        boolean suivre = suivreToutesExecutions || !erreurs.isEmpty() || dejaTente(evenement);
+        List<ExecutionHandler> executionsSuivies = suivre ? executions : List.of();
+
+        if (erreurs.isEmpty()) {
+            String typeCanonique = eventTypeRegistry.nomCanonique(evenement.getEventType());
+            eventDispatcherMetrics.enregistrerLatence(typeCanonique, evenement.getOccurredOn());
+            // Dernier handler du type : celui qui a consommé l'événement (tous ont réussi, ici ou avant)
+            String consumerHandler = handlers.get(handlers.size() - 1).getNomHandler();
+            return ResultatTraitement.reussite(evenement, typeCanonique, consumerHandler, executionsSuivies);
+        }
+
+        return echec(evenement, erreurs.toString(), executionsSuivies);
     }
 
-    private void executerHandler(HandlerRegistre handler, Object event, EventRecordJpa evenement)
-            throws Exception {
-        Method methode = handler.getMethode();
-        methode.setAccessible(true);
-        methode.invoke(handler.getInstanceHandler(), event);
-        evenement.setConsumerHandler(handler.getNomHandler());
+    /**
+     * Échec d'une tentative : nouvelle tentative planifiée (backoff exponentiel + jitter)
+     * tant que max_attempts n'est pas atteint, échec définitif sinon.
+     * max_attempts est fixé à la publication (EventMaxAttemptsRegistry) : même plafond que la reprise
+     * des baux expirés.
+     */
+    private ResultatTraitement echec(EventRecordJpa evenement, String messageErreur,
+                                     List<ExecutionHandler> executions) {
+        int tentative = evenement.getAttempts() + 1;
+        int maxTentatives = evenement.getMaxAttempts();
+
+        String typeCanonique = eventTypeRegistry.nomCanonique(evenement.getEventType());
+        if (tentative >= maxTentatives) {
+            return ResultatTraitement.echec(evenement, typeCanonique, messageErreur, executions);
+        }
 
-        log.info("✅ Handler {} a consommé l'événement {} (type={})",
-                handler.getNomHandler(), evenement.getEventId(), evenement.getEventType());
+        LocalDateTime prochaineTentative = retryBackoffPolicy.prochaineTentative(tentative, LocalDateTime.now());
+        return ResultatTraitement.nouvelleTentative(evenement, typeCanonique, messageErreur, executions,
+                prochaineTentative);
     }
 
-    private void marquerConsomme(EventRecordJpa evenement, String nomHandler) {
-        // ✅ @Modifying query : pas de conflit @Version (UPDATE direct sans passer par l'entité gérée)
-        eventRecordRepository.updateStatus(
-                evenement.getEventId(),
-                EventRecordJpa.EventStatus.CONSUMED,
-                LocalDateTime.now());
+    /**
+     * Écrit l'échec d'un événement : PENDING + next_attempt_at si une nouvelle tentative est planifiée,
+     * FAILED / PERMANENTLY_FAILED sinon.
+     */
+    private void appliquerEchec(ResultatTraitement resultat, LocalDateTime maintenant) {
+        LocalDateTime prochaineTentative = resultat.prochaineTentative() != null
+                ? resultat.prochaineTentative()
+                : maintenant;
+        eventRecordRepository.markFailed(resultat.eventId(), resultat.statutEchec(),
+                resultat.messageErreur(), prochaineTentative, maintenant);
+
+        boolean nouvelleTentative = resultat.statutEchec() == EventRecordJpa.EventStatus.PENDING;
+        eventDispatcherMetrics.enregistrerResultat(resultat.eventType(), nouvelleTentative
+                ? EventDispatcherMetrics.STATUT_NOUVELLE_TENTATIVE
+                : resultat.statutEchec().name());
+
+        if (nouvelleTentative) {
+            log.warn("🔁 Événement {} → nouvelle tentative à {}", resultat.eventId(), prochaineTentative);
+            // Réveiller le consommateur local à l'échéance (le poll de sécurité peut être bien plus long)
+            eventWakeupSignal.planifierReveil(Duration.between(maintenant, prochaineTentative));
+        } else {
+            log.warn("⚠️ Événement {} → {}", resultat.eventId(), resultat.statutEchec());
+        }
+    }
+
+    /**
+     * Enregistre les exécutions par handler d'un lot de résultats (upsert via l'entité gérée).
+     */
+    private void enregistrerExecutions(List<ResultatTraitement> resultats, LocalDateTime maintenant) {
+        List<UUID> eventIds = resultats.stream()
+                .filter(resultat -> !resultat.executions().isEmpty())
+                .map(ResultatTraitement::eventId)
+                .toList();
+        if (eventIds.isEmpty()) {
+            return;
+        }
 
-        log.info("✅ Événement {} marqué CONSUMED par {}", evenement.getEventId(), nomHandler);
+        Map<EventHandlerExecutionJpa.Cle, EventHandlerExecutionJpa> existantes =
+                eventHandlerExecutionRepository.findByEventIdIn(eventIds).stream()
+                        .collect(Collectors.toMap(
+                                execution -> new EventHandlerExecutionJpa.Cle(
+                                        execution.getEventId(), execution.getHandlerName()),
+                                Function.identity()));
+
+        List<EventHandlerExecutionJpa> aEnregistrer = new ArrayList<>();
+        for (ResultatTraitement resultat : resultats) {
+            for (ExecutionHandler execution : resultat.executions()) {
+                EventHandlerExecutionJpa entite = existantes.computeIfAbsent(
+                        new EventHandlerExecutionJpa.Cle(resultat.eventId(), execution.nomHandler()),
+                        cle -> EventHandlerExecutionJpa.builder()
+                                .eventId(cle.getEventId())
+                                .handlerName(cle.getHandlerName())
+                                .build());
+
+                entite.setAttempts(entite.getAttempts() + 1);
+                entite.setLastDurationMs(execution.dureeMs());
+                entite.setLastAttemptAt(maintenant);
+                if (execution.succes()) {
+                    entite.setStatus(EventHandlerExecutionJpa.ExecutionStatus.SUCCEEDED);
+                    entite.setErrorMessage(null);
+                    entite.setSucceededAt(maintenant);
+                } else {
+                    entite.setStatus(EventHandlerExecutionJpa.ExecutionStatus.FAILED);
+                    entite.setErrorMessage(execution.messageErreur());
+                }
+                aEnregistrer.add(entite);
+            }
+        }
+        eventHandlerExecutionRepository.saveAll(aEnregistrer);
     }
 
-    private void gererEchec(EventRecordJpa evenement, String messageErreur) {
-        evenement.setAttempts(evenement.getAttempts() + 1);
+    private boolean dejaTente(EventRecordJpa evenement) {
+        return evenement.getAttempts() > 0 || evenement.getRetryCount() > 0;
+    }
 
-        boolean estUnRetry = evenement.getRetryCount() > 0;
+    /**
+     * Résultat d'exécution d'un handler (durée mesurée depuis {@code debutNanos}), publié en métrique
+     */
+    private ExecutionHandler execution(HandlerRegistre handler, long debutNanos, Exception erreur) {
+        long dureeNanos = System.nanoTime() - debutNanos;
+        eventDispatcherMetrics.enregistrerExecutionHandler(handler.getNomHandler(), erreur == null, dureeNanos);
+        return new ExecutionHandler(handler.getNomHandler(), erreur == null, dureeNanos / 1_000_000,
+                erreur != null ? erreur.getMessage() : null);
+    }
 
-        if (estUnRetry) {
-            // Après retraitement manuel → PERMANENTLY_FAILED
-            log.error("❌ Échec APRÈS RETRY pour événement {} (retryCount={}, tentative {}): {}",
-                    evenement.getEventId(), evenement.getRetryCount(),
-                    evenement.getAttempts(), messageErreur);
+    private void executerHandler(HandlerRegistre handler, Object event, EventRecordJpa evenement)
+            throws Exception {
+        invoquerTrace(handler, event);
 
-            eventRecordRepository.updateStatus(
-                    evenement.getEventId(),
-                    EventRecordJpa.EventStatus.PERMANENTLY_FAILED,
-                    LocalDateTime.now());
+        log.info("✅ Handler {} a consommé l'événement {} (type={})",
+                handler.getNomHandler(), evenement.getEventId(), evenement.getEventType());
+    }
 
-            log.warn("⛔ Événement {} → PERMANENTLY_FAILED", evenement.getEventId());
-        } else {
-            // Premier échec → FAILED (retraitable manuellement)
-            log.error("❌ Échec pour événement {} (tentative {}): {}",
-                    evenement.getEventId(), evenement.getAttempts(), messageErreur);
+    /**
+     * Désérialisation dans son propre span (event.deserialize)
+     */
+    private Object deserialiserPayloadTrace(EventRecordJpa evenement) throws Exception {
+        Span span = eventTracing.demarrer("event.deserialize");
+        try {
+            return deserialiserPayload(evenement);
+        } catch (Exception e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
 
-            eventRecordRepository.updateStatus(
-                    evenement.getEventId(),
-                    EventRecordJpa.EventStatus.FAILED,
-                    LocalDateTime.now());
+    /**
+     * Invocation d'un handler dans son propre span (event.handler), attente du sémaphore incluse
+     */
+    private void invoquerTrace(HandlerRegistre handler, Object event) throws Exception {
+        Span span = eventTracing.demarrer("event.handler").tag("handler", handler.getNomHandler());
+        try (Tracer.SpanInScope ignored = eventTracing.activer(span)) {
+            invoquer(handler, event);
+        } catch (Exception e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
 
-            log.warn("⚠️ Événement {} → FAILED (retraitement manuel possible)", evenement.getEventId());
+    private void invoquer(HandlerRegistre handler, Object event) throws Exception {
+        // Limite de concurrence propre au handler (null = illimitée)
+        Semaphore limite = handler.getLimiteConcurrence();
+        if (limite != null) {
+            limite.acquire();
+        }
+        try {
+            // ✅ Appel pré-compilé (LambdaMetafactory) : pas de réflexion sur le chemin chaud
+            handler.getInvocateur().invoquer(event);
+        } finally {
+            if (limite != null) {
+                limite.release();
+            }
         }
     }
 
@@ -198,6 +497,54 @@ public class EventTransactionProcessor {
     // DTO interne pour les handlers enregistrés
     // ────────────────────────────────────────────────────────────────────────────
 
+    /**
+     * Résultat du traitement d'un événement réclamé, appliqué en lot par appliquerResultats().
+     * Un échec après retraitement manuel (retryCount > 0) devient PERMANENTLY_FAILED.
+     * Une nouvelle tentative planifiée a pour statut PENDING et une {@code prochaineTentative}.
+     * {@code executions} : exécutions par handler à tracer (vide si le suivi n'est pas nécessaire).
+     * {@code eventType} : nom canonique (alias résolu) → un seul tag de métrique par type, même renommé.
+     * {@code consumerHandler} : handler écrit dans consumer_handler (succès uniquement).
+     */
+    public record ResultatTraitement(UUID eventId,
+                                     String eventType,
+                                     boolean succes,
+                                     String consumerHandler,
+                                     EventRecordJpa.EventStatus statutEchec,
+                                     String messageErreur,
+                                     List<ExecutionHandler> executions,
+                                     LocalDateTime prochaineTentative) {
+
+        static ResultatTraitement reussite(EventRecordJpa evenement, String typeCanonique,
+                                           String consumerHandler, List<ExecutionHandler> executions) {
+            return new ResultatTraitement(evenement.getEventId(), typeCanonique, true, consumerHandler,
+                    null, null, executions, null);
+        }
+
+        static ResultatTraitement nouvelleTentative(EventRecordJpa evenement, String typeCanonique,
+                                                    String messageErreur,
+                                                    List<ExecutionHandler> executions,
+                                                    LocalDateTime prochaineTentative) {
+            return new ResultatTraitement(evenement.getEventId(), typeCanonique, false, null,
+                    EventRecordJpa.EventStatus.PENDING,
+                    messageErreur, executions, prochaineTentative);
+        }
+
+        static ResultatTraitement echec(EventRecordJpa evenement, String typeCanonique, String messageErreur,
+                                        List<ExecutionHandler> executions) {
+            EventRecordJpa.EventStatus statut = evenement.getRetryCount() > 0
+                    ? EventRecordJpa.EventStatus.PERMANENTLY_FAILED
+                    : EventRecordJpa.EventStatus.FAILED;
+            return new ResultatTraitement(evenement.getEventId(), typeCanonique, false, null,
+                    statut, messageErreur, executions, null);
+        }
+    }
+
+    /**
+     * Résultat d'exécution d'UN handler pour un événement
+     */
+    public record ExecutionHandler(String nomHandler, boolean succes, long dureeMs, String messageErreur) {
+    }
+
     @lombok.Data
     @lombok.AllArgsConstructor
     public static class HandlerRegistre {
@@ -206,6 +553,8 @@ public class EventTransactionProcessor {
         private Class<?> typeEvent;
         private int maxTentatives;
         private String nomHandler;
+        private Semaphore limiteConcurrence;
+        private HandlerInvoker invocateur;
     }
 }
 
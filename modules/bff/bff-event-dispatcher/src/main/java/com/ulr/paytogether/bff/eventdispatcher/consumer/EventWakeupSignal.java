@@ -0,0 +1,106 @@
+package com.ulr.paytogether.bff.eventdispatcher.consumer;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Signal de réveil du consommateur d'événements.
+ *
+ * ✅ Deux sources de réveil :
+ * - EventDispatcherImpl après le commit d'un événement publié sur ce pod
+ * - PostgresEventNotificationListener à la réception d'un NOTIFY (événement publié sur un autre pod)
+ *
+ * ✅ Pas de réveil perdu : un signal émis pendant un traitement reste en attente
+ * et déclenche immédiatement le cycle suivant. Plusieurs signaux sont fusionnés en un seul.
+ *
+ * ✅ Réveil planifié : une nouvelle tentative programmée (next_attempt_at) raccourcit
+ * l'attente du poll de sécurité jusqu'à son échéance.
+ *
+ * ✅ Diffusion : chaque boucle de voie (VoieTraitement) possède son abonnement,
+ * un signal réveille toutes les voies.
+ */
+@Component
+public class EventWakeupSignal {
+
+    private static final long AUCUN_REVEIL = Long.MAX_VALUE;
+
+    private final List<Abonnement> abonnements = new CopyOnWriteArrayList<>();
+
+    /**
+     * Crée l'abonnement d'une boucle de consommation (un par voie).
+     */
+    public Abonnement abonner() {
+        Abonnement abonnement = new Abonnement();
+        abonnements.add(abonnement);
+        return abonnement;
+    }
+
+    /**
+     * Réveille toutes les boucles de consommation (non bloquant, idempotent).
+     */
+    public void signaler() {
+        abonnements.forEach(Abonnement::signaler);
+    }
+
+    /**
+     * Planifie un réveil de toutes les boucles dans {@code delai} (la plus proche échéance est conservée).
+     */
+    public void planifierReveil(Duration delai) {
+        long echeance = System.nanoTime() + Math.max(0, delai.toNanos());
+        abonnements.forEach(abonnement -> abonnement.planifierReveil(echeance));
+    }
+
+    /**
+     * Réveils en attente d'une boucle de consommation.
+     */
+    public static final class Abonnement {
+
+        private final Semaphore permis = new Semaphore(0);
+        // Échéance (System.nanoTime) du prochain réveil planifié, AUCUN_REVEIL si aucun
+        private final AtomicLong prochainReveilNanos = new AtomicLong(AUCUN_REVEIL);
+
+        private Abonnement() {
+        }
+
+        private void signaler() {
+            if (permis.availablePermits() == 0) {
+                permis.release();
+            }
+        }
+
+        private void planifierReveil(long echeance) {
+            prochainReveilNanos.accumulateAndGet(echeance,
+                    (actuelle, nouvelle) -> actuelle == AUCUN_REVEIL ? nouvelle : Math.min(actuelle, nouvelle));
+        }
+
+        /**
+         * Attend un signal au plus {@code delaiMax}, ou jusqu'au réveil planifié s'il est plus proche.
+         *
+         * @param delaiMax délai d'attente maximum (intervalle du poll de sécurité)
+         * @return true si réveillé par un signal ou un réveil planifié, false si le délai a expiré
+         */
+        public boolean attendre(Duration delaiMax) throws InterruptedException {
+            long echeance = prochainReveilNanos.get();
+            long delaiMs = delaiMax.toMillis();
+            if (echeance != AUCUN_REVEIL) {
+                delaiMs = Math.min(delaiMs, Math.max(0, TimeUnit.NANOSECONDS.toMillis(echeance - System.nanoTime())));
+            }
+
+            boolean reveille = permis.tryAcquire(delaiMs, TimeUnit.MILLISECONDS);
+            // Fusionner les signaux accumulés : un seul cycle suffit pour tous
+            permis.drainPermits();
+
+            if (echeance != AUCUN_REVEIL && System.nanoTime() - echeance >= 0) {
+                prochainReveilNanos.compareAndSet(echeance, AUCUN_REVEIL);
+                reveille = true;
+            }
+            return reveille;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.ulr.paytogether.bff.eventdispatcher.consumer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table de dispatch immuable : type d'événement (nom simple) → handlers compatibles.
+ *
+ * ✅ Construite UNE fois au démarrage à partir des handlers découverts
+ * ✅ Sur le chemin chaud : un seul Map.get, sans parcours ni comparaison de getSimpleName()
+ * ✅ Les handlers génériques (eventType = Object.class) sont fusionnés dans chaque entrée,
+ *    dans l'ordre d'enregistrement
+ */
+public final class HandlerDispatchTable {
+
+    private final Map<String, List<EventTransactionProcessor.HandlerRegistre>> handlersParType;
+    private final List<EventTransactionProcessor.HandlerRegistre> handlersGeneriques;
+    private final int nombreHandlers;
+
+    private HandlerDispatchTable(Map<String, List<EventTransactionProcessor.HandlerRegistre>> handlersParType,
+                                 List<EventTransactionProcessor.HandlerRegistre> handlersGeneriques,
+                                 int nombreHandlers) {
+        this.handlersParType = handlersParType;
+        this.handlersGeneriques = handlersGeneriques;
+        this.nombreHandlers = nombreHandlers;
+    }
+
+    /**
+     * Construit la table à partir des handlers enregistrés (ordre conservé).
+     */
+    public static HandlerDispatchTable construire(List<EventTransactionProcessor.HandlerRegistre> handlers) {
+        Map<String, List<EventTransactionProcessor.HandlerRegistre>> parType = new LinkedHashMap<>();
+        for (EventTransactionProcessor.HandlerRegistre handler : handlers) {
+            if (!estGenerique(handler)) {
+                parType.putIfAbsent(handler.getTypeEvent().getSimpleName(), new ArrayList<>());
+            }
+        }
+
+        List<EventTransactionProcessor.HandlerRegistre> generiques = new ArrayList<>();
+        for (EventTransactionProcessor.HandlerRegistre handler : handlers) {
+            if (estGenerique(handler)) {
+                generiques.add(handler);
+                parType.values().forEach(liste -> liste.add(handler));
+            } else {
+                parType.get(handler.getTypeEvent().getSimpleName()).add(handler);
+            }
+        }
+
+        Map<String, List<EventTransactionProcessor.HandlerRegistre>> immuable = new LinkedHashMap<>();
+        parType.forEach((type, liste) -> immuable.put(type, List.copyOf(liste)));
+
+        return new HandlerDispatchTable(Map.copyOf(immuable), List.copyOf(generiques), handlers.size());
+    }
+
+    /**
+     * @param eventType nom simple de la classe d'événement (colonne event_type)
+     * @return handlers compatibles (liste immuable, éventuellement vide)
+     */
+    public List<EventTransactionProcessor.HandlerRegistre> handlersPour(String eventType) {
+        return handlersParType.getOrDefault(eventType, handlersGeneriques);
+    }
+
+    public int nombreHandlers() {
+        return nombreHandlers;
+    }
+
+    public boolean estVide() {
+        return nombreHandlers == 0;
+    }
+
+    private static boolean estGenerique(EventTransactionProcessor.HandlerRegistre handler) {
+        return handler.getTypeEvent().equals(Object.class);
+    }
+}
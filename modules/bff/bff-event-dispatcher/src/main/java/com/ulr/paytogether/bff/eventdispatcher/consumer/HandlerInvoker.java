@@ -0,0 +1,78 @@
+package com.ulr.paytogether.bff.eventdispatcher.consumer;
+
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+/**
+ * Appel pré-compilé d'une méthode @FunctionalHandler sur son bean.
+ *
+ * ✅ Généré UNE fois au démarrage via LambdaMetafactory : l'appel est un invokevirtual direct,
+ *    inlinable par le JIT (pas de Method.invoke, pas de setAccessible, pas d'InvocationTargetException)
+ * ✅ Le bean capturé est le proxy Spring (CGLIB) → les intercepteurs (@Retryable, ...) restent actifs
+ */
+@FunctionalInterface
+public interface HandlerInvoker {
+
+    /**
+     * Exécute le handler sur l'événement désérialisé.
+     * Les exceptions du handler sont propagées telles quelles.
+     */
+    void invoquer(Object evenement) throws Exception;
+
+    /**
+     * Compile l'appel {@code bean.methode(evenement)}.
+     *
+     * @param bean        instance du handler (proxy Spring éventuel)
+     * @param classeReelle classe cible du bean (déclarant la méthode)
+     * @param methode     méthode @FunctionalHandler à un seul paramètre
+     * @throws IllegalStateException si la méthode ne peut pas être compilée
+     */
+    static HandlerInvoker compiler(Object bean, Class<?> classeReelle, Method methode) {
+        if (methode.getParameterCount() != 1) {
+            throw new IllegalStateException("Un @FunctionalHandler doit avoir exactement un paramètre: "
+                    + classeReelle.getSimpleName() + "." + methode.getName());
+        }
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(classeReelle, MethodHandles.lookup());
+            MethodHandle cible = lookup.unreflect(methode);
+
+            try {
+                CallSite site = LambdaMetafactory.metafactory(
+                        lookup,
+                        "invoquer",
+                        MethodType.methodType(HandlerInvoker.class, classeReelle),
+                        MethodType.methodType(void.class, Object.class),
+                        cible,
+                        MethodType.methodType(void.class, methode.getParameterTypes()[0]));
+                return (HandlerInvoker) site.getTarget().invoke(bean);
+
+            } catch (Throwable e) {
+                // Repli : MethodHandle lié au bean (toujours sans réflexion à l'exécution, mais moins inlinable)
+                LoggerFactory.getLogger(HandlerInvoker.class).warn(
+                        "⚠️ LambdaMetafactory indisponible pour le handler {}.{}, repli sur MethodHandle: {}",
+                        classeReelle.getSimpleName(), methode.getName(), e.toString(), e);
+                MethodHandle lie = cible.bindTo(bean).asType(MethodType.methodType(void.class, Object.class));
+                return evenement -> {
+                    try {
+                        lie.invokeExact(evenement);
+                    } catch (Exception | Error erreur) {
+                        throw erreur;
+                    } catch (Throwable erreur) {
+                        throw new IllegalStateException(erreur);
+                    }
+                };
+            }
+
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Handler inaccessible: "
+                    + classeReelle.getSimpleName() + "." + methode.getName(), e);
+        }
+    }
+}
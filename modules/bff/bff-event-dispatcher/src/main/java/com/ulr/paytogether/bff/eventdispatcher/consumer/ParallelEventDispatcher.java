@@ -0,0 +1,117 @@
+package com.ulr.paytogether.bff.eventdispatcher.consumer;
+
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Moteur d'exécution parallèle d'un lot d'événements réclamés.
+ *
+ * ✅ Partitionnement par clé d'agrégat (EventAggregateKeyExtractor) :
+ * - même agrégat → exécution séquentielle dans l'ordre d'occurrence
+ * - agrégats différents → exécution concurrente sur les Virtual Threads
+ * ✅ Un envoi SMTP lent ne bloque plus les paiements Square du même lot
+ *
+ * ⚠️ L'ordre entre lots, voies et pods est garanti au claim (EventRecordRepository) : un événement
+ * n'est réclamé que si aucun événement plus ancien du même agrégat n'est encore PENDING ou PROCESSING.
+ * Un échec (nouvelle tentative en backoff) bloque donc les événements suivants de l'agrégat.
+ *
+ * ⚠️ events.consumer.parallelism borne le nombre de partitions simultanées :
+ * chaque événement ouvre une transaction REQUIRES_NEW (= une connexion Hikari, pool de 20).
+ */
+@Component
+@Slf4j
+public class ParallelEventDispatcher {
+
+    private final Executor executor;
+    private final EventAggregateKeyExtractor eventAggregateKeyExtractor;
+
+    @Value("${events.consumer.parallelism:8}")
+    private int parallelisme;
+
+    public ParallelEventDispatcher(@Qualifier("virtualThreadExecutor") Executor executor,
+                                   EventAggregateKeyExtractor eventAggregateKeyExtractor) {
+        this.executor = executor;
+        this.eventAggregateKeyExtractor = eventAggregateKeyExtractor;
+    }
+
+    /**
+     * Exécute le traitement sur chaque événement en parallèle par agrégat et attend la fin du lot.
+     *
+     * @param evenements événements triés par date d'occurrence
+     * @param traitement traitement d'un événement (ne doit pas lever d'exception)
+     * @return résultats de tous les événements du lot
+     */
+    public <R> List<R> executerParAgregat(List<EventRecordJpa> evenements,
+                                          Function<EventRecordJpa, R> traitement) {
+        return executer(evenements, traitement, executor, new Semaphore(parallelisme), parallelisme);
+    }
+
+    /**
+     * Variante bulkhead : exécution sur l'executor de la voie, bornée par ses permis
+     * (partagés entre la boucle de la voie et le dispatch après commit).
+     */
+    public <R> List<R> executerParAgregat(List<EventRecordJpa> evenements,
+                                          Function<EventRecordJpa, R> traitement,
+                                          VoieTraitement voie) {
+        return executer(evenements, traitement, voie.executor(), voie.bulkhead(), voie.parallelisme());
+    }
+
+    private <R> List<R> executer(List<EventRecordJpa> evenements,
+                                 Function<EventRecordJpa, R> traitement,
+                                 Executor executeur,
+                                 Semaphore limite,
+                                 int parallelismeMax) {
+        Map<String, List<EventRecordJpa>> partitions = new LinkedHashMap<>();
+        for (EventRecordJpa evenement : evenements) {
+            partitions.computeIfAbsent(eventAggregateKeyExtractor.extraire(evenement), cle -> new ArrayList<>())
+                      .add(evenement);
+        }
+
+        if (partitions.size() <= 1 || parallelismeMax <= 1) {
+            // Rien à paralléliser : exécution directe sur le thread appelant (un seul permis)
+            limite.acquireUninterruptibly();
+            try {
+                return evenements.stream().map(traitement).toList();
+            } finally {
+                limite.release();
+            }
+        }
+
+        log.debug("Lot de {} événements réparti en {} agrégats (parallélisme max {})",
+                evenements.size(), partitions.size(), parallelismeMax);
+
+        List<CompletableFuture<List<R>>> executions = new ArrayList<>(partitions.size());
+
+        for (List<EventRecordJpa> partition : partitions.values()) {
+            executions.add(CompletableFuture.supplyAsync(() -> {
+                limite.acquireUninterruptibly();
+                try {
+                    List<R> resultats = new ArrayList<>(partition.size());
+                    for (EventRecordJpa evenement : partition) {
+                        resultats.add(traitement.apply(evenement));
+                    }
+                    return resultats;
+                } finally {
+                    limite.release();
+                }
+            }, executeur));
+        }
+
+        return executions.stream()
+                .map(CompletableFuture::join)
+                .flatMap(List::stream)
+                .toList();
+    }
+}
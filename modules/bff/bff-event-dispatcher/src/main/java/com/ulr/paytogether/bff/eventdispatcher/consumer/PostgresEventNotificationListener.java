@@ -0,0 +1,134 @@
+package com.ulr.paytogether.bff.eventdispatcher.consumer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Écoute PostgreSQL LISTEN/NOTIFY sur le canal {@value #CANAL}.
+ *
+ * ✅ Le trigger trg_event_record_notify (migration V10) émet un NOTIFY après chaque INSERT
+ * dans event_record → tous les pods sont réveillés en quelques millisecondes,
+ * même si l'événement a été publié par un autre pod.
+ *
+ * ✅ Connexion DÉDIÉE, hors pool Hikari (DriverManager, mêmes spring.datasource.url / username / password) :
+ *    - le pool garde toutes ses connexions pour les transactions (voies de traitement, API)
+ *    - fermer la connexion (reconnexion, arrêt) termine la session PostgreSQL et son LISTEN :
+ *      aucune connexion du pool ne reste abonnée au canal à accumuler des notifications
+ * ⚠️ Compte pour UNE connexion PostgreSQL de plus par pod (max_connections) en plus du pool.
+ * Désactivable avec events.consumer.listen-notify.enabled=false (le poll de sécurité prend alors le relais).
+ */
+@Component
+@ConditionalOnProperty(
+    name = "events.consumer.listen-notify.enabled",
+    havingValue = "true",
+    matchIfMissing = true
+)
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresEventNotificationListener {
+
+    public static final String CANAL = "event_record_inserted";
+
+    private static final int TIMEOUT_ECOUTE_MS = 10000;
+    private static final long DELAI_RECONNEXION_MS = 5000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final EventWakeupSignal eventWakeupSignal;
+
+    private volatile boolean actif;
+    private volatile Connection connexionEcoute;
+    private Thread threadEcoute;
+
+    @PostConstruct
+    public void demarrer() {
+        actif = true;
+        threadEcoute = Thread.ofPlatform()
+                .daemon()
+                .name("event-listen-notify")
+                .start(this::boucleEcoute);
+    }
+
+    @PreDestroy
+    public void arreter() {
+        actif = false;
+        if (threadEcoute != null) {
+            threadEcoute.interrupt();
+        }
+        // Débloque getNotifications() et termine la session (et son LISTEN) immédiatement
+        fermer(connexionEcoute);
+    }
+
+    private void boucleEcoute() {
+        while (actif) {
+            try (Connection connexion = ouvrirConnexionDediee()) {
+                connexionEcoute = connexion;
+                if (!connexion.isWrapperFor(PGConnection.class)) {
+                    log.info("ℹ️ Base non PostgreSQL : LISTEN/NOTIFY désactivé, seul le poll de sécurité est actif");
+                    return;
+                }
+
+                PGConnection pgConnexion = connexion.unwrap(PGConnection.class);
+                try (Statement statement = connexion.createStatement()) {
+                    statement.execute("LISTEN " + CANAL);
+                }
+                log.info("👂 LISTEN {} actif", CANAL);
+
+                while (actif) {
+                    PGNotification[] notifications = pgConnexion.getNotifications(TIMEOUT_ECOUTE_MS);
+                    if (notifications != null && notifications.length > 0) {
+                        log.debug("🔔 {} notification(s) reçue(s) sur {}", notifications.length, CANAL);
+                        eventWakeupSignal.signaler();
+                    }
+                }
+
+            } catch (SQLException e) {
+                if (!actif) {
+                    return;
+                }
+                log.warn("⚠️ Connexion LISTEN {} perdue, reconnexion dans {} ms: {}",
+                        CANAL, DELAI_RECONNEXION_MS, e.getMessage());
+                // Un événement a pu être inséré pendant la coupure → forcer un cycle
+                eventWakeupSignal.signaler();
+                try {
+                    Thread.sleep(DELAI_RECONNEXION_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                connexionEcoute = null;
+            }
+        }
+    }
+
+    /**
+     * Connexion physique hors pool : sa fermeture ferme la session PostgreSQL (pas de retour au pool)
+     */
+    private Connection ouvrirConnexionDediee() throws SQLException {
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+
+    private static void fermer(Connection connexion) {
+        if (connexion == null) {
+            return;
+        }
+        try {
+            connexion.close();
+        } catch (SQLException e) {
+            log.debug("Fermeture de la connexion LISTEN {}: {}", CANAL, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.ulr.paytogether.bff.eventdispatcher.consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Politique de nouvelle tentative automatique des événements en échec.
+ *
+ * ✅ Backoff exponentiel : initial-delay × multiplier^(tentative - 1), plafonné à max-delay
+ * ✅ Jitter : délai tiré entre 50 % et 100 % du délai calculé → les événements tombés
+ *    ensemble (panne Keycloak, SMTP, Square) ne sont pas rejoués tous au même instant
+ *
+ * Exemple (défauts) : ~2 s, ~4 s, ~8 s ... jusqu'à 5 min
+ */
+@Component
+public class RetryBackoffPolicy {
+
+    private final long delaiInitialMs;
+    private final long delaiMaxMs;
+    private final double multiplicateur;
+
+    public RetryBackoffPolicy(@Value("${events.consumer.retry.initial-delay-ms:2000}") long delaiInitialMs,
+                              @Value("${events.consumer.retry.max-delay-ms:300000}") long delaiMaxMs,
+                              @Value("${events.consumer.retry.multiplier:2.0}") double multiplicateur) {
+        this.delaiInitialMs = delaiInitialMs;
+        this.delaiMaxMs = delaiMaxMs;
+        this.multiplicateur = multiplicateur;
+    }
+
+    /**
+     * @param tentative numéro de la tentative qui vient d'échouer (1 = premier échec)
+     * @return délai avant la tentative suivante, jitter inclus
+     */
+    public Duration delai(int tentative) {
+        double exponentiel = delaiInitialMs * Math.pow(multiplicateur, Math.max(0, tentative - 1));
+        long plafond = (long) Math.min(exponentiel, delaiMaxMs);
+        long moitie = plafond / 2;
+        return Duration.ofMillis(moitie + ThreadLocalRandom.current().nextLong(plafond - moitie + 1));
+    }
+
+    /**
+     * @return date à partir de laquelle l'événement peut être réclamé à nouveau (next_attempt_at)
+     */
+    public LocalDateTime prochaineTentative(int tentative, LocalDateTime maintenant) {
+        return maintenant.plus(delai(tentative));
+    }
+}
@@ -0,0 +1,36 @@
+package com.ulr.paytogether.bff.eventdispatcher.consumer;
+
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Voie de priorité de l'outbox : sous-ensemble de types d'événements consommé par sa propre boucle.
+ *
+ * ✅ Quota de claim propre (tailleLot) : une rafale d'emails ne remplit plus le lot des paiements
+ * ✅ Bulkhead : executor Virtual Threads dédié + sémaphore (parallelisme) partagé entre la boucle
+ *    de la voie et le dispatch après commit → une voie saturée n'emprunte rien aux autres
+ *
+ * @param nom        nom de la voie (events.lanes.{nom}.*)
+ * @param priorite   ordre de priorité (plus petit = plus prioritaire), départage les handlers en conflit
+ * @param tailleLot  nombre maximum d'événements réclamés par cycle
+ * @param parallelisme nombre maximum d'agrégats traités simultanément (= connexions Hikari)
+ * @param types      noms persistés (event_type, alias inclus) consommés par la voie ;
+ *                   vide pour la voie par défaut, qui consomme tous les autres types
+ * @param executor   executor dédié de la voie
+ * @param bulkhead   permis d'exécution de la voie
+ */
+public record VoieTraitement(String nom,
+                             int priorite,
+                             int tailleLot,
+                             int parallelisme,
+                             Set<String> types,
+                             ExecutorService executor,
+                             Semaphore bulkhead) {
+
+    public static final String VOIE_PAR_DEFAUT = "default";
+
+    public boolean parDefaut() {
+        return VOIE_PAR_DEFAUT.equals(nom);
+    }
+}
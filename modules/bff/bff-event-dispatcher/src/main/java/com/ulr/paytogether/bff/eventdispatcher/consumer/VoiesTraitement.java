@@ -0,0 +1,183 @@
+package com.ulr.paytogether.bff.eventdispatcher.consumer;
+
+import com.ulr.paytogether.bff.event.annotation.FunctionalHandler;
+import com.ulr.paytogether.bff.eventdispatcher.registry.EventTypeRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Voies de priorité de l'outbox, construites UNE fois au démarrage (comme HandlerDispatchTable).
+ *
+ * Affectation d'un type d'événement à une voie, par ordre de priorité :
+ * 1. events.lanes.{voie}.event-types=PaymentInitiatedEvent,...
+ * 2. @FunctionalHandler(lane = "...") de ses handlers (la voie la plus prioritaire l'emporte)
+ * 3. voie "default" (events.consumer.batch-size / events.consumer.parallelism)
+ *
+ * ⚠️ La somme des parallélismes des voies doit rester sous la taille du pool Hikari :
+ * chaque événement en cours occupe une connexion (transaction REQUIRES_NEW), il faut garder de la marge
+ * pour les claims, le write-back des lots et l'API (avertissement au démarrage sinon).
+ * La connexion LISTEN/NOTIFY (PostgresEventNotificationListener) est hors pool et n'entre pas dans ce calcul.
+ */
+@Slf4j
+public final class VoiesTraitement {
+
+    private static final int PRIORITE_PAR_DEFAUT = 100;
+
+    /**
+     * Configuration d'une voie (events.lanes.{voie}.*), tous les champs sont optionnels
+     */
+    public record ConfigurationVoie(Integer priority, Integer batchSize, Integer parallelism, List<String> eventTypes) {
+    }
+
+    private final List<VoieTraitement> voies;
+    private final Map<String, VoieTraitement> voieParType;
+    private final VoieTraitement voieParDefaut;
+
+    private VoiesTraitement(List<VoieTraitement> voies, Map<String, VoieTraitement> voieParType,
+                            VoieTraitement voieParDefaut) {
+        this.voies = voies;
+        this.voieParType = voieParType;
+        this.voieParDefaut = voieParDefaut;
+    }
+
+    /**
+     * @param handlers          handlers découverts (annotation @FunctionalHandler lue sur leur méthode)
+     * @param environnement     configuration events.lanes.* et valeurs par défaut events.consumer.*
+     * @param eventTypeRegistry résolution des alias (un événement persisté sous un ancien nom reste dans sa voie)
+     */
+    public static VoiesTraitement construire(List<EventTransactionProcessor.HandlerRegistre> handlers,
+                                             Environment environnement,
+                                             EventTypeRegistry eventTypeRegistry) {
+        Map<String, ConfigurationVoie> configurations = Binder.get(environnement)
+                .bind("events.lanes", Bindable.mapOf(String.class, ConfigurationVoie.class))
+                .orElse(Map.of());
+
+        // 1. Types déclarés en configuration
+        Map<String, String> voieParTypeCanonique = new HashMap<>();
+        configurations.forEach((voie, configuration) -> {
+            if (configuration.eventTypes() != null) {
+                configuration.eventTypes().forEach(type ->
+                        voieParTypeCanonique.put(eventTypeRegistry.nomCanonique(type.trim()), voie));
+            }
+        });
+
+        // 2. Voies déclarées sur les handlers (sans écraser la configuration)
+        Map<String, String> voieParHandlers = new HashMap<>();
+        for (EventTransactionProcessor.HandlerRegistre handler : handlers) {
+            FunctionalHandler annotation = handler.getMethode().getAnnotation(FunctionalHandler.class);
+            if (annotation == null || annotation.lane().isBlank() || handler.getTypeEvent().equals(Object.class)) {
+                continue;
+            }
+            voieParHandlers.merge(handler.getTypeEvent().getSimpleName(), annotation.lane(),
+                    (actuelle, nouvelle) -> priorite(configurations, nouvelle) < priorite(configurations, actuelle)
+                            ? nouvelle : actuelle);
+        }
+        voieParHandlers.forEach(voieParTypeCanonique::putIfAbsent);
+        voieParTypeCanonique.values().removeIf(VoieTraitement.VOIE_PAR_DEFAUT::equals);
+
+        // 3. Construction des voies : quota, parallélisme et executor dédiés
+        int tailleLotDefaut = environnement.getProperty("events.consumer.batch-size", Integer.class, 50);
+        int parallelismeDefaut = environnement.getProperty("events.consumer.parallelism", Integer.class, 8);
+
+        Map<String, Set<String>> typesParVoie = new TreeMap<>();
+        voieParTypeCanonique.forEach((type, voie) ->
+                typesParVoie.computeIfAbsent(voie, v -> new LinkedHashSet<>())
+                        .addAll(eventTypeRegistry.nomsPersistes(type)));
+        typesParVoie.put(VoieTraitement.VOIE_PAR_DEFAUT, Set.of());
+
+        Map<String, VoieTraitement> voieParType = new HashMap<>();
+        List<VoieTraitement> voies = typesParVoie.entrySet().stream()
+                .map(entree -> creerVoie(entree.getKey(), Set.copyOf(entree.getValue()),
+                        configurations.get(entree.getKey()), tailleLotDefaut, parallelismeDefaut))
+                .sorted(Comparator.comparingInt(VoieTraitement::priorite))
+                .toList();
+        VoieTraitement voieParDefaut = null;
+        for (VoieTraitement voie : voies) {
+            voie.types().forEach(type -> voieParType.put(type, voie));
+            if (voie.parDefaut()) {
+                voieParDefaut = voie;
+            }
+            log.info("🛣️ Voie '{}' : priorité {}, lot {}, parallélisme {}, types {}", voie.nom(), voie.priorite(),
+                    voie.tailleLot(), voie.parallelisme(), voie.parDefaut() ? "(tous les autres)" : voie.types());
+        }
+
+        verifierTaillePool(voies, environnement);
+        return new VoiesTraitement(voies, Map.copyOf(voieParType), voieParDefaut);
+    }
+
+    private static VoieTraitement creerVoie(String nom, Set<String> types, ConfigurationVoie configuration,
+                                            int tailleLotDefaut, int parallelismeDefaut) {
+        int priorite = configuration != null && configuration.priority() != null
+                ? configuration.priority() : PRIORITE_PAR_DEFAUT;
+        int tailleLot = configuration != null && configuration.batchSize() != null
+                ? configuration.batchSize() : tailleLotDefaut;
+        int parallelisme = Math.max(1, configuration != null && configuration.parallelism() != null
+                ? configuration.parallelism() : parallelismeDefaut);
+
+        return new VoieTraitement(nom, priorite, tailleLot, parallelisme, types,
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("event-" + nom + "-", 0).factory()),
+                new Semaphore(parallelisme));
+    }
+
+    /**
+     * Avertit si les voies peuvent occuper tout le pool Hikari (claims et write-back en attente de connexion)
+     */
+    private static void verifierTaillePool(List<VoieTraitement> voies, Environment environnement) {
+        int taillePool = environnement.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        int parallelismeTotal = voies.stream().mapToInt(VoieTraitement::parallelisme).sum();
+        if (parallelismeTotal >= taillePool) {
+            log.warn("⚠️ Somme des parallélismes des voies ({}) >= taille du pool Hikari ({}) : "
+                    + "claims, write-back et API risquent d'attendre une connexion", parallelismeTotal, taillePool);
+        }
+    }
+
+    private static int priorite(Map<String, ConfigurationVoie> configurations, String voie) {
+        ConfigurationVoie configuration = configurations.get(voie);
+        return configuration != null && configuration.priority() != null ? configuration.priority() : PRIORITE_PAR_DEFAUT;
+    }
+
+    /**
+     * @return voies triées par priorité (la plus prioritaire en premier)
+     */
+    public List<VoieTraitement> voies() {
+        return voies;
+    }
+
+    /**
+     * @param eventType nom persisté (colonne event_type)
+     * @return voie consommant ce type (voie par défaut si non affecté)
+     */
+    public VoieTraitement voiePour(String eventType) {
+        return voieParType.getOrDefault(eventType, voieParDefaut);
+    }
+
+    public VoieTraitement voieParDefaut() {
+        return voieParDefaut;
+    }
+
+    /**
+     * @return types consommés par les voies dédiées (exclus du claim de la voie par défaut)
+     */
+    public Set<String> typesVoiesDediees() {
+        return voieParType.keySet();
+    }
+
+    /**
+     * Arrête les executors des voies (arrêt de l'application)
+     */
+    public void arreter() {
+        voies.forEach(voie -> voie.executor().shutdown());
+    }
+}
@@ -0,0 +1,149 @@
+package com.ulr.paytogether.bff.eventdispatcher.dispatcher;
+
+import com.ulr.paytogether.bff.eventdispatcher.consumer.EventConsumerService;
+import com.ulr.paytogether.bff.eventdispatcher.consumer.EventWakeupSignal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Dispatch en mémoire, juste après le commit, des événements écrits dans la transaction de l'appelant
+ * (EventPublisher.publishInTransaction).
+ *
+ * ✅ Un seul dispatch par transaction : les événements d'une même transaction sont regroupés
+ *    dans une TransactionSynchronization → un seul claim et un seul write-back pour le lot
+ * ✅ Exécution sur les Virtual Threads : la requête HTTP de l'appelant n'attend pas les handlers
+ * ✅ Rollback → rien n'est dispatché (et la ligne event_record n'existe pas)
+ * ✅ Crash entre le commit et le dispatch → l'événement reste PENDING, repris par le poller
+ *    (EventConsumerLoop ne sert plus que de reprise pour ces événements)
+ *
+ * Désactivable via events.publish.after-commit-dispatch.enabled=false : simple réveil du consommateur.
+ */
+@Component
+@Slf4j
+public class AfterCommitEventDispatcher {
+
+    // ObjectProvider : EventConsumerService découvre les handlers, qui peuvent eux-mêmes injecter EventPublisher
+    private final ObjectProvider<EventConsumerService> eventConsumerService;
+    private final Executor executor;
+    private final EventWakeupSignal eventWakeupSignal;
+    private final boolean actif;
+
+    public AfterCommitEventDispatcher(ObjectProvider<EventConsumerService> eventConsumerService,
+                                      @Qualifier("virtualThreadExecutor") Executor executor,
+                                      EventWakeupSignal eventWakeupSignal,
+                                      @Value("${events.publish.after-commit-dispatch.enabled:true}") boolean actif) {
+        this.eventConsumerService = eventConsumerService;
+        this.executor = executor;
+        this.eventWakeupSignal = eventWakeupSignal;
+        this.actif = actif;
+    }
+
+    /**
+     * Programme le dispatch de l'événement après le commit de la transaction courante.
+     *
+     * @throws IllegalStateException si aucune synchronisation de transaction n'est active
+     */
+    public void planifier(UUID eventId) {
+        planifier(List.of(eventId));
+    }
+
+    /**
+     * Programme le dispatch d'un lot d'événements après le commit de la transaction courante.
+     *
+     * @throws IllegalStateException si aucune synchronisation de transaction n'est active
+     */
+    public void planifier(Collection<UUID> eventIds) {
+        lotCourant().eventIds.addAll(eventIds);
+    }
+
+    /**
+     * Programme un réveil du consommateur local {@code delai} après le commit
+     * (événement publié avec un délai de regroupement : pas de dispatch immédiat).
+     * Hors transaction, le réveil est programmé immédiatement.
+     */
+    public void planifierReveil(Duration delai) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventWakeupSignal.planifierReveil(delai);
+            return;
+        }
+        LotApresCommit lot = lotCourant();
+        lot.reveilDiffere = lot.reveilDiffere == null || delai.compareTo(lot.reveilDiffere) < 0 ? delai : lot.reveilDiffere;
+    }
+
+    /**
+     * Lot de la transaction courante, créé et enregistré au premier appel.
+     *
+     * @throws IllegalStateException si aucune synchronisation de transaction n'est active
+     */
+    private LotApresCommit lotCourant() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Aucune transaction active pour planifier un dispatch après commit");
+        }
+
+        // Synchronisations de la transaction COURANTE (celles d'une transaction suspendue ne sont pas visibles)
+        for (TransactionSynchronization synchronisation : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronisation instanceof LotApresCommit lot) {
+                return lot;
+            }
+        }
+        LotApresCommit lot = new LotApresCommit();
+        TransactionSynchronizationManager.registerSynchronization(lot);
+        return lot;
+    }
+
+    /**
+     * Dispatch du lot sur un Virtual Thread. Toute erreur est rattrapée par le poller.
+     */
+    private void dispatcher(List<UUID> eventIds) {
+        if (!actif) {
+            eventWakeupSignal.signaler();
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    eventConsumerService.getObject().traiterEvenementsPublies(eventIds);
+                } catch (Exception e) {
+                    log.warn("⚠️ Dispatch après commit de {} événements en échec, reprise par le poller: {}",
+                            eventIds.size(), e.getMessage());
+                    eventWakeupSignal.signaler();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("⚠️ Dispatch après commit refusé par l'executor, reprise par le poller: {}", e.getMessage());
+            eventWakeupSignal.signaler();
+        }
+    }
+
+    /**
+     * Événements publiés dans une même transaction
+     */
+    private final class LotApresCommit implements TransactionSynchronization {
+
+        private final List<UUID> eventIds = new ArrayList<>();
+        private Duration reveilDiffere;
+
+        @Override
+        public void afterCommit() {
+            if (!eventIds.isEmpty()) {
+                dispatcher(List.copyOf(eventIds));
+            }
+            if (reveilDiffere != null) {
+                eventWakeupSignal.planifierReveil(reveilDiffere);
+            }
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.ulr.paytogether.bff.eventdispatcher.dispatcher;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 /**
  * Configuration Spring pour le module event-dispatcher
@@ -14,5 +18,31 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @EnableScheduling
 @ComponentScan(basePackages = "com.ulr.paytogether.bff.eventdispatcher")
 public class EventDispatcherConfiguration {
-}
 
+    /**
+     * Scheduler réservé aux heartbeats (bail des événements, appartenance au ring) :
+     * un batch ou un rafraîchissement de métriques lent ne peut pas retarder un heartbeat
+     * au point de faire expirer un bail encore tenu.
+     */
+    public static final String SCHEDULER_HEARTBEATS = "eventHeartbeatScheduler";
+
+    @Bean(name = SCHEDULER_HEARTBEATS)
+    public ThreadPoolTaskScheduler eventHeartbeatScheduler(
+            @Value("${events.scheduling.heartbeat-pool-size:2}") int taille) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(taille);
+        scheduler.setThreadNamePrefix("event-heartbeat-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(false);
+        return scheduler;
+    }
+
+    /**
+     * Scheduler par défaut des autres @Scheduled (batchs, reprise des baux, métriques).
+     * Déclaré explicitement : Spring Boot n'en crée plus dès qu'un TaskScheduler existe.
+     * Taille : spring.task.scheduling.pool.size
+     */
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+}
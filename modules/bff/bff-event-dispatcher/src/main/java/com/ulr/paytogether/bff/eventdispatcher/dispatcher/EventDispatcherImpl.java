@@ -4,16 +4,34 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.ulr.paytogether.core.event.EventPublisher;
+import com.ulr.paytogether.bff.eventdispatcher.coalescing.EventCoalescer;
+import com.ulr.paytogether.bff.eventdispatcher.consumer.EventAggregateKeyExtractor;
+import com.ulr.paytogether.bff.eventdispatcher.consumer.EventWakeupSignal;
 import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa;
+import com.ulr.paytogether.bff.eventdispatcher.partitioning.ConsistentHashRing;
+import com.ulr.paytogether.bff.eventdispatcher.registry.EventMaxAttemptsRegistry;
+import com.ulr.paytogether.bff.eventdispatcher.registry.EventTypeRegistry;
 import com.ulr.paytogether.bff.eventdispatcher.repository.EventRecordRepository;
+import com.ulr.paytogether.bff.eventdispatcher.tracing.ContexteTrace;
+import com.ulr.paytogether.bff.eventdispatcher.tracing.EventTracing;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -21,14 +39,31 @@ import java.util.UUID;
  * Enregistre tous les événements en base de données pour traitement ultérieur.
  *
  * Cette classe implémente le port EventPublisher défini dans bff-core.
+ * Le contexte de trace W3C de l'appelant est persisté avec chaque événement (EventTracing).
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EventDispatcherImpl implements EventPublisher {
 
+    private static final int TAILLE_BATCH_INSERT = 500;
+    private static final String INSERT_EVENEMENT = """
+            INSERT INTO event_record (event_id, event_type, source_class, occurred_on, payload, schema_version,
+                                      status, attempts, max_attempts, retry_count, next_attempt_at, hash_bucket,
+                                      aggregate_id, trace_parent, trace_state, version, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, 'PENDING', 0, ?, 0, ?, ?, ?, ?, ?, 0, ?, ?)
+            """;
+
     private final EventRecordRepository eventRecordRepository;
     private final ObjectMapper objectMapper;
+    private final EventWakeupSignal eventWakeupSignal;
+    private final EventTypeRegistry eventTypeRegistry;
+    private final EventMaxAttemptsRegistry eventMaxAttemptsRegistry;
+    private final AfterCommitEventDispatcher afterCommitEventDispatcher;
+    private final JdbcTemplate jdbcTemplate;
+    private final EventCoalescer eventCoalescer;
+    private final EventAggregateKeyExtractor eventAggregateKeyExtractor;
+    private final EventTracing eventTracing;
 
     @PostConstruct
     public void init() {
@@ -39,24 +74,146 @@ public class EventDispatcherImpl implements EventPublisher {
     @Transactional(rollbackFor = Exception.class)
     public void publishSync(Object event) {
         log.info("Publishing sync event: {}", event.getClass().getSimpleName());
+        enregistrer(event);
+        signalerApresCommit();
+    }
+
+    /**
+     * Outbox transactionnel : la ligne event_record est écrite dans la transaction de l'appelant
+     * (MANDATORY → erreur explicite si l'appelant n'est pas transactionnel), puis l'événement est
+     * dispatché en mémoire après le commit par AfterCommitEventDispatcher.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY, rollbackFor = Exception.class)
+    public void publishInTransaction(Object event) {
+        log.info("Publishing transactional event: {}", event.getClass().getSimpleName());
+        EventRecordJpa eventRecord = enregistrer(event);
+        if (!eventRecord.getNextAttemptAt().isAfter(eventRecord.getOccurredOn())) {
+            afterCommitEventDispatcher.planifier(eventRecord.getEventId());
+        }
+    }
+
+    /**
+     * Publication groupée : chaque événement est sérialisé une fois puis le lot est inséré
+     * via JdbcTemplate.batchUpdate (reWriteBatchedInserts → INSERT multi-lignes côté PostgreSQL).
+     *
+     * ✅ 1 transaction et ~1 aller-retour pour N événements (au lieu de N tâches @Async + N transactions)
+     * ✅ Un seul dispatch après commit pour tout le lot (AfterCommitEventDispatcher)
+     * ⚠️ Insertion hors contexte de persistance : next_attempt_at, schema_version, version et
+     *    created_at sont renseignés ici (pas de @PrePersist)
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void publishAll(Collection<?> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime maintenant = LocalDateTime.now();
+        ContexteTrace contexteTrace = eventTracing.contexteCourant();
+        List<Object[]> lignes = new ArrayList<>(events.size());
+        List<UUID> eventIds = new ArrayList<>(events.size());
+        for (Object event : events) {
+            UUID eventId = UUID.randomUUID();
+            String eventType = event.getClass().getSimpleName();
+            Duration delaiRegroupement = eventCoalescer.delaiRegroupement(eventType);
+            if (delaiRegroupement.isZero()) {
+                eventIds.add(eventId);
+            } else {
+                afterCommitEventDispatcher.planifierReveil(delaiRegroupement);
+            }
+            String payload = serializeEvent(event);
+            String cleAgregat = eventAggregateKeyExtractor.extraire(eventId, payload);
+            lignes.add(new Object[]{
+                    eventId,
+                    eventType,
+                    event.getClass().getName(),
+                    payload,
+                    eventTypeRegistry.versionCourante(event.getClass()),
+                    Timestamp.valueOf(maintenant.plus(delaiRegroupement)),
+                    ConsistentHashRing.bucket(cleAgregat),
+                    EventAggregateKeyExtractor.aggregateId(cleAgregat),
+                    eventMaxAttemptsRegistry.maxAttempts(eventType)
+            });
+        }
+
+        Timestamp horodatage = Timestamp.valueOf(maintenant);
+        jdbcTemplate.batchUpdate(INSERT_EVENEMENT, lignes, TAILLE_BATCH_INSERT, (requete, ligne) -> {
+            requete.setObject(1, ligne[0]);
+            requete.setString(2, (String) ligne[1]);
+            requete.setString(3, (String) ligne[2]);
+            requete.setTimestamp(4, horodatage);
+            // Types.OTHER : le pilote PostgreSQL laisse le serveur convertir le texte en JSONB
+            requete.setObject(5, ligne[3], Types.OTHER);
+            requete.setInt(6, (Integer) ligne[4]);
+            requete.setInt(7, (Integer) ligne[8]);
+            requete.setTimestamp(8, (Timestamp) ligne[5]);
+            requete.setInt(9, (Integer) ligne[6]);
+            requete.setString(10, (String) ligne[7]);
+            requete.setString(11, contexteTrace.traceParent());
+            requete.setString(12, contexteTrace.traceState());
+            requete.setTimestamp(13, horodatage);
+            requete.setTimestamp(14, horodatage);
+        });
+
+        if (!eventIds.isEmpty()) {
+            afterCommitEventDispatcher.planifier(eventIds);
+        }
+        log.info("📦 {} événements publiés en batch", lignes.size());
+    }
 
+    /**
+     * ⚠️ Exécuté sur un autre thread, dans sa propre transaction : l'événement peut être persisté
+     * même si la transaction de l'appelant est annulée → préférer publishInTransaction.
+     */
+    @Override
+    @Async
+    @Transactional(rollbackFor = Exception.class)
+    public void publishAsync(Object event) {
+        log.info("Publishing async event: {}", event.getClass().getSimpleName());
+        publishSync(event);
+    }
+
+    /**
+     * Persiste l'événement PENDING dans la transaction courante.
+     * Type soumis à une coalescence avec regroupement : réclamable seulement après le délai
+     * (next_attempt_at), les publications suivantes du même agrégat remplacent celle-ci.
+     *
+     * @return événement persisté
+     */
+    private EventRecordJpa enregistrer(Object event) {
         try {
             String payload = serializeEvent(event);
             String eventType = event.getClass().getSimpleName();
+            LocalDateTime maintenant = LocalDateTime.now();
+            Duration delaiRegroupement = eventCoalescer.delaiRegroupement(eventType);
 
+            UUID eventId = UUID.randomUUID();
+            String cleAgregat = eventAggregateKeyExtractor.extraire(eventId, payload);
+            ContexteTrace contexteTrace = eventTracing.contexteCourant();
             EventRecordJpa eventRecord = EventRecordJpa.builder()
-                    .eventId(UUID.randomUUID())
+                    .eventId(eventId)
                     .eventType(eventType)
                     .sourceClass(event.getClass().getName())
-                    .occurredOn(LocalDateTime.now())
+                    .occurredOn(maintenant)
+                    .nextAttemptAt(maintenant.plus(delaiRegroupement))
                     .payload(payload)
+                    .hashBucket(ConsistentHashRing.bucket(cleAgregat))
+                    .aggregateId(EventAggregateKeyExtractor.aggregateId(cleAgregat))
+                    .traceParent(contexteTrace.traceParent())
+                    .traceState(contexteTrace.traceState())
+                    .schemaVersion(eventTypeRegistry.versionCourante(event.getClass()))
                     .status(EventRecordJpa.EventStatus.PENDING)
                     .attempts(0)
-                    .maxAttempts(3)
+                    .maxAttempts(eventMaxAttemptsRegistry.maxAttempts(eventType))
                     .build();
 
             eventRecordRepository.save(eventRecord);
+            if (!delaiRegroupement.isZero()) {
+                afterCommitEventDispatcher.planifierReveil(delaiRegroupement);
+            }
             log.info("Event {} published successfully", eventType);
+            return eventRecord;
 
         } catch (Exception e) {
             log.error("Error publishing event {}: {}", event.getClass().getSimpleName(), e.getMessage(), e);
@@ -64,12 +221,21 @@ public class EventDispatcherImpl implements EventPublisher {
         }
     }
 
-    @Override
-    @Async
-    @Transactional(rollbackFor = Exception.class)
-    public void publishAsync(Object event) {
-        log.info("Publishing async event: {}", event.getClass().getSimpleName());
-        publishSync(event);
+    /**
+     * Réveille le consommateur local une fois l'événement visible en base (après commit).
+     * Hors transaction, le signal est émis immédiatement.
+     */
+    private void signalerApresCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eventWakeupSignal.signaler();
+                }
+            });
+        } else {
+            eventWakeupSignal.signaler();
+        }
     }
 
     /**
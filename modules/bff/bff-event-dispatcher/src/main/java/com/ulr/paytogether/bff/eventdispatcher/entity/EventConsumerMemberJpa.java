@@ -0,0 +1,35 @@
+package com.ulr.paytogether.bff.eventdispatcher.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entité JPA d'un pod consommateur de l'outbox (anneau de hachage cohérent).
+ * Un pod dont le heartbeat a expiré est retiré de l'anneau : ses buckets sont redistribués.
+ */
+@Entity
+@Table(name = "event_consumer_member")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventConsumerMemberJpa {
+
+    @Id
+    @Column(name = "member_id", nullable = false, length = 100)
+    private String memberId;
+
+    @Column(name = "joined_at", nullable = false)
+    private LocalDateTime joinedAt;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+}
@@ -0,0 +1,77 @@
+package com.ulr.paytogether.bff.eventdispatcher.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entité JPA pour suivre l'exécution de CHAQUE handler d'un événement.
+ * Un retraitement ne relance que les handlers qui n'ont pas encore réussi
+ * (emails déjà envoyés, documents déjà indexés → pas rejoués).
+ */
+@Entity
+@Table(name = "event_handler_execution")
+@IdClass(EventHandlerExecutionJpa.Cle.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventHandlerExecutionJpa {
+
+    @Id
+    @Column(name = "event_id", nullable = false)
+    private UUID eventId;
+
+    @Id
+    @Column(name = "handler_name", nullable = false, length = 255)
+    private String handlerName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 50)
+    private ExecutionStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "last_duration_ms")
+    private Long lastDurationMs;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "last_attempt_at")
+    private LocalDateTime lastAttemptAt;
+
+    @Column(name = "succeeded_at")
+    private LocalDateTime succeededAt;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    /**
+     * Enum pour le statut d'exécution d'un handler
+     */
+    public enum ExecutionStatus {
+        SUCCEEDED,  // Handler exécuté avec succès (ne sera plus rejoué)
+        FAILED      // Dernière exécution en échec (sera rejouée au prochain retraitement)
+    }
+
+    /**
+     * Clé composite (event_id, handler_name)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cle implements Serializable {
+        private UUID eventId;
+        private String handlerName;
+    }
+}
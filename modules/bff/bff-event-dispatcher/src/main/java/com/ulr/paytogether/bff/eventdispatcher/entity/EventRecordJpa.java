@@ -1,10 +1,13 @@
 package com.ulr.paytogether.bff.eventdispatcher.entity;
 
+import com.ulr.paytogether.bff.eventdispatcher.partitioning.ConsistentHashRing;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -18,7 +21,8 @@ import java.util.UUID;
     @Index(name = "idx_event_status", columnList = "status"),
     @Index(name = "idx_event_type", columnList = "eventType"),
     @Index(name = "idx_source_class", columnList = "sourceClass"),
-    @Index(name = "idx_occurred_on", columnList = "occurredOn")
+    @Index(name = "idx_occurred_on", columnList = "occurredOn"),
+    @Index(name = "idx_event_record_aggregate", columnList = "aggregateId, occurredOn, eventId")
 })
 @Data
 @NoArgsConstructor
@@ -39,8 +43,22 @@ public class EventRecordJpa {
     @Column(name = "occurred_on", nullable = false)
     private LocalDateTime occurredOn;
 
-    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
-    private String payload;
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "payload", nullable = false)
+    private String payload;  // JSONB côté PostgreSQL (migration V19)
+
+    @Column(name = "aggregate_id", length = 255)
+    private String aggregateId;  // Clé d'agrégat "champ:valeur" (EventAggregateKeyExtractor), null si aucune
+
+    @Column(name = "trace_parent", length = 55)
+    private String traceParent;  // W3C traceparent de la publication (span link à la consommation)
+
+    @Column(name = "trace_state", length = 512)
+    private String traceState;  // W3C tracestate de la publication
+
+    @Column(name = "schema_version", nullable = false, columnDefinition = "INTEGER DEFAULT 1")
+    @Builder.Default
+    private Integer schemaVersion = 1;  // Version du schéma du payload (@EventTypeInfo.version)
 
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false, length = 50)
@@ -59,9 +77,21 @@ public class EventRecordJpa {
     @Builder.Default
     private Integer retryCount = 0;  // Nombre de retraitements manuels
 
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;  // Réclamable à partir de cette date (backoff des nouvelles tentatives)
+
     @Column(name = "last_attempt_at")
     private LocalDateTime lastAttemptAt;
 
+    @Column(name = "hash_bucket", nullable = false)
+    private Integer hashBucket;  // Bucket de la clé d'agrégat (ConsistentHashRing) → pod consommateur
+
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;  // Consommateur (pod) propriétaire du claim PROCESSING en cours
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;  // Échéance du bail PROCESSING (prolongée par heartbeat)
+
     @Column(name = "consumed_at")
     private LocalDateTime consumedAt;
 
@@ -88,6 +118,13 @@ public class EventRecordJpa {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = occurredOn != null ? occurredOn : createdAt;
+        }
+        if (hashBucket == null) {
+            // Même clé de repli que EventAggregateKeyExtractor (événement sans agrégat connu)
+            hashBucket = ConsistentHashRing.bucket("event:" + eventId);
+        }
     }
 
     @PreUpdate
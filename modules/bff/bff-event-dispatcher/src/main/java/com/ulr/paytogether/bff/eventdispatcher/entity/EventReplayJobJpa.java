@@ -0,0 +1,101 @@
+package com.ulr.paytogether.bff.eventdispatcher.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entité JPA d'un rejeu d'événements sur un handler (EventReplayService).
+ * Le checkpoint (checkpointOccurredOn, checkpointEventId) permet de reprendre un rejeu suspendu ou interrompu.
+ */
+@Entity
+@Table(name = "event_replay_job")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventReplayJobJpa {
+
+    @Id
+    @Column(name = "job_id", nullable = false)
+    private UUID jobId;
+
+    @Column(name = "handler_name", nullable = false, length = 255)
+    private String handlerName;
+
+    @Column(name = "event_statuses", nullable = false, length = 255)
+    private String eventStatuses;  // Statuts rejoués, séparés par des virgules (ex : CONSUMED)
+
+    @Column(name = "occurred_from", nullable = false)
+    private LocalDateTime occurredFrom;
+
+    @Column(name = "occurred_to", nullable = false)
+    private LocalDateTime occurredTo;
+
+    @Column(name = "aggregate_key", length = 255)
+    private String aggregateKey;  // "champ:valeur" (EventAggregateKeyExtractor), null = tous les agrégats
+
+    @Column(name = "rate_per_second", nullable = false)
+    private Double ratePerSecond;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 50)
+    private ReplayStatus status;
+
+    @Column(name = "checkpoint_occurred_on")
+    private LocalDateTime checkpointOccurredOn;
+
+    @Column(name = "checkpoint_event_id")
+    private UUID checkpointEventId;
+
+    @Column(name = "replayed_count", nullable = false)
+    @Builder.Default
+    private Long replayedCount = 0L;
+
+    @Column(name = "failed_count", nullable = false)
+    @Builder.Default
+    private Long failedCount = 0L;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Enum pour le statut d'un rejeu
+     */
+    public enum ReplayStatus {
+        RUNNING,      // En cours sur un pod
+        PAUSED,       // Suspendu par un admin (reprise depuis le checkpoint)
+        COMPLETED,    // Tous les événements de la plage ont été rejoués
+        FAILED,       // Arrêté après trop d'échecs (reprise possible après correction)
+        CANCELLED     // Annulé par un admin
+    }
+}
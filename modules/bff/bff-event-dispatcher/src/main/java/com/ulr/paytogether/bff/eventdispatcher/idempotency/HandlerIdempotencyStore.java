@@ -0,0 +1,207 @@
+package com.ulr.paytogether.bff.eventdispatcher.idempotency;
+
+import com.ulr.paytogether.bff.eventdispatcher.repository.EventHandlerExecutionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Registre d'idempotence des handlers : (eventId, handler) déjà exécuté avec succès → pas rejoué.
+ *
+ * ✅ Livraison "au moins une fois" : un bail expiré (pod planté après les handlers, avant le CONSUMED),
+ *    un retraitement manuel ou un dispatch concurrent peuvent relivrer un événement ; le registre évite
+ *    de relancer un handler déjà réussi (commande mise à jour deux fois, email renvoyé...)
+ * ✅ Redis : un SET par événement (events:idempotency:{eventId} → noms des handlers), TTL events.idempotency.ttl,
+ *    lecture d'un lot entier en UN aller-retour (pipeline)
+ * ✅ Repli PostgreSQL (event_handler_execution SUCCEEDED) : Redis absent ou indisponible, et toujours
+ *    pour les événements déjà tentés (historique durable, indépendant du TTL Redis)
+ * ✅ Écriture APRÈS commit de la transaction de l'événement : un handler dont les écritures sont
+ *    annulées (rollback) n'est jamais marqué comme exécuté
+ *
+ * ⚠️ Les rejeux (EventReplayService) ne consultent pas le registre : ils rejouent volontairement.
+ */
+@Component
+@Slf4j
+public class HandlerIdempotencyStore {
+
+    static final String PREFIXE_CLE = "events:idempotency:";
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplate;
+    private final EventHandlerExecutionRepository eventHandlerExecutionRepository;
+    private final boolean actif;
+    private final Duration ttl;
+    private final Duration pauseRedis;
+
+    // Après une erreur Redis, Postgres seul jusqu'à cette date (pas de timeout Redis à chaque événement)
+    private volatile LocalDateTime redisIndisponibleJusqua = LocalDateTime.MIN;
+
+    public HandlerIdempotencyStore(ObjectProvider<StringRedisTemplate> redisTemplate,
+                                   EventHandlerExecutionRepository eventHandlerExecutionRepository,
+                                   @Value("${events.idempotency.enabled:true}") boolean actif,
+                                   @Value("${events.idempotency.ttl:P7D}") Duration ttl,
+                                   @Value("${events.idempotency.redis-retry-interval-ms:30000}") long pauseRedisMs) {
+        this.redisTemplate = redisTemplate;
+        this.eventHandlerExecutionRepository = eventHandlerExecutionRepository;
+        this.actif = actif;
+        this.ttl = ttl;
+        this.pauseRedis = Duration.ofMillis(pauseRedisMs);
+    }
+
+    /**
+     * Handlers déjà exécutés avec succès pour un lot d'événements.
+     *
+     * @param eventIds   événements du lot (consultés dans Redis)
+     * @param dejaTentes événements ayant un historique (échec, retraitement) : consultés aussi dans Postgres
+     * @return eventId → noms des handlers déjà réussis
+     */
+    public Map<UUID, Set<String>> handlersTraites(Collection<UUID> eventIds, Collection<UUID> dejaTentes) {
+        Map<UUID, Set<String>> traites = new HashMap<>();
+        Collection<UUID> depuisPostgres = dejaTentes;
+
+        if (actif && !eventIds.isEmpty()) {
+            Map<UUID, Set<String>> depuisRedis = lireRedis(eventIds);
+            if (depuisRedis != null) {
+                traites.putAll(depuisRedis);
+            } else {
+                depuisPostgres = eventIds;
+            }
+        }
+
+        if (!depuisPostgres.isEmpty()) {
+            for (Object[] ligne : eventHandlerExecutionRepository.findHandlersReussis(depuisPostgres)) {
+                traites.computeIfAbsent((UUID) ligne[0], id -> new HashSet<>()).add((String) ligne[1]);
+            }
+        }
+        return traites;
+    }
+
+    /**
+     * Marque des handlers comme exécutés pour un événement, au commit de la transaction courante
+     * (immédiatement hors transaction).
+     */
+    public void enregistrerApresCommit(UUID eventId, List<String> nomsHandlers) {
+        if (!actif || nomsHandlers.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enregistrer(eventId, nomsHandlers);
+                }
+            });
+        } else {
+            enregistrer(eventId, nomsHandlers);
+        }
+    }
+
+    /**
+     * Redis d'abord ; si Redis est absent ou en erreur, ligne SUCCEEDED dans event_handler_execution.
+     * Ne lève jamais d'exception : au pire le handler sera rejoué (comportement sans registre).
+     */
+    void enregistrer(UUID eventId, List<String> nomsHandlers) {
+        if (ecrireRedis(eventId, nomsHandlers)) {
+            return;
+        }
+        try {
+            LocalDateTime maintenant = LocalDateTime.now();
+            for (String nomHandler : nomsHandlers) {
+                eventHandlerExecutionRepository.upsertSucces(eventId, nomHandler, maintenant);
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ Registre d'idempotence indisponible pour l'événement {}: {}", eventId, e.getMessage());
+        }
+    }
+
+    /**
+     * @return handlers par événement, ou null si Redis est absent ou en erreur
+     */
+    private Map<UUID, Set<String>> lireRedis(Collection<UUID> eventIds) {
+        StringRedisTemplate redis = redisDisponible();
+        if (redis == null) {
+            return null;
+        }
+        List<UUID> ids = new ArrayList<>(eventIds);
+        try {
+            List<Object> resultats = redis.executePipelined((RedisCallback<Object>) connexion -> {
+                for (UUID eventId : ids) {
+                    connexion.setCommands().sMembers(cle(eventId));
+                }
+                return null;
+            });
+
+            Map<UUID, Set<String>> traites = new HashMap<>();
+            for (int i = 0; i < ids.size(); i++) {
+                if (resultats.get(i) instanceof Set<?> handlers && !handlers.isEmpty()) {
+                    Set<String> noms = new HashSet<>();
+                    handlers.forEach(nom -> noms.add(String.valueOf(nom)));
+                    traites.put(ids.get(i), noms);
+                }
+            }
+            return traites;
+        } catch (Exception e) {
+            suspendreRedis(e);
+            return null;
+        }
+    }
+
+    private boolean ecrireRedis(UUID eventId, List<String> nomsHandlers) {
+        StringRedisTemplate redis = redisDisponible();
+        if (redis == null) {
+            return false;
+        }
+        try {
+            redis.executePipelined((RedisCallback<Object>) connexion -> {
+                ajouter(connexion, cle(eventId), nomsHandlers);
+                return null;
+            });
+            return true;
+        } catch (Exception e) {
+            suspendreRedis(e);
+            return false;
+        }
+    }
+
+    private void ajouter(RedisConnection connexion, byte[] cle, List<String> nomsHandlers) {
+        byte[][] valeurs = nomsHandlers.stream()
+                .map(nom -> nom.getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+        connexion.setCommands().sAdd(cle, valeurs);
+        connexion.keyCommands().expire(cle, ttl.toSeconds());
+    }
+
+    private StringRedisTemplate redisDisponible() {
+        if (LocalDateTime.now().isBefore(redisIndisponibleJusqua)) {
+            return null;
+        }
+        return redisTemplate.getIfAvailable();
+    }
+
+    private void suspendreRedis(Exception e) {
+        redisIndisponibleJusqua = LocalDateTime.now().plus(pauseRedis);
+        log.warn("⚠️ Redis indisponible pour le registre d'idempotence, repli PostgreSQL pendant {}s: {}",
+                pauseRedis.toSeconds(), e.getMessage());
+    }
+
+    private static byte[] cle(UUID eventId) {
+        return (PREFIXE_CLE + eventId).getBytes(StandardCharsets.UTF_8);
+    }
+}
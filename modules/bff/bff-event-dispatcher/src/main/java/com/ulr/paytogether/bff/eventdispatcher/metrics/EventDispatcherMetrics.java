@@ -0,0 +1,155 @@
+package com.ulr.paytogether.bff.eventdispatcher.metrics;
+
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa;
+import com.ulr.paytogether.bff.eventdispatcher.repository.EventRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Métriques Micrometer du dispatcher d'événements (exposées via /actuator/prometheus).
+ *
+ * - events.handler.duration{handler, outcome}          : durée de chaque handler
+ * - events.processed{type, status}                       : résultats finaux (CONSUMED, FAILED, RETRY...)
+ * - events.outbox.depth{status}                          : nombre d'événements par statut (hors CONSUMED)
+ * - events.outbox.oldest.pending.age                     : âge (s) du plus ancien événement PENDING
+ * - events.claim.conflicts                               : claims unitaires perdus (déjà pris ailleurs)
+ * - events.publish.to.consume{type}                      : latence publication → consommation (histogramme)
+ *
+ * ✅ Les gauges lisent des valeurs en mémoire rafraîchies périodiquement par UNE requête GROUP BY
+ *    (le scrape Prometheus ne déclenche jamais de requête SQL)
+ * ✅ CONSUMED (l'essentiel de la table) n'est pas compté : la requête, exécutée par chaque pod,
+ *    ne parcourt que les statuts actifs ou en échec ; le débit consommé est suivi par events.processed
+ */
+@Component
+@Slf4j
+public class EventDispatcherMetrics {
+
+    public static final String STATUT_NOUVELLE_TENTATIVE = "RETRY_SCHEDULED";
+    public static final String STATUT_FUSIONNE = "COALESCED";
+
+    static final Set<EventRecordJpa.EventStatus> STATUTS_SUIVIS = EnumSet.complementOf(
+            EnumSet.of(EventRecordJpa.EventStatus.CONSUMED));
+
+    private final MeterRegistry meterRegistry;
+    private final EventRecordRepository eventRecordRepository;
+
+    private final Map<EventRecordJpa.EventStatus, AtomicLong> profondeurParStatut =
+            new EnumMap<>(EventRecordJpa.EventStatus.class);
+    private final AtomicLong agePlusAncienPendingSecondes = new AtomicLong();
+    private final Counter conflitsClaim;
+
+    // Meters mis en cache : pas de recherche dans le registre sur le chemin chaud
+    private final Map<String, Timer> timersHandler = new ConcurrentHashMap<>();
+    private final Map<String, Counter> compteursResultat = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timersLatence = new ConcurrentHashMap<>();
+
+    public EventDispatcherMetrics(MeterRegistry meterRegistry, EventRecordRepository eventRecordRepository) {
+        this.meterRegistry = meterRegistry;
+        this.eventRecordRepository = eventRecordRepository;
+
+        for (EventRecordJpa.EventStatus statut : STATUTS_SUIVIS) {
+            AtomicLong profondeur = new AtomicLong();
+            profondeurParStatut.put(statut, profondeur);
+            Gauge.builder("events.outbox.depth", profondeur, AtomicLong::get)
+                    .description("Nombre d'événements dans l'outbox par statut")
+                    .tag("status", statut.name())
+                    .register(meterRegistry);
+        }
+
+        Gauge.builder("events.outbox.oldest.pending.age", agePlusAncienPendingSecondes, AtomicLong::get)
+                .description("Âge du plus ancien événement PENDING")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        this.conflitsClaim = Counter.builder("events.claim.conflicts")
+                .description("Claims unitaires perdus : événement déjà pris par un autre thread/pod")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Durée d'exécution d'un handler
+     */
+    public void enregistrerExecutionHandler(String nomHandler, boolean succes, long dureeNanos) {
+        String outcome = succes ? "success" : "failure";
+        timersHandler.computeIfAbsent(nomHandler + '|' + outcome, cle -> Timer.builder("events.handler.duration")
+                        .description("Durée d'exécution des handlers @FunctionalHandler")
+                        .tag("handler", nomHandler)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                .record(dureeNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Résultat final d'un événement (CONSUMED, FAILED, PERMANENTLY_FAILED, RETRY_SCHEDULED ou COALESCED)
+     */
+    public void enregistrerResultat(String eventType, String statut) {
+        compteursResultat.computeIfAbsent(eventType + '|' + statut, cle -> Counter.builder("events.processed")
+                        .description("Événements traités par type et statut final")
+                        .tag("type", eventType)
+                        .tag("status", statut)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Latence entre la publication (occurred_on) et la consommation réussie
+     */
+    public void enregistrerLatence(String eventType, LocalDateTime occurredOn) {
+        Duration latence = Duration.between(occurredOn, LocalDateTime.now());
+        if (latence.isNegative()) {
+            return;
+        }
+        timersLatence.computeIfAbsent(eventType, type -> Timer.builder("events.publish.to.consume")
+                        .description("Latence entre publication et consommation d'un événement")
+                        .tag("type", type)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofMillis(10))
+                        .maximumExpectedValue(Duration.ofHours(1))
+                        .register(meterRegistry))
+                .record(latence);
+    }
+
+    /**
+     * Claim unitaire (claimForProcessing) ayant retourné 0 ligne
+     */
+    public void enregistrerConflitClaim() {
+        conflitsClaim.increment();
+    }
+
+    /**
+     * Rafraîchit les gauges de l'outbox : UNE requête GROUP BY status (statuts suivis seulement)
+     * + UNE requête MIN(occurred_on) sur l'index partiel des PENDING.
+     */
+    @Scheduled(fixedDelayString = "${events.metrics.refresh-interval-ms:15000}", initialDelay = 5000)
+    public void rafraichirGauges() {
+        try {
+            Map<EventRecordJpa.EventStatus, Long> comptages = new EnumMap<>(EventRecordJpa.EventStatus.class);
+            for (Object[] ligne : eventRecordRepository.countGroupByStatusIn(STATUTS_SUIVIS)) {
+                comptages.put((EventRecordJpa.EventStatus) ligne[0], (Long) ligne[1]);
+            }
+            profondeurParStatut.forEach((statut, profondeur) -> profondeur.set(comptages.getOrDefault(statut, 0L)));
+
+            LocalDateTime plusAncien = eventRecordRepository.findOldestPendingOccurredOn();
+            agePlusAncienPendingSecondes.set(plusAncien != null
+                    ? Math.max(0, Duration.between(plusAncien, LocalDateTime.now()).toSeconds())
+                    : 0);
+        } catch (Exception e) {
+            log.warn("⚠️ Rafraîchissement des métriques de l'outbox impossible: {}", e.getMessage());
+        }
+    }
+}
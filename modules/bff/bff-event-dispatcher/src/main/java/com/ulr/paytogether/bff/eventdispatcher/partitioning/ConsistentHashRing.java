@@ -0,0 +1,91 @@
+package com.ulr.paytogether.bff.eventdispatcher.partitioning;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Anneau de hachage cohérent : attribue chacun des {@value #NOMBRE_BUCKETS} buckets de l'outbox à un pod.
+ *
+ * ✅ Noeuds virtuels : chaque pod occupe plusieurs positions sur l'anneau → répartition homogène
+ * ✅ Arrivée / départ d'un pod : seuls les buckets de ses voisins changent de propriétaire
+ * ✅ Déterministe (MD5) : tous les pods calculent la même attribution à partir de la même liste de membres
+ */
+public final class ConsistentHashRing {
+
+    public static final int NOMBRE_BUCKETS = 128;
+
+    private final NavigableMap<Long, String> anneau = new TreeMap<>();
+
+    /**
+     * @param membres        identifiants des pods vivants
+     * @param noeudsVirtuels nombre de positions par pod sur l'anneau
+     */
+    public ConsistentHashRing(Collection<String> membres, int noeudsVirtuels) {
+        for (String membre : membres) {
+            for (int i = 0; i < noeudsVirtuels; i++) {
+                anneau.put(position(membre + "#" + i), membre);
+            }
+        }
+    }
+
+    /**
+     * Bucket d'une clé d'agrégat (EventAggregateKeyExtractor) : tous les événements d'un même agrégat
+     * tombent dans le même bucket, donc sur le même pod.
+     */
+    public static int bucket(String cleAgregat) {
+        return Math.floorMod(melanger(cleAgregat.hashCode()), NOMBRE_BUCKETS);
+    }
+
+    /**
+     * @return pod propriétaire du bucket, null si l'anneau est vide
+     */
+    public String proprietaire(int bucket) {
+        if (anneau.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> noeud = anneau.ceilingEntry(position("bucket-" + bucket));
+        return noeud != null ? noeud.getValue() : anneau.firstEntry().getValue();
+    }
+
+    /**
+     * @return buckets attribués au pod (triés)
+     */
+    public Set<Integer> buckets(String membre) {
+        Set<Integer> buckets = new TreeSet<>();
+        for (int bucket = 0; bucket < NOMBRE_BUCKETS; bucket++) {
+            if (membre.equals(proprietaire(bucket))) {
+                buckets.add(bucket);
+            }
+        }
+        return buckets;
+    }
+
+    private static long position(String valeur) {
+        try {
+            byte[] empreinte = MessageDigest.getInstance("MD5").digest(valeur.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(empreinte).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 indisponible", e);
+        }
+    }
+
+    /**
+     * Finaliseur murmur3 : String.hashCode répartit mal ses bits de poids faible
+     */
+    private static int melanger(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
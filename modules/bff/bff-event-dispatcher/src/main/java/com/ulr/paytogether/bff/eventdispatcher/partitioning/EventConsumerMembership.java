@@ -0,0 +1,172 @@
+package com.ulr.paytogether.bff.eventdispatcher.partitioning;
+
+import com.ulr.paytogether.bff.eventdispatcher.consumer.EventLeaseManager;
+import com.ulr.paytogether.bff.eventdispatcher.consumer.EventWakeupSignal;
+import com.ulr.paytogether.bff.eventdispatcher.dispatcher.EventDispatcherConfiguration;
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventConsumerMemberJpa;
+import com.ulr.paytogether.bff.eventdispatcher.repository.EventConsumerMemberRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Appartenance de ce pod au groupe de consommateurs de l'outbox (table event_consumer_member).
+ *
+ * ✅ Heartbeat périodique : chaque pod s'enregistre puis lit la liste des pods vivants
+ * ✅ Hachage cohérent (ConsistentHashRing) : chaque pod ne réclame que ses buckets (hash_bucket IN ...)
+ *    → les pods ne scannent plus les mêmes lignes, le débit croît avec le nombre de réplicas
+ * ✅ Rééquilibrage : un pod qui arrive ou dont le heartbeat expire déplace uniquement les buckets voisins ;
+ *    un bucket gagné n'est réclamé qu'après events.partitioning.handover-delay-ms
+ *    (le temps que l'ancien propriétaire constate la perte et termine son lot)
+ *
+ * ⚠️ Le partitionnement est une optimisation : FOR UPDATE SKIP LOCKED garantit toujours l'exclusivité.
+ *    Si la table n'est pas lisible, ce pod réclame tous les buckets (comportement d'avant le partitionnement).
+ */
+@Component
+@Slf4j
+public class EventConsumerMembership {
+
+    private static final List<Integer> TOUS_LES_BUCKETS =
+            IntStream.range(0, ConsistentHashRing.NOMBRE_BUCKETS).boxed().toList();
+
+    private final EventConsumerMemberRepository eventConsumerMemberRepository;
+    private final EventWakeupSignal eventWakeupSignal;
+    private final String membre;
+    private final boolean actif;
+    private final int noeudsVirtuels;
+    private final Duration expirationMembre;
+    private final Duration delaiPassation;
+
+    // bucket → date à partir de laquelle ce pod peut le réclamer ; null tant que l'anneau n'est pas calculé
+    private volatile Map<Integer, LocalDateTime> attribution;
+    private volatile LocalDateTime derniereSynchronisation;
+
+    public EventConsumerMembership(EventConsumerMemberRepository eventConsumerMemberRepository,
+                                   EventWakeupSignal eventWakeupSignal,
+                                   EventLeaseManager eventLeaseManager,
+                                   @Value("${events.partitioning.enabled:true}") boolean actif,
+                                   @Value("${events.consumer.enabled:true}") boolean consommateurActif,
+                                   @Value("${events.partitioning.virtual-nodes:64}") int noeudsVirtuels,
+                                   @Value("${events.partitioning.member-timeout-ms:15000}") long expirationMembreMs,
+                                   @Value("${events.partitioning.handover-delay-ms:10000}") long delaiPassationMs) {
+        this.eventConsumerMemberRepository = eventConsumerMemberRepository;
+        this.eventWakeupSignal = eventWakeupSignal;
+        this.membre = eventLeaseManager.proprietaire();
+        // Pod sans boucle de consommation : hors de l'anneau, sinon ses buckets ne seraient réclamés par personne
+        this.actif = actif && consommateurActif;
+        this.noeudsVirtuels = noeudsVirtuels;
+        this.expirationMembre = Duration.ofMillis(expirationMembreMs);
+        this.delaiPassation = Duration.ofMillis(delaiPassationMs);
+    }
+
+    /**
+     * Buckets que ce pod peut réclamer maintenant (filtre hash_bucket IN (...) des claims).
+     * Vide pendant une passation : le pod n'a alors rien à réclamer.
+     */
+    public List<Integer> bucketsActifs() {
+        if (!actif) {
+            return TOUS_LES_BUCKETS;
+        }
+        if (attribution == null) {
+            rafraichir();
+        }
+        Map<Integer, LocalDateTime> courante = attribution;
+        LocalDateTime maintenant = LocalDateTime.now();
+        if (courante == null || derniereSynchronisation.isBefore(maintenant.minus(expirationMembre))) {
+            // Heartbeat en échec : les autres pods ont pu reprendre nos buckets, SKIP LOCKED reste le garde-fou
+            return TOUS_LES_BUCKETS;
+        }
+
+        List<Integer> buckets = new ArrayList<>(courante.size());
+        courante.forEach((bucket, actifDepuis) -> {
+            if (!actifDepuis.isAfter(maintenant)) {
+                buckets.add(bucket);
+            }
+        });
+        return buckets;
+    }
+
+    /**
+     * Heartbeat de ce pod puis recalcul de ses buckets à partir des pods vivants.
+     */
+    @Scheduled(fixedDelayString = "${events.partitioning.heartbeat-interval-ms:5000}",
+            scheduler = EventDispatcherConfiguration.SCHEDULER_HEARTBEATS)
+    public synchronized void rafraichir() {
+        if (!actif) {
+            return;
+        }
+        LocalDateTime maintenant = LocalDateTime.now();
+        try {
+            EventConsumerMemberJpa enregistrement = eventConsumerMemberRepository.findById(membre)
+                    .orElseGet(() -> EventConsumerMemberJpa.builder().memberId(membre).joinedAt(maintenant).build());
+            enregistrement.setHeartbeatAt(maintenant);
+            eventConsumerMemberRepository.save(enregistrement);
+
+            List<String> membres = new ArrayList<>(
+                    eventConsumerMemberRepository.findMemberIdsActifsDepuis(maintenant.minus(expirationMembre)));
+            if (!membres.contains(membre)) {
+                membres.add(membre);
+            }
+
+            Set<Integer> buckets = new ConsistentHashRing(membres, noeudsVirtuels).buckets(membre);
+            Map<Integer, LocalDateTime> precedente = attribution;
+            // Seul pod : aucun ancien propriétaire à attendre
+            LocalDateTime activationGains = membres.size() == 1 ? maintenant : maintenant.plus(delaiPassation);
+
+            Map<Integer, LocalDateTime> suivante = new HashMap<>();
+            int gagnes = 0;
+            for (Integer bucket : buckets) {
+                LocalDateTime actifDepuis = precedente != null ? precedente.get(bucket) : null;
+                if (actifDepuis == null) {
+                    actifDepuis = activationGains;
+                    gagnes++;
+                }
+                suivante.put(bucket, actifDepuis);
+            }
+            int perdus = precedente != null
+                    ? (int) precedente.keySet().stream().filter(bucket -> !buckets.contains(bucket)).count()
+                    : 0;
+
+            derniereSynchronisation = maintenant;
+            attribution = Map.copyOf(suivante);
+
+            if (gagnes > 0 || perdus > 0) {
+                log.info("🔀 Rééquilibrage de l'outbox : {} pod(s), {} bucket(s) pour {} (+{} / -{})",
+                        membres.size(), buckets.size(), membre, gagnes, perdus);
+                if (gagnes > 0) {
+                    eventWakeupSignal.planifierReveil(Duration.between(maintenant, activationGains));
+                }
+            }
+
+            eventConsumerMemberRepository.deleteInactifsAvant(maintenant.minus(expirationMembre.multipliedBy(10)));
+        } catch (Exception e) {
+            log.warn("⚠️ Heartbeat du groupe de consommateurs impossible: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Départ propre : les autres pods reprennent nos buckets dès leur prochain heartbeat.
+     */
+    @PreDestroy
+    public void quitter() {
+        if (!actif) {
+            return;
+        }
+        try {
+            eventConsumerMemberRepository.deleteById(membre);
+        } catch (Exception e) {
+            log.warn("⚠️ Retrait du groupe de consommateurs impossible: {}", e.getMessage());
+        }
+    }
+}
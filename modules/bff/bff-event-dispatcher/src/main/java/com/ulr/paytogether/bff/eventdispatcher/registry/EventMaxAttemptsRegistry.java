@@ -0,0 +1,68 @@
+package com.ulr.paytogether.bff.eventdispatcher.registry;
+
+import com.ulr.paytogether.bff.event.annotation.FunctionalHandler;
+import com.ulr.paytogether.bff.event.handler.ConsumerHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Nombre maximal de tentatives par type d'événement : le plus grand @FunctionalHandler.maxAttempts
+ * des handlers du type.
+ *
+ * ✅ Seule source du plafond : écrit dans event_record.max_attempts à la publication, puis lu par
+ *    l'échec d'un handler (EventTransactionProcessor) comme par la reprise des baux expirés
+ *    (EventLeaseManager) → les deux chemins s'arrêtent au même nombre de tentatives
+ * ✅ Lecture des seuls types de beans : aucun handler instancié (les handlers dépendent eux-mêmes
+ *    d'EventPublisher)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventMaxAttemptsRegistry {
+
+    /**
+     * Type sans handler : valeur par défaut de @FunctionalHandler.maxAttempts
+     */
+    static final int PAR_DEFAUT = 3;
+
+    private final ListableBeanFactory beanFactory;
+    private volatile Map<String, Integer> maxParType;
+
+    /**
+     * @param eventType nom simple de la classe d'événement (colonne event_type)
+     * @return nombre maximal de tentatives à persister pour ce type
+     */
+    public int maxAttempts(String eventType) {
+        Map<String, Integer> courant = maxParType;
+        if (courant == null) {
+            courant = scannerHandlers();
+            maxParType = courant;
+        }
+        return courant.getOrDefault(eventType, PAR_DEFAUT);
+    }
+
+    private Map<String, Integer> scannerHandlers() {
+        Map<String, Integer> maxParTypeScanne = new HashMap<>();
+        for (String nomBean : beanFactory.getBeanNamesForType(ConsumerHandler.class, true, false)) {
+            Class<?> type = beanFactory.getType(nomBean);
+            if (type == null) {
+                continue;
+            }
+            for (Method methode : ClassUtils.getUserClass(type).getDeclaredMethods()) {
+                FunctionalHandler annotation = methode.getAnnotation(FunctionalHandler.class);
+                if (annotation != null) {
+                    maxParTypeScanne.merge(annotation.eventType().getSimpleName(), annotation.maxAttempts(), Math::max);
+                }
+            }
+        }
+        log.info("🔢 Tentatives max par type d'événement : {}", maxParTypeScanne);
+        return Map.copyOf(maxParTypeScanne);
+    }
+}
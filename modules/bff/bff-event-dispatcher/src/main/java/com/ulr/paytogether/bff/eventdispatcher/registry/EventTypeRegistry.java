@@ -0,0 +1,197 @@
+package com.ulr.paytogether.bff.eventdispatcher.registry;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ulr.paytogether.core.event.EventTypeInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Registre des types d'événements, construit UNE fois au démarrage par scan de {@value #PACKAGE_EVENEMENTS}.
+ *
+ * ✅ nom (ou alias) → classe + ObjectReader Jackson pré-construit (thread-safe, réutilisé)
+ *    → plus de Class.forName ni de construction de reader à chaque événement
+ * ✅ Alias (@EventTypeInfo.aliases) : les événements persistés sous un ancien nom de classe
+ *    restent désérialisables et routés vers les handlers du nouveau nom
+ * ✅ Version de schéma (@EventTypeInfo.version + colonne schema_version) : les payloads anciens
+ *    passent par la chaîne d'EventUpcaster avant désérialisation
+ */
+@Component
+@Slf4j
+public class EventTypeRegistry {
+
+    public static final String PACKAGE_EVENEMENTS = "com.ulr.paytogether.core.event";
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, TypeEvenement> typesParNom = new HashMap<>();
+    private final Map<Class<?>, TypeEvenement> typesParClasse = new HashMap<>();
+    private final Map<String, Map<Integer, EventUpcaster>> upcastersParType = new HashMap<>();
+
+    /**
+     * Type d'événement enregistré.
+     *
+     * @param nom     nom canonique (nom simple de la classe)
+     * @param classe  classe de l'événement
+     * @param version version courante du schéma
+     * @param reader  ObjectReader dédié à la classe
+     */
+    public record TypeEvenement(String nom, Class<?> classe, int version, ObjectReader reader) {
+    }
+
+    /**
+     * @param objectMapper ObjectMapper partagé de l'application (modules, configuration Spring Boot) :
+     *                     copié pour ne pas modifier sa configuration
+     */
+    public EventTypeRegistry(ObjectMapper objectMapper, ObjectProvider<EventUpcaster> upcasters) {
+        this.objectMapper = objectMapper.copy();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        // Lecteur tolérant : un champ retiré/ajouté dans une nouvelle version ne casse pas les anciens payloads
+        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        scannerEvenements();
+        upcasters.orderedStream().forEach(this::enregistrerUpcaster);
+
+        log.info("📚 Registre d'événements : {} types, {} noms (alias inclus)",
+                typesParClasse.size(), typesParNom.size());
+    }
+
+    private void scannerEvenements() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        // Toutes les classes concrètes de premier niveau (exclut les builders Lombok imbriqués)
+        scanner.addIncludeFilter((reader, factory) -> !reader.getClassMetadata().hasEnclosingClass());
+
+        for (BeanDefinition definition : scanner.findCandidateComponents(PACKAGE_EVENEMENTS)) {
+            Class<?> classe = ClassUtils.resolveClassName(definition.getBeanClassName(), getClass().getClassLoader());
+            enregistrer(classe);
+        }
+    }
+
+    /**
+     * Enregistre une classe d'événement (au démarrage uniquement : les maps ne sont plus modifiées ensuite).
+     *
+     * @throws IllegalStateException si le nom ou un alias est déjà utilisé par une autre classe
+     */
+    private void enregistrer(Class<?> classe) {
+        EventTypeInfo info = classe.getAnnotation(EventTypeInfo.class);
+        int version = info != null ? info.version() : 1;
+
+        TypeEvenement type = new TypeEvenement(classe.getSimpleName(), classe, version, objectMapper.readerFor(classe));
+        typesParClasse.put(classe, type);
+
+        List<String> noms = new ArrayList<>();
+        noms.add(type.nom());
+        if (info != null) {
+            noms.addAll(List.of(info.aliases()));
+        }
+        for (String nom : noms) {
+            TypeEvenement existant = typesParNom.putIfAbsent(nom, type);
+            if (existant != null && !existant.classe().equals(classe)) {
+                throw new IllegalStateException("Nom d'événement '" + nom + "' utilisé par "
+                        + existant.classe().getName() + " et " + classe.getName());
+            }
+        }
+    }
+
+    private void enregistrerUpcaster(EventUpcaster upcaster) {
+        upcastersParType.computeIfAbsent(upcaster.eventType(), t -> new HashMap<>())
+                .put(upcaster.versionSource(), upcaster);
+        log.info("🔼 Upcaster enregistré : {} v{} → v{}",
+                upcaster.eventType(), upcaster.versionSource(), upcaster.versionSource() + 1);
+    }
+
+    /**
+     * @param eventType nom persisté (nom courant ou alias)
+     * @return type enregistré, vide si inconnu
+     */
+    public Optional<TypeEvenement> trouver(String eventType) {
+        return Optional.ofNullable(typesParNom.get(eventType));
+    }
+
+    /**
+     * @return nom canonique du type (résolution des alias), ou {@code eventType} tel quel si inconnu
+     */
+    public String nomCanonique(String eventType) {
+        TypeEvenement type = typesParNom.get(eventType);
+        return type != null ? type.nom() : eventType;
+    }
+
+    /**
+     * @return tous les noms persistés possibles (nom canonique + alias) pour un type,
+     *         ou {@code nomCanonique} seul si le type est inconnu
+     */
+    public List<String> nomsPersistes(String nomCanonique) {
+        List<String> noms = new ArrayList<>();
+        noms.add(nomCanonique);
+        typesParNom.forEach((nom, type) -> {
+            if (type.nom().equals(nomCanonique) && !nom.equals(nomCanonique)) {
+                noms.add(nom);
+            }
+        });
+        return noms;
+    }
+
+    /**
+     * @return version courante du schéma pour cette classe (1 si non enregistrée)
+     */
+    public int versionCourante(Class<?> classe) {
+        TypeEvenement type = typesParClasse.get(classe);
+        return type != null ? type.version() : 1;
+    }
+
+    /**
+     * Désérialise un payload persisté avec le reader pré-construit du type,
+     * après upcasting si sa version de schéma est antérieure à la version courante.
+     *
+     * @throws ClassNotFoundException si le type (ou alias) est inconnu
+     */
+    public Object deserialiser(String eventType, int schemaVersion, String payload)
+            throws ClassNotFoundException, IOException {
+        TypeEvenement type = typesParNom.get(eventType);
+        if (type == null) {
+            throw new ClassNotFoundException(
+                    "Type d'événement inconnu: " + eventType + " (ni classe ni alias dans " + PACKAGE_EVENEMENTS + ")");
+        }
+
+        if (schemaVersion >= type.version()) {
+            return type.reader().readValue(payload);
+        }
+
+        JsonNode arbre = objectMapper.readTree(payload);
+        Map<Integer, EventUpcaster> upcasters = upcastersParType.getOrDefault(type.nom(), Map.of());
+        for (int version = schemaVersion; version < type.version(); version++) {
+            EventUpcaster upcaster = upcasters.get(version);
+            if (upcaster == null) {
+                log.warn("⚠️ Aucun upcaster {} v{} → v{}, lecture tolérante du payload",
+                        type.nom(), version, version + 1);
+                continue;
+            }
+            arbre = upcaster.upcast((ObjectNode) arbre);
+        }
+        return type.reader().readValue(arbre);
+    }
+
+    /**
+     * Types enregistrés, triés par nom (diagnostic / admin)
+     */
+    public List<TypeEvenement> types() {
+        return typesParClasse.values().stream()
+                .sorted(Comparator.comparing(TypeEvenement::nom))
+                .toList();
+    }
+}
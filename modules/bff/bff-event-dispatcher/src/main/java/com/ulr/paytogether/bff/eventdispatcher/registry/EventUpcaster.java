@@ -0,0 +1,27 @@
+package com.ulr.paytogether.bff.eventdispatcher.registry;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Migration du payload JSON d'un événement d'une version de schéma à la suivante.
+ *
+ * Déclarer un bean Spring par étape (v1 → v2, v2 → v3, ...) : EventTypeRegistry
+ * enchaîne les upcasters nécessaires avant de désérialiser un événement ancien.
+ */
+public interface EventUpcaster {
+
+    /**
+     * Nom canonique de l'événement (nom simple de la classe actuelle)
+     */
+    String eventType();
+
+    /**
+     * Version de départ : le payload produit est en version {@code versionSource() + 1}
+     */
+    int versionSource();
+
+    /**
+     * Transforme le payload (modification en place autorisée)
+     */
+    ObjectNode upcast(ObjectNode payload);
+}
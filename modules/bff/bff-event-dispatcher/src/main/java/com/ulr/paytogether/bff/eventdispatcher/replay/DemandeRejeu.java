@@ -0,0 +1,24 @@
+package com.ulr.paytogether.bff.eventdispatcher.replay;
+
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Demande de rejeu d'événements sur un handler (corps de POST /api/admin/events/replays).
+ *
+ * @param handler       nom "Classe.methode" du handler (ex : DealSearchIndexHandler.handleDealUpdated)
+ * @param statuses      statuts rejoués (défaut : CONSUMED) ; PENDING et PROCESSING sont refusés
+ * @param from          début de la plage occurred_on (inclus, défaut : 30 jours)
+ * @param to            fin de la plage occurred_on (exclue, défaut : maintenant)
+ * @param aggregateKey  "champ:valeur" d'un agrégat (ex : dealUuid:...), null = tous
+ * @param ratePerSecond débit maximum (défaut : events.replay.default-rate-per-second)
+ */
+public record DemandeRejeu(String handler,
+                           List<EventRecordJpa.EventStatus> statuses,
+                           LocalDateTime from,
+                           LocalDateTime to,
+                           String aggregateKey,
+                           Double ratePerSecond) {
+}
@@ -0,0 +1,319 @@
+package com.ulr.paytogether.bff.eventdispatcher.replay;
+
+import com.ulr.paytogether.bff.eventdispatcher.consumer.EventConsumerService;
+import com.ulr.paytogether.bff.eventdispatcher.consumer.EventTransactionProcessor;
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa;
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa.EventStatus;
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventReplayJobJpa;
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventReplayJobJpa.ReplayStatus;
+import com.ulr.paytogether.bff.eventdispatcher.registry.EventTypeRegistry;
+import com.ulr.paytogether.bff.eventdispatcher.repository.EventRecordRepository;
+import com.ulr.paytogether.bff.eventdispatcher.repository.EventReplayJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Rejeu / backfill d'événements de l'outbox sur UN handler (nouveau handler, index reconstruit, bug corrigé).
+ *
+ * ✅ Sélection par type (celui du handler), plage occurred_on, statuts et clé d'agrégat (colonne aggregate_id)
+ * ✅ Lecture par pages en pagination par clé (occurred_on, event_id) → checkpoint exact en base, reprise possible
+ * ✅ Débit limité par rejeu (events.replay.*) pour ne pas saturer la base ni les services en aval
+ * ✅ Lecture seule sur event_record : statut, tentatives et historique des handlers de la consommation
+ *    normale ne sont jamais modifiés (un rejeu ne fait pas repasser un événement en PENDING)
+ *
+ * ⚠️ Le handler rejoué doit être idempotent : il a déjà vu (une partie de) ces événements.
+ */
+@Service
+@Slf4j
+public class EventReplayService {
+
+    private static final Set<EventStatus> STATUTS_INTERDITS = EnumSet.of(EventStatus.PENDING, EventStatus.PROCESSING);
+    private static final Duration INACTIVITE_REPRISE = Duration.ofMinutes(5);
+    private static final int LONGUEUR_MAX_ERREUR = 2000;
+
+    private final EventReplayJobRepository eventReplayJobRepository;
+    private final EventRecordRepository eventRecordRepository;
+    private final EventConsumerService eventConsumerService;
+    private final EventTransactionProcessor eventTransactionProcessor;
+    private final EventTypeRegistry eventTypeRegistry;
+    private final Executor executor;
+    private final double debitParDefaut;
+    private final double debitMax;
+    private final int taillePage;
+    private final long echecsMax;
+
+    // Rejeux exécutés par ce pod → demande d'arrêt (pause / annulation) vue à la prochaine itération
+    private final Set<UUID> arretsDemandes = ConcurrentHashMap.newKeySet();
+
+    public EventReplayService(EventReplayJobRepository eventReplayJobRepository,
+                              EventRecordRepository eventRecordRepository,
+                              EventConsumerService eventConsumerService,
+                              EventTransactionProcessor eventTransactionProcessor,
+                              EventTypeRegistry eventTypeRegistry,
+                              @Qualifier("virtualThreadExecutor") Executor executor,
+                              @Value("${events.replay.default-rate-per-second:10}") double debitParDefaut,
+                              @Value("${events.replay.max-rate-per-second:200}") double debitMax,
+                              @Value("${events.replay.page-size:100}") int taillePage,
+                              @Value("${events.replay.max-failures:100}") long echecsMax) {
+        this.eventReplayJobRepository = eventReplayJobRepository;
+        this.eventRecordRepository = eventRecordRepository;
+        this.eventConsumerService = eventConsumerService;
+        this.eventTransactionProcessor = eventTransactionProcessor;
+        this.eventTypeRegistry = eventTypeRegistry;
+        this.executor = executor;
+        this.debitParDefaut = debitParDefaut;
+        this.debitMax = debitMax;
+        this.taillePage = taillePage;
+        this.echecsMax = echecsMax;
+    }
+
+    /**
+     * Crée un rejeu et le lance en arrière-plan.
+     *
+     * @throws IllegalArgumentException handler inconnu, statut non rejouable, plage ou débit invalide
+     */
+    public EventReplayJobJpa demarrer(DemandeRejeu demande) {
+        EventTransactionProcessor.HandlerRegistre handler = resoudreHandler(demande.handler());
+
+        List<EventStatus> statuts = demande.statuses() == null || demande.statuses().isEmpty()
+                ? List.of(EventStatus.CONSUMED)
+                : demande.statuses();
+        if (statuts.stream().anyMatch(STATUTS_INTERDITS::contains)) {
+            throw new IllegalArgumentException(
+                    "Les événements PENDING / PROCESSING appartiennent au consommateur et ne peuvent pas être rejoués");
+        }
+
+        LocalDateTime maintenant = LocalDateTime.now();
+        LocalDateTime depuis = demande.from() != null ? demande.from() : maintenant.minusDays(30);
+        LocalDateTime jusqua = demande.to() != null ? demande.to() : maintenant;
+        if (!depuis.isBefore(jusqua)) {
+            throw new IllegalArgumentException("Plage de rejeu vide: from doit précéder to");
+        }
+
+        double debit = demande.ratePerSecond() != null ? demande.ratePerSecond() : debitParDefaut;
+        if (debit <= 0 || debit > debitMax) {
+            throw new IllegalArgumentException("Débit de rejeu invalide: " + debit + " (max " + debitMax + "/s)");
+        }
+
+        String cleAgregat = demande.aggregateKey() != null && !demande.aggregateKey().isBlank()
+                ? demande.aggregateKey().trim()
+                : null;
+        if (cleAgregat != null && cleAgregat.indexOf(':') <= 0) {
+            throw new IllegalArgumentException("Clé d'agrégat attendue au format champ:valeur: " + cleAgregat);
+        }
+
+        EventReplayJobJpa job = eventReplayJobRepository.save(EventReplayJobJpa.builder()
+                .jobId(UUID.randomUUID())
+                .handlerName(handler.getNomHandler())
+                .eventStatuses(statuts.stream().map(Enum::name).collect(Collectors.joining(",")))
+                .occurredFrom(depuis)
+                .occurredTo(jusqua)
+                .aggregateKey(cleAgregat)
+                .ratePerSecond(debit)
+                .status(ReplayStatus.RUNNING)
+                .build());
+
+        log.info("🔁 Rejeu {} créé: handler={}, statuts={}, plage=[{}, {}), agrégat={}, débit={}/s",
+                job.getJobId(), job.getHandlerName(), job.getEventStatuses(), depuis, jusqua, cleAgregat, debit);
+        lancer(job.getJobId());
+        return job;
+    }
+
+    /**
+     * Reprend un rejeu suspendu, en échec ou abandonné (pod arrêté) depuis son checkpoint.
+     *
+     * @throws IllegalArgumentException rejeu inconnu ou non reprenable (terminé, annulé, en cours)
+     */
+    public EventReplayJobJpa reprendre(UUID jobId) {
+        LocalDateTime maintenant = LocalDateTime.now();
+        if (eventReplayJobRepository.reprendre(jobId, maintenant, maintenant.minus(INACTIVITE_REPRISE)) == 0) {
+            throw new IllegalArgumentException("Rejeu " + jobId + " introuvable ou non reprenable");
+        }
+        log.info("▶️ Rejeu {} repris", jobId);
+        arretsDemandes.remove(jobId);
+        lancer(jobId);
+        return trouver(jobId);
+    }
+
+    /**
+     * Suspend un rejeu en cours (le checkpoint de la dernière page est conservé).
+     */
+    public EventReplayJobJpa suspendre(UUID jobId) {
+        return arreter(jobId, ReplayStatus.PAUSED);
+    }
+
+    /**
+     * Annule définitivement un rejeu.
+     */
+    public EventReplayJobJpa annuler(UUID jobId) {
+        return arreter(jobId, ReplayStatus.CANCELLED);
+    }
+
+    public List<EventReplayJobJpa> lister() {
+        return eventReplayJobRepository.findTop50ByOrderByCreatedAtDesc();
+    }
+
+    /**
+     * @throws IllegalArgumentException rejeu inconnu
+     */
+    public EventReplayJobJpa trouver(UUID jobId) {
+        return eventReplayJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Rejeu introuvable: " + jobId));
+    }
+
+    /**
+     * Boucle d'un rejeu : page par page depuis le checkpoint, jusqu'à la fin de la plage,
+     * une demande d'arrêt ou trop d'échecs.
+     */
+    void executer(UUID jobId) {
+        EventReplayJobJpa job = trouver(jobId);
+        Optional<EventTransactionProcessor.HandlerRegistre> handlerTrouve =
+                eventConsumerService.trouverHandler(job.getHandlerName());
+        if (handlerTrouve.isEmpty()) {
+            terminer(job, ReplayStatus.FAILED, "Handler introuvable sur ce pod: " + job.getHandlerName());
+            return;
+        }
+        EventTransactionProcessor.HandlerRegistre handler = handlerTrouve.get();
+
+        List<String> types = eventTypeRegistry.nomsPersistes(handler.getTypeEvent().getSimpleName());
+        List<EventStatus> statuts = Arrays.stream(job.getEventStatuses().split(","))
+                .map(EventStatus::valueOf)
+                .toList();
+
+        LocalDateTime apresOccurredOn = job.getCheckpointOccurredOn() != null
+                ? job.getCheckpointOccurredOn()
+                : job.getOccurredFrom().minusNanos(1000);
+        UUID apresEventId = job.getCheckpointEventId() != null ? job.getCheckpointEventId() : new UUID(0L, 0L);
+        LimiteurDebit limiteur = new LimiteurDebit(job.getRatePerSecond());
+
+        try {
+            while (true) {
+                List<EventRecordJpa> page = job.getAggregateKey() != null
+                        ? eventRecordRepository.findForReplayByAggregate(job.getAggregateKey(), types, statuts,
+                                job.getOccurredFrom(), job.getOccurredTo(), apresOccurredOn, apresEventId,
+                                PageRequest.of(0, taillePage))
+                        : eventRecordRepository.findForReplay(types, statuts,
+                                job.getOccurredFrom(), job.getOccurredTo(), apresOccurredOn, apresEventId,
+                                PageRequest.of(0, taillePage));
+                if (page.isEmpty()) {
+                    terminer(job, ReplayStatus.COMPLETED, null);
+                    return;
+                }
+
+                for (EventRecordJpa evenement : page) {
+                    if (arretsDemandes.contains(jobId)) {
+                        log.info("⏸️ Rejeu {} arrêté à la demande (checkpoint {} / {})",
+                                jobId, job.getCheckpointOccurredOn(), job.getCheckpointEventId());
+                        return;
+                    }
+                    limiteur.attendre();
+                    rejouer(job, handler, evenement);
+                    apresOccurredOn = evenement.getOccurredOn();
+                    apresEventId = evenement.getEventId();
+                }
+
+                job.setCheckpointOccurredOn(apresOccurredOn);
+                job.setCheckpointEventId(apresEventId);
+                if (job.getFailedCount() >= echecsMax) {
+                    terminer(job, ReplayStatus.FAILED, job.getLastError());
+                    return;
+                }
+                try {
+                    job = eventReplayJobRepository.save(job);
+                } catch (OptimisticLockingFailureException e) {
+                    // Suspendu / annulé depuis un autre pod : la décision de l'admin l'emporte
+                    log.info("⏸️ Rejeu {} modifié pendant son exécution, arrêt", jobId);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("⚠️ Rejeu {} interrompu, reprise possible depuis le checkpoint", jobId);
+        } catch (Exception e) {
+            log.error("❌ Rejeu {} arrêté sur erreur: {}", jobId, e.getMessage(), e);
+            terminer(job, ReplayStatus.FAILED, e.getMessage());
+        } finally {
+            arretsDemandes.remove(jobId);
+        }
+    }
+
+    private void rejouer(EventReplayJobJpa job,
+                         EventTransactionProcessor.HandlerRegistre handler,
+                         EventRecordJpa evenement) {
+        try {
+            eventTransactionProcessor.rejouerEvenement(evenement, handler);
+            job.setReplayedCount(job.getReplayedCount() + 1);
+        } catch (Exception e) {
+            job.setFailedCount(job.getFailedCount() + 1);
+            job.setLastError(tronquer(evenement.getEventId() + ": " + e.getMessage()));
+            log.warn("⚠️ Rejeu {}: échec de {} sur l'événement {}: {}",
+                    job.getJobId(), handler.getNomHandler(), evenement.getEventId(), e.getMessage());
+        }
+    }
+
+    private EventTransactionProcessor.HandlerRegistre resoudreHandler(String nomHandler) {
+        if (nomHandler == null || nomHandler.isBlank()) {
+            throw new IllegalArgumentException("Le handler à rejouer est obligatoire");
+        }
+        EventTransactionProcessor.HandlerRegistre handler = eventConsumerService.trouverHandler(nomHandler)
+                .orElseThrow(() -> new IllegalArgumentException("Handler inconnu: " + nomHandler));
+        if (handler.getTypeEvent().equals(Object.class)) {
+            throw new IllegalArgumentException("Un handler universel (Object) ne peut pas être rejoué: " + nomHandler);
+        }
+        return handler;
+    }
+
+    private void lancer(UUID jobId) {
+        executor.execute(() -> executer(jobId));
+    }
+
+    private EventReplayJobJpa arreter(UUID jobId, ReplayStatus statut) {
+        EventReplayJobJpa job = trouver(jobId);
+        if (job.getStatus() == ReplayStatus.COMPLETED || job.getStatus() == ReplayStatus.CANCELLED) {
+            throw new IllegalArgumentException("Rejeu " + jobId + " déjà " + job.getStatus());
+        }
+        arretsDemandes.add(jobId);
+        job.setStatus(statut);
+        if (statut == ReplayStatus.CANCELLED) {
+            job.setFinishedAt(LocalDateTime.now());
+        }
+        log.info("⏹️ Rejeu {} → {}", jobId, statut);
+        return eventReplayJobRepository.save(job);
+    }
+
+    private void terminer(EventReplayJobJpa job, ReplayStatus statut, String erreur) {
+        job.setStatus(statut);
+        job.setLastError(erreur != null ? tronquer(erreur) : job.getLastError());
+        job.setFinishedAt(LocalDateTime.now());
+        try {
+            eventReplayJobRepository.save(job);
+        } catch (OptimisticLockingFailureException e) {
+            log.info("⏸️ Rejeu {} modifié pendant son exécution, statut {} non enregistré", job.getJobId(), statut);
+            return;
+        }
+        log.info("🏁 Rejeu {} {}: {} rejoué(s), {} échec(s)",
+                job.getJobId(), statut, job.getReplayedCount(), job.getFailedCount());
+    }
+
+    private static String tronquer(String message) {
+        return message != null && message.length() > LONGUEUR_MAX_ERREUR
+                ? message.substring(0, LONGUEUR_MAX_ERREUR)
+                : message;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ulr.paytogether.bff.eventdispatcher.replay;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Espacement régulier des appels d'un rejeu : au plus {@code parSeconde} événements par seconde.
+ * Un handler plus lent que le débit demandé n'accumule pas de crédit (pas de rafale ensuite).
+ * Non thread-safe : un limiteur par rejeu, utilisé par son seul thread.
+ */
+final class LimiteurDebit {
+
+    private final long intervalleNanos;
+    private long prochainNanos;
+
+    LimiteurDebit(double parSeconde) {
+        this.intervalleNanos = (long) (TimeUnit.SECONDS.toNanos(1) / parSeconde);
+        this.prochainNanos = System.nanoTime();
+    }
+
+    /**
+     * Bloque jusqu'au prochain créneau autorisé.
+     */
+    void attendre() throws InterruptedException {
+        long maintenant = System.nanoTime();
+        long attente = prochainNanos - maintenant;
+        if (attente > 0) {
+            TimeUnit.NANOSECONDS.sleep(attente);
+        }
+        prochainNanos = Math.max(prochainNanos, maintenant) + intervalleNanos;
+    }
+}
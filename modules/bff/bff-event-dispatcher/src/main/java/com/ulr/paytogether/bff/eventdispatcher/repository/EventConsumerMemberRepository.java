@@ -0,0 +1,33 @@
+package com.ulr.paytogether.bff.eventdispatcher.repository;
+
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventConsumerMemberJpa;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository des pods consommateurs de l'outbox
+ */
+@Repository
+public interface EventConsumerMemberRepository extends JpaRepository<EventConsumerMemberJpa, String> {
+
+    /**
+     * Identifiants des pods vivants (heartbeat récent)
+     */
+    @Query("SELECT m.memberId FROM EventConsumerMemberJpa m WHERE m.heartbeatAt >= :depuis ORDER BY m.memberId")
+    List<String> findMemberIdsActifsDepuis(@Param("depuis") LocalDateTime depuis);
+
+    /**
+     * Purge des pods disparus depuis longtemps
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EventConsumerMemberJpa m WHERE m.heartbeatAt < :avant")
+    int deleteInactifsAvant(@Param("avant") LocalDateTime avant);
+}
@@ -0,0 +1,58 @@
+package com.ulr.paytogether.bff.eventdispatcher.repository;
+
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventHandlerExecutionJpa;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository pour le suivi d'exécution par handler
+ */
+@Repository
+public interface EventHandlerExecutionRepository
+        extends JpaRepository<EventHandlerExecutionJpa, EventHandlerExecutionJpa.Cle> {
+
+    /**
+     * Exécutions d'un lot d'événements (une seule requête pour tout le lot)
+     */
+    List<EventHandlerExecutionJpa> findByEventIdIn(Collection<UUID> eventIds);
+
+    /**
+     * Handlers ayant déjà réussi pour un lot d'événements
+     * Retourne des paires [eventId, handlerName]
+     */
+    @Query("SELECT e.eventId, e.handlerName FROM EventHandlerExecutionJpa e " +
+           "WHERE e.eventId IN :eventIds AND e.status = 'SUCCEEDED'")
+    List<Object[]> findHandlersReussis(@Param("eventIds") Collection<UUID> eventIds);
+
+    /**
+     * Repli PostgreSQL du registre d'idempotence (HandlerIdempotencyStore) : handler marqué SUCCEEDED.
+     * REQUIRES_NEW : appelé après le commit de la transaction de l'événement.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = """
+            INSERT INTO event_handler_execution (event_id, handler_name, status, attempts, last_attempt_at, succeeded_at, version)
+            VALUES (:eventId, :handlerName, 'SUCCEEDED', 1, :maintenant, :maintenant, 0)
+            ON CONFLICT (event_id, handler_name) DO UPDATE
+               SET status = 'SUCCEEDED', error_message = NULL, succeeded_at = :maintenant,
+                   version = event_handler_execution.version + 1
+            """, nativeQuery = true)
+    int upsertSucces(@Param("eventId") UUID eventId,
+                     @Param("handlerName") String handlerName,
+                     @Param("maintenant") LocalDateTime maintenant);
+
+    /**
+     * Historique d'exécution des handlers d'un événement (admin)
+     */
+    List<EventHandlerExecutionJpa> findByEventIdOrderByHandlerName(UUID eventId);
+}
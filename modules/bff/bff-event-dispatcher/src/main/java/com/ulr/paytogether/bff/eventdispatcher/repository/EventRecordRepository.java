@@ -9,8 +9,10 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -57,16 +59,258 @@ public interface EventRecordRepository extends JpaRepository<EventRecordJpa, UUI
      * ✅ clearAutomatically=true : vide le L1 cache JPA après l'UPDATE pour que findById()
      *    retourne l'état frais (PROCESSING) et non l'état stale du cache de session
      * ✅ Utilise les littéraux string 'PENDING'/'PROCESSING' (JPQL ne supporte pas les FQCN dans UPDATE)
+     * ✅ Bail : claimed_by / lease_until (EventLeaseManager), comme pour les claims par lot
      */
     @Modifying(clearAutomatically = true, flushAutomatically = true)
-    @Query("UPDATE EventRecordJpa e SET e.status = 'PROCESSING', e.lastAttemptAt = :now, e.updatedAt = :now WHERE e.eventId = :id AND e.status = 'PENDING'")
-    int claimForProcessing(@Param("id") UUID id, @Param("now") LocalDateTime now);
+    @Query("UPDATE EventRecordJpa e SET e.status = 'PROCESSING', e.claimedBy = :proprietaire, e.leaseUntil = :bailJusquA, e.lastAttemptAt = :now, e.updatedAt = :now WHERE e.eventId = :id AND e.status = 'PENDING'")
+    int claimForProcessing(@Param("id") UUID id,
+                           @Param("now") LocalDateTime now,
+                           @Param("proprietaire") String proprietaire,
+                           @Param("bailJusquA") LocalDateTime bailJusquA);
 
     /**
-     * Trouve les événements bloqués (en traitement depuis trop longtemps)
+     * Claim atomique d'un LOT d'événements : PENDING → PROCESSING en UNE seule requête.
+     *
+     * ✅ FOR UPDATE SKIP LOCKED : les lignes verrouillées par un autre pod sont ignorées
+     *    (pas d'attente, pas de collision) → N pods drainent la file en parallèle
+     * ✅ RETURNING * : les événements réclamés sont renvoyés directement (pas de findById)
+     * ✅ next_attempt_at <= now : les nouvelles tentatives en backoff ne sont réclamées qu'à échéance
+     *    (index partiel idx_event_record_pending_next_attempt, next_attempt_at = occurred_on à la publication)
+     * ✅ @Transactional (non readOnly) : requête d'écriture exécutée via getResultList
+     * ✅ Bail : claimed_by = pod courant, lease_until = échéance prolongée par heartbeat (EventLeaseManager)
+     * ✅ hash_bucket IN (:buckets) : chaque pod ne scanne que ses buckets (index idx_event_record_pending_bucket)
+     * ✅ Ordre par agrégat : seul l'événement le plus ancien non terminé (PENDING / PROCESSING) d'un aggregate_id
+     *    est réclamable → un événement en backoff, réclamé par une autre voie ou un autre pod bloque les suivants
+     *    du même agrégat jusqu'à sa fin (CONSUMED / FAILED). aggregate_id NULL : aucune contrainte.
+     *    (index partiel idx_event_record_aggregate_en_cours)
+     *
+     * @param limite       nombre maximum d'événements à réclamer
+     * @param now          horodatage du claim (last_attempt_at / updated_at)
+     * @param proprietaire identifiant du consommateur (pod) qui réclame
+     * @param bailJusquA   échéance initiale du bail
+     * @param buckets      buckets attribués à ce pod (EventConsumerMembership, hachage cohérent)
+     * @return événements passés en PROCESSING (ordre non garanti par RETURNING → trier côté appelant)
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE event_record e
+               SET status = 'PROCESSING', claimed_by = :proprietaire, lease_until = :bailJusquA,
+                   last_attempt_at = :now, updated_at = :now
+             WHERE e.event_id IN (
+                   SELECT p.event_id FROM event_record p
+                    WHERE p.status = 'PENDING'
+                      AND p.next_attempt_at <= :now
+                      AND p.hash_bucket IN (:buckets)
+                      AND NOT EXISTS (
+                          SELECT 1 FROM event_record a
+                           WHERE a.aggregate_id = p.aggregate_id
+                             AND a.status IN ('PENDING', 'PROCESSING')
+                             AND (a.occurred_on, a.event_id) < (p.occurred_on, p.event_id))
+                    ORDER BY p.next_attempt_at ASC
+                    LIMIT :limite
+                    FOR UPDATE SKIP LOCKED)
+            RETURNING e.*
+            """, nativeQuery = true)
+    List<EventRecordJpa> claimBatchForProcessing(@Param("limite") int limite,
+                                                 @Param("now") LocalDateTime now,
+                                                 @Param("proprietaire") String proprietaire,
+                                                 @Param("bailJusquA") LocalDateTime bailJusquA,
+                                                 @Param("buckets") Collection<Integer> buckets);
+
+    /**
+     * Claim d'un lot restreint aux types d'une voie dédiée (VoieTraitement) : quota propre à la voie,
+     * un lot de paiements n'attend jamais derrière des indexations de recherche.
+     *
+     * @param types noms persistés (nom canonique + alias) des types de la voie
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE event_record e
+               SET status = 'PROCESSING', claimed_by = :proprietaire, lease_until = :bailJusquA,
+                   last_attempt_at = :now, updated_at = :now
+             WHERE e.event_id IN (
+                   SELECT p.event_id FROM event_record p
+                    WHERE p.status = 'PENDING'
+                      AND p.next_attempt_at <= :now
+                      AND p.event_type IN (:types)
+                      AND p.hash_bucket IN (:buckets)
+                      AND NOT EXISTS (
+                          SELECT 1 FROM event_record a
+                           WHERE a.aggregate_id = p.aggregate_id
+                             AND a.status IN ('PENDING', 'PROCESSING')
+                             AND (a.occurred_on, a.event_id) < (p.occurred_on, p.event_id))
+                    ORDER BY p.next_attempt_at ASC
+                    LIMIT :limite
+                    FOR UPDATE SKIP LOCKED)
+            RETURNING e.*
+            """, nativeQuery = true)
+    List<EventRecordJpa> claimBatchForProcessingInTypes(@Param("limite") int limite,
+                                                        @Param("now") LocalDateTime now,
+                                                        @Param("types") Collection<String> types,
+                                                        @Param("proprietaire") String proprietaire,
+                                                        @Param("bailJusquA") LocalDateTime bailJusquA,
+                                                        @Param("buckets") Collection<Integer> buckets);
+
+    /**
+     * Claim d'un lot pour la voie par défaut : tous les types SAUF ceux des voies dédiées.
+     *
+     * @param types noms persistés des types affectés à une voie dédiée
      */
-    @Query("SELECT e FROM EventRecordJpa e WHERE e.status = 'PROCESSING' AND e.lastAttemptAt < :threshold")
-    List<EventRecordJpa> findStuckEvents(@Param("threshold") LocalDateTime threshold);
+    @Transactional
+    @Query(value = """
+            UPDATE event_record e
+               SET status = 'PROCESSING', claimed_by = :proprietaire, lease_until = :bailJusquA,
+                   last_attempt_at = :now, updated_at = :now
+             WHERE e.event_id IN (
+                   SELECT p.event_id FROM event_record p
+                    WHERE p.status = 'PENDING'
+                      AND p.next_attempt_at <= :now
+                      AND p.event_type NOT IN (:types)
+                      AND p.hash_bucket IN (:buckets)
+                      AND NOT EXISTS (
+                          SELECT 1 FROM event_record a
+                           WHERE a.aggregate_id = p.aggregate_id
+                             AND a.status IN ('PENDING', 'PROCESSING')
+                             AND (a.occurred_on, a.event_id) < (p.occurred_on, p.event_id))
+                    ORDER BY p.next_attempt_at ASC
+                    LIMIT :limite
+                    FOR UPDATE SKIP LOCKED)
+            RETURNING e.*
+            """, nativeQuery = true)
+    List<EventRecordJpa> claimBatchForProcessingExcludingTypes(@Param("limite") int limite,
+                                                               @Param("now") LocalDateTime now,
+                                                               @Param("types") Collection<String> types,
+                                                               @Param("proprietaire") String proprietaire,
+                                                               @Param("bailJusquA") LocalDateTime bailJusquA,
+                                                               @Param("buckets") Collection<Integer> buckets);
+
+    /**
+     * Claim des événements qui viennent d'être publiés sur ce pod (dispatch rapide après commit).
+     *
+     * ✅ Même garantie que claimBatchForProcessing : une ligne déjà réclamée par le poller
+     *    (ou verrouillée par un autre pod) est ignorée → jamais deux exécutions du même événement
+     * ✅ Accès par clé primaire : pas de parcours de la file PENDING
+     * ✅ Même ordre par agrégat : un événement précédé d'un événement non terminé du même agrégat
+     *    reste PENDING pour le poller
+     *
+     * @param eventIds événements publiés dans la transaction qui vient d'être validée
+     * @param now      horodatage du claim (last_attempt_at / updated_at)
+     * @return événements passés en PROCESSING (ordre non garanti par RETURNING → trier côté appelant)
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE event_record e
+               SET status = 'PROCESSING', claimed_by = :proprietaire, lease_until = :bailJusquA,
+                   last_attempt_at = :now, updated_at = :now
+             WHERE e.event_id IN (
+                   SELECT p.event_id FROM event_record p
+                    WHERE p.event_id IN (:eventIds)
+                      AND p.status = 'PENDING'
+                      AND p.next_attempt_at <= :now
+                      AND NOT EXISTS (
+                          SELECT 1 FROM event_record a
+                           WHERE a.aggregate_id = p.aggregate_id
+                             AND a.status IN ('PENDING', 'PROCESSING')
+                             AND (a.occurred_on, a.event_id) < (p.occurred_on, p.event_id))
+                    FOR UPDATE SKIP LOCKED)
+            RETURNING e.*
+            """, nativeQuery = true)
+    List<EventRecordJpa> claimByIdsForProcessing(@Param("eventIds") Collection<UUID> eventIds,
+                                                 @Param("now") LocalDateTime now,
+                                                 @Param("proprietaire") String proprietaire,
+                                                 @Param("bailJusquA") LocalDateTime bailJusquA);
+
+    /**
+     * Marque un lot d'événements CONSUMED par un même handler en une seule requête (write-back groupé).
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE EventRecordJpa e SET e.status = 'CONSUMED', e.consumerHandler = :consumerHandler, e.claimedBy = NULL, e.leaseUntil = NULL, e.consumedAt = :now, e.updatedAt = :now WHERE e.eventId IN :eventIds")
+    int markConsumed(@Param("eventIds") Collection<UUID> eventIds,
+                     @Param("consumerHandler") String consumerHandler,
+                     @Param("now") LocalDateTime now);
+
+    /**
+     * Marque CONSUMED, sans exécuter leurs handlers, les événements rendus inutiles par un événement
+     * plus récent du même agrégat (EventCoalescer).
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE EventRecordJpa e SET e.status = 'CONSUMED', e.consumerHandler = :marqueur, e.claimedBy = NULL, e.leaseUntil = NULL, e.consumedAt = :now, e.updatedAt = :now WHERE e.eventId IN :eventIds")
+    int markCoalesced(@Param("eventIds") Collection<UUID> eventIds,
+                      @Param("marqueur") String marqueur,
+                      @Param("now") LocalDateTime now);
+
+    /**
+     * Événements PENDING des agrégats et types donnés publiés après une date (remplaçants potentiels
+     * pour la coalescence). Index partiel idx_event_record_aggregate_en_cours (V24) : seuls les
+     * événements en cours des agrégats réclamés sont parcourus.
+     */
+    @Query("SELECT e FROM EventRecordJpa e WHERE e.status = 'PENDING' AND e.aggregateId IN :aggregateIds AND e.eventType IN :types AND e.occurredOn > :depuis")
+    List<EventRecordJpa> findPendingByAggregateIdInAndEventTypeInAndOccurredOnAfter(
+            @Param("aggregateIds") Collection<String> aggregateIds,
+            @Param("types") Collection<String> types,
+            @Param("depuis") LocalDateTime depuis);
+
+    /**
+     * Marque un événement en échec avec son message d'erreur :
+     * PENDING (nouvelle tentative à nextAttemptAt), FAILED ou PERMANENTLY_FAILED.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE EventRecordJpa e SET e.status = :status, e.attempts = e.attempts + 1, e.errorMessage = :errorMessage, e.nextAttemptAt = :nextAttemptAt, e.claimedBy = NULL, e.leaseUntil = NULL, e.failedAt = :now, e.updatedAt = :now WHERE e.eventId = :eventId")
+    void markFailed(@Param("eventId") UUID eventId,
+                    @Param("status") EventStatus status,
+                    @Param("errorMessage") String errorMessage,
+                    @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                    @Param("now") LocalDateTime now);
+
+    /**
+     * Prolonge en UNE requête le bail des événements encore en cours sur ce pod (heartbeat).
+     * Un événement déjà repris par un autre consommateur (claimed_by différent) n'est pas touché.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE EventRecordJpa e SET e.leaseUntil = :bailJusquA WHERE e.eventId IN :eventIds AND e.status = 'PROCESSING' AND e.claimedBy = :proprietaire")
+    int extendLeases(@Param("eventIds") Collection<UUID> eventIds,
+                     @Param("proprietaire") String proprietaire,
+                     @Param("bailJusquA") LocalDateTime bailJusquA);
+
+    /**
+     * Reprend en UN seul UPDATE les événements PROCESSING dont le bail a expiré (pod arrêté ou planté) :
+     * la tentative interrompue est comptée (attempts + 1), retour en PENDING, réclamables immédiatement.
+     * Les événements réclamés avant l'introduction du bail (lease_until NULL) sont repris
+     * sur l'ancien critère last_attempt_at < seuilSansBail.
+     * Les événements dont cette tentative était la dernière sont traités par failExhaustedExpiredLeases.
+     *
+     * @return nombre d'événements repris
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+            UPDATE EventRecordJpa e
+               SET e.status = 'PENDING', e.attempts = e.attempts + 1, e.claimedBy = NULL, e.leaseUntil = NULL,
+                   e.nextAttemptAt = :now, e.updatedAt = :now
+             WHERE e.status = 'PROCESSING'
+               AND (e.leaseUntil < :now OR (e.leaseUntil IS NULL AND e.lastAttemptAt < :seuilSansBail))
+               AND e.attempts + 1 < e.maxAttempts
+            """)
+    int reclaimExpiredLeases(@Param("now") LocalDateTime now, @Param("seuilSansBail") LocalDateTime seuilSansBail);
+
+    /**
+     * Bail expiré sur la DERNIÈRE tentative autorisée (attempts + 1 >= max_attempts) : FAILED.
+     * ✅ Un événement qui fait planter le pod à chaque exécution (OOM, boucle infinie) n'est plus
+     *    réclamé indéfiniment : il rejoint les échecs à retraiter manuellement
+     *
+     * @return nombre d'événements passés en FAILED
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+            UPDATE EventRecordJpa e
+               SET e.status = 'FAILED', e.attempts = e.attempts + 1, e.errorMessage = :errorMessage,
+                   e.claimedBy = NULL, e.leaseUntil = NULL, e.failedAt = :now, e.updatedAt = :now
+             WHERE e.status = 'PROCESSING'
+               AND (e.leaseUntil < :now OR (e.leaseUntil IS NULL AND e.lastAttemptAt < :seuilSansBail))
+               AND e.attempts + 1 >= e.maxAttempts
+            """)
+    int failExhaustedExpiredLeases(@Param("now") LocalDateTime now,
+                                   @Param("seuilSansBail") LocalDateTime seuilSansBail,
+                                   @Param("errorMessage") String errorMessage);
 
     /**
      * Met à jour le statut d'un événement
@@ -87,6 +331,128 @@ public interface EventRecordRepository extends JpaRepository<EventRecordJpa, UUI
      */
     long countByStatus(EventStatus status);
 
+    /**
+     * Compte les événements des statuts demandés en UNE requête (index idx_event_status : seules
+     * les lignes de ces statuts sont parcourues, jamais la masse des CONSUMED)
+     * Retourne des paires [EventStatus, Long]
+     */
+    @Query("SELECT e.status, COUNT(e) FROM EventRecordJpa e WHERE e.status IN :statuts GROUP BY e.status")
+    List<Object[]> countGroupByStatusIn(@Param("statuts") Collection<EventRecordJpa.EventStatus> statuts);
+
+    /**
+     * Compte les événements par type ET statut en UNE requête (stats admin)
+     * Retourne des triplets [eventType, EventStatus, Long]
+     */
+    @Query("SELECT e.eventType, e.status, COUNT(e) FROM EventRecordJpa e GROUP BY e.eventType, e.status")
+    List<Object[]> countGroupByEventTypeAndStatus();
+
+    /**
+     * Événements publiés depuis {@code depuis7j} (index idx_occurred_on), avec en UNE requête,
+     * pour chaque fenêtre (1 h, 24 h, 7 j) : total, en échec (FAILED / PERMANENTLY_FAILED), retentés (attempts > 0)
+     * Retourne une ligne de 9 Long : [total1h, echecs1h, retentes1h, total24h, ..., retentes7j]
+     */
+    @Query("""
+            SELECT SUM(CASE WHEN e.occurredOn >= :depuis1h THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN e.occurredOn >= :depuis1h AND e.status IN ('FAILED', 'PERMANENTLY_FAILED') THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN e.occurredOn >= :depuis1h AND e.attempts > 0 THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN e.occurredOn >= :depuis24h THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN e.occurredOn >= :depuis24h AND e.status IN ('FAILED', 'PERMANENTLY_FAILED') THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN e.occurredOn >= :depuis24h AND e.attempts > 0 THEN 1 ELSE 0 END),
+                   COUNT(e),
+                   SUM(CASE WHEN e.status IN ('FAILED', 'PERMANENTLY_FAILED') THEN 1 ELSE 0 END),
+                   SUM(CASE WHEN e.attempts > 0 THEN 1 ELSE 0 END)
+              FROM EventRecordJpa e
+             WHERE e.occurredOn >= :depuis7j
+            """)
+    List<Object[]> countOutcomesByWindow(@Param("depuis1h") LocalDateTime depuis1h,
+                                         @Param("depuis24h") LocalDateTime depuis24h,
+                                         @Param("depuis7j") LocalDateTime depuis7j);
+
+    /**
+     * Date d'occurrence du plus ancien événement PENDING (null si aucun)
+     */
+    @Query("SELECT MIN(e.occurredOn) FROM EventRecordJpa e WHERE e.status = 'PENDING'")
+    LocalDateTime findOldestPendingOccurredOn();
+
+    /**
+     * Page suivante d'un rejeu (EventReplayService) : pagination par clé (occurred_on, event_id)
+     * → reprise exacte au checkpoint, pas d'OFFSET, lecture seule (statuts inchangés)
+     */
+    @Query("""
+            SELECT e FROM EventRecordJpa e
+             WHERE e.eventType IN :types
+               AND e.status IN :statuts
+               AND e.occurredOn >= :depuis AND e.occurredOn < :jusqua
+               AND (e.occurredOn > :apresOccurredOn
+                    OR (e.occurredOn = :apresOccurredOn AND e.eventId > :apresEventId))
+             ORDER BY e.occurredOn ASC, e.eventId ASC
+            """)
+    List<EventRecordJpa> findForReplay(@Param("types") Collection<String> types,
+                                       @Param("statuts") Collection<EventStatus> statuts,
+                                       @Param("depuis") LocalDateTime depuis,
+                                       @Param("jusqua") LocalDateTime jusqua,
+                                       @Param("apresOccurredOn") LocalDateTime apresOccurredOn,
+                                       @Param("apresEventId") UUID apresEventId,
+                                       Pageable pageable);
+
+    /**
+     * Page suivante d'un rejeu limité à un agrégat (index idx_event_record_aggregate)
+     */
+    @Query("""
+            SELECT e FROM EventRecordJpa e
+             WHERE e.aggregateId = :aggregateId
+               AND e.eventType IN :types
+               AND e.status IN :statuts
+               AND e.occurredOn >= :depuis AND e.occurredOn < :jusqua
+               AND (e.occurredOn > :apresOccurredOn
+                    OR (e.occurredOn = :apresOccurredOn AND e.eventId > :apresEventId))
+             ORDER BY e.occurredOn ASC, e.eventId ASC
+            """)
+    List<EventRecordJpa> findForReplayByAggregate(@Param("aggregateId") String aggregateId,
+                                                  @Param("types") Collection<String> types,
+                                                  @Param("statuts") Collection<EventStatus> statuts,
+                                                  @Param("depuis") LocalDateTime depuis,
+                                                  @Param("jusqua") LocalDateTime jusqua,
+                                                  @Param("apresOccurredOn") LocalDateTime apresOccurredOn,
+                                                  @Param("apresEventId") UUID apresEventId,
+                                                  Pageable pageable);
+
+    /**
+     * Événements d'un agrégat, du plus récent au plus ancien (admin : enquête sur un deal, un paiement...).
+     * Pagination par clé (occurred_on, event_id) sur l'index idx_event_record_aggregate :
+     * coût constant quelle que soit la profondeur, pas de COUNT.
+     *
+     * @param aggregateId clé "champ:valeur" (ex : paiementUuid:...)
+     */
+    @Query("""
+            SELECT e FROM EventRecordJpa e
+             WHERE e.aggregateId = :aggregateId
+               AND (e.occurredOn < :avantOccurredOn
+                    OR (e.occurredOn = :avantOccurredOn AND e.eventId < :avantEventId))
+             ORDER BY e.occurredOn DESC, e.eventId DESC
+            """)
+    List<EventRecordJpa> findByAggregateBefore(@Param("aggregateId") String aggregateId,
+                                               @Param("avantOccurredOn") LocalDateTime avantOccurredOn,
+                                               @Param("avantEventId") UUID avantEventId,
+                                               Pageable pageable);
+
+    /**
+     * Variante filtrée par statut de {@link #findByAggregateBefore}
+     */
+    @Query("""
+            SELECT e FROM EventRecordJpa e
+             WHERE e.aggregateId = :aggregateId
+               AND e.status = :statut
+               AND (e.occurredOn < :avantOccurredOn
+                    OR (e.occurredOn = :avantOccurredOn AND e.eventId < :avantEventId))
+             ORDER BY e.occurredOn DESC, e.eventId DESC
+            """)
+    List<EventRecordJpa> findByAggregateAndStatusBefore(@Param("aggregateId") String aggregateId,
+                                                        @Param("statut") EventStatus statut,
+                                                        @Param("avantOccurredOn") LocalDateTime avantOccurredOn,
+                                                        @Param("avantEventId") UUID avantEventId,
+                                                        Pageable pageable);
+
     /**
      * Trouve les événements d'une classe source spécifique
      */
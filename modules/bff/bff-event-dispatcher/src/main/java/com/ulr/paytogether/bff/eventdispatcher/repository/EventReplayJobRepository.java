@@ -0,0 +1,41 @@
+package com.ulr.paytogether.bff.eventdispatcher.repository;
+
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventReplayJobJpa;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository des rejeux d'événements
+ */
+@Repository
+public interface EventReplayJobRepository extends JpaRepository<EventReplayJobJpa, UUID> {
+
+    /**
+     * Rejeux les plus récents en premier (admin)
+     */
+    List<EventReplayJobJpa> findTop50ByOrderByCreatedAtDesc();
+
+    /**
+     * Reprise atomique d'un rejeu : PAUSED / FAILED → RUNNING, ou RUNNING sans checkpoint depuis
+     * {@code inactifDepuis} (pod arrêté pendant le rejeu). 0 = déjà repris ailleurs ou terminé.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+            UPDATE EventReplayJobJpa j
+               SET j.status = 'RUNNING', j.updatedAt = :now, j.version = j.version + 1
+             WHERE j.jobId = :jobId
+               AND (j.status IN ('PAUSED', 'FAILED') OR (j.status = 'RUNNING' AND j.updatedAt < :inactifDepuis))
+            """)
+    int reprendre(@Param("jobId") UUID jobId,
+                  @Param("now") LocalDateTime now,
+                  @Param("inactifDepuis") LocalDateTime inactifDepuis);
+}
@@ -0,0 +1,29 @@
+package com.ulr.paytogether.bff.eventdispatcher.retention;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Destination des archives de l'outbox (fichiers JSON Lines compressés gzip).
+ *
+ * Implémentations : MinIO (par défaut, events.retention.archive.target=minio) ou disque local.
+ */
+public interface EventArchiveStorage {
+
+    /**
+     * Stocke définitivement l'archive. Doit échouer (exception) si l'archive n'est pas stockée :
+     * la partition n'est alors pas supprimée.
+     *
+     * @param fichier    archive temporaire locale (peut être déplacée ou supprimée par l'implémentation)
+     * @param nomArchive nom final de l'archive
+     * @return emplacement de l'archive (chemin ou objet MinIO)
+     */
+    String stocker(Path fichier, String nomArchive) throws IOException;
+
+    /**
+     * @return false si l'archive ne survivrait pas au pod (disque éphémère) : aucune donnée n'est alors supprimée
+     */
+    default boolean durable() {
+        return true;
+    }
+}
@@ -0,0 +1,224 @@
+package com.ulr.paytogether.bff.eventdispatcher.retention;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.util.PGobject;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Opérations PostgreSQL sur les partitions de event_record, chacune dans sa propre transaction.
+ *
+ * ✅ POURQUOI un bean séparé ? (même principe que EventTransactionProcessor)
+ * - EventRetentionService appelle ces méthodes via le proxy Spring → REQUIRES_NEW appliqué
+ * - Une partition en erreur (upload MinIO, verrou...) ne bloque pas les autres
+ *
+ * ✅ Verrou consultatif pg_try_advisory_xact_lock : un seul pod manipule les partitions à la fois
+ * ✅ Archive lue en streaming (curseur fetchSize) → mémoire constante quelle que soit la taille du mois
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventPartitionManager {
+
+    static final long CLE_VERROU_RETENTION = 0x45564E545245544EL; // "EVNTRETN"
+    static final String ACTION_REFUSEE = "ARCHIVE_NON_DURABLE";
+    private static final int TAILLE_FETCH = 1000;
+    private static final DateTimeFormatter HORODATAGE_ARCHIVE = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EventArchiveStorage eventArchiveStorage;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Résultat du traitement d'une partition
+     */
+    public record ResultatPartition(String partition, String action, long lignesArchivees, String archive) {
+    }
+
+    /**
+     * @return true si event_record est une table partitionnée (migration V15 appliquée)
+     */
+    public boolean estPartitionnee() {
+        try {
+            return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid "
+                            + "WHERE c.relname = 'event_record')", Boolean.class));
+        } catch (DataAccessException e) {
+            // Base non PostgreSQL (H2 en test) : pas de partitionnement
+            log.debug("Catalogue pg_partitioned_table indisponible: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Crée la partition du mois courant et des {@code moisAvance} mois suivants (idempotent).
+     *
+     * @return nombre de partitions vérifiées, 0 si un autre pod détient le verrou
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int creerPartitionsAVenir(int moisAvance) {
+        if (!verrouiller()) {
+            return 0;
+        }
+        LocalDate mois = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i <= moisAvance; i++) {
+            jdbcTemplate.queryForObject("SELECT creer_partition_event_record(?)", String.class, mois.plusMonths(i));
+        }
+        return moisAvance + 1;
+    }
+
+    /**
+     * Partitions mensuelles existantes, de la plus ancienne à la plus récente (hors partition DEFAULT).
+     */
+    public List<PartitionEventRecord> listerPartitions() {
+        return jdbcTemplate.queryForList(
+                        "SELECT c.relname FROM pg_inherits i "
+                                + "JOIN pg_class c ON c.oid = i.inhrelid "
+                                + "JOIN pg_class p ON p.oid = i.inhparent "
+                                + "WHERE p.relname = 'event_record'", String.class)
+                .stream()
+                .map(PartitionEventRecord::depuisNom)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(PartitionEventRecord::debut))
+                .toList();
+    }
+
+    /**
+     * Applique la rétention à UNE partition : archive puis DROP TABLE (ou DELETE des seuls CONSUMED).
+     * Si l'archive ne peut pas être stockée, l'exception annule la transaction : rien n'est supprimé.
+     * Si le stockage n'est pas durable (disque local non configuré), aucune ligne n'est supprimée.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public ResultatPartition traiterPartition(PartitionEventRecord partition,
+                                              LocalDateTime limiteConsumed,
+                                              LocalDateTime limiteEchecs) throws IOException {
+        if (!verrouiller()) {
+            return new ResultatPartition(partition.nom(), "VERROUILLEE", 0, null);
+        }
+
+        Map<String, Long> comptages = new HashMap<>();
+        jdbcTemplate.query("SELECT status, COUNT(*) FROM " + partition.nom() + " GROUP BY status",
+                (RowCallbackHandler) rs -> comptages.put(rs.getString(1), rs.getLong(2)));
+
+        PartitionEventRecord.Action action = partition.decider(comptages, limiteConsumed, limiteEchecs);
+        if (action != PartitionEventRecord.Action.CONSERVER && !comptages.isEmpty() && !eventArchiveStorage.durable()) {
+            log.warn("⛔ Partition {} : {} refusé, stockage des archives non durable "
+                    + "(events.retention.archive.target=minio ou EVENT_ARCHIVE_DIR sur un volume persistant)",
+                    partition.nom(), action);
+            return new ResultatPartition(partition.nom(), ACTION_REFUSEE, 0, null);
+        }
+        switch (action) {
+            case SUPPRIMER -> {
+                String archive = null;
+                long lignes = 0;
+                if (!comptages.isEmpty()) {
+                    Path fichier = archiver(partition, "");
+                    lignes = comptages.values().stream().mapToLong(Long::longValue).sum();
+                    archive = eventArchiveStorage.stocker(fichier, nomArchive(partition, "all"));
+                    jdbcTemplate.update("DELETE FROM event_handler_execution h USING " + partition.nom()
+                            + " p WHERE h.event_id = p.event_id");
+                }
+                jdbcTemplate.execute("DROP TABLE " + partition.nom());
+                log.info("🗑️ Partition {} archivée ({} événements) et supprimée", partition.nom(), lignes);
+                return new ResultatPartition(partition.nom(), action.name(), lignes, archive);
+            }
+            case PURGER_CONSUMED -> {
+                Path fichier = archiver(partition, " WHERE status = 'CONSUMED'");
+                String archive = eventArchiveStorage.stocker(fichier, nomArchive(partition, "consumed"));
+                jdbcTemplate.update("DELETE FROM event_handler_execution h USING " + partition.nom()
+                        + " p WHERE h.event_id = p.event_id AND p.status = 'CONSUMED'");
+                int lignes = jdbcTemplate.update("DELETE FROM " + partition.nom() + " WHERE status = 'CONSUMED'");
+                log.info("🧹 Partition {} : {} événements CONSUMED archivés et supprimés, {} événements retenus",
+                        partition.nom(), lignes,
+                        comptages.values().stream().mapToLong(Long::longValue).sum() - lignes);
+                return new ResultatPartition(partition.nom(), action.name(), lignes, archive);
+            }
+            default -> {
+                return new ResultatPartition(partition.nom(), action.name(), 0, null);
+            }
+        }
+    }
+
+    // ────────────────────────────────────────────────────────────────────────────
+    // Méthodes privées
+    // ────────────────────────────────────────────────────────────────────────────
+
+    private boolean verrouiller() {
+        boolean acquis = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, CLE_VERROU_RETENTION));
+        if (!acquis) {
+            log.info("⏭️ Rétention event_record déjà en cours sur un autre pod, skip");
+        }
+        return acquis;
+    }
+
+    /**
+     * Écrit les lignes de la partition dans un fichier temporaire JSON Lines compressé (une ligne = un événement).
+     */
+    private Path archiver(PartitionEventRecord partition, String filtre) throws IOException {
+        Path fichier = Files.createTempFile(partition.nom() + "-", ".jsonl.gz");
+        try (OutputStream sortie = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(fichier)), 65536)) {
+            jdbcTemplate.query(connexion -> {
+                PreparedStatement requete = connexion.prepareStatement(
+                        "SELECT * FROM " + partition.nom() + filtre + " ORDER BY occurred_on");
+                // Curseur côté serveur (transaction active) : lignes lues par paquets, pas toutes en mémoire
+                requete.setFetchSize(TAILLE_FETCH);
+                return requete;
+            }, (RowCallbackHandler) rs -> {
+                ResultSetMetaData meta = rs.getMetaData();
+                Map<String, Object> ligne = new LinkedHashMap<>();
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    ligne.put(meta.getColumnName(i), valeurJson(rs.getObject(i)));
+                }
+                try {
+                    sortie.write(objectMapper.writeValueAsBytes(ligne));
+                    sortie.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(fichier);
+            throw e;
+        }
+        return fichier;
+    }
+
+    private static Object valeurJson(Object valeur) {
+        if (valeur instanceof Timestamp horodatage) {
+            return horodatage.toLocalDateTime().toString();
+        }
+        // payload JSONB (V19) : archivé en texte, comme avant la migration
+        return valeur instanceof PGobject objet ? objet.getValue() : valeur;
+    }
+
+    private static String nomArchive(PartitionEventRecord partition, String contenu) {
+        return partition.nom() + "-" + contenu + "-" + LocalDateTime.now().format(HORODATAGE_ARCHIVE) + ".jsonl.gz";
+    }
+}
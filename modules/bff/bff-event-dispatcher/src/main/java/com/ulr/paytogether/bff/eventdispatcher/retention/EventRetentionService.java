@@ -0,0 +1,103 @@
+package com.ulr.paytogether.bff.eventdispatcher.retention;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rétention de l'outbox event_record, partition mensuelle par partition mensuelle.
+ *
+ * ✅ Rétention par statut :
+ * - CONSUMED : {@code events.retention.consumed-days} jours (30 par défaut)
+ * - FAILED / PERMANENTLY_FAILED : {@code events.retention.failed-days} jours (90 par défaut, investigation)
+ * - PENDING / PROCESSING : jamais supprimés
+ * ✅ Partition entièrement expirée → archivée puis DROP TABLE (instantané, aucun VACUUM)
+ *    Partition avec des événements encore retenus → archivage + DELETE des seuls CONSUMED
+ * ✅ Archives gzip JSON Lines vers le disque local ou MinIO (events.retention.archive.target)
+ */
+@Service
+@Slf4j
+public class EventRetentionService {
+
+    private final EventPartitionManager eventPartitionManager;
+    private final int joursConsumedParDefaut;
+    private final int joursEchecs;
+    private final int moisAvance;
+
+    /**
+     * Rapport d'une exécution de la rétention
+     */
+    public record RapportRetention(int partitionsCreees,
+                                   long lignesArchivees,
+                                   List<EventPartitionManager.ResultatPartition> partitions) {
+
+        static RapportRetention vide() {
+            return new RapportRetention(0, 0, List.of());
+        }
+    }
+
+    public EventRetentionService(EventPartitionManager eventPartitionManager,
+                                 @Value("${events.retention.consumed-days:30}") int joursConsumedParDefaut,
+                                 @Value("${events.retention.failed-days:90}") int joursEchecs,
+                                 @Value("${events.retention.partitions-ahead:3}") int moisAvance) {
+        this.eventPartitionManager = eventPartitionManager;
+        this.joursConsumedParDefaut = joursConsumedParDefaut;
+        this.joursEchecs = joursEchecs;
+        this.moisAvance = moisAvance;
+    }
+
+    /**
+     * Rétention avec la durée configurée pour les événements CONSUMED
+     */
+    public RapportRetention executer() {
+        return executer(joursConsumedParDefaut);
+    }
+
+    /**
+     * Crée les partitions à venir puis applique la rétention sur chaque partition mensuelle.
+     * Une partition en erreur est journalisée et n'empêche pas le traitement des suivantes.
+     *
+     * @param joursConsumed ancienneté minimale (en jours) des événements CONSUMED à purger
+     */
+    public RapportRetention executer(int joursConsumed) {
+        if (joursConsumed < 1) {
+            throw new IllegalArgumentException("daysOld doit être >= 1 (reçu: " + joursConsumed + ")");
+        }
+        if (!eventPartitionManager.estPartitionnee()) {
+            log.warn("⚠️ event_record n'est pas partitionnée (migration V15 non appliquée), rétention ignorée");
+            return RapportRetention.vide();
+        }
+
+        int partitionsCreees = eventPartitionManager.creerPartitionsAVenir(moisAvance);
+
+        LocalDateTime maintenant = LocalDateTime.now();
+        LocalDateTime limiteConsumed = maintenant.minusDays(joursConsumed);
+        LocalDateTime limiteEchecs = maintenant.minusDays(Math.max(joursEchecs, joursConsumed));
+
+        List<EventPartitionManager.ResultatPartition> resultats = new ArrayList<>();
+        long lignesArchivees = 0;
+        for (PartitionEventRecord partition : eventPartitionManager.listerPartitions()) {
+            if (partition.fin().atStartOfDay().isAfter(limiteConsumed)) {
+                // Partitions triées : les suivantes sont encore plus récentes
+                break;
+            }
+            try {
+                EventPartitionManager.ResultatPartition resultat =
+                        eventPartitionManager.traiterPartition(partition, limiteConsumed, limiteEchecs);
+                resultats.add(resultat);
+                lignesArchivees += resultat.lignesArchivees();
+            } catch (Exception e) {
+                log.error("❌ Rétention de la partition {} en échec: {}", partition.nom(), e.getMessage(), e);
+                resultats.add(new EventPartitionManager.ResultatPartition(partition.nom(), "ERREUR", 0, null));
+            }
+        }
+
+        log.info("✅ Rétention event_record : {} partitions traitées, {} événements archivés",
+                resultats.size(), lignesArchivees);
+        return new RapportRetention(partitionsCreees, lignesArchivees, resultats);
+    }
+}
@@ -0,0 +1,58 @@
+package com.ulr.paytogether.bff.eventdispatcher.retention;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Archives de l'outbox sur disque local (volume persistant du pod).
+ *
+ * ⚠️ Durable uniquement si events.retention.archive.directory (EVENT_ARCHIVE_DIR) est renseigné
+ * explicitement, sur un volume persistant. Sinon les archives vont dans ./event-archive, perdu
+ * au redémarrage du conteneur : EventPartitionManager refuse alors toute suppression.
+ */
+@Component
+@ConditionalOnProperty(
+    name = "events.retention.archive.target",
+    havingValue = "local",
+    matchIfMissing = true
+)
+@Slf4j
+public class LocalEventArchiveStorage implements EventArchiveStorage {
+
+    static final String REPERTOIRE_PAR_DEFAUT = "./event-archive";
+
+    private final Path repertoire;
+    private final boolean durable;
+
+    public LocalEventArchiveStorage(
+            @Value("${events.retention.archive.directory:}") String repertoire) {
+        this.durable = StringUtils.hasText(repertoire);
+        this.repertoire = Path.of(durable ? repertoire : REPERTOIRE_PAR_DEFAUT);
+        if (!durable) {
+            log.warn("⚠️ Archives locales sans EVENT_ARCHIVE_DIR ({}) : la rétention ne supprimera aucune partition",
+                    this.repertoire.toAbsolutePath());
+        }
+    }
+
+    @Override
+    public boolean durable() {
+        return durable;
+    }
+
+    @Override
+    public String stocker(Path fichier, String nomArchive) throws IOException {
+        Files.createDirectories(repertoire);
+        Path destination = repertoire.resolve(nomArchive);
+        Files.move(fichier, destination, StandardCopyOption.REPLACE_EXISTING);
+        log.info("📦 Archive stockée sur disque : {}", destination);
+        return destination.toAbsolutePath().toString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.ulr.paytogether.bff.eventdispatcher.retention;
+
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Archives de l'outbox dans MinIO (bucket minio.bucket.name, dossier events.retention.archive.minio-folder).
+ */
+@Component
+@ConditionalOnProperty(
+    name = "events.retention.archive.target",
+    havingValue = "minio"
+)
+@Slf4j
+public class MinioEventArchiveStorage implements EventArchiveStorage {
+
+    private final MinioClient minioClient;
+    private final String bucketName;
+    private final String dossier;
+
+    public MinioEventArchiveStorage(MinioClient minioClient,
+                                    @Value("${minio.bucket.name}") String bucketName,
+                                    @Value("${events.retention.archive.minio-folder:event-archive}") String dossier) {
+        this.minioClient = minioClient;
+        this.bucketName = bucketName;
+        this.dossier = dossier;
+    }
+
+    @Override
+    public String stocker(Path fichier, String nomArchive) throws IOException {
+        String objet = dossier + "/" + nomArchive;
+        try (InputStream flux = Files.newInputStream(fichier)) {
+            minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objet)
+                    .contentType("application/gzip")
+                    .stream(flux, Files.size(fichier), -1)
+                    .build());
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Erreur lors de l'upload de l'archive vers MinIO: " + e.getMessage(), e);
+        } finally {
+            Files.deleteIfExists(fichier);
+        }
+        log.info("📦 Archive stockée dans MinIO : {}/{}", bucketName, objet);
+        return bucketName + "/" + objet;
+    }
+}
@@ -0,0 +1,64 @@
+package com.ulr.paytogether.bff.eventdispatcher.retention;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Partition mensuelle de event_record (event_record_pYYYY_MM, créée par creer_partition_event_record).
+ *
+ * @param nom   nom de la table de partition (validé par {@link #PATTERN_NOM} → sûr dans du SQL dynamique)
+ * @param debut premier jour du mois (inclus)
+ * @param fin   premier jour du mois suivant (exclu)
+ */
+public record PartitionEventRecord(String nom, LocalDate debut, LocalDate fin) {
+
+    static final Pattern PATTERN_NOM = Pattern.compile("event_record_p(\\d{4})_(\\d{2})");
+
+    /**
+     * Décision de rétention pour une partition
+     */
+    public enum Action {
+        CONSERVER,        // Trop récente, ou événements encore actifs / en échec retenus sans CONSUMED à purger
+        PURGER_CONSUMED,  // Archiver + DELETE des seuls CONSUMED (la partition garde des événements retenus)
+        SUPPRIMER         // Archiver toute la partition puis DROP TABLE
+    }
+
+    /**
+     * @return la partition correspondant au nom, ou null si ce n'est pas une partition mensuelle
+     *         (ex : event_record_default)
+     */
+    public static PartitionEventRecord depuisNom(String nom) {
+        Matcher matcher = PATTERN_NOM.matcher(nom);
+        if (!matcher.matches()) {
+            return null;
+        }
+        LocalDate debut = LocalDate.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)), 1);
+        return new PartitionEventRecord(nom, debut, debut.plusMonths(1));
+    }
+
+    /**
+     * Décide du sort de la partition selon la rétention par statut.
+     *
+     * @param comptages      nombre d'événements par statut dans la partition
+     * @param limiteConsumed les CONSUMED publiés avant cette date sont expirés
+     * @param limiteEchecs   les FAILED / PERMANENTLY_FAILED publiés avant cette date sont expirés
+     */
+    public Action decider(Map<String, Long> comptages, LocalDateTime limiteConsumed, LocalDateTime limiteEchecs) {
+        LocalDateTime finPartition = fin.atStartOfDay();
+        if (finPartition.isAfter(limiteConsumed)) {
+            return Action.CONSERVER;
+        }
+
+        long actifs = comptages.getOrDefault("PENDING", 0L) + comptages.getOrDefault("PROCESSING", 0L);
+        long echecs = comptages.getOrDefault("FAILED", 0L) + comptages.getOrDefault("PERMANENTLY_FAILED", 0L);
+        boolean echecsExpires = echecs == 0 || !finPartition.isAfter(limiteEchecs);
+
+        if (actifs == 0 && echecsExpires) {
+            return Action.SUPPRIMER;
+        }
+        return comptages.getOrDefault("CONSUMED", 0L) > 0 ? Action.PURGER_CONSUMED : Action.CONSERVER;
+    }
+}
@@ -0,0 +1,54 @@
+package com.ulr.paytogether.bff.eventdispatcher.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Statistiques de l'outbox event_record (endpoint admin /api/admin/events/stats).
+ * Classe non finale : sérialisable dans le cache Redis (typage par défaut NON_FINAL).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventStatsDto {
+
+    private long pending;
+    private long processing;
+    private long consumed;
+    private long failed;
+    private long permanentlyFailed;
+    private long total;
+
+    /**
+     * eventType → (statut → nombre)
+     */
+    private Map<String, Map<String, Long>> byType;
+
+    /**
+     * Fenêtre ("1h", "24h", "7d") → statistiques des événements publiés dans la fenêtre
+     */
+    private Map<String, FenetreStats> failureRates;
+
+    private LocalDateTime computedAt;
+
+    /**
+     * Statistiques des événements publiés sur une fenêtre de temps
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class FenetreStats {
+        private long total;
+        private long failed;      // FAILED ou PERMANENTLY_FAILED
+        private long retried;     // au moins un échec (attempts > 0)
+        private double failureRate;
+        private double retryRate;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ulr.paytogether.bff.eventdispatcher.tracing;
+
+/**
+ * Contexte de trace W3C (en-têtes traceparent / tracestate) persisté avec un événement de l'outbox.
+ *
+ * @param traceParent "00-{traceId}-{spanId}-{flags}", null si l'événement est publié hors trace
+ * @param traceState  état propre aux fournisseurs de tracing, généralement null
+ */
+public record ContexteTrace(String traceParent, String traceState) {
+
+    public static final ContexteTrace AUCUN = new ContexteTrace(null, null);
+}
@@ -0,0 +1,118 @@
+package com.ulr.paytogether.bff.eventdispatcher.tracing;
+
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa;
+import io.micrometer.tracing.Link;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Propagation du contexte de trace à travers l'outbox.
+ *
+ * ✅ Publication : le contexte W3C de la requête (traceparent / tracestate) est persisté avec l'événement
+ * ✅ Consommation : le span CONSUMER de l'événement porte un span link vers la trace de publication
+ *    → latence de bout en bout visible (création paiement → charge Square → email), sans rattacher
+ *    à la requête HTTP un traitement exécuté plusieurs minutes plus tard
+ * ✅ Spans : event.claim (lot réclamé), event.consume (un événement), event.deserialize, event.handler
+ *
+ * Sans tracing configuré (pas de bean Tracer), toutes les opérations sont des no-op.
+ */
+@Component
+public class EventTracing {
+
+    static final String TRACEPARENT = "traceparent";
+    static final String TRACESTATE = "tracestate";
+    private static final Pattern FORMAT_TRACEPARENT =
+            Pattern.compile("[0-9a-f]{2}-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})");
+
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    @Autowired
+    public EventTracing(ObjectProvider<Tracer> tracer, ObjectProvider<Propagator> propagator) {
+        this(tracer.getIfAvailable(() -> Tracer.NOOP), propagator.getIfAvailable(() -> Propagator.NOOP));
+    }
+
+    public EventTracing(Tracer tracer, Propagator propagator) {
+        this.tracer = tracer;
+        this.propagator = propagator;
+    }
+
+    /**
+     * @return contexte W3C du span courant (à persister avec l'événement publié), AUCUN hors trace
+     */
+    public ContexteTrace contexteCourant() {
+        Span courant = tracer.currentSpan();
+        if (courant == null) {
+            return ContexteTrace.AUCUN;
+        }
+        Map<String, String> porteur = new HashMap<>();
+        propagator.inject(courant.context(), porteur, Map::put);
+        return new ContexteTrace(porteur.get(TRACEPARENT), porteur.get(TRACESTATE));
+    }
+
+    /**
+     * Span du claim d'un lot ; à abandonner ({@link Span#abandon()}) si rien n'a été réclamé
+     */
+    public Span demarrerClaim(String voie) {
+        return tracer.nextSpan().name("event.claim").tag("lane", voie).start();
+    }
+
+    /**
+     * Span CONSUMER du traitement d'un événement, lié à la trace qui l'a publié.
+     */
+    public Span demarrerConsommation(EventRecordJpa evenement) {
+        Span.Builder builder = tracer.spanBuilder()
+                .name("event.consume")
+                .kind(Span.Kind.CONSUMER)
+                .tag("event.id", String.valueOf(evenement.getEventId()))
+                .tag("event.type", String.valueOf(evenement.getEventType()))
+                .tag("event.attempt", String.valueOf(evenement.getAttempts()));
+        TraceContext publication = contextePublication(evenement.getTraceParent());
+        if (publication != null) {
+            builder.addLink(new Link(publication));
+        }
+        return builder.start();
+    }
+
+    /**
+     * Span enfant du span courant (désérialisation, invocation d'un handler)
+     */
+    public Span demarrer(String nom) {
+        return tracer.nextSpan().name(nom).start();
+    }
+
+    /**
+     * Rend le span courant pour le thread (les spans démarrés ensuite en sont les enfants)
+     */
+    public Tracer.SpanInScope activer(Span span) {
+        return tracer.withSpan(span);
+    }
+
+    /**
+     * @return contexte de la trace de publication, null si absent ou mal formé
+     */
+    TraceContext contextePublication(String traceParent) {
+        if (traceParent == null) {
+            return null;
+        }
+        Matcher matcher = FORMAT_TRACEPARENT.matcher(traceParent);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return tracer.traceContextBuilder()
+                .traceId(matcher.group(1))
+                .spanId(matcher.group(2))
+                .sampled((Integer.parseInt(matcher.group(3), 16) & 1) == 1)
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.ulr.paytogether.bff.eventdispatcher.benchmark;
+
+import com.ulr.paytogether.bff.eventdispatcher.consumer.EventTransactionProcessor;
+import com.ulr.paytogether.bff.eventdispatcher.consumer.HandlerDispatchTable;
+import com.ulr.paytogether.bff.eventdispatcher.consumer.HandlerInvoker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH : dispatch d'un événement vers ses handlers.
+ *
+ * - reflexionLineaire : ancien chemin (parcours de tous les handlers + comparaison de getSimpleName()
+ *   + setAccessible + Method.invoke)
+ * - tablePrecompilee  : HandlerDispatchTable (Map.get) + HandlerInvoker (LambdaMetafactory)
+ *
+ * 18 handlers enregistrés (comme en production), l'événement cible est le dernier type déclaré.
+ *
+ * Lancement : exécuter main() depuis l'IDE (classpath de test du module).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerDispatchBenchmark {
+
+    private static final int NOMBRE_TYPES = 18;
+
+    public static class EvenementBenchmark {
+    }
+
+    public static class HandlerBenchmark {
+        private long compteur;
+
+        public void handle(EvenementBenchmark evenement) {
+            compteur++;
+        }
+    }
+
+    private List<EventTransactionProcessor.HandlerRegistre> handlersRegistres;
+    private HandlerDispatchTable tableDispatch;
+    private HandlerBenchmark handlerCible;
+    private EvenementBenchmark evenement;
+    private String typeCible;
+
+    @Setup
+    public void preparer() throws Exception {
+        handlersRegistres = new ArrayList<>();
+        Method methode = HandlerBenchmark.class.getMethod("handle", EvenementBenchmark.class);
+
+        // Types "concurrents" : classes distinctes qui ne correspondent pas à l'événement cible
+        Class<?>[] autresTypes = {
+                Integer.class, Long.class, Short.class, Byte.class, Double.class, Float.class,
+                Character.class, Boolean.class, StringBuilder.class, StringBuffer.class,
+                Thread.class, Runnable.class, Number.class, CharSequence.class,
+                Iterable.class, AutoCloseable.class, Comparable.class
+        };
+        for (int i = 0; i < NOMBRE_TYPES - 1; i++) {
+            HandlerBenchmark autre = new HandlerBenchmark();
+            handlersRegistres.add(registrer(autre, methode, autresTypes[i], "Autre" + i));
+        }
+
+        handlerCible = new HandlerBenchmark();
+        handlersRegistres.add(registrer(handlerCible, methode, EvenementBenchmark.class, "Cible"));
+
+        tableDispatch = HandlerDispatchTable.construire(handlersRegistres);
+        evenement = new EvenementBenchmark();
+        typeCible = EvenementBenchmark.class.getSimpleName();
+    }
+
+    private EventTransactionProcessor.HandlerRegistre registrer(HandlerBenchmark bean, Method methode,
+                                                                 Class<?> typeEvent, String nom) {
+        return new EventTransactionProcessor.HandlerRegistre(
+                bean, methode, typeEvent, 3, nom, null,
+                HandlerInvoker.compiler(bean, HandlerBenchmark.class, methode));
+    }
+
+    @Benchmark
+    public long reflexionLineaire() throws Exception {
+        List<EventTransactionProcessor.HandlerRegistre> compatibles = new ArrayList<>();
+        for (EventTransactionProcessor.HandlerRegistre handler : handlersRegistres) {
+            if (handler.getTypeEvent().getSimpleName().equals(typeCible)
+                    || handler.getTypeEvent().equals(Object.class)) {
+                compatibles.add(handler);
+            }
+        }
+        for (EventTransactionProcessor.HandlerRegistre handler : compatibles) {
+            Method methode = handler.getMethode();
+            methode.setAccessible(true);
+            methode.invoke(handler.getInstanceHandler(), evenement);
+        }
+        return handlerCible.compteur;
+    }
+
+    @Benchmark
+    public long tablePrecompilee() throws Exception {
+        for (EventTransactionProcessor.HandlerRegistre handler : tableDispatch.handlersPour(typeCible)) {
+            handler.getInvocateur().invoquer(evenement);
+        }
+        return handlerCible.compteur;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(HandlerDispatchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.ulr.paytogether.bff.eventdispatcher.coalescing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa;
+import com.ulr.paytogether.bff.eventdispatcher.registry.EventTypeRegistry;
+import com.ulr.paytogether.bff.eventdispatcher.repository.EventRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests de la coalescence des événements redondants par agrégat
+ */
+class EventCoalescerTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 6, 1, 10, 0);
+
+    private EventRecordRepository eventRecordRepository;
+    private EventTypeRegistry eventTypeRegistry;
+
+    @BeforeEach
+    void setUp() {
+        eventRecordRepository = mock(EventRecordRepository.class);
+        eventTypeRegistry = mock(EventTypeRegistry.class);
+        when(eventTypeRegistry.nomCanonique(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(eventRecordRepository.findPendingByAggregateIdInAndEventTypeInAndOccurredOnAfter(any(), any(), any()))
+                .thenReturn(List.of());
+    }
+
+    private EventCoalescer coalescerAvecRegle() {
+        MockEnvironment environnement = new MockEnvironment()
+                .withProperty("events.coalescing.rules.DealUpdatedEvent.key", "dealUuid")
+                .withProperty("events.coalescing.rules.DealUpdatedEvent.superseded-by", "DealUpdatedEvent,DealCancelledEvent")
+                .withProperty("events.coalescing.rules.DealUpdatedEvent.debounce", "2s");
+        return new EventCoalescer(eventRecordRepository, eventTypeRegistry, new ObjectMapper(), environnement);
+    }
+
+    private static EventRecordJpa evenement(String type, UUID dealUuid, int minutes) {
+        return EventRecordJpa.builder()
+                .eventId(UUID.randomUUID())
+                .eventType(type)
+                .occurredOn(T0.plusMinutes(minutes))
+                .payload("{\"dealUuid\":\"" + dealUuid + "\"}")
+                .aggregateId("dealUuid:" + dealUuid)
+                .build();
+    }
+
+    @Test
+    void coalescer_neGardeQueLaDerniereMiseAJourParDeal() {
+        // Arrange
+        UUID deal = UUID.randomUUID();
+        UUID autreDeal = UUID.randomUUID();
+        EventRecordJpa premiere = evenement("DealUpdatedEvent", deal, 0);
+        EventRecordJpa autre = evenement("DealUpdatedEvent", autreDeal, 1);
+        EventRecordJpa derniere = evenement("DealUpdatedEvent", deal, 2);
+
+        // Act
+        EventCoalescer.Resultat resultat = coalescerAvecRegle().coalescer(List.of(premiere, autre, derniere));
+
+        // Assert
+        assertEquals(List.of(autre, derniere), resultat.aTraiter());
+        assertEquals(List.of(premiere), resultat.fusionnes());
+        assertEquals(Duration.ofSeconds(2), coalescerAvecRegle().delaiRegroupement("DealUpdatedEvent"));
+    }
+
+    @Test
+    void coalescer_miseAJourRemplaceeParAnnulationEncorePending() {
+        // Arrange
+        UUID deal = UUID.randomUUID();
+        EventRecordJpa miseAJour = evenement("DealUpdatedEvent", deal, 0);
+        when(eventRecordRepository.findPendingByAggregateIdInAndEventTypeInAndOccurredOnAfter(
+                eq(Set.of("dealUuid:" + deal)), any(), eq(T0)))
+                .thenReturn(List.of(evenement("DealCancelledEvent", deal, 5)));
+
+        // Act
+        EventCoalescer.Resultat resultat = coalescerAvecRegle().coalescer(List.of(miseAJour));
+
+        // Assert
+        assertTrue(resultat.aTraiter().isEmpty());
+        assertEquals(List.of(miseAJour), resultat.fusionnes());
+    }
+
+    @Test
+    void coalescer_sansRegle_aucuneLectureNiRequete() {
+        // Arrange
+        EventCoalescer coalescer = new EventCoalescer(eventRecordRepository, eventTypeRegistry, new ObjectMapper(), new MockEnvironment());
+        List<EventRecordJpa> lot = List.of(evenement("DealUpdatedEvent", UUID.randomUUID(), 0),
+                evenement("DealUpdatedEvent", UUID.randomUUID(), 1));
+
+        // Act
+        EventCoalescer.Resultat resultat = coalescer.coalescer(lot);
+
+        // Assert
+        assertSame(lot, resultat.aTraiter());
+        assertEquals(Duration.ZERO, coalescer.delaiRegroupement("DealUpdatedEvent"));
+        verifyNoInteractions(eventRecordRepository);
+    }
+}
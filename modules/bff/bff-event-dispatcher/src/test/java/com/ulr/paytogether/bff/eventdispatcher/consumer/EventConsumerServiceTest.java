@@ -8,6 +8,7 @@ import com.ulr.paytogether.bff.eventdispatcher.repository.EventRecordRepository;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.StandardEnvironment;
 import org.springframework.stereotype.Component;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,9 +38,10 @@ class EventConsumerServiceTest {
         when(mockContext.getBeanNamesForType(ConsumerHandler.class))
                 .thenReturn(new String[]{"testHandler"});
         when(mockContext.getBean("testHandler")).thenReturn(testHandler);
+        when(mockContext.getEnvironment()).thenReturn(new StandardEnvironment());
 
         // Act
-        EventConsumerService service = new EventConsumerService(mockRepository, mockContext, null);
+        EventConsumerService service = new EventConsumerService(mockRepository, mockContext, null, null, null, null, null, null, null);
 
         // Assert
         // Le test devrait découvrir 1 handler
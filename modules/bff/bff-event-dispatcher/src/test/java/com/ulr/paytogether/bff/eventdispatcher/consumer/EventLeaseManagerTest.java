@@ -0,0 +1,121 @@
+package com.ulr.paytogether.bff.eventdispatcher.consumer;
+
+import com.ulr.paytogether.bff.eventdispatcher.repository.EventRecordRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests du bail des événements PROCESSING (heartbeat + reprise groupée)
+ */
+class EventLeaseManagerTest {
+
+    private final EventRecordRepository eventRecordRepository = mock(EventRecordRepository.class);
+    private final EventWakeupSignal eventWakeupSignal = mock(EventWakeupSignal.class);
+
+    private EventLeaseManager creerManager(long dureeMaxTraitementMs) {
+        return new EventLeaseManager(eventRecordRepository, eventWakeupSignal, "pod-a", 60000, dureeMaxTraitementMs);
+    }
+
+    @Test
+    void echeanceBail_ajouteLaDureeDuBail() {
+        // Arrange
+        EventLeaseManager manager = creerManager(1800000);
+        LocalDateTime maintenant = LocalDateTime.of(2026, 10, 17, 12, 0);
+
+        // Act & Assert
+        assertEquals("pod-a", manager.proprietaire());
+        assertEquals(maintenant.plusSeconds(60), manager.echeanceBail(maintenant));
+    }
+
+    @Test
+    void prolongerBaux_uneSeuleRequetePourLesEvenementsEnCours() {
+        // Arrange
+        EventLeaseManager manager = creerManager(1800000);
+        UUID enCours = UUID.randomUUID();
+        UUID termine = UUID.randomUUID();
+        manager.suivre(List.of(enCours, termine));
+        manager.liberer(List.of(termine));
+
+        // Act
+        manager.prolongerBaux();
+
+        // Assert
+        verify(eventRecordRepository).extendLeases(eq(List.of(enCours)), eq("pod-a"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void prolongerBaux_aucunEvenementEnCours_aucuneRequete() {
+        // Arrange
+        EventLeaseManager manager = creerManager(1800000);
+
+        // Act
+        manager.prolongerBaux();
+
+        // Assert
+        verifyNoInteractions(eventRecordRepository);
+    }
+
+    @Test
+    void prolongerBaux_traitementTropLong_bailNonProlonge() {
+        // Arrange
+        EventLeaseManager manager = creerManager(0);
+        manager.suivre(List.of(UUID.randomUUID()));
+
+        // Act
+        manager.prolongerBaux();
+
+        // Assert
+        verify(eventRecordRepository, never()).extendLeases(anyCollection(), anyString(), any());
+    }
+
+    @Test
+    void recupererBauxExpires_reveilleLeConsommateurSiDesEvenementsSontRepris() {
+        // Arrange
+        EventLeaseManager manager = creerManager(1800000);
+        when(eventRecordRepository.reclaimExpiredLeases(any(), any())).thenReturn(3);
+
+        // Act
+        int repris = manager.recupererBauxExpires();
+
+        // Assert
+        assertEquals(3, repris);
+        verify(eventWakeupSignal).signaler();
+    }
+
+    @Test
+    void recupererBauxExpires_aucunBailExpire_pasDeReveil() {
+        // Arrange
+        EventLeaseManager manager = creerManager(1800000);
+        when(eventRecordRepository.reclaimExpiredLeases(any(), any())).thenReturn(0);
+
+        // Act
+        manager.recupererBauxExpires();
+
+        // Assert
+        verify(eventWakeupSignal, never()).signaler();
+    }
+
+    @Test
+    void recupererBauxExpires_derniereTentative_passeEnFailedAvecLesMemesSeuils() {
+        // Arrange
+        EventLeaseManager manager = creerManager(1800000);
+        when(eventRecordRepository.failExhaustedExpiredLeases(any(), any(), anyString())).thenReturn(2);
+        when(eventRecordRepository.reclaimExpiredLeases(any(), any())).thenReturn(1);
+
+        // Act
+        int repris = manager.recupererBauxExpires();
+
+        // Assert : seuls les événements repris en PENDING sont comptés
+        assertEquals(1, repris);
+        verify(eventRecordRepository).failExhaustedExpiredLeases(
+                any(LocalDateTime.class), any(LocalDateTime.class), eq(EventLeaseManager.MESSAGE_BAIL_EXPIRE));
+        verify(eventWakeupSignal).signaler();
+    }
+}
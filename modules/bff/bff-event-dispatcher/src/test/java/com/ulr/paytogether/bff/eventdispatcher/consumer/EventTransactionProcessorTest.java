@@ -0,0 +1,305 @@
+package com.ulr.paytogether.bff.eventdispatcher.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventHandlerExecutionJpa;
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa;
+import com.ulr.paytogether.bff.eventdispatcher.idempotency.HandlerIdempotencyStore;
+import com.ulr.paytogether.bff.eventdispatcher.metrics.EventDispatcherMetrics;
+import com.ulr.paytogether.bff.eventdispatcher.registry.EventTypeRegistry;
+import com.ulr.paytogether.bff.eventdispatcher.registry.EventUpcaster;
+import com.ulr.paytogether.bff.eventdispatcher.repository.EventHandlerExecutionRepository;
+import com.ulr.paytogether.bff.eventdispatcher.repository.EventRecordRepository;
+import com.ulr.paytogether.bff.eventdispatcher.tracing.EventTracing;
+import com.ulr.paytogether.core.event.DealUpdatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests du suivi d'exécution par handler (event_handler_execution)
+ */
+class EventTransactionProcessorTest {
+
+    static class TestHandler {
+        final List<String> appels = new ArrayList<>();
+
+        public void envoyerEmail(DealUpdatedEvent event) {
+            appels.add("email");
+        }
+
+        public void indexer(DealUpdatedEvent event) {
+            appels.add("index");
+            throw new IllegalStateException("Elasticsearch indisponible");
+        }
+    }
+
+    private final EventRecordRepository eventRecordRepository = mock(EventRecordRepository.class);
+    private final EventHandlerExecutionRepository executionRepository = mock(EventHandlerExecutionRepository.class);
+    private final HandlerIdempotencyStore handlerIdempotencyStore = mock(HandlerIdempotencyStore.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @SuppressWarnings("unchecked")
+    private EventTypeRegistry creerRegistre() {
+        ObjectProvider<EventUpcaster> upcasters = mock(ObjectProvider.class);
+        when(upcasters.orderedStream()).thenReturn(Stream.empty());
+        return new EventTypeRegistry(new ObjectMapper(), upcasters);
+    }
+
+    private EventTransactionProcessor creerProcessor() {
+        return creerProcessor(creerRegistre());
+    }
+
+    private EventTransactionProcessor creerProcessor(EventTypeRegistry registre) {
+        return new EventTransactionProcessor(eventRecordRepository, registre,
+                executionRepository, new RetryBackoffPolicy(2000, 300000, 2.0), new EventWakeupSignal(),
+                new EventDispatcherMetrics(meterRegistry, eventRecordRepository), mock(EventLeaseManager.class),
+                handlerIdempotencyStore, new EventTracing(Tracer.NOOP, Propagator.NOOP));
+    }
+
+    private EventTransactionProcessor.HandlerRegistre registrer(TestHandler bean, String nomMethode) throws Exception {
+        Method methode = TestHandler.class.getMethod(nomMethode, DealUpdatedEvent.class);
+        return new EventTransactionProcessor.HandlerRegistre(
+                bean, methode, DealUpdatedEvent.class, 3, "TestHandler." + nomMethode, null,
+                HandlerInvoker.compiler(bean, TestHandler.class, methode));
+    }
+
+    private EventRecordJpa evenement(int attempts) {
+        return EventRecordJpa.builder()
+                .eventId(UUID.randomUUID())
+                .eventType("DealUpdatedEvent")
+                .sourceClass(DealUpdatedEvent.class.getName())
+                .occurredOn(LocalDateTime.now())
+                // Payload sérialisé comme par EventDispatcherImpl (@type inclus)
+                .payload(new DealUpdatedEvent(UUID.randomUUID(), "Deal", LocalDateTime.now()).toJson())
+                .status(EventRecordJpa.EventStatus.PROCESSING)
+                .attempts(attempts)
+                .build();
+    }
+
+    @Test
+    void executerEvenementReclame_neRejouePasLesHandlersDejaReussis() throws Exception {
+        // Arrange
+        EventTransactionProcessor processor = creerProcessor();
+        TestHandler bean = new TestHandler();
+        List<EventTransactionProcessor.HandlerRegistre> handlers =
+                List.of(registrer(bean, "envoyerEmail"), registrer(bean, "indexer"));
+
+        // Act
+        EventTransactionProcessor.ResultatTraitement resultat = processor.executerEvenementReclame(
+                evenement(1), handlers, Set.of("TestHandler.envoyerEmail"));
+
+        // Assert
+        assertEquals(List.of("index"), bean.appels);
+        assertEquals(1, meterRegistry.get("events.handler.duration")
+                .tag("handler", "TestHandler.indexer").tag("outcome", "failure").timer().count());
+        assertFalse(resultat.succes());
+        assertEquals(1, resultat.executions().size());
+        assertEquals("TestHandler.indexer", resultat.executions().get(0).nomHandler());
+    }
+
+    @Test
+    void executerEvenementReclame_inscritLesHandlersReussisAuRegistre() throws Exception {
+        // Arrange
+        EventTransactionProcessor processor = creerProcessor();
+        TestHandler bean = new TestHandler();
+        EventRecordJpa evenement = evenement(0);
+
+        // Act
+        processor.executerEvenementReclame(
+                evenement, List.of(registrer(bean, "envoyerEmail"), registrer(bean, "indexer")), Set.of());
+
+        // Assert : seul le handler réussi est protégé contre une relivraison
+        verify(handlerIdempotencyStore).enregistrerApresCommit(evenement.getEventId(), List.of("TestHandler.envoyerEmail"));
+    }
+
+    @Test
+    void handlersDejaReussis_postgresSeulementPourLesEvenementsDejaTentes() {
+        // Arrange
+        EventTransactionProcessor processor = creerProcessor();
+        EventRecordJpa nouveau = evenement(0);
+        EventRecordJpa retente = evenement(1);
+
+        // Act
+        processor.handlersDejaReussis(List.of(nouveau, retente));
+
+        // Assert
+        verify(handlerIdempotencyStore).handlersTraites(
+                List.of(nouveau.getEventId(), retente.getEventId()), List.of(retente.getEventId()));
+    }
+
+    @Test
+    void executerEvenementReclame_premierPassageReussi_aucuneExecutionTracee() throws Exception {
+        // Arrange
+        EventTransactionProcessor processor = creerProcessor();
+        TestHandler bean = new TestHandler();
+
+        // Act
+        EventTransactionProcessor.ResultatTraitement resultat = processor.executerEvenementReclame(
+                evenement(0), List.of(registrer(bean, "envoyerEmail")), Set.of());
+
+        // Assert
+        assertTrue(resultat.succes());
+        assertTrue(resultat.executions().isEmpty());
+        assertTrue(processor.handlersDejaReussis(List.of(evenement(0))).isEmpty());
+        verifyNoInteractions(executionRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void appliquerResultats_metAJourLExecutionExistante() throws Exception {
+        // Arrange
+        EventTransactionProcessor processor = creerProcessor();
+        TestHandler bean = new TestHandler();
+        EventRecordJpa evenement = evenement(0);
+        EventHandlerExecutionJpa existante = EventHandlerExecutionJpa.builder()
+                .eventId(evenement.getEventId())
+                .handlerName("TestHandler.indexer")
+                .status(EventHandlerExecutionJpa.ExecutionStatus.FAILED)
+                .attempts(1)
+                .build();
+        when(executionRepository.findByEventIdIn(anyCollection())).thenReturn(List.of(existante));
+
+        EventTransactionProcessor.ResultatTraitement resultat = processor.executerEvenementReclame(
+                evenement, List.of(registrer(bean, "envoyerEmail"), registrer(bean, "indexer")), Set.of());
+
+        // Act
+        processor.appliquerResultats(List.of(resultat));
+
+        // Assert
+        ArgumentCaptor<List<EventHandlerExecutionJpa>> captor = ArgumentCaptor.forClass(List.class);
+        verify(executionRepository).saveAll(captor.capture());
+        List<EventHandlerExecutionJpa> enregistrees = captor.getValue();
+        assertEquals(2, enregistrees.size());
+        assertEquals(EventHandlerExecutionJpa.ExecutionStatus.SUCCEEDED, enregistrees.get(0).getStatus());
+        assertEquals(1, enregistrees.get(0).getAttempts());
+        assertSame(existante, enregistrees.get(1));
+        assertEquals(2, existante.getAttempts());
+        assertEquals("Elasticsearch indisponible", existante.getErrorMessage());
+        verify(eventRecordRepository).markFailed(eq(evenement.getEventId()),
+                eq(EventRecordJpa.EventStatus.PENDING), anyString(), any(), any());
+    }
+
+    @Test
+    void executerEvenementReclame_echecAvantMaxAttempts_planifieUneNouvelleTentative() throws Exception {
+        // Arrange
+        EventTransactionProcessor processor = creerProcessor();
+        TestHandler bean = new TestHandler();
+        LocalDateTime avant = LocalDateTime.now();
+
+        // Act
+        EventTransactionProcessor.ResultatTraitement resultat = processor.executerEvenementReclame(
+                evenement(1), List.of(registrer(bean, "indexer")), Set.of());
+
+        // Assert : 2e échec sur 3 → PENDING, backoff de 2 à 4 s (2000 × 2, jitter 50-100 %)
+        assertEquals(EventRecordJpa.EventStatus.PENDING, resultat.statutEchec());
+        assertFalse(resultat.prochaineTentative().isBefore(avant.plusSeconds(2)));
+        assertFalse(resultat.prochaineTentative().isAfter(LocalDateTime.now().plusSeconds(4)));
+    }
+
+    @Test
+    void executerEvenementReclame_maxAttemptsAtteint_passeEnFailed() throws Exception {
+        // Arrange
+        EventTransactionProcessor processor = creerProcessor();
+        TestHandler bean = new TestHandler();
+
+        // Act
+        EventTransactionProcessor.ResultatTraitement resultat = processor.executerEvenementReclame(
+                evenement(2), List.of(registrer(bean, "indexer")), Set.of());
+
+        // Assert
+        assertEquals(EventRecordJpa.EventStatus.FAILED, resultat.statutEchec());
+        assertNull(resultat.prochaineTentative());
+    }
+
+    @Test
+    void reclamerEvenement_dejaPris_neLitNiNEcritRien() {
+        // Arrange
+        EventTransactionProcessor processor = creerProcessor();
+        UUID eventId = UUID.randomUUID();
+        when(eventRecordRepository.claimForProcessing(eq(eventId), any(), any(), any())).thenReturn(0);
+
+        // Act
+        Optional<EventRecordJpa> reclame = processor.reclamerEvenement(eventId);
+
+        // Assert
+        assertTrue(reclame.isEmpty());
+        verify(eventRecordRepository, never()).findById(any());
+        verify(eventRecordRepository, never()).markFailed(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void reclamerEvenement_renvoieLEvenementSansExecuterNiEcrireDeStatut() {
+        // Arrange : le statut est écrit plus tard par appliquerResultats, hors de la transaction du handler
+        EventTransactionProcessor processor = creerProcessor();
+        EventRecordJpa evenement = evenement(1);
+        when(eventRecordRepository.claimForProcessing(eq(evenement.getEventId()), any(), any(), any())).thenReturn(1);
+        when(eventRecordRepository.findById(evenement.getEventId())).thenReturn(Optional.of(evenement));
+
+        // Act
+        Optional<EventRecordJpa> reclame = processor.reclamerEvenement(evenement.getEventId());
+
+        // Assert
+        assertEquals(Optional.of(evenement), reclame);
+        verify(eventRecordRepository, never()).markConsumed(any(), any(), any());
+        verify(eventRecordRepository, never()).markFailed(any(), any(), any(), any(), any());
+        verifyNoInteractions(executionRepository);
+    }
+
+    @Test
+    void appliquerResultats_ecritLeHandlerConsommateur() throws Exception {
+        // Arrange
+        EventTransactionProcessor processor = creerProcessor();
+        EventRecordJpa evenement = evenement(0);
+        EventTransactionProcessor.ResultatTraitement resultat = processor.executerEvenementReclame(
+                evenement, List.of(registrer(new TestHandler(), "envoyerEmail")), Set.of());
+
+        // Act
+        processor.appliquerResultats(List.of(resultat));
+
+        // Assert : consumer_handler écrit par le même UPDATE que le statut CONSUMED
+        verify(eventRecordRepository).markConsumed(eq(List.of(evenement.getEventId())),
+                eq("TestHandler.envoyerEmail"), any());
+    }
+
+    @Test
+    void executerEvenementReclame_typeAlias_metriquesTagueesAvecLeNomCanonique() throws Exception {
+        // Arrange : événement persisté sous un ancien nom (alias) de DealUpdatedEvent
+        EventTypeRegistry registreReel = creerRegistre();
+        EventTypeRegistry registre = spy(registreReel);
+        doReturn("DealUpdatedEvent").when(registre).nomCanonique("DealModifieEvent");
+        doAnswer(invocation -> registreReel.deserialiser("DealUpdatedEvent",
+                invocation.getArgument(1), invocation.getArgument(2)))
+                .when(registre).deserialiser(eq("DealModifieEvent"), anyInt(), anyString());
+        EventTransactionProcessor processor = creerProcessor(registre);
+        EventRecordJpa evenement = evenement(0);
+        evenement.setEventType("DealModifieEvent");
+
+        // Act
+        EventTransactionProcessor.ResultatTraitement resultat = processor.executerEvenementReclame(
+                evenement, List.of(registrer(new TestHandler(), "envoyerEmail")), Set.of());
+        processor.appliquerResultats(List.of(resultat));
+
+        // Assert
+        assertEquals("DealUpdatedEvent", resultat.eventType());
+        assertEquals(1, meterRegistry.get("events.publish.to.consume").tag("type", "DealUpdatedEvent").timer().count());
+        assertEquals(1, meterRegistry.get("events.processed").tag("type", "DealUpdatedEvent")
+                .tag("status", "CONSUMED").counter().count());
+        assertNull(meterRegistry.find("events.processed").tag("type", "DealModifieEvent").counter());
+    }
+}
@@ -0,0 +1,77 @@
+package com.ulr.paytogether.bff.eventdispatcher.consumer;
+
+import com.ulr.paytogether.core.event.AccountValidationEvent;
+import com.ulr.paytogether.core.event.DealUpdatedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la table de dispatch pré-compilée (HandlerDispatchTable + HandlerInvoker)
+ */
+class HandlerDispatchTableTest {
+
+    static class TestHandler {
+        final List<Object> recus = new ArrayList<>();
+
+        public void handleAccount(AccountValidationEvent event) {
+            recus.add(event);
+        }
+
+        public void handleDeal(DealUpdatedEvent event) {
+            throw new IllegalStateException("échec handler deal");
+        }
+
+        public void handleTout(Object event) {
+            recus.add("générique");
+        }
+    }
+
+    private EventTransactionProcessor.HandlerRegistre registrer(TestHandler bean, String nomMethode,
+                                                                 Class<?> typeEvent) throws Exception {
+        Method methode = TestHandler.class.getMethod(nomMethode, typeEvent);
+        return new EventTransactionProcessor.HandlerRegistre(
+                bean, methode, typeEvent, 3, "TestHandler." + nomMethode, null,
+                HandlerInvoker.compiler(bean, TestHandler.class, methode));
+    }
+
+    @Test
+    void handlersPour_fusionneLesHandlersGeneriquesDansLOrdre() throws Exception {
+        // Arrange
+        TestHandler bean = new TestHandler();
+        EventTransactionProcessor.HandlerRegistre account = registrer(bean, "handleAccount", AccountValidationEvent.class);
+        EventTransactionProcessor.HandlerRegistre generique = registrer(bean, "handleTout", Object.class);
+        EventTransactionProcessor.HandlerRegistre deal = registrer(bean, "handleDeal", DealUpdatedEvent.class);
+
+        // Act
+        HandlerDispatchTable table = HandlerDispatchTable.construire(List.of(account, generique, deal));
+
+        // Assert
+        assertEquals(List.of(account, generique), table.handlersPour("AccountValidationEvent"));
+        assertEquals(List.of(generique, deal), table.handlersPour("DealUpdatedEvent"));
+        assertEquals(List.of(generique), table.handlersPour("TypeInconnuEvent"));
+        assertEquals(3, table.nombreHandlers());
+    }
+
+    @Test
+    void invoquer_appelleLeHandlerEtPropageLExceptionSansEnveloppe() throws Exception {
+        // Arrange
+        TestHandler bean = new TestHandler();
+        HandlerInvoker account = registrer(bean, "handleAccount", AccountValidationEvent.class).getInvocateur();
+        HandlerInvoker deal = registrer(bean, "handleDeal", DealUpdatedEvent.class).getInvocateur();
+        AccountValidationEvent event = new AccountValidationEvent();
+
+        // Act
+        account.invoquer(event);
+        IllegalStateException erreur = assertThrows(IllegalStateException.class,
+                () -> deal.invoquer(new DealUpdatedEvent()));
+
+        // Assert
+        assertEquals(List.of(event), bean.recus);
+        assertEquals("échec handler deal", erreur.getMessage());
+    }
+}
@@ -0,0 +1,88 @@
+package com.ulr.paytogether.bff.eventdispatcher.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du partitionnement par agrégat de ParallelEventDispatcher
+ */
+class ParallelEventDispatcherTest {
+
+    private ParallelEventDispatcher creerDispatcher() {
+        ParallelEventDispatcher dispatcher = new ParallelEventDispatcher(
+                Executors.newVirtualThreadPerTaskExecutor(), new EventAggregateKeyExtractor(new ObjectMapper()));
+        ReflectionTestUtils.setField(dispatcher, "parallelisme", 4);
+        return dispatcher;
+    }
+
+    private EventRecordJpa evenement(String payload) {
+        return EventRecordJpa.builder()
+                .eventId(UUID.randomUUID())
+                .eventType("DealUpdatedEvent")
+                .occurredOn(LocalDateTime.now())
+                .payload(payload)
+                .build();
+    }
+
+    @Test
+    void memeAgregat_executeDansLOrdre() {
+        // Arrange
+        String dealUuid = UUID.randomUUID().toString();
+        List<EventRecordJpa> evenements = List.of(
+                evenement("{\"dealUuid\":\"" + dealUuid + "\",\"titreDeal\":\"v1\"}"),
+                evenement("{\"dealUuid\":\"" + dealUuid + "\",\"titreDeal\":\"v2\"}"),
+                evenement("{\"dealUuid\":\"" + dealUuid + "\",\"titreDeal\":\"v3\"}"),
+                evenement("{\"dealUuid\":\"" + UUID.randomUUID() + "\",\"titreDeal\":\"autre\"}"));
+        Map<String, List<UUID>> ordreParAgregat = new ConcurrentHashMap<>();
+
+        // Act
+        List<UUID> resultats = creerDispatcher().executerParAgregat(evenements, evt -> {
+            ordreParAgregat.computeIfAbsent(new EventAggregateKeyExtractor(new ObjectMapper()).extraire(evt),
+                    cle -> new CopyOnWriteArrayList<>()).add(evt.getEventId());
+            return evt.getEventId();
+        });
+
+        // Assert
+        assertEquals(4, resultats.size());
+        assertEquals(
+                List.of(evenements.get(0).getEventId(), evenements.get(1).getEventId(), evenements.get(2).getEventId()),
+                ordreParAgregat.get("dealUuid:" + dealUuid));
+    }
+
+    @Test
+    void agregatsDifferents_executesEnParallele() {
+        // Arrange : deux événements qui ne peuvent se terminer que s'ils tournent en même temps
+        CountDownLatch rendezVous = new CountDownLatch(2);
+        List<EventRecordJpa> evenements = List.of(
+                evenement("{\"paiementUuid\":\"" + UUID.randomUUID() + "\"}"),
+                evenement("{\"paiementUuid\":\"" + UUID.randomUUID() + "\"}"));
+
+        // Act
+        List<Boolean> resultats = creerDispatcher().executerParAgregat(evenements, evt -> {
+            rendezVous.countDown();
+            try {
+                return rendezVous.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+
+        // Assert
+        assertEquals(List.of(true, true), resultats);
+    }
+}
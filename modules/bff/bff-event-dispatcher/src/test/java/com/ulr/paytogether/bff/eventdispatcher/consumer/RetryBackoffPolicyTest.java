@@ -0,0 +1,36 @@
+package com.ulr.paytogether.bff.eventdispatcher.consumer;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests du backoff exponentiel avec jitter
+ */
+class RetryBackoffPolicyTest {
+
+    private final RetryBackoffPolicy politique = new RetryBackoffPolicy(1000, 10000, 2.0);
+
+    @RepeatedTest(20)
+    void delai_exponentielAvecJitterEntreMoitieEtTotal() {
+        // Act
+        Duration premier = politique.delai(1);
+        Duration troisieme = politique.delai(3);
+
+        // Assert
+        assertTrue(premier.toMillis() >= 500 && premier.toMillis() <= 1000, "1ère tentative: " + premier);
+        assertTrue(troisieme.toMillis() >= 2000 && troisieme.toMillis() <= 4000, "3e tentative: " + troisieme);
+    }
+
+    @Test
+    void delai_plafonneAuDelaiMax() {
+        // Act
+        Duration delai = politique.delai(30);
+
+        // Assert
+        assertTrue(delai.toMillis() >= 5000 && delai.toMillis() <= 10000, "délai plafonné: " + delai);
+    }
+}
@@ -0,0 +1,129 @@
+package com.ulr.paytogether.bff.eventdispatcher.consumer;
+
+import com.ulr.paytogether.bff.event.annotation.FunctionalHandler;
+import com.ulr.paytogether.bff.eventdispatcher.registry.EventTypeRegistry;
+import com.ulr.paytogether.core.event.DealCreatedEvent;
+import com.ulr.paytogether.core.event.DealUpdatedEvent;
+import com.ulr.paytogether.core.event.PaymentInitiatedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests de la résolution des voies de priorité (VoiesTraitement)
+ */
+class VoiesTraitementTest {
+
+    static class TestHandler {
+        @FunctionalHandler(eventType = PaymentInitiatedEvent.class, lane = "payments")
+        public void handlePaiement(PaymentInitiatedEvent event) {
+        }
+
+        @FunctionalHandler(eventType = DealUpdatedEvent.class, lane = "bulk")
+        public void handleIndexation(DealUpdatedEvent event) {
+        }
+
+        @FunctionalHandler(eventType = DealCreatedEvent.class)
+        public void handleCreation(DealCreatedEvent event) {
+        }
+    }
+
+    private EventTypeRegistry eventTypeRegistry;
+    private VoiesTraitement voies;
+
+    @BeforeEach
+    void setUp() {
+        eventTypeRegistry = mock(EventTypeRegistry.class);
+        when(eventTypeRegistry.nomCanonique(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(eventTypeRegistry.nomsPersistes(anyString())).thenAnswer(invocation -> List.of(invocation.<String>getArgument(0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (voies != null) {
+            voies.arreter();
+        }
+    }
+
+    private EventTransactionProcessor.HandlerRegistre registrer(TestHandler bean, String nomMethode,
+                                                                 Class<?> typeEvent) throws Exception {
+        Method methode = TestHandler.class.getMethod(nomMethode, typeEvent);
+        return new EventTransactionProcessor.HandlerRegistre(
+                bean, methode, typeEvent, 3, "TestHandler." + nomMethode, null,
+                HandlerInvoker.compiler(bean, TestHandler.class, methode));
+    }
+
+    private List<EventTransactionProcessor.HandlerRegistre> handlers() throws Exception {
+        TestHandler bean = new TestHandler();
+        return List.of(
+                registrer(bean, "handlePaiement", PaymentInitiatedEvent.class),
+                registrer(bean, "handleIndexation", DealUpdatedEvent.class),
+                registrer(bean, "handleCreation", DealCreatedEvent.class));
+    }
+
+    @Test
+    void construire_affecteLesTypesSelonLAnnotationDesHandlers() throws Exception {
+        // Arrange
+        MockEnvironment environnement = new MockEnvironment()
+                .withProperty("events.consumer.batch-size", "50")
+                .withProperty("events.consumer.parallelism", "8")
+                .withProperty("events.lanes.payments.priority", "0")
+                .withProperty("events.lanes.payments.batch-size", "20")
+                .withProperty("events.lanes.payments.parallelism", "4");
+
+        // Act
+        voies = VoiesTraitement.construire(handlers(), environnement, eventTypeRegistry);
+
+        // Assert
+        VoieTraitement paiements = voies.voiePour("PaymentInitiatedEvent");
+        assertEquals("payments", paiements.nom());
+        assertEquals(20, paiements.tailleLot());
+        assertEquals(4, paiements.parallelisme());
+        assertEquals(4, paiements.bulkhead().availablePermits());
+        assertEquals("bulk", voies.voiePour("DealUpdatedEvent").nom());
+        assertEquals(VoieTraitement.VOIE_PAR_DEFAUT, voies.voiePour("DealCreatedEvent").nom());
+        assertEquals("payments", voies.voies().get(0).nom(), "la voie la plus prioritaire en premier");
+    }
+
+    @Test
+    void construire_laConfigurationPrimeSurLAnnotation() throws Exception {
+        // Arrange
+        MockEnvironment environnement = new MockEnvironment()
+                .withProperty("events.lanes.payments.event-types", "PaymentInitiatedEvent,DealUpdatedEvent");
+
+        // Act
+        voies = VoiesTraitement.construire(handlers(), environnement, eventTypeRegistry);
+
+        // Assert
+        assertEquals("payments", voies.voiePour("DealUpdatedEvent").nom());
+        assertEquals(Set.of("PaymentInitiatedEvent", "DealUpdatedEvent"), voies.voiePour("DealUpdatedEvent").types());
+    }
+
+    @Test
+    void voieParDefaut_consommeLesTypesNonAffectes() throws Exception {
+        // Arrange
+        MockEnvironment environnement = new MockEnvironment()
+                .withProperty("events.consumer.batch-size", "30")
+                .withProperty("events.consumer.parallelism", "6");
+
+        // Act
+        voies = VoiesTraitement.construire(handlers(), environnement, eventTypeRegistry);
+
+        // Assert
+        VoieTraitement parDefaut = voies.voieParDefaut();
+        assertTrue(parDefaut.parDefaut());
+        assertEquals(30, parDefaut.tailleLot());
+        assertEquals(6, parDefaut.parallelisme());
+        assertSame(parDefaut, voies.voiePour("TypeInconnuEvent"));
+        assertEquals(Set.of("PaymentInitiatedEvent", "DealUpdatedEvent"), voies.typesVoiesDediees());
+    }
+}
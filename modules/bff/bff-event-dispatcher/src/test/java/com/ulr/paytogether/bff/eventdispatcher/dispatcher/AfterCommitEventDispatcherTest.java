@@ -0,0 +1,100 @@
+package com.ulr.paytogether.bff.eventdispatcher.dispatcher;
+
+import com.ulr.paytogether.bff.eventdispatcher.consumer.EventConsumerService;
+import com.ulr.paytogether.bff.eventdispatcher.consumer.EventWakeupSignal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests du dispatch en mémoire après commit (outbox transactionnel)
+ */
+class AfterCommitEventDispatcherTest {
+
+    private EventConsumerService eventConsumerService;
+    private EventWakeupSignal eventWakeupSignal;
+    private AfterCommitEventDispatcher dispatcher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        eventConsumerService = mock(EventConsumerService.class);
+        eventWakeupSignal = mock(EventWakeupSignal.class);
+        ObjectProvider<EventConsumerService> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(eventConsumerService);
+        // Executor synchrone : le dispatch est exécuté dans le test
+        dispatcher = new AfterCommitEventDispatcher(provider, Runnable::run, eventWakeupSignal, true);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void planifier_unSeulDispatchApresCommitPourToutLaTransaction() {
+        // Arrange
+        UUID premier = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        dispatcher.planifier(premier);
+        dispatcher.planifier(second);
+
+        // Assert : rien avant le commit
+        verifyNoInteractions(eventConsumerService);
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+
+        // Act
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        verify(eventConsumerService).traiterEvenementsPublies(List.of(premier, second));
+        verifyNoInteractions(eventWakeupSignal);
+    }
+
+    @Test
+    void planifier_rollback_aucunDispatch() {
+        // Arrange
+        dispatcher.planifier(UUID.randomUUID());
+
+        // Act
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Assert
+        verifyNoInteractions(eventConsumerService, eventWakeupSignal);
+    }
+
+    @Test
+    void dispatchEnEchec_reveilleLePoller() {
+        // Arrange
+        UUID eventId = UUID.randomUUID();
+        when(eventConsumerService.traiterEvenementsPublies(any())).thenThrow(new IllegalStateException("BDD indisponible"));
+        dispatcher.planifier(eventId);
+
+        // Act
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        verify(eventWakeupSignal).signaler();
+    }
+
+    @Test
+    void planifier_horsTransaction_refuse() {
+        // Arrange
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> dispatcher.planifier(UUID.randomUUID()));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+}
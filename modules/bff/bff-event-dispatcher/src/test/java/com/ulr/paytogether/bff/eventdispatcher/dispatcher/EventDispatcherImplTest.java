@@ -0,0 +1,113 @@
+package com.ulr.paytogether.bff.eventdispatcher.dispatcher;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ulr.paytogether.bff.eventdispatcher.coalescing.EventCoalescer;
+import com.ulr.paytogether.bff.eventdispatcher.consumer.EventAggregateKeyExtractor;
+import com.ulr.paytogether.bff.eventdispatcher.consumer.EventWakeupSignal;
+import com.ulr.paytogether.bff.eventdispatcher.registry.EventMaxAttemptsRegistry;
+import com.ulr.paytogether.bff.eventdispatcher.registry.EventTypeRegistry;
+import com.ulr.paytogether.bff.eventdispatcher.repository.EventRecordRepository;
+import com.ulr.paytogether.bff.eventdispatcher.tracing.EventTracing;
+import com.ulr.paytogether.core.event.AccountValidationEvent;
+import com.ulr.paytogether.core.event.DealUpdatedEvent;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests de la publication groupée (EventPublisher.publishAll)
+ */
+class EventDispatcherImplTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private AfterCommitEventDispatcher afterCommitEventDispatcher;
+    private EventDispatcherImpl dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        afterCommitEventDispatcher = mock(AfterCommitEventDispatcher.class);
+        EventTypeRegistry registre = mock(EventTypeRegistry.class);
+        when(registre.versionCourante(any())).thenReturn(1);
+        EventMaxAttemptsRegistry maxAttempts = mock(EventMaxAttemptsRegistry.class);
+        when(maxAttempts.maxAttempts(anyString())).thenReturn(3);
+        when(maxAttempts.maxAttempts("AccountValidationEvent")).thenReturn(5);
+        EventCoalescer coalescer = mock(EventCoalescer.class);
+        when(coalescer.delaiRegroupement(anyString())).thenReturn(Duration.ZERO);
+        dispatcher = new EventDispatcherImpl(mock(EventRecordRepository.class), new ObjectMapper(),
+                mock(EventWakeupSignal.class), registre, maxAttempts, afterCommitEventDispatcher, jdbcTemplate, coalescer,
+                new EventAggregateKeyExtractor(new ObjectMapper()), new EventTracing(Tracer.NOOP, Propagator.NOOP));
+        dispatcher.init();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishAll_unSeulBatchEtUnSeulDispatch() {
+        // Act
+        dispatcher.publishAll(List.of(new AccountValidationEvent(), new DealUpdatedEvent(), new DealUpdatedEvent()));
+
+        // Assert
+        ArgumentCaptor<List<Object[]>> lignes = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), lignes.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(3, lignes.getValue().size());
+        assertEquals("AccountValidationEvent", lignes.getValue().get(0)[1]);
+
+        ArgumentCaptor<Collection<UUID>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(afterCommitEventDispatcher).planifier(ids.capture());
+        assertEquals(3, ids.getValue().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishAll_cleDAgregatExtraiteALaPublication() {
+        // Arrange
+        UUID dealUuid = UUID.randomUUID();
+
+        // Act
+        dispatcher.publishAll(List.of(new DealUpdatedEvent(dealUuid, "Deal", null), new AccountValidationEvent()));
+
+        // Assert : aggregate_id renseigné pour le deal, NULL pour un événement sans agrégat connu
+        ArgumentCaptor<List<Object[]>> lignes = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), lignes.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals("dealUuid:" + dealUuid, lignes.getValue().get(0)[7]);
+        assertNull(lignes.getValue().get(1)[7]);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishAll_maxAttemptsDuTypePersiste() {
+        // Act
+        dispatcher.publishAll(List.of(new AccountValidationEvent(), new DealUpdatedEvent()));
+
+        // Assert : max_attempts issu des handlers du type, et non une constante
+        ArgumentCaptor<List<Object[]>> lignes = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), lignes.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(5, lignes.getValue().get(0)[8]);
+        assertEquals(3, lignes.getValue().get(1)[8]);
+    }
+
+    @Test
+    void publishAll_lotVide_aucuneEcriture() {
+        // Act
+        dispatcher.publishAll(List.of());
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate, afterCommitEventDispatcher);
+    }
+}
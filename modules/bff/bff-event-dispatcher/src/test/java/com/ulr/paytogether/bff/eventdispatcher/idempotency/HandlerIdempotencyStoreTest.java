@@ -0,0 +1,98 @@
+package com.ulr.paytogether.bff.eventdispatcher.idempotency;
+
+import com.ulr.paytogether.bff.eventdispatcher.repository.EventHandlerExecutionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests du registre d'idempotence des handlers (Redis + repli PostgreSQL)
+ */
+class HandlerIdempotencyStoreTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final EventHandlerExecutionRepository executionRepository = mock(EventHandlerExecutionRepository.class);
+
+    @SuppressWarnings("unchecked")
+    private HandlerIdempotencyStore creerStore(StringRedisTemplate redis) {
+        ObjectProvider<StringRedisTemplate> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(redis);
+        return new HandlerIdempotencyStore(provider, executionRepository, true, Duration.ofDays(7), 30000);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void handlersTraites_lotLuDansRedisEnUnAllerRetour() {
+        // Arrange
+        UUID traite = UUID.randomUUID();
+        UUID nouveau = UUID.randomUUID();
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(Set.of("SquarePaymentHandler.handlePaymentSuccessful"), Set.of()));
+
+        // Act
+        Map<UUID, Set<String>> traites = creerStore(redisTemplate).handlersTraites(List.of(traite, nouveau), List.of());
+
+        // Assert
+        assertEquals(Set.of("SquarePaymentHandler.handlePaymentSuccessful"), traites.get(traite));
+        assertFalse(traites.containsKey(nouveau));
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verifyNoInteractions(executionRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void handlersTraites_redisEnErreur_repliPostgresPourToutLeLot() {
+        // Arrange
+        UUID eventId = UUID.randomUUID();
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("Connection refused"));
+        List<Object[]> lignes = new ArrayList<>();
+        lignes.add(new Object[]{eventId, "SquarePaymentHandler.handlePaymentSuccessful"});
+        when(executionRepository.findHandlersReussis(List.of(eventId))).thenReturn(lignes);
+        HandlerIdempotencyStore store = creerStore(redisTemplate);
+
+        // Act
+        Map<UUID, Set<String>> traites = store.handlersTraites(List.of(eventId), List.of());
+        store.handlersTraites(List.of(eventId), List.of());
+
+        // Assert : Redis n'est plus sollicité pendant la pause après l'erreur
+        assertEquals(Set.of("SquarePaymentHandler.handlePaymentSuccessful"), traites.get(eventId));
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void enregistrer_sansRedis_ligneSucceededDansPostgres() {
+        // Arrange
+        UUID eventId = UUID.randomUUID();
+
+        // Act
+        creerStore(null).enregistrerApresCommit(eventId, List.of("SquarePaymentHandler.handlePaymentSuccessful"));
+
+        // Assert
+        verify(executionRepository).upsertSucces(eq(eventId), eq("SquarePaymentHandler.handlePaymentSuccessful"), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void enregistrer_redisDisponible_aucuneEcriturePostgres() {
+        // Act
+        creerStore(redisTemplate).enregistrerApresCommit(UUID.randomUUID(), List.of("DealSearchIndexHandler.handleDealUpdated"));
+
+        // Assert
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+        verifyNoInteractions(executionRepository);
+    }
+}
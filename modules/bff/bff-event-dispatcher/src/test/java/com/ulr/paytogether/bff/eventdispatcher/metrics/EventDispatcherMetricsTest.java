@@ -0,0 +1,63 @@
+package com.ulr.paytogether.bff.eventdispatcher.metrics;
+
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa;
+import com.ulr.paytogether.bff.eventdispatcher.repository.EventRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests des métriques du dispatcher d'événements
+ */
+class EventDispatcherMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EventRecordRepository eventRecordRepository = mock(EventRecordRepository.class);
+
+    @Test
+    void rafraichirGauges_profondeurParStatutEtAgeDuPlusAncienPending() {
+        // Arrange
+        EventDispatcherMetrics metrics = new EventDispatcherMetrics(meterRegistry, eventRecordRepository);
+        when(eventRecordRepository.countGroupByStatusIn(EventDispatcherMetrics.STATUTS_SUIVIS)).thenReturn(List.of(
+                new Object[]{EventRecordJpa.EventStatus.PENDING, 12L},
+                new Object[]{EventRecordJpa.EventStatus.FAILED, 3L}));
+        when(eventRecordRepository.findOldestPendingOccurredOn()).thenReturn(LocalDateTime.now().minusMinutes(2));
+
+        // Act
+        metrics.rafraichirGauges();
+
+        // Assert
+        assertEquals(12, meterRegistry.get("events.outbox.depth").tag("status", "PENDING").gauge().value());
+        assertEquals(3, meterRegistry.get("events.outbox.depth").tag("status", "FAILED").gauge().value());
+        assertEquals(0, meterRegistry.get("events.outbox.depth").tag("status", "PROCESSING").gauge().value());
+        // CONSUMED : jamais compté (la requête ne parcourt pas la masse des événements consommés)
+        assertNull(meterRegistry.find("events.outbox.depth").tag("status", "CONSUMED").gauge());
+        verify(eventRecordRepository, never()).countGroupByStatusIn(argThat(statuts ->
+                statuts.contains(EventRecordJpa.EventStatus.CONSUMED)));
+        assertTrue(meterRegistry.get("events.outbox.oldest.pending.age").gauge().value() >= 120);
+    }
+
+    @Test
+    void enregistrerResultat_compteParTypeEtStatut() {
+        // Arrange
+        EventDispatcherMetrics metrics = new EventDispatcherMetrics(meterRegistry, eventRecordRepository);
+
+        // Act
+        metrics.enregistrerResultat("DealUpdatedEvent", "CONSUMED");
+        metrics.enregistrerResultat("DealUpdatedEvent", "CONSUMED");
+        metrics.enregistrerResultat("DealUpdatedEvent", EventDispatcherMetrics.STATUT_NOUVELLE_TENTATIVE);
+        metrics.enregistrerLatence("DealUpdatedEvent", LocalDateTime.now().minusSeconds(1));
+
+        // Assert
+        assertEquals(2, meterRegistry.get("events.processed")
+                .tag("type", "DealUpdatedEvent").tag("status", "CONSUMED").counter().count());
+        assertEquals(1, meterRegistry.get("events.processed")
+                .tag("status", "RETRY_SCHEDULED").counter().count());
+        assertEquals(1, meterRegistry.get("events.publish.to.consume").timer().count());
+    }
+}
@@ -0,0 +1,71 @@
+package com.ulr.paytogether.bff.eventdispatcher.partitioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de l'anneau de hachage cohérent (répartition des buckets de l'outbox entre pods)
+ */
+class ConsistentHashRingTest {
+
+    @Test
+    void buckets_chaqueBucketAUnSeulProprietaire() {
+        // Arrange
+        List<String> membres = List.of("pod-a", "pod-b", "pod-c");
+
+        // Act
+        ConsistentHashRing anneau = new ConsistentHashRing(membres, 64);
+
+        // Assert
+        Set<Integer> tous = new HashSet<>();
+        int total = 0;
+        for (String membre : membres) {
+            Set<Integer> buckets = anneau.buckets(membre);
+            assertFalse(buckets.isEmpty(), "chaque pod reçoit des buckets");
+            tous.addAll(buckets);
+            total += buckets.size();
+        }
+        assertEquals(ConsistentHashRing.NOMBRE_BUCKETS, total);
+        assertEquals(ConsistentHashRing.NOMBRE_BUCKETS, tous.size());
+    }
+
+    @Test
+    void arriveeDUnPod_seulsSesBucketsChangentDeProprietaire() {
+        // Arrange
+        ConsistentHashRing avant = new ConsistentHashRing(List.of("pod-a", "pod-b"), 64);
+
+        // Act
+        ConsistentHashRing apres = new ConsistentHashRing(List.of("pod-a", "pod-b", "pod-c"), 64);
+
+        // Assert
+        for (int bucket = 0; bucket < ConsistentHashRing.NOMBRE_BUCKETS; bucket++) {
+            String nouveau = apres.proprietaire(bucket);
+            if (!nouveau.equals("pod-c")) {
+                assertEquals(avant.proprietaire(bucket), nouveau, "bucket " + bucket + " déplacé sans raison");
+            }
+        }
+    }
+
+    @Test
+    void bucket_memeCleMemeBucket() {
+        // Arrange
+        String cle = "dealUuid:" + UUID.randomUUID();
+
+        // Act & Assert
+        int bucket = ConsistentHashRing.bucket(cle);
+        assertEquals(bucket, ConsistentHashRing.bucket(cle));
+        assertTrue(bucket >= 0 && bucket < ConsistentHashRing.NOMBRE_BUCKETS);
+    }
+
+    @Test
+    void proprietaire_anneauVide_null() {
+        // Act & Assert
+        assertNull(new ConsistentHashRing(List.of(), 64).proprietaire(0));
+    }
+}
@@ -0,0 +1,60 @@
+package com.ulr.paytogether.bff.eventdispatcher.registry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ulr.paytogether.core.event.DealUpdatedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests du registre des types d'événements (scan de com.ulr.paytogether.core.event)
+ */
+class EventTypeRegistryTest {
+
+    @SuppressWarnings("unchecked")
+    private EventTypeRegistry creerRegistre() {
+        ObjectProvider<EventUpcaster> upcasters = mock(ObjectProvider.class);
+        when(upcasters.orderedStream()).thenReturn(Stream.empty());
+        return new EventTypeRegistry(new ObjectMapper(), upcasters);
+    }
+
+    @Test
+    void deserialiser_utiliseLeReaderDuTypeEnregistre() throws Exception {
+        // Arrange
+        EventTypeRegistry registre = creerRegistre();
+        UUID dealUuid = UUID.randomUUID();
+        // Payload tel que persisté par EventDispatcherImpl (avec @type), plus un champ retiré depuis
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        ObjectNode json = objectMapper.valueToTree(new DealUpdatedEvent(dealUuid, "Deal test", LocalDateTime.now()));
+        json.put("champRetire", true);
+        String payload = objectMapper.writeValueAsString(json);
+
+        // Act
+        Object evenement = registre.deserialiser("DealUpdatedEvent", 1, payload);
+
+        // Assert
+        DealUpdatedEvent dealUpdated = assertInstanceOf(DealUpdatedEvent.class, evenement);
+        assertEquals(dealUuid, dealUpdated.getDealUuid());
+        assertEquals("Deal test", dealUpdated.getTitreDeal());
+        assertEquals(1, registre.versionCourante(DealUpdatedEvent.class));
+    }
+
+    @Test
+    void deserialiser_typeInconnu_leveClassNotFoundException() {
+        // Arrange
+        EventTypeRegistry registre = creerRegistre();
+
+        // Act & Assert
+        assertThrows(ClassNotFoundException.class, () -> registre.deserialiser("TypeInconnuEvent", 1, "{}"));
+        assertEquals("TypeInconnuEvent", registre.nomCanonique("TypeInconnuEvent"));
+        assertTrue(registre.trouver("EventPublisher").isEmpty());
+    }
+}
@@ -0,0 +1,148 @@
+package com.ulr.paytogether.bff.eventdispatcher.replay;
+
+import com.ulr.paytogether.bff.eventdispatcher.consumer.EventConsumerService;
+import com.ulr.paytogether.bff.eventdispatcher.consumer.EventTransactionProcessor;
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa;
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventReplayJobJpa;
+import com.ulr.paytogether.bff.eventdispatcher.registry.EventTypeRegistry;
+import com.ulr.paytogether.bff.eventdispatcher.repository.EventRecordRepository;
+import com.ulr.paytogether.bff.eventdispatcher.repository.EventReplayJobRepository;
+import com.ulr.paytogether.core.event.DealUpdatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests du rejeu d'événements (pagination par clé, checkpoint, statuts inchangés)
+ */
+class EventReplayServiceTest {
+
+    private static final String NOM_HANDLER = "DealSearchIndexHandler.handleDealUpdated";
+
+    private final EventReplayJobRepository eventReplayJobRepository = mock(EventReplayJobRepository.class);
+    private final EventRecordRepository eventRecordRepository = mock(EventRecordRepository.class);
+    private final EventConsumerService eventConsumerService = mock(EventConsumerService.class);
+    private final EventTransactionProcessor eventTransactionProcessor = mock(EventTransactionProcessor.class);
+    private final EventTypeRegistry eventTypeRegistry = mock(EventTypeRegistry.class);
+
+    private final EventTransactionProcessor.HandlerRegistre handler = new EventTransactionProcessor.HandlerRegistre(
+            null, null, DealUpdatedEvent.class, 3, NOM_HANDLER, null, null);
+
+    private EventReplayService service;
+    private EventReplayJobJpa jobEnregistre;
+
+    @BeforeEach
+    void setUp() {
+        // Exécuteur synchrone : le rejeu tourne dans le thread du test
+        service = new EventReplayService(eventReplayJobRepository, eventRecordRepository, eventConsumerService,
+                eventTransactionProcessor, eventTypeRegistry, Runnable::run,
+                1000, 1000, 2, 100);
+        when(eventConsumerService.trouverHandler(NOM_HANDLER)).thenReturn(Optional.of(handler));
+        when(eventTypeRegistry.nomsPersistes("DealUpdatedEvent")).thenReturn(List.of("DealUpdatedEvent"));
+        when(eventReplayJobRepository.save(any(EventReplayJobJpa.class))).thenAnswer(invocation -> {
+            jobEnregistre = invocation.getArgument(0);
+            return jobEnregistre;
+        });
+        when(eventReplayJobRepository.findById(any())).thenAnswer(invocation -> Optional.ofNullable(jobEnregistre));
+    }
+
+    private EventRecordJpa evenement(LocalDateTime occurredOn, String dealUuid) {
+        return EventRecordJpa.builder()
+                .eventId(UUID.randomUUID())
+                .eventType("DealUpdatedEvent")
+                .payload("{\"dealUuid\":\"" + dealUuid + "\"}")
+                .occurredOn(occurredOn)
+                .status(EventRecordJpa.EventStatus.CONSUMED)
+                .build();
+    }
+
+    @Test
+    void demarrer_rejoueToutesLesPagesPuisTermine() throws Exception {
+        // Arrange
+        LocalDateTime debut = LocalDateTime.of(2026, 10, 1, 0, 0);
+        EventRecordJpa e1 = evenement(debut.plusMinutes(1), "d1");
+        EventRecordJpa e2 = evenement(debut.plusMinutes(2), "d2");
+        EventRecordJpa e3 = evenement(debut.plusMinutes(3), "d3");
+        when(eventRecordRepository.findForReplay(anyCollection(), anyCollection(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(e1, e2), List.of(e3), List.of());
+
+        // Act
+        EventReplayJobJpa job = service.demarrer(new DemandeRejeu(NOM_HANDLER, null, debut, debut.plusDays(1), null, null));
+
+        // Assert
+        verify(eventTransactionProcessor, times(3)).rejouerEvenement(any(), eq(handler));
+        assertEquals(EventReplayJobJpa.ReplayStatus.COMPLETED, job.getStatus());
+        assertEquals(3L, job.getReplayedCount());
+        assertEquals(e3.getEventId(), job.getCheckpointEventId());
+        // Page suivante lue après le dernier événement de la page précédente
+        verify(eventRecordRepository).findForReplay(anyCollection(), anyCollection(), any(), any(),
+                eq(e2.getOccurredOn()), eq(e2.getEventId()), any());
+        // Lecture seule : aucun statut d'événement modifié
+        verify(eventRecordRepository, never()).save(any());
+        verify(eventRecordRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void demarrer_cleAgregat_lectureParLaColonneAggregateId() throws Exception {
+        // Arrange
+        LocalDateTime debut = LocalDateTime.of(2026, 10, 1, 0, 0);
+        EventRecordJpa cible = evenement(debut.plusMinutes(1), "d1");
+        when(eventRecordRepository.findForReplayByAggregate(eq("dealUuid:d1"), anyCollection(), anyCollection(),
+                any(), any(), any(), any(), any()))
+                .thenReturn(List.of(cible), List.of());
+
+        // Act
+        EventReplayJobJpa job = service.demarrer(
+                new DemandeRejeu(NOM_HANDLER, null, debut, debut.plusDays(1), "dealUuid:d1", null));
+
+        // Assert
+        verify(eventTransactionProcessor).rejouerEvenement(cible, handler);
+        verify(eventRecordRepository, never()).findForReplay(any(), any(), any(), any(), any(), any(), any());
+        assertEquals(1L, job.getReplayedCount());
+    }
+
+    @Test
+    void demarrer_tropDEchecs_rejeuEnEchec() throws Exception {
+        // Arrange
+        service = new EventReplayService(eventReplayJobRepository, eventRecordRepository, eventConsumerService,
+                eventTransactionProcessor, eventTypeRegistry, Runnable::run,
+                1000, 1000, 2, 2);
+        LocalDateTime debut = LocalDateTime.of(2026, 10, 1, 0, 0);
+        when(eventRecordRepository.findForReplay(anyCollection(), anyCollection(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(evenement(debut.plusMinutes(1), "d1"), evenement(debut.plusMinutes(2), "d2")));
+        doThrow(new IllegalStateException("index indisponible"))
+                .when(eventTransactionProcessor).rejouerEvenement(any(), any());
+
+        // Act
+        EventReplayJobJpa job = service.demarrer(new DemandeRejeu(NOM_HANDLER, null, debut, debut.plusDays(1), null, null));
+
+        // Assert
+        assertEquals(EventReplayJobJpa.ReplayStatus.FAILED, job.getStatus());
+        assertEquals(2L, job.getFailedCount());
+        assertTrue(job.getLastError().contains("index indisponible"));
+    }
+
+    @Test
+    void demarrer_statutPending_refuse() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> service.demarrer(new DemandeRejeu(
+                NOM_HANDLER, List.of(EventRecordJpa.EventStatus.PENDING), null, null, null, null)));
+        verifyNoInteractions(eventReplayJobRepository);
+    }
+
+    @Test
+    void demarrer_handlerInconnu_refuse() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> service.demarrer(
+                new DemandeRejeu("Inconnu.handle", null, null, null, null, null)));
+        verifyNoInteractions(eventReplayJobRepository);
+    }
+}
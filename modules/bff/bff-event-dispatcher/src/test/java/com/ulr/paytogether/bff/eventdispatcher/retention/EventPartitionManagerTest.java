@@ -0,0 +1,82 @@
+package com.ulr.paytogether.bff.eventdispatcher.retention;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests de la protection des données de la rétention (stockage des archives non durable)
+ */
+class EventPartitionManagerTest {
+
+    private static final LocalDateTime LIMITE_CONSUMED = LocalDateTime.of(2025, 6, 15, 0, 0);
+    private static final LocalDateTime LIMITE_ECHECS = LocalDateTime.of(2025, 3, 15, 0, 0);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private EventPartitionManager creerManager(EventArchiveStorage stockage) throws Exception {
+        // Partition d'avril : 10 événements CONSUMED → SUPPRIMER
+        return creerManager(stockage, "CONSUMED", 10L);
+    }
+
+    private EventPartitionManager creerManager(EventArchiveStorage stockage, String statut, long nombre) throws Exception {
+        when(jdbcTemplate.queryForObject(eq("SELECT pg_try_advisory_xact_lock(?)"), eq(Boolean.class), any()))
+                .thenReturn(true);
+        ResultSet ligne = mock(ResultSet.class);
+        when(ligne.getString(1)).thenReturn(statut);
+        when(ligne.getLong(2)).thenReturn(nombre);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(ligne);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT status, COUNT(*)"), any(RowCallbackHandler.class));
+        return new EventPartitionManager(jdbcTemplate, stockage, new ObjectMapper());
+    }
+
+    @Test
+    void traiterPartition_archivesLocalesSansRepertoireConfigure_aucuneSuppression() throws Exception {
+        // Arrange : EVENT_ARCHIVE_DIR absent → ./event-archive, perdu au redémarrage du pod
+        LocalEventArchiveStorage stockage = new LocalEventArchiveStorage("");
+        EventPartitionManager manager = creerManager(stockage);
+
+        // Act
+        EventPartitionManager.ResultatPartition resultat = manager.traiterPartition(
+                PartitionEventRecord.depuisNom("event_record_p2025_04"), LIMITE_CONSUMED, LIMITE_ECHECS);
+
+        // Assert
+        assertFalse(stockage.durable());
+        assertEquals(EventPartitionManager.ACTION_REFUSEE, resultat.action());
+        verify(jdbcTemplate, never()).execute(anyString());
+        verify(jdbcTemplate, never()).update(anyString());
+    }
+
+    @Test
+    void traiterPartition_echecsRetenusSansConsumed_aucuneArchiveNiSuppression() throws Exception {
+        // Arrange : CONSUMED déjà purgés, FAILED encore dans leur fenêtre de rétention
+        EventArchiveStorage stockage = mock(EventArchiveStorage.class);
+        when(stockage.durable()).thenReturn(true);
+        EventPartitionManager manager = creerManager(stockage, "FAILED", 3L);
+
+        // Act
+        EventPartitionManager.ResultatPartition resultat = manager.traiterPartition(
+                PartitionEventRecord.depuisNom("event_record_p2025_04"), LIMITE_CONSUMED, LIMITE_ECHECS);
+
+        // Assert : pas d'archive vide réécrite chaque nuit
+        assertEquals(PartitionEventRecord.Action.CONSERVER.name(), resultat.action());
+        verify(stockage, never()).stocker(any(), anyString());
+        verify(jdbcTemplate, never()).update(anyString());
+    }
+
+    @Test
+    void archivesLocales_repertoireConfigure_durable() {
+        // Act & Assert
+        assertTrue(new LocalEventArchiveStorage("/var/lib/paytogether/event-archive").durable());
+    }
+}
@@ -0,0 +1,70 @@
+package com.ulr.paytogether.bff.eventdispatcher.retention;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la décision de rétention d'une partition mensuelle
+ */
+class PartitionEventRecordTest {
+
+    private static final LocalDateTime LIMITE_CONSUMED = LocalDateTime.of(2025, 6, 15, 0, 0);
+    private static final LocalDateTime LIMITE_ECHECS = LocalDateTime.of(2025, 3, 15, 0, 0);
+
+    @Test
+    void depuisNom_partitionMensuelle() {
+        // Act
+        PartitionEventRecord partition = PartitionEventRecord.depuisNom("event_record_p2025_04");
+
+        // Assert
+        assertEquals(LocalDate.of(2025, 4, 1), partition.debut());
+        assertEquals(LocalDate.of(2025, 5, 1), partition.fin());
+        assertNull(PartitionEventRecord.depuisNom("event_record_default"));
+        assertNull(PartitionEventRecord.depuisNom("event_record_p2025_04; DROP TABLE users"));
+    }
+
+    @Test
+    void decider_partitionRecenteConservee() {
+        // Arrange
+        PartitionEventRecord juin = PartitionEventRecord.depuisNom("event_record_p2025_06");
+
+        // Act & Assert
+        assertEquals(PartitionEventRecord.Action.CONSERVER,
+                juin.decider(Map.of("CONSUMED", 10L), LIMITE_CONSUMED, LIMITE_ECHECS));
+    }
+
+    @Test
+    void decider_partitionExpireeSupprimee() {
+        // Arrange
+        PartitionEventRecord fevrier = PartitionEventRecord.depuisNom("event_record_p2025_02");
+        PartitionEventRecord avril = PartitionEventRecord.depuisNom("event_record_p2025_04");
+
+        // Act & Assert
+        assertEquals(PartitionEventRecord.Action.SUPPRIMER,
+                fevrier.decider(Map.of("CONSUMED", 10L, "FAILED", 2L), LIMITE_CONSUMED, LIMITE_ECHECS));
+        assertEquals(PartitionEventRecord.Action.SUPPRIMER,
+                avril.decider(Map.of("CONSUMED", 10L), LIMITE_CONSUMED, LIMITE_ECHECS));
+        assertEquals(PartitionEventRecord.Action.SUPPRIMER,
+                avril.decider(Map.of(), LIMITE_CONSUMED, LIMITE_ECHECS));
+    }
+
+    @Test
+    void decider_echecsOuActifsRetenus_purgeDesSeulsConsumed() {
+        // Arrange
+        PartitionEventRecord avril = PartitionEventRecord.depuisNom("event_record_p2025_04");
+        PartitionEventRecord fevrier = PartitionEventRecord.depuisNom("event_record_p2025_02");
+
+        // Act & Assert
+        assertEquals(PartitionEventRecord.Action.PURGER_CONSUMED,
+                avril.decider(Map.of("CONSUMED", 10L, "PERMANENTLY_FAILED", 1L), LIMITE_CONSUMED, LIMITE_ECHECS));
+        assertEquals(PartitionEventRecord.Action.PURGER_CONSUMED,
+                fevrier.decider(Map.of("CONSUMED", 10L, "PENDING", 1L), LIMITE_CONSUMED, LIMITE_ECHECS));
+        assertEquals(PartitionEventRecord.Action.CONSERVER,
+                avril.decider(Map.of("FAILED", 3L), LIMITE_CONSUMED, LIMITE_ECHECS));
+    }
+}
@@ -0,0 +1,61 @@
+package com.ulr.paytogether.bff.eventdispatcher.stats;
+
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa;
+import com.ulr.paytogether.bff.eventdispatcher.repository.EventRecordRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests des statistiques agrégées de l'outbox
+ */
+class EventStatsServiceTest {
+
+    private final EventRecordRepository eventRecordRepository = mock(EventRecordRepository.class);
+    private final EventStatsService service = new EventStatsService(eventRecordRepository);
+
+    @Test
+    void calculerStatistiques_agregeStatutsTypesEtFenetres() {
+        // Arrange
+        when(eventRecordRepository.countGroupByEventTypeAndStatus()).thenReturn(List.of(
+                new Object[]{"DealUpdatedEvent", EventRecordJpa.EventStatus.CONSUMED, 90L},
+                new Object[]{"DealUpdatedEvent", EventRecordJpa.EventStatus.FAILED, 2L},
+                new Object[]{"PaymentMadeEvent", EventRecordJpa.EventStatus.CONSUMED, 10L},
+                new Object[]{"PaymentMadeEvent", EventRecordJpa.EventStatus.PENDING, 3L}));
+        when(eventRecordRepository.countOutcomesByWindow(any(), any(), any())).thenReturn(List.<Object[]>of(
+                new Object[]{10L, 1L, 2L, 50L, 2L, 5L, 105L, 2L, 8L}));
+
+        // Act
+        EventStatsDto stats = service.calculerStatistiques();
+
+        // Assert
+        assertEquals(100, stats.getConsumed());
+        assertEquals(2, stats.getFailed());
+        assertEquals(3, stats.getPending());
+        assertEquals(105, stats.getTotal());
+        assertEquals(2L, stats.getByType().get("DealUpdatedEvent").get("FAILED"));
+        assertEquals(0.1, stats.getFailureRates().get("1h").getFailureRate(), 1e-9);
+        assertEquals(0.1, stats.getFailureRates().get("24h").getRetryRate(), 1e-9);
+        assertEquals(105, stats.getFailureRates().get("7d").getTotal());
+        verify(eventRecordRepository, never()).countByStatus(any());
+    }
+
+    @Test
+    void calculerStatistiques_fenetreVide_tauxNuls() {
+        // Arrange : SUM(...) renvoie NULL quand aucun événement sur 7 jours
+        when(eventRecordRepository.countGroupByEventTypeAndStatus()).thenReturn(List.of());
+        when(eventRecordRepository.countOutcomesByWindow(any(), any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{null, null, null, null, null, null, 0L, null, null}));
+
+        // Act
+        EventStatsDto stats = service.calculerStatistiques();
+
+        // Assert
+        assertEquals(0, stats.getTotal());
+        assertEquals(0.0, stats.getFailureRates().get("7d").getFailureRate());
+    }
+}
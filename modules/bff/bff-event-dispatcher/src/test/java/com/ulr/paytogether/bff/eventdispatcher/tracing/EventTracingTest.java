@@ -0,0 +1,102 @@
+package com.ulr.paytogether.bff.eventdispatcher.tracing;
+
+import com.ulr.paytogether.bff.eventdispatcher.entity.EventRecordJpa;
+import io.micrometer.tracing.Link;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests de la propagation du contexte de trace à travers l'outbox
+ */
+class EventTracingTest {
+
+    private static final String TRACEPARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    private final Tracer tracer = mock(Tracer.class);
+    private final Propagator propagator = mock(Propagator.class);
+    private final EventTracing eventTracing = new EventTracing(tracer, propagator);
+
+    private EventRecordJpa evenement(String traceParent) {
+        return EventRecordJpa.builder()
+                .eventId(UUID.randomUUID())
+                .eventType("PaymentSuccessfulEvent")
+                .occurredOn(LocalDateTime.now())
+                .traceParent(traceParent)
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void contexteCourant_injecteLeTraceparentDuSpanCourant() {
+        // Arrange
+        Span courant = mock(Span.class);
+        when(tracer.currentSpan()).thenReturn(courant);
+        doAnswer(invocation -> {
+            Propagator.Setter<Map<String, String>> setter = invocation.getArgument(2);
+            setter.set(invocation.getArgument(1), EventTracing.TRACEPARENT, TRACEPARENT);
+            return null;
+        }).when(propagator).inject(any(), any(), any());
+
+        // Act
+        ContexteTrace contexte = eventTracing.contexteCourant();
+
+        // Assert
+        assertEquals(TRACEPARENT, contexte.traceParent());
+        assertNull(contexte.traceState());
+    }
+
+    @Test
+    void contexteCourant_horsTrace_aucunContexte() {
+        // Act & Assert
+        assertSame(ContexteTrace.AUCUN, eventTracing.contexteCourant());
+        verifyNoInteractions(propagator);
+    }
+
+    @Test
+    void demarrerConsommation_lienVersLaTraceDePublication() {
+        // Arrange
+        Span.Builder builder = mock(Span.Builder.class, RETURNS_SELF);
+        TraceContext.Builder contexteBuilder = mock(TraceContext.Builder.class, RETURNS_SELF);
+        TraceContext publication = mock(TraceContext.class);
+        when(tracer.spanBuilder()).thenReturn(builder);
+        when(tracer.traceContextBuilder()).thenReturn(contexteBuilder);
+        when(contexteBuilder.build()).thenReturn(publication);
+
+        // Act
+        eventTracing.demarrerConsommation(evenement(TRACEPARENT));
+
+        // Assert
+        verify(contexteBuilder).traceId("4bf92f3577b34da6a3ce929d0e0e4736");
+        verify(contexteBuilder).spanId("00f067aa0ba902b7");
+        verify(contexteBuilder).sampled(true);
+        verify(builder).kind(Span.Kind.CONSUMER);
+        verify(builder).addLink(argThat((Link link) -> link.getTraceContext() == publication));
+        verify(builder).start();
+    }
+
+    @Test
+    void demarrerConsommation_traceparentAbsentOuInvalide_aucunLien() {
+        // Arrange
+        Span.Builder builder = mock(Span.Builder.class, RETURNS_SELF);
+        when(tracer.spanBuilder()).thenReturn(builder);
+
+        // Act
+        eventTracing.demarrerConsommation(evenement(null));
+        eventTracing.demarrerConsommation(evenement("pas-un-traceparent"));
+
+        // Assert
+        verify(builder, never()).addLink(any());
+        verify(tracer, never()).traceContextBuilder();
+    }
+}
@@ -62,10 +62,25 @@ public @interface FunctionalHandler {
 
     /**
      * Nombre maximum de tentatives de traitement
+     * Avant épuisement, l'événement est rejoué automatiquement avec un backoff exponentiel
+     * (events.consumer.retry.*), puis passe en FAILED.
      * Par défaut : 3 tentatives
      */
     int maxAttempts() default 3;
 
+    /**
+     * Nombre maximum d'exécutions simultanées de ce handler (consommation parallèle).
+     * Par défaut : 0 → valeur de events.consumer.handler.max-concurrency (0 = illimité).
+     * Surchargeable sans recompilation : events.consumer.handler.max-concurrency.{Classe.methode}
+     */
+    int maxConcurrency() default 0;
+
+    /**
+     * Voie de priorité de l'événement consommé (events.lanes.{voie}.* : quota de claim, parallélisme, executor dédié).
+     * Par défaut : "" → voie de l'event type si configurée (events.lanes.{voie}.event-types), sinon voie "default".
+     * Si les handlers d'un même type déclarent des voies différentes, la plus prioritaire l'emporte.
+     */
+    String lane() default "";
 
     /**
      * Description du handler
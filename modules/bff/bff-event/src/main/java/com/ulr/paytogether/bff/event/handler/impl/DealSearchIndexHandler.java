@@ -34,7 +34,8 @@ public class DealSearchIndexHandler implements ConsumerHandler {
      */
     @FunctionalHandler(
         eventType = DealCreatedEvent.class,
-        description = "Indexe automatiquement un deal dans Elasticsearch lors de sa création"
+        description = "Indexe automatiquement un deal dans Elasticsearch lors de sa création",
+        lane = "bulk"
     )
     public void handleDealCreated(DealCreatedEvent event) {
         log.info("Indexation Elasticsearch du deal créé: {}", event.getDealUuid());
@@ -60,7 +61,8 @@ public class DealSearchIndexHandler implements ConsumerHandler {
      */
     @FunctionalHandler(
         eventType = DealUpdatedEvent.class,
-        description = "Met à jour l'index Elasticsearch lors de la modification d'un deal"
+        description = "Met à jour l'index Elasticsearch lors de la modification d'un deal",
+        lane = "bulk"
     )
     public void handleDealUpdated(DealUpdatedEvent event) {
         log.info("Mise à jour Elasticsearch du deal: {}", event.getDealUuid());
@@ -86,7 +88,8 @@ public class DealSearchIndexHandler implements ConsumerHandler {
      */
     @FunctionalHandler(
         eventType = DealCancelledEvent.class,
-        description = "Supprime le deal de l'index Elasticsearch lors de son annulation"
+        description = "Supprime le deal de l'index Elasticsearch lors de son annulation",
+        lane = "bulk"
     )
     public void handleDealCancelled(DealCancelledEvent event) {
         log.info("Suppression Elasticsearch du deal annulé: {}", event.getDealUuid());
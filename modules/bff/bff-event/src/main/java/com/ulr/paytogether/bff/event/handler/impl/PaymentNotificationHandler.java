@@ -50,6 +50,7 @@ public class PaymentNotificationHandler implements ConsumerHandler {
     @FunctionalHandler(
         eventType = PaymentNotificationEvent.class,
         maxAttempts = 5,
+        maxConcurrency = 4,
         description = "Envoie des notifications par email pour les paiements"
     )
     public void handlePaymentNotification(PaymentNotificationEvent event) {
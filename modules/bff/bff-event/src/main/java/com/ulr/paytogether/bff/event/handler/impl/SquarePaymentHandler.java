@@ -72,7 +72,8 @@ public class SquarePaymentHandler implements ConsumerHandler {
     @FunctionalHandler(
         eventType = PaymentInitiatedEvent.class,
         maxAttempts = 1,
-        description = "Traite les paiements Square initiés"
+        description = "Traite les paiements Square initiés",
+        lane = "payments"
     )
     public void handlePaymentInitiated(PaymentInitiatedEvent event) {
         log.info("Handling PaymentInitiatedEvent: utilisateur={}, commande={}, montant={}",
@@ -164,7 +165,8 @@ public class SquarePaymentHandler implements ConsumerHandler {
     @FunctionalHandler(
         eventType = PaymentSuccessfulEvent.class,
         maxAttempts = 1,
-        description = "Actions post-paiement Square réussi (pas de retry)"
+        description = "Actions post-paiement Square réussi (pas de retry)",
+        lane = "payments"
     )
     public void handlePaymentSuccessful(PaymentSuccessfulEvent event) {
         log.info("Handling PaymentSuccessfulEvent: paiement={}, montant={}, squarePaymentId={}",
@@ -231,7 +233,8 @@ public class SquarePaymentHandler implements ConsumerHandler {
     @FunctionalHandler(
         eventType = PaymentFailedEvent.class,
         maxAttempts = 1,
-        description = "Gestion des échecs de paiement Square et envoi d'email (pas de retry)"
+        description = "Gestion des échecs de paiement Square et envoi d'email (pas de retry)",
+        lane = "payments"
     )
     public void handlePaymentFailed(PaymentFailedEvent event) {
         log.info("Handling PaymentFailedEvent: paiement={}, montant={}, erreur={}",
@@ -56,6 +56,7 @@ public class CommentaireProviderAdapter implements CommentaireProvider {
         }
 
         CommentaireJpa sauvegarde = jpaRepository.save(entite);
+        dealRepository.ajusterAvis(sauvegarde.getDealJpa().getUuid(), 1, sauvegarde.getNote());
         return mapper.versModele(sauvegarde);
     }
 
@@ -66,8 +67,12 @@ public class CommentaireProviderAdapter implements CommentaireProvider {
     public CommentaireModele mettreAJour(UUID uuid, CommentaireModele commentaire) {
         return jpaRepository.findById(uuid)
                 .map(jpa -> {
+                    int ancienneNote = jpa.getNote();
                     mapper.mettreAJour(jpa, commentaire);
                     CommentaireJpa sauvegarde = jpaRepository.save(jpa);
+                    if (sauvegarde.getNote() != ancienneNote) {
+                        dealRepository.ajusterAvis(sauvegarde.getDealJpa().getUuid(), 0, sauvegarde.getNote() - ancienneNote);
+                    }
                     return mapper.versModele(sauvegarde);
                 })
                 .orElseThrow(() -> ResourceNotFoundException.parUuid("commentaire", uuid));
@@ -187,6 +192,9 @@ public class CommentaireProviderAdapter implements CommentaireProvider {
     @Transactional(rollbackFor = Exception.class)
     @Override
     public void supprimerParUuid(UUID uuid) {
-        jpaRepository.deleteById(uuid);
+        jpaRepository.findById(uuid).ifPresent(commentaire -> {
+            jpaRepository.delete(commentaire);
+            dealRepository.ajusterAvis(commentaire.getDealJpa().getUuid(), -1, -commentaire.getNote());
+        });
     }
 }
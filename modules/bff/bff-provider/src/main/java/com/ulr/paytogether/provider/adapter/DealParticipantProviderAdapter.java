@@ -62,6 +62,7 @@ public class DealParticipantProviderAdapter implements DealParticipantProvider {
 
         // Sauvegarder
         DealParticipantJpa sauvegarde = participantRepository.save(jpa);
+        dealRepository.ajusterParticipation(participation.getDealUuid(), 1, sauvegarde.getNombreDePart());
         log.info("Participant ajouté avec succès : deal={}, utilisateur={}, parts={}",
                 participation.getDealUuid(), participation.getUtilisateurUuid(), participation.getNombreDePart());
 
@@ -83,8 +84,10 @@ public class DealParticipantProviderAdapter implements DealParticipantProvider {
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Participation non trouvée pour le deal " + dealUuid + " et l'utilisateur " + utilisateurUuid));
 
+        int anciennesParts = participation.getNombreDePart();
         participation.setNombreDePart(nombreDePart);
         DealParticipantJpa sauvegarde = participantRepository.save(participation);
+        dealRepository.ajusterParticipation(dealUuid, 0, nombreDePart - anciennesParts);
 
         log.info("Nombre de parts mis à jour avec succès : deal={}, utilisateur={}, parts={}",
                 dealUuid, utilisateurUuid, nombreDePart);
@@ -156,15 +159,13 @@ public class DealParticipantProviderAdapter implements DealParticipantProvider {
     @Transactional(readOnly = true)
     public long compterParticipants(UUID dealUuid) {
         log.debug("Comptage des participants du deal {}", dealUuid);
-        return participantRepository.countByIdDealUuid(dealUuid);
+        return dealRepository.lireNombreParticipantsReels(dealUuid).orElse(0);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public long compterNombreParts(UUID dealUuid) {
-        return participantRepository.findByIdDealUuid(dealUuid)
-                .stream()
-                .mapToInt(DealParticipantJpa::getNombreDePart)
-                .sum();
+        return dealRepository.lirePartsAchetees(dealUuid).orElse(0);
     }
 
     @Override
@@ -177,6 +178,7 @@ public class DealParticipantProviderAdapter implements DealParticipantProvider {
                         "Participation non trouvée pour le deal " + dealUuid + " et l'utilisateur " + utilisateurUuid));
 
         participantRepository.delete(dealParticipantJpa);
+        dealRepository.ajusterParticipation(dealUuid, -1, -dealParticipantJpa.getNombreDePart());
         log.info("Participant supprimé avec succès : deal={}, utilisateur={}", dealUuid, utilisateurUuid);
     }
 
@@ -185,6 +187,7 @@ public class DealParticipantProviderAdapter implements DealParticipantProvider {
     public void supprimerTousLesParticipants(UUID dealUuid) {
         log.debug("Suppression de tous les participants du deal {}", dealUuid);
         participantRepository.deleteByIdDealUuid(dealUuid);
+        dealRepository.reinitialiserParticipation(dealUuid);
         log.info("Tous les participants du deal {} ont été supprimés", dealUuid);
     }
 }
@@ -2,13 +2,19 @@ package com.ulr.paytogether.provider.adapter;
 
 import com.ulr.paytogether.core.enumeration.StatutCommande;
 import com.ulr.paytogether.core.enumeration.StatutImage;
+import com.ulr.paytogether.core.modele.CurseurDealModele;
+import com.ulr.paytogether.core.modele.DealCarteModele;
 import com.ulr.paytogether.core.modele.DealModele;
+import com.ulr.paytogether.core.modele.FiltreDealModele;
 import com.ulr.paytogether.core.modele.ImageDealModele;
 import com.ulr.paytogether.core.modele.PageModele;
+import com.ulr.paytogether.core.modele.StatistiquesDealModele;
 import com.ulr.paytogether.core.provider.DealProvider;
 import com.ulr.paytogether.provider.adapter.entity.*;
 import com.ulr.paytogether.core.enumeration.StatutDeal;
 import com.ulr.paytogether.provider.adapter.mapper.DealJpaMapper;
+import com.ulr.paytogether.provider.adapter.projection.DealCardProjection;
+import com.ulr.paytogether.provider.adapter.projection.DealStatistiquesProjection;
 import com.ulr.paytogether.provider.repository.*;
 import com.ulr.paytogether.provider.utils.AsyncPresignedUrlService;
 import com.ulr.paytogether.provider.utils.FileManager;
@@ -152,7 +158,7 @@ public class DealProviderAdapter implements DealProvider {
     @Transactional(readOnly = true)
     @Override
     public Optional<DealModele> trouverParUuid(UUID uuid) {
-        return jpaRepository.findById(uuid)
+        return jpaRepository.findDetailByUuid(uuid)
                 .map(mapper::versModele);
     }
 
@@ -186,6 +192,93 @@ public class DealProviderAdapter implements DealProvider {
                 .build();
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public PageModele<DealModele> trouverParCurseur(FiltreDealModele filtre, CurseurDealModele curseur, int size) {
+        // size + 1 : la ligne en trop indique qu'une page suivante existe (pas de COUNT)
+        Pageable limite = PageRequest.of(0, size + 1);
+        List<DealJpa> lignes;
+        if (filtre.statut() != null) {
+            lignes = jpaRepository.findPageParStatutApres(filtre.statut(),
+                    curseur.favoris(), curseur.dateCreation(), curseur.uuid(), limite);
+        } else if (filtre.categorieUuid() != null) {
+            lignes = jpaRepository.findPageParCategorieApres(filtre.categorieUuid(),
+                    curseur.favoris(), curseur.dateCreation(), curseur.uuid(), limite);
+        } else if (filtre.createurUuid() != null) {
+            lignes = jpaRepository.findPageParCreateurApres(filtre.createurUuid(),
+                    curseur.favoris(), curseur.dateCreation(), curseur.uuid(), limite);
+        } else {
+            lignes = jpaRepository.findPageApres(curseur.favoris(), curseur.dateCreation(), curseur.uuid(), limite);
+        }
+
+        boolean pageSuivante = lignes.size() > size;
+        List<DealModele> content = lignes.stream()
+                .limit(size)
+                .map(mapper::versModele)
+                .collect(Collectors.toList());
+
+        return PageModele.<DealModele>builder()
+                .content(content)
+                .size(size)
+                .totalElements(-1)
+                .totalPages(-1)
+                .first(curseur.equals(CurseurDealModele.DEBUT))
+                .last(!pageSuivante)
+                .curseurSuivant(pageSuivante ? CurseurDealModele.apres(content.get(content.size() - 1)).encoder() : null)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public PageModele<DealCarteModele> trouverCartesParCurseur(FiltreDealModele filtre, CurseurDealModele curseur, int size) {
+        // Projection : aucune entité hydratée, size + 1 pour détecter la page suivante
+        Pageable limite = PageRequest.of(0, size + 1);
+        List<DealCardProjection> lignes;
+        if (filtre.statut() != null) {
+            lignes = jpaRepository.findCartesParStatutApres(filtre.statut(),
+                    curseur.favoris(), curseur.dateCreation(), curseur.uuid(), limite);
+        } else if (filtre.categorieUuid() != null) {
+            lignes = jpaRepository.findCartesParCategorieApres(filtre.categorieUuid(),
+                    curseur.favoris(), curseur.dateCreation(), curseur.uuid(), limite);
+        } else if (filtre.createurUuid() != null) {
+            lignes = jpaRepository.findCartesParCreateurApres(filtre.createurUuid(),
+                    curseur.favoris(), curseur.dateCreation(), curseur.uuid(), limite);
+        } else {
+            lignes = jpaRepository.findCartesApres(curseur.favoris(), curseur.dateCreation(), curseur.uuid(), limite);
+        }
+
+        boolean pageSuivante = lignes.size() > size;
+        List<DealCarteModele> content = lignes.stream()
+                .limit(size)
+                .map(DealCardProjection::versModele)
+                .collect(Collectors.toList());
+
+        return PageModele.<DealCarteModele>builder()
+                .content(content)
+                .size(size)
+                .totalElements(-1)
+                .totalPages(-1)
+                .first(curseur.equals(CurseurDealModele.DEBUT))
+                .last(!pageSuivante)
+                .curseurSuivant(pageSuivante ? CurseurDealModele.apres(content.get(content.size() - 1)).encoder() : null)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public long compter(FiltreDealModele filtre) {
+        if (filtre.statut() != null) {
+            return jpaRepository.countByStatut(filtre.statut());
+        }
+        if (filtre.categorieUuid() != null) {
+            return jpaRepository.countByCategorieJpaUuid(filtre.categorieUuid());
+        }
+        if (filtre.createurUuid() != null) {
+            return jpaRepository.countByMarchandJpaUuid(filtre.createurUuid());
+        }
+        return jpaRepository.count();
+    }
+
     @Transactional(readOnly = true)
     @Override
     public List<DealModele> trouverParStatut(StatutDeal statut) {
@@ -696,29 +789,12 @@ public class DealProviderAdapter implements DealProvider {
 
     @Transactional(readOnly = true)
     @Override
-    public Double calculerMoyenneCommentaires(UUID dealUuid) {
-        log.debug("Calcul de la moyenne des commentaires pour le deal: {}", dealUuid);
-        Double moyenne = commentaireRepository.calculerMoyenneNotesPourDeal(dealUuid);
-        return moyenne != null ? Math.round(moyenne * 10.0) / 10.0 : null; // Arrondi à 1 décimale
-    }
-
-    @Transactional(readOnly = true)
-    @Override
-    public Long compterParticipantsReels(UUID dealUuid) {
-        log.debug("Comptage des participants réels pour le deal: {}", dealUuid);
-        return jpaRepository.findById(dealUuid)
-                .map(deal -> (long) deal.getParticipants().size())
-                .orElse(0L);
-    }
-
-    @Transactional(readOnly = true)
-    @Override
-    public Long calculerNombrePartsAchetees(UUID dealUuid) {
-        log.debug("Calcul du nombre total de parts achetées pour le deal: {}", dealUuid);
-        return jpaRepository.findById(dealUuid)
-                .map(deal -> deal.getParticipants().stream()
-                        .mapToLong(participant -> participant.getNombreDePart() != null ? participant.getNombreDePart() : 0)
-                        .sum())
-                .orElse(0L);
+    public Map<UUID, StatistiquesDealModele> calculerStatistiques(Collection<UUID> dealUuids) {
+        if (dealUuids.isEmpty()) {
+            return Map.of();
+        }
+        log.debug("Calcul des statistiques de {} deal(s)", dealUuids.size());
+        return jpaRepository.calculerStatistiques(dealUuids).stream()
+                .collect(Collectors.toMap(DealStatistiquesProjection::uuid, DealStatistiquesProjection::versModele));
     }
 }
@@ -39,7 +39,6 @@ public class PaiementProviderAdapter implements PaiementProvider {
     private final CommandeRepository commandeRepository;
     private final DealRepository dealRepository;
     private final DealProvider dealProvider;
-    private final DealParticipantRepository dealParticipantRepository;
     private final AdresseRepository adresseRepository;
     private final AdresseJpaMapper adresseJpaMapper;
     private final CommandeUtilisateurRepository  commandeUtilisateurRepository;
@@ -59,7 +58,8 @@ public class PaiementProviderAdapter implements PaiementProvider {
             throw new IllegalArgumentException(("Utilisateur avec UUID " + paiement.getUtilisateur().getUuid() + " est déjà participant du deal " + dealJpa.getUuid()));
         }
 
-        int nbParticipants = dealParticipantRepository.findByIdDealUuid(dealJpa.getUuid()).stream().map(DealParticipantJpa::getNombreDePart).reduce(0, Integer::sum);
+        // Compteur dénormalisé (deal.parts_achetees) : pas de chargement des participations
+        int nbParticipants = dealRepository.lirePartsAchetees(dealJpa.getUuid()).orElse(0);
         if (nbParticipants >= dealJpa.getNbParticipants()) {
             throw new IllegalStateException("Le deal " + dealJpa.getUuid() + " a déjà atteint le nombre maximum de participants (" + dealJpa.getNbParticipants() + ").");
         }
@@ -164,6 +164,7 @@ public class PaiementProviderAdapter implements PaiementProvider {
     }
 
     @Override
+    @Transactional
     public PaiementModele mettreAJourStatutCommandeDeal(UUID paiementUuid, String statut, int nombreDePart) {
         PaiementJpa paiementJpa = jpaRepository.findById(paiementUuid)
                 .orElseThrow(() -> new RuntimeException("Paiement non trouvé pour l'UUID : " + paiementUuid));
@@ -185,6 +186,7 @@ public class PaiementProviderAdapter implements PaiementProvider {
                         .nombreDePart(nombreDePart) // Par défaut 1 part si non spécifié
                         .build();
                 dealJpa.getParticipants().add(participation);
+                dealRepository.ajusterParticipation(dealJpa.getUuid(), 1, nombreDePart);
             }
 
             var dealComplete = dealJpa.getNbParticipants() == dealJpa.getParticipants().size();
@@ -58,7 +58,6 @@ public class UtilisateurProviderAdapter implements UtilisateurProvider {
     private final DealRepository dealRepository;
     private final CommandeRepository commandeRepository;
     private final CommandeUtilisateurRepository commandeUtilisateurRepository;
-    private final CommentaireRepository commentaireRepository;
     private final PaiementProvider paiementProvider;
     private final DealParticipantProvider dealParticipantProvider;
 
@@ -416,14 +415,9 @@ public class UtilisateurProviderAdapter implements UtilisateurProvider {
                 .map(CommandeJpa::getStatut)
                 .orElse(null);
         
-        // Calculer la moyenne des commentaires
-        Double moyenneCommentaires = commentaireRepository.findByDealJpa(deal)
-                .stream()
-                .map(CommentaireJpa::getNote)
-                .filter(note -> note != null && note > 0)
-                .mapToInt(Integer::intValue)
-                .average()
-                .orElse(0.0);
+        // Moyenne des commentaires : compteurs dénormalisés du deal (nb_avis, somme_notes)
+        Double moyenneNotes = deal.moyenneNotes();
+        Double moyenneCommentaires = moyenneNotes != null ? moyenneNotes : 0.0;
         
         // Récupérer l'image principale
         String imageUrl = deal.getImageDealJpas() != null 
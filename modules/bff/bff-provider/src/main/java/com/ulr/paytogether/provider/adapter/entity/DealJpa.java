@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -19,12 +20,43 @@ import java.util.*;
  */
 @Entity
 @Table(name = "deal")
+@NamedEntityGraph(
+        name = DealJpa.GRAPHE_LISTE,
+        attributeNodes = {
+                @NamedAttributeNode(value = "marchandJpa", subgraph = "marchand"),
+                @NamedAttributeNode("categorieJpa")
+        },
+        subgraphs = @NamedSubgraph(name = "marchand", attributeNodes = @NamedAttributeNode("photoProfil")))
+@NamedEntityGraph(
+        name = DealJpa.GRAPHE_DETAIL,
+        attributeNodes = {
+                @NamedAttributeNode(value = "marchandJpa", subgraph = "marchand"),
+                @NamedAttributeNode("categorieJpa"),
+                @NamedAttributeNode("imageDealJpas")
+        },
+        subgraphs = @NamedSubgraph(name = "marchand", attributeNodes = @NamedAttributeNode("photoProfil")))
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class DealJpa {
 
+    /**
+     * Graphe des listes : marchand (avec photo) et catégorie en jointure.
+     * Pas de collection : un fetch join de collection empêche la pagination en base (LIMIT en mémoire)
+     */
+    public static final String GRAPHE_LISTE = "Deal.liste";
+
+    /**
+     * Graphe du détail : graphe des listes + images (un seul "bag" joint, les points forts restent à part)
+     */
+    public static final String GRAPHE_DETAIL = "Deal.detail";
+
+    /**
+     * Taille des lots de chargement des collections (images, points forts) : une requête IN par page
+     */
+    static final int TAILLE_LOT_CHARGEMENT = 100;
+
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private UUID uuid;
@@ -72,6 +104,7 @@ public class DealJpa {
 
     @OneToMany(mappedBy = "dealJpa", cascade = CascadeType.ALL,
             orphanRemoval = true, fetch = FetchType.LAZY)
+    @BatchSize(size = TAILLE_LOT_CHARGEMENT)
     @Builder.Default
     private List<ImageDealJpa> imageDealJpas = new ArrayList<>();
 
@@ -86,6 +119,7 @@ public class DealJpa {
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "deal_points_forts", joinColumns = @JoinColumn(name = "deal_uuid"))
     @Column(name = "point_fort")
+    @BatchSize(size = TAILLE_LOT_CHARGEMENT)
     @Builder.Default
     private List<String> listePointsForts = new ArrayList<>();
 
@@ -102,6 +136,25 @@ public class DealJpa {
     @Builder.Default
     private Boolean favoris = false;
 
+    // Compteurs dénormalisés : modifiés uniquement par UPDATE relatifs (DealRepository.ajuster*),
+    // jamais écrits par l'entité (un save() concurrent ne peut pas écraser un incrément).
+    // columnDefinition : DEFAULT 0 aussi quand la colonne est créée par ddl-auto (V22 sinon)
+    @Column(name = "parts_achetees", insertable = false, updatable = false,
+            columnDefinition = "INTEGER NOT NULL DEFAULT 0")
+    private Integer partsAchetees;
+
+    @Column(name = "nb_participants_reels", insertable = false, updatable = false,
+            columnDefinition = "INTEGER NOT NULL DEFAULT 0")
+    private Integer nbParticipantsReels;
+
+    @Column(name = "nb_avis", insertable = false, updatable = false,
+            columnDefinition = "INTEGER NOT NULL DEFAULT 0")
+    private Integer nbAvis;
+
+    @Column(name = "somme_notes", insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long sommeNotes;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime dateCreation;
@@ -109,4 +162,18 @@ public class DealJpa {
     @UpdateTimestamp
     @Column(nullable = false)
     private LocalDateTime dateModification;
+
+    /**
+     * Moyenne des notes à partir des compteurs, arrondie à 1 décimale (null si aucun avis)
+     */
+    public Double moyenneNotes() {
+        return moyenneNotes(nbAvis, sommeNotes);
+    }
+
+    public static Double moyenneNotes(Number nbAvis, Number sommeNotes) {
+        if (nbAvis == null || sommeNotes == null || nbAvis.longValue() <= 0) {
+            return null;
+        }
+        return Math.round(sommeNotes.doubleValue() / nbAvis.longValue() * 10.0) / 10.0;
+    }
 }
@@ -0,0 +1,45 @@
+package com.ulr.paytogether.provider.adapter.projection;
+
+import com.ulr.paytogether.core.enumeration.StatutDeal;
+import com.ulr.paytogether.core.modele.DealCarteModele;
+import com.ulr.paytogether.provider.adapter.entity.DealJpa;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection "carte" d'un deal, construite directement par la requête JPQL (SELECT new ...) :
+ * aucune entité chargée, rien dans le contexte de persistance, pas de dirty-checking.
+ * Colonnes lues : champs de la carte, image principale (jointure) et compteurs dénormalisés (V22).
+ */
+public record DealCardProjection(UUID uuid,
+                                 String titre,
+                                 BigDecimal prixPart,
+                                 BigDecimal prixPartNonReel,
+                                 Integer nbParticipants,
+                                 LocalDateTime dateFin,
+                                 StatutDeal statut,
+                                 String ville,
+                                 String pays,
+                                 Boolean favoris,
+                                 LocalDateTime dateCreation,
+                                 UUID createurUuid,
+                                 UUID categorieUuid,
+                                 String categorieNom,
+                                 UUID imagePrincipaleUuid,
+                                 String imagePrincipaleCle,
+                                 Integer nbParticipantsReels,
+                                 Integer partsAchetees,
+                                 Integer nbAvis,
+                                 Long sommeNotes) {
+
+    public DealCarteModele versModele() {
+        return new DealCarteModele(uuid, titre, prixPart, prixPartNonReel, nbParticipants, dateFin, statut,
+                ville, pays, favoris, dateCreation, createurUuid, categorieUuid, categorieNom,
+                imagePrincipaleUuid, imagePrincipaleCle,
+                DealJpa.moyenneNotes(nbAvis, sommeNotes),
+                nbParticipantsReels != null ? nbParticipantsReels.longValue() : 0L,
+                partsAchetees != null ? partsAchetees.longValue() : 0L);
+    }
+}
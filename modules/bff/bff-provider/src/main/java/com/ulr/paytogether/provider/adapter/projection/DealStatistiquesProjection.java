@@ -0,0 +1,24 @@
+package com.ulr.paytogether.provider.adapter.projection;
+
+import com.ulr.paytogether.core.modele.StatistiquesDealModele;
+import com.ulr.paytogether.provider.adapter.entity.DealJpa;
+
+import java.util.UUID;
+
+/**
+ * Projection des statistiques d'un deal, construite par la requête JPQL (SELECT new ...) :
+ * compteurs dénormalisés de la ligne deal (V22), typés par Hibernate quel que soit le SGBD.
+ */
+public record DealStatistiquesProjection(UUID uuid,
+                                         Integer nbAvis,
+                                         Long sommeNotes,
+                                         Integer nbParticipantsReels,
+                                         Integer partsAchetees) {
+
+    public StatistiquesDealModele versModele() {
+        return new StatistiquesDealModele(
+                DealJpa.moyenneNotes(nbAvis, sommeNotes),
+                nbParticipantsReels != null ? nbParticipantsReels.longValue() : 0L,
+                partsAchetees != null ? partsAchetees.longValue() : 0L);
+    }
+}
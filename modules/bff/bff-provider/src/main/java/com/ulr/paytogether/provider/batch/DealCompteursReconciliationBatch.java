@@ -0,0 +1,77 @@
+package com.ulr.paytogether.provider.batch;
+
+import com.ulr.paytogether.provider.repository.DealRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Batch de réconciliation des compteurs dénormalisés du deal
+ * (parts_achetees, nb_participants_reels, nb_avis, somme_notes).
+ *
+ * Les compteurs sont maintenus par UPDATE relatifs dans les adaptateurs ; une écriture hors
+ * adaptateur (SQL manuel, suppression en cascade, bug) peut les faire dériver. Ce batch les recalcule
+ * depuis deal_participants et commentaire, par lots, et ne réécrit que les lignes fausses.
+ *
+ * ✅ Une transaction par lot : lignes deal verrouillées (FOR UPDATE) AVANT le recalcul, donc une
+ *    participation ou un commentaire concurrent est soit compté dans le recalcul, soit ajusté après
+ *    → aucun incrément perdu
+ */
+@Slf4j
+@Component
+public class DealCompteursReconciliationBatch {
+
+    private static final UUID UUID_MIN = new UUID(0L, 0L);
+
+    private final DealRepository dealRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int tailleLot;
+
+    public DealCompteursReconciliationBatch(DealRepository dealRepository,
+                                            PlatformTransactionManager transactionManager,
+                                            @Value("${deal.compteurs.reconciliation.batch-size:500}") int tailleLot) {
+        this.dealRepository = dealRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tailleLot = tailleLot;
+    }
+
+    /**
+     * Recalcule les compteurs de tous les deals, lot par lot (pagination par clé sur uuid)
+     * @return nombre de deals corrigés
+     */
+    @Scheduled(cron = "${deal.compteurs.reconciliation.cron:0 15 4 * * *}") // Par défaut, tous les jours à 4h15
+    public int reconcilierCompteurs() {
+        log.debug("⏱️ [DealCompteursReconciliationBatch] Réconciliation des compteurs des deals...");
+
+        int corriges = 0;
+        UUID apres = UUID_MIN;
+        List<UUID> lot;
+        do {
+            lot = dealRepository.findUuidsApres(apres, PageRequest.of(0, tailleLot));
+            if (lot.isEmpty()) {
+                break;
+            }
+            List<UUID> uuids = lot;
+            Integer corrigesLot = transactionTemplate.execute(status -> {
+                dealRepository.verrouillerPourReconciliation(uuids);
+                return dealRepository.reconcilierCompteurs(uuids);
+            });
+            corriges += corrigesLot != null ? corrigesLot : 0;
+            apres = lot.get(lot.size() - 1);
+        } while (lot.size() == tailleLot);
+
+        if (corriges > 0) {
+            log.warn("⚠️ [DealCompteursReconciliationBatch] {} deal(s) avaient des compteurs faux, corrigés", corriges);
+        } else {
+            log.debug("✅ [DealCompteursReconciliationBatch] Compteurs cohérents");
+        }
+        return corriges;
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -44,6 +45,7 @@ public class DealExpirationBatch {
         List<DealModele> dealsPublies = dealService.lireParStatut(StatutDeal.PUBLIE);
         LocalDateTime maintenant = LocalDateTime.now();
         int nombreDealsExpires = 0;
+        List<DealCancelledEvent> evenements = new ArrayList<>();
 
         for (DealModele deal : dealsPublies) {
             if (deal.getDateExpiration() != null && deal.getDateExpiration().isBefore(maintenant)) {
@@ -64,10 +66,13 @@ public class DealExpirationBatch {
                         .raisonAnnulation("Expiration automatique du deal")
                         .build();
 
-                eventPublisher.publishAsync(dealAnnuleEvent);
+                evenements.add(dealAnnuleEvent);
             }
         }
 
+        // Publier les événements d'annulation en un seul batch
+        eventPublisher.publishAll(evenements);
+
         if (nombreDealsExpires > 0) {
             log.info("✅ [DealExpirationBatch] {} deal(s) expirés mis à jour", nombreDealsExpires);
         } else {
@@ -4,15 +4,23 @@ import com.ulr.paytogether.provider.adapter.entity.CategorieJpa;
 import com.ulr.paytogether.provider.adapter.entity.DealJpa;
 import com.ulr.paytogether.core.enumeration.StatutDeal;
 import com.ulr.paytogether.provider.adapter.entity.UtilisateurJpa;
+import com.ulr.paytogether.provider.adapter.projection.DealCardProjection;
+import com.ulr.paytogether.provider.adapter.projection.DealStatistiquesProjection;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -21,12 +29,38 @@ import java.util.UUID;
 @Repository
 public interface DealRepository extends JpaRepository<DealJpa, UUID> {
 
+    /*
+     * Plans de chargement (N+1) : les listes utilisent le graphe Deal.liste (marchand + photo,
+     * catégorie en jointure), le détail le graphe Deal.detail (+ images). Les collections restantes
+     * (images en liste, points forts) sont chargées par lots (@BatchSize sur DealJpa) : nombre de
+     * requêtes constant quelle que soit la taille de la page.
+     * LOAD : les attributs hors graphe gardent leur mode de chargement déclaré.
+     */
+
+    /**
+     * Recherche tous les deals avec pagination
+     * @param pageable paramètres de pagination
+     * @return page de deals
+     */
+    @Override
+    @EntityGraph(value = DealJpa.GRAPHE_LISTE, type = EntityGraph.EntityGraphType.LOAD)
+    Page<DealJpa> findAll(Pageable pageable);
+
+    /**
+     * Recherche un deal avec ses images (vue détail)
+     * @param uuid l'UUID du deal
+     * @return le deal
+     */
+    @EntityGraph(value = DealJpa.GRAPHE_DETAIL, type = EntityGraph.EntityGraphType.LOAD)
+    Optional<DealJpa> findDetailByUuid(UUID uuid);
+
     /**
      * Recherche tous les deals par statut
      * Tri : favoris en premier (DESC), puis par date de création (DESC)
      * @param statut le statut du deal
      * @return la liste des deals triée (favoris en premier)
      */
+    @EntityGraph(value = DealJpa.GRAPHE_LISTE, type = EntityGraph.EntityGraphType.LOAD)
     List<DealJpa> findByStatutOrderByFavorisDescDateCreationDesc(StatutDeal statut);
 
     /**
@@ -35,6 +69,7 @@ public interface DealRepository extends JpaRepository<DealJpa, UUID> {
      * @param pageable paramètres de pagination
      * @return page de deals
      */
+    @EntityGraph(value = DealJpa.GRAPHE_LISTE, type = EntityGraph.EntityGraphType.LOAD)
     Page<DealJpa> findByStatut(StatutDeal statut, Pageable pageable);
 
     /**
@@ -42,6 +77,7 @@ public interface DealRepository extends JpaRepository<DealJpa, UUID> {
      * Tri : favoris en premier (DESC), puis par date de création (DESC)
      * @return la liste de tous les deals triée (favoris en premier)
      */
+    @EntityGraph(value = DealJpa.GRAPHE_LISTE, type = EntityGraph.EntityGraphType.LOAD)
     List<DealJpa> findAllByOrderByFavorisDescDateCreationDesc();
 
     /**
@@ -49,6 +85,7 @@ public interface DealRepository extends JpaRepository<DealJpa, UUID> {
      * @param utilisateurJpa le créateur
      * @return la liste des deals
      */
+    @EntityGraph(value = DealJpa.GRAPHE_LISTE, type = EntityGraph.EntityGraphType.LOAD)
     List<DealJpa> findByMarchandJpa(UtilisateurJpa utilisateurJpa);
 
     /**
@@ -57,6 +94,7 @@ public interface DealRepository extends JpaRepository<DealJpa, UUID> {
      * @param pageable paramètres de pagination
      * @return page de deals
      */
+    @EntityGraph(value = DealJpa.GRAPHE_LISTE, type = EntityGraph.EntityGraphType.LOAD)
     Page<DealJpa> findByMarchandJpa(UtilisateurJpa utilisateurJpa, Pageable pageable);
 
     /**
@@ -64,6 +102,7 @@ public interface DealRepository extends JpaRepository<DealJpa, UUID> {
      * @param categorieJpa la catégorie
      * @return la liste des deals
      */
+    @EntityGraph(value = DealJpa.GRAPHE_LISTE, type = EntityGraph.EntityGraphType.LOAD)
     List<DealJpa> findByCategorieJpa(CategorieJpa categorieJpa);
 
     /**
@@ -72,8 +111,184 @@ public interface DealRepository extends JpaRepository<DealJpa, UUID> {
      * @param pageable paramètres de pagination
      * @return page de deals
      */
+    @EntityGraph(value = DealJpa.GRAPHE_LISTE, type = EntityGraph.EntityGraphType.LOAD)
     Page<DealJpa> findByCategorieJpa(CategorieJpa categorieJpa, Pageable pageable);
 
+    /*
+     * Pagination par clé (keyset) : deals strictement après le curseur dans l'ordre
+     * (favoris DESC, dateCreation DESC, uuid DESC). La comparaison de tuples suit exactement
+     * l'ordre des index idx_deal_*_favoris_date_creation_uuid (V23) : coût constant quelle que soit
+     * la profondeur de la page, pas de COUNT(*).
+     * limite = PageRequest.of(0, size + 1) : la ligne en trop indique qu'une page suivante existe.
+     * Graphe Deal.liste : marchand et catégorie chargés dans la même requête.
+     */
+
+    /**
+     * Page de tous les deals après le curseur
+     */
+    @EntityGraph(value = DealJpa.GRAPHE_LISTE, type = EntityGraph.EntityGraphType.LOAD)
+    @Query("""
+            SELECT d FROM DealJpa d
+             WHERE (d.favoris, d.dateCreation, d.uuid) < (:favoris, :dateCreation, :uuid)
+             ORDER BY d.favoris DESC, d.dateCreation DESC, d.uuid DESC
+            """)
+    List<DealJpa> findPageApres(@Param("favoris") boolean favoris,
+                                @Param("dateCreation") LocalDateTime dateCreation,
+                                @Param("uuid") UUID uuid,
+                                Pageable limite);
+
+    /**
+     * Page des deals d'un statut après le curseur
+     */
+    @EntityGraph(value = DealJpa.GRAPHE_LISTE, type = EntityGraph.EntityGraphType.LOAD)
+    @Query("""
+            SELECT d FROM DealJpa d
+             WHERE d.statut = :statut
+               AND (d.favoris, d.dateCreation, d.uuid) < (:favoris, :dateCreation, :uuid)
+             ORDER BY d.favoris DESC, d.dateCreation DESC, d.uuid DESC
+            """)
+    List<DealJpa> findPageParStatutApres(@Param("statut") StatutDeal statut,
+                                         @Param("favoris") boolean favoris,
+                                         @Param("dateCreation") LocalDateTime dateCreation,
+                                         @Param("uuid") UUID uuid,
+                                         Pageable limite);
+
+    /**
+     * Page des deals d'une catégorie après le curseur
+     */
+    @EntityGraph(value = DealJpa.GRAPHE_LISTE, type = EntityGraph.EntityGraphType.LOAD)
+    @Query("""
+            SELECT d FROM DealJpa d
+             WHERE d.categorieJpa.uuid = :categorieUuid
+               AND (d.favoris, d.dateCreation, d.uuid) < (:favoris, :dateCreation, :uuid)
+             ORDER BY d.favoris DESC, d.dateCreation DESC, d.uuid DESC
+            """)
+    List<DealJpa> findPageParCategorieApres(@Param("categorieUuid") UUID categorieUuid,
+                                            @Param("favoris") boolean favoris,
+                                            @Param("dateCreation") LocalDateTime dateCreation,
+                                            @Param("uuid") UUID uuid,
+                                            Pageable limite);
+
+    /**
+     * Page des deals d'un créateur après le curseur
+     */
+    @EntityGraph(value = DealJpa.GRAPHE_LISTE, type = EntityGraph.EntityGraphType.LOAD)
+    @Query("""
+            SELECT d FROM DealJpa d
+             WHERE d.marchandJpa.uuid = :createurUuid
+               AND (d.favoris, d.dateCreation, d.uuid) < (:favoris, :dateCreation, :uuid)
+             ORDER BY d.favoris DESC, d.dateCreation DESC, d.uuid DESC
+            """)
+    List<DealJpa> findPageParCreateurApres(@Param("createurUuid") UUID createurUuid,
+                                           @Param("favoris") boolean favoris,
+                                           @Param("dateCreation") LocalDateTime dateCreation,
+                                           @Param("uuid") UUID uuid,
+                                           Pageable limite);
+
+    /*
+     * Vue carte (listes) : projections DealCardProjection, mêmes curseur, tri et index que findPage*Apres.
+     * Une seule requête par page : champs de la carte, image principale et compteurs dénormalisés.
+     * Pas de description, points forts, commentaires ni participants.
+     * Image principale : une seule ligne par deal même si plusieurs images sont marquées principales
+     * (NOT EXISTS corrélé → celle de plus petit uuid), sinon la carte serait dupliquée dans la page.
+     */
+
+    /**
+     * Cartes de tous les deals après le curseur
+     */
+    @Query("""
+            SELECT new com.ulr.paytogether.provider.adapter.projection.DealCardProjection(
+                   d.uuid, d.titre, d.prixPart, d.prixPartNonReel, d.nbParticipants, d.dateFin, d.statut,
+                   d.ville, d.pays, d.favoris, d.dateCreation, d.marchandJpa.uuid, c.uuid, c.nom,
+                   i.uuid, i.urlImage, d.nbParticipantsReels, d.partsAchetees, d.nbAvis, d.sommeNotes)
+              FROM DealJpa d
+              JOIN d.categorieJpa c
+              LEFT JOIN d.imageDealJpas i ON i.isPrincipal = true
+                   AND NOT EXISTS (SELECT 1 FROM ImageDealJpa autre
+                                    WHERE autre.dealJpa = d AND autre.isPrincipal = true AND autre.uuid < i.uuid)
+             WHERE (d.favoris, d.dateCreation, d.uuid) < (:favoris, :dateCreation, :uuid)
+             ORDER BY d.favoris DESC, d.dateCreation DESC, d.uuid DESC
+            """)
+    List<DealCardProjection> findCartesApres(@Param("favoris") boolean favoris,
+                                             @Param("dateCreation") LocalDateTime dateCreation,
+                                             @Param("uuid") UUID uuid,
+                                             Pageable limite);
+
+    /**
+     * Cartes des deals d'un statut après le curseur
+     */
+    @Query("""
+            SELECT new com.ulr.paytogether.provider.adapter.projection.DealCardProjection(
+                   d.uuid, d.titre, d.prixPart, d.prixPartNonReel, d.nbParticipants, d.dateFin, d.statut,
+                   d.ville, d.pays, d.favoris, d.dateCreation, d.marchandJpa.uuid, c.uuid, c.nom,
+                   i.uuid, i.urlImage, d.nbParticipantsReels, d.partsAchetees, d.nbAvis, d.sommeNotes)
+              FROM DealJpa d
+              JOIN d.categorieJpa c
+              LEFT JOIN d.imageDealJpas i ON i.isPrincipal = true
+                   AND NOT EXISTS (SELECT 1 FROM ImageDealJpa autre
+                                    WHERE autre.dealJpa = d AND autre.isPrincipal = true AND autre.uuid < i.uuid)
+             WHERE d.statut = :statut
+               AND (d.favoris, d.dateCreation, d.uuid) < (:favoris, :dateCreation, :uuid)
+             ORDER BY d.favoris DESC, d.dateCreation DESC, d.uuid DESC
+            """)
+    List<DealCardProjection> findCartesParStatutApres(@Param("statut") StatutDeal statut,
+                                                      @Param("favoris") boolean favoris,
+                                                      @Param("dateCreation") LocalDateTime dateCreation,
+                                                      @Param("uuid") UUID uuid,
+                                                      Pageable limite);
+
+    /**
+     * Cartes des deals d'une catégorie après le curseur
+     */
+    @Query("""
+            SELECT new com.ulr.paytogether.provider.adapter.projection.DealCardProjection(
+                   d.uuid, d.titre, d.prixPart, d.prixPartNonReel, d.nbParticipants, d.dateFin, d.statut,
+                   d.ville, d.pays, d.favoris, d.dateCreation, d.marchandJpa.uuid, c.uuid, c.nom,
+                   i.uuid, i.urlImage, d.nbParticipantsReels, d.partsAchetees, d.nbAvis, d.sommeNotes)
+              FROM DealJpa d
+              JOIN d.categorieJpa c
+              LEFT JOIN d.imageDealJpas i ON i.isPrincipal = true
+                   AND NOT EXISTS (SELECT 1 FROM ImageDealJpa autre
+                                    WHERE autre.dealJpa = d AND autre.isPrincipal = true AND autre.uuid < i.uuid)
+             WHERE d.categorieJpa.uuid = :categorieUuid
+               AND (d.favoris, d.dateCreation, d.uuid) < (:favoris, :dateCreation, :uuid)
+             ORDER BY d.favoris DESC, d.dateCreation DESC, d.uuid DESC
+            """)
+    List<DealCardProjection> findCartesParCategorieApres(@Param("categorieUuid") UUID categorieUuid,
+                                                         @Param("favoris") boolean favoris,
+                                                         @Param("dateCreation") LocalDateTime dateCreation,
+                                                         @Param("uuid") UUID uuid,
+                                                         Pageable limite);
+
+    /**
+     * Cartes des deals d'un créateur après le curseur
+     */
+    @Query("""
+            SELECT new com.ulr.paytogether.provider.adapter.projection.DealCardProjection(
+                   d.uuid, d.titre, d.prixPart, d.prixPartNonReel, d.nbParticipants, d.dateFin, d.statut,
+                   d.ville, d.pays, d.favoris, d.dateCreation, d.marchandJpa.uuid, c.uuid, c.nom,
+                   i.uuid, i.urlImage, d.nbParticipantsReels, d.partsAchetees, d.nbAvis, d.sommeNotes)
+              FROM DealJpa d
+              JOIN d.categorieJpa c
+              LEFT JOIN d.imageDealJpas i ON i.isPrincipal = true
+                   AND NOT EXISTS (SELECT 1 FROM ImageDealJpa autre
+                                    WHERE autre.dealJpa = d AND autre.isPrincipal = true AND autre.uuid < i.uuid)
+             WHERE d.marchandJpa.uuid = :createurUuid
+               AND (d.favoris, d.dateCreation, d.uuid) < (:favoris, :dateCreation, :uuid)
+             ORDER BY d.favoris DESC, d.dateCreation DESC, d.uuid DESC
+            """)
+    List<DealCardProjection> findCartesParCreateurApres(@Param("createurUuid") UUID createurUuid,
+                                                        @Param("favoris") boolean favoris,
+                                                        @Param("dateCreation") LocalDateTime dateCreation,
+                                                        @Param("uuid") UUID uuid,
+                                                        Pageable limite);
+
+    long countByStatut(StatutDeal statut);
+
+    long countByCategorieJpaUuid(UUID categorieUuid);
+
+    long countByMarchandJpaUuid(UUID createurUuid);
+
     /**
      * Supprime tous les points forts d'un deal
      * @param deal_uuid l'UUID du deal
@@ -81,4 +296,103 @@ public interface DealRepository extends JpaRepository<DealJpa, UUID> {
     @Modifying
     @Query(value = "DELETE FROM public.deal WHERE uuid = :deal_uuid", nativeQuery = true)
     void deleteDeal(@Param("deal_uuid") UUID deal_uuid);
+
+    /**
+     * Statistiques d'une page de deals lues dans les compteurs dénormalisés de la ligne deal
+     * (aucune agrégation sur commentaire / deal_participants)
+     * @param dealUuids UUIDs des deals de la page
+     * @return une projection par deal trouvé
+     */
+    @Query("""
+            SELECT new com.ulr.paytogether.provider.adapter.projection.DealStatistiquesProjection(
+                   d.uuid, d.nbAvis, d.sommeNotes, d.nbParticipantsReels, d.partsAchetees)
+              FROM DealJpa d
+             WHERE d.uuid IN :dealUuids
+            """)
+    List<DealStatistiquesProjection> calculerStatistiques(@Param("dealUuids") Collection<UUID> dealUuids);
+
+    /**
+     * Total des parts achetées d'un deal (compteur dénormalisé)
+     */
+    @Query(value = "SELECT parts_achetees FROM deal WHERE uuid = :dealUuid", nativeQuery = true)
+    Optional<Integer> lirePartsAchetees(@Param("dealUuid") UUID dealUuid);
+
+    /**
+     * Nombre de participants d'un deal (compteur dénormalisé)
+     */
+    @Query(value = "SELECT nb_participants_reels FROM deal WHERE uuid = :dealUuid", nativeQuery = true)
+    Optional<Integer> lireNombreParticipantsReels(@Param("dealUuid") UUID dealUuid);
+
+    /**
+     * Ajuste les compteurs de participation (UPDATE relatif : sûr face aux écritures concurrentes).
+     * À appeler dans la transaction qui ajoute / modifie / supprime la participation.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE deal
+               SET nb_participants_reels = nb_participants_reels + :deltaParticipants,
+                   parts_achetees = parts_achetees + :deltaParts
+             WHERE uuid = :dealUuid
+            """, nativeQuery = true)
+    int ajusterParticipation(@Param("dealUuid") UUID dealUuid,
+                             @Param("deltaParticipants") int deltaParticipants,
+                             @Param("deltaParts") int deltaParts);
+
+    /**
+     * Remet à zéro les compteurs de participation (suppression de tous les participants)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE deal SET nb_participants_reels = 0, parts_achetees = 0 WHERE uuid = :dealUuid",
+            nativeQuery = true)
+    int reinitialiserParticipation(@Param("dealUuid") UUID dealUuid);
+
+    /**
+     * Ajuste les compteurs d'avis (UPDATE relatif).
+     * À appeler dans la transaction qui ajoute / modifie / supprime le commentaire.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE deal
+               SET nb_avis = nb_avis + :deltaAvis,
+                   somme_notes = somme_notes + :deltaNotes
+             WHERE uuid = :dealUuid
+            """, nativeQuery = true)
+    int ajusterAvis(@Param("dealUuid") UUID dealUuid,
+                    @Param("deltaAvis") int deltaAvis,
+                    @Param("deltaNotes") long deltaNotes);
+
+    /**
+     * Lot de deals pour la réconciliation des compteurs (pagination par clé sur uuid)
+     */
+    @Query("SELECT d.uuid FROM DealJpa d WHERE d.uuid > :apres ORDER BY d.uuid")
+    List<UUID> findUuidsApres(@Param("apres") UUID apres, Pageable limite);
+
+    /**
+     * Verrouille les lignes deal d'un lot avant recalcul : les transactions qui ajustent
+     * un compteur attendent la fin de la réconciliation (et inversement), aucun incrément n'est perdu
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d.uuid FROM DealJpa d WHERE d.uuid IN :dealUuids ORDER BY d.uuid")
+    List<UUID> verrouillerPourReconciliation(@Param("dealUuids") Collection<UUID> dealUuids);
+
+    /**
+     * Recalcule les compteurs d'un lot de deals depuis deal_participants et commentaire,
+     * uniquement pour les lignes qui ont dérivé.
+     * Sous-requêtes corrélées (SQL standard) : même requête sous PostgreSQL et sous H2 en test
+     * @return nombre de deals corrigés
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE deal d
+               SET nb_participants_reels = (SELECT COUNT(*) FROM deal_participants p WHERE p.deal_uuid = d.uuid),
+                   parts_achetees = (SELECT COALESCE(SUM(p.nombre_de_part), 0) FROM deal_participants p WHERE p.deal_uuid = d.uuid),
+                   nb_avis = (SELECT COUNT(*) FROM commentaire c WHERE c.deal_uuid = d.uuid),
+                   somme_notes = (SELECT COALESCE(SUM(c.note), 0) FROM commentaire c WHERE c.deal_uuid = d.uuid)
+             WHERE d.uuid IN (:dealUuids)
+               AND (d.nb_participants_reels <> (SELECT COUNT(*) FROM deal_participants p WHERE p.deal_uuid = d.uuid)
+                    OR d.parts_achetees <> (SELECT COALESCE(SUM(p.nombre_de_part), 0) FROM deal_participants p WHERE p.deal_uuid = d.uuid)
+                    OR d.nb_avis <> (SELECT COUNT(*) FROM commentaire c WHERE c.deal_uuid = d.uuid)
+                    OR d.somme_notes <> (SELECT COALESCE(SUM(c.note), 0) FROM commentaire c WHERE c.deal_uuid = d.uuid))
+            """, nativeQuery = true)
+    int reconcilierCompteurs(@Param("dealUuids") Collection<UUID> dealUuids);
 }